@@ -112,6 +112,9 @@ public final class API {
     public static final String USER_ACCOUNT_ENDPOINT = "/useraccount";
 
     public static final String QUIZ_DISCOVERY_ENDPOINT = "/quiz";
+    /** Response header of the quiz discovery that lists the model identifiers of the LMS setups
+     * that did not respond in time or responded with an error */
+    public static final String QUIZ_DISCOVERY_UNAVAILABLE_LMS_SETUPS_HEADER = "SEB-Server-Unavailable-LMS-Setups";
 
     public static final String EXAM_ADMINISTRATION_ENDPOINT = "/exam";
     public static final String EXAM_ADMINISTRATION_DOWNLOAD_CONFIG_PATH_SEGMENT = "/download-config";
@@ -156,7 +159,9 @@ public final class API {
     public static final String EXAM_MONITORING_DISABLE_CONNECTION_ENDPOINT = "/disable-connection";
     public static final String EXAM_MONITORING_SEB_CONNECTION_TOKEN_PATH_SEGMENT =
             "/{" + EXAM_API_SEB_CONNECTION_TOKEN + "}";
+    public static final String EXAM_MONITORING_STREAM_PATH_SEGMENT = "/stream";
     public static final String EXAM_MONITORING_STATE_FILTER = "hidden-states";
+    public static final String EXAM_MONITORING_SINCE_VERSION = "since";
 
     public static final String SEB_CLIENT_CONNECTION_ENDPOINT = "/seb-client-connection";
 
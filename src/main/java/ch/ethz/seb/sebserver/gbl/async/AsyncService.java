@@ -10,18 +10,27 @@ package ch.ethz.seb.sebserver.gbl.async;
 
 import java.util.function.Supplier;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
 @Lazy
 @Service
 /** Implements a asynchronous service to manly support  CircuitBreaker and MemoizingCircuitBreaker functionality. */
 public class AsyncService {
 
     private final AsyncRunner asyncRunner;
+    private final MeterRegistry meterRegistry;
+
+    protected AsyncService(
+            final AsyncRunner asyncRunner,
+            final ObjectProvider<MeterRegistry> meterRegistry) {
 
-    protected AsyncService(final AsyncRunner asyncRunner) {
         this.asyncRunner = asyncRunner;
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
     }
 
     /** Create a CircuitBreaker of specified type with the default parameter defined in the CircuitBreaker class
@@ -80,4 +89,41 @@ public class AsyncService {
                 maxMemoizingTime);
     }
 
+    /** Create a MemoizingCircuitBreaker of specified type in stale-while-revalidate mode.
+     *  A memoized result is responded without calling the blocking supplier as long as it is not older than
+     *  refreshAfter. An older memoized result is still responded immediately but triggers a single asynchronous
+     *  refresh. A memoized result that is older than maxMemoizingTime is not used anymore and the blocking supplier
+     *  is called synchronously. The time of the calls on the blocking supplier is recorded with the given name.
+     *
+     * @param name the name of the MemoizingCircuitBreaker used to tag the refresh timings
+     * @param blockingSupplier the blocking result supplier that the MemoizingCircuitBreaker must call
+     * @param maxFailingAttempts maximal number of attempts the CircuitBreaker allows before going onto open state.
+     * @param maxBlockingTime maximal time since call CircuitBreaker waits for a response before going onto open state.
+     * @param timeToRecover the time the CircuitBreaker takes to recover form open state.
+     * @param refreshAfter the time after a memoized result is refreshed asynchronously (soft TTL)
+     * @param maxMemoizingTime the maximal time memorized data is valid (hard TTL)
+     * @param <T> the type of the CircuitBreaker
+     * @return  a CircuitBreaker of specified type */
+    public <T> MemoizingCircuitBreaker<T> createMemoizingCircuitBreaker(
+            final String name,
+            final Supplier<T> blockingSupplier,
+            final int maxFailingAttempts,
+            final long maxBlockingTime,
+            final long timeToRecover,
+            final long refreshAfter,
+            final long maxMemoizingTime) {
+
+        return new MemoizingCircuitBreaker<>(
+                this.asyncRunner,
+                this.meterRegistry,
+                name,
+                blockingSupplier,
+                maxFailingAttempts,
+                maxBlockingTime,
+                timeToRecover,
+                true,
+                refreshAfter,
+                maxMemoizingTime);
+    }
+
 }
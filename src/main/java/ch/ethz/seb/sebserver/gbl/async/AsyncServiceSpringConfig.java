@@ -9,6 +9,7 @@
 package ch.ethz.seb.sebserver.gbl.async;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.context.annotation.Bean;
@@ -51,6 +52,88 @@ public class AsyncServiceSpringConfig implements AsyncConfigurer {
         return executor;
     }
 
+    public static final String EXAM_CACHE_PREWARM_EXECUTOR_BEAN_NAME = "ExamCachePrewarmExecutorBean";
+
+    /** Executor for the pre-warming of exam session caches. Bounds the parallelism of pre-warming
+     * to not compete with the SEB client requests of already running exams */
+    @Bean(name = EXAM_CACHE_PREWARM_EXECUTOR_BEAN_NAME)
+    public Executor examCachePrewarmThreadPoolTaskExecutor() {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("examCachePrewarm-");
+        executor.initialize();
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    public static final String LMS_FETCH_EXECUTOR_BEAN_NAME = "LmsFetchExecutorBean";
+
+    /** Executor for the concurrent requests to the LMS APIs of different LMS setups. LMS requests are
+     * I/O bound and mostly waiting for the LMS, therefore this is separated from the general async executor */
+    @Bean(name = LMS_FETCH_EXECUTOR_BEAN_NAME)
+    public Executor lmsFetchThreadPoolTaskExecutor() {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(10);
+        executor.setMaxPoolSize(10);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("lmsFetch-");
+        executor.initialize();
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    public static final String QUIZ_INDEX_SYNC_EXECUTOR_BEAN_NAME = "QuizIndexSyncExecutorBean";
+
+    /** Executor for the synchronization of the quiz index with the LMS. A synchronization can take long for
+     * big LMS and runs on this single thread so that it does not block the shared scheduler thread of the
+     * other scheduled background tasks */
+    @Bean(name = QUIZ_INDEX_SYNC_EXECUTOR_BEAN_NAME)
+    public Executor quizIndexSyncThreadPoolTaskExecutor() {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("quizIndexSync-");
+        executor.initialize();
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    public static final String CONFIG_KEY_EXECUTOR_BEAN_NAME = "ConfigKeyExecutorBean";
+
+    /** Executor for the parallel Config-Key generation of the configurations of an exam. Separated from the
+     * general async executor and bounded. If the queue is full, a Config-Key is generated in the calling thread */
+    @Bean(name = CONFIG_KEY_EXECUTOR_BEAN_NAME)
+    public Executor configKeyThreadPoolTaskExecutor() {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("configKey-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    public static final String MONITORING_STREAM_EXECUTOR_BEAN_NAME = "MonitoringStreamExecutorBean";
+
+    /** Executor for sending the monitoring stream updates to the subscribers. Sending blocks on slow clients,
+     * therefore this is bounded and separated from the scheduler thread that computes the updates */
+    @Bean(name = MONITORING_STREAM_EXECUTOR_BEAN_NAME)
+    public Executor monitoringStreamThreadPoolTaskExecutor() {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(10);
+        executor.setMaxPoolSize(10);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("monitoringStream-");
+        executor.initialize();
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
     @Override
     public Executor getAsyncExecutor() {
         return threadPoolTaskExecutor();
@@ -8,6 +8,9 @@
 
 package ch.ethz.seb.sebserver.gbl.async;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
@@ -15,6 +18,8 @@ import org.slf4j.LoggerFactory;
 
 import ch.ethz.seb.sebserver.gbl.async.CircuitBreaker.State;
 import ch.ethz.seb.sebserver.gbl.util.Result;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /** A circuit breaker with three states (CLOSED, HALF_OPEN, OPEN) and memoizing functionality
  * that wraps and safe a Supplier function of the same type.
@@ -41,22 +46,37 @@ import ch.ethz.seb.sebserver.gbl.util.Result;
  * <p>
  * This circuit breaker implementation comes with a memoizing functionality where on successful calls the result get
  * cached and the circuit breaker respond on error cases with the cached result if available.
+ * <p>
+ * With a refreshAfter time (soft TTL) the memoizing circuit breaker works in stale-while-revalidate mode.
+ * Within the refreshAfter time, the cached result is responded without calling the supplier. After the
+ * refreshAfter time, the cached result is still responded immediately and a single asynchronous refresh of the
+ * cached result is triggered. Calls that come in while a refresh is running do not trigger another refresh.
+ * After the maxMemoizingTime (hard TTL), the supplier is called synchronously again. Concurrent calls share a
+ * single call of the supplier and wait for its result, also with a running asynchronous refresh.
  *
  *
  * @param <T> The of the result of the supplying function */
 public final class MemoizingCircuitBreaker<T> implements Supplier<Result<T>> {
 
-    // TODO considering invalidation time for memoizing
-
     private static final Logger log = LoggerFactory.getLogger(MemoizingCircuitBreaker.class);
 
+    public static final String METRIC_REFRESH_LATENCY = "sebserver.memoizing.refresh";
+    private static final String METRIC_TAG_NAME = "name";
+    private static final String METRIC_TAG_RESULT = "result";
+
+    private final AsyncRunner asyncRunner;
     private final CircuitBreaker<T> delegate;
     private final Supplier<T> supplier;
 
     private final boolean memoizing;
     private final long maxMemoizingTime;
-    private long lastMemoizingTime = 0;
-    private Result<T> cached = null;
+    private final long refreshAfter;
+    /** The running call of the supplier that concurrent calls share or null if there is none running */
+    private final AtomicReference<CompletableFuture<Result<T>>> runningCall = new AtomicReference<>();
+    private final Timer refreshTimer;
+    private final Timer refreshErrorTimer;
+    private volatile long lastMemoizingTime = 0;
+    private volatile Result<T> cached = null;
 
     /** Create new CircuitBreakerSupplier.
      *
@@ -70,10 +90,14 @@ public final class MemoizingCircuitBreaker<T> implements Supplier<Result<T>> {
             final boolean memoizing,
             final long maxMemoizingTime) {
 
+        this.asyncRunner = asyncRunner;
         this.delegate = new CircuitBreaker<>(asyncRunner);
         this.supplier = supplier;
         this.memoizing = memoizing;
         this.maxMemoizingTime = maxMemoizingTime;
+        this.refreshAfter = 0;
+        this.refreshTimer = null;
+        this.refreshErrorTimer = null;
     }
 
     public CircuitBreaker<T> getDelegate() {
@@ -92,6 +116,14 @@ public final class MemoizingCircuitBreaker<T> implements Supplier<Result<T>> {
         return this.lastMemoizingTime;
     }
 
+    public long getRefreshAfter() {
+        return this.refreshAfter;
+    }
+
+    public boolean isRefreshing() {
+        return this.runningCall.get() != null;
+    }
+
     /** Create new CircuitBreakerSupplier.
      *
      * @param asyncRunner the AsyncRunner used to create asynchronous calls on the given supplier function
@@ -111,6 +143,46 @@ public final class MemoizingCircuitBreaker<T> implements Supplier<Result<T>> {
             final boolean memoizing,
             final long maxMemoizingTime) {
 
+        this(
+                asyncRunner,
+                null,
+                null,
+                supplier,
+                maxFailingAttempts,
+                maxBlockingTime,
+                timeToRecover,
+                memoizing,
+                0,
+                maxMemoizingTime);
+    }
+
+    /** Create new CircuitBreakerSupplier with optional stale-while-revalidate mode and refresh instrumentation.
+     *
+     * @param asyncRunner the AsyncRunner used to create asynchronous calls on the given supplier function
+     * @param meterRegistry the MeterRegistry to record the refresh timings or null for no instrumentation
+     * @param name the name of the circuit breaker that tags the refresh timings
+     * @param supplier The Supplier function that can fail or block for a long time
+     * @param maxFailingAttempts the number of maximal failing attempts before go form CLOSE into HALF_OPEN state
+     * @param maxBlockingTime the maximal time that an call attempt can block until an error is responded
+     * @param timeToRecover the time the circuit breaker needs to cool-down on OPEN-STATE before going back to HALF_OPEN
+     *            state
+     * @param memoizing whether the memoizing functionality is on or off
+     * @param refreshAfter the time after the memorized data is refreshed asynchronously (soft TTL).
+     *            0 or less for no stale-while-revalidate mode
+     * @param maxMemoizingTime the maximal time memorized data is valid (hard TTL) */
+    MemoizingCircuitBreaker(
+            final AsyncRunner asyncRunner,
+            final MeterRegistry meterRegistry,
+            final String name,
+            final Supplier<T> supplier,
+            final int maxFailingAttempts,
+            final long maxBlockingTime,
+            final long timeToRecover,
+            final boolean memoizing,
+            final long refreshAfter,
+            final long maxMemoizingTime) {
+
+        this.asyncRunner = asyncRunner;
         this.delegate = new CircuitBreaker<>(
                 asyncRunner,
                 maxFailingAttempts,
@@ -119,11 +191,101 @@ public final class MemoizingCircuitBreaker<T> implements Supplier<Result<T>> {
         this.supplier = supplier;
         this.memoizing = memoizing;
         this.maxMemoizingTime = maxMemoizingTime;
+        this.refreshAfter = refreshAfter;
+
+        if (meterRegistry != null) {
+            this.refreshTimer = Timer.builder(METRIC_REFRESH_LATENCY)
+                    .description("Time to call the supplier of a memoizing circuit breaker")
+                    .tag(METRIC_TAG_NAME, String.valueOf(name))
+                    .tag(METRIC_TAG_RESULT, "success")
+                    .register(meterRegistry);
+            this.refreshErrorTimer = Timer.builder(METRIC_REFRESH_LATENCY)
+                    .description("Time to call the supplier of a memoizing circuit breaker")
+                    .tag(METRIC_TAG_NAME, String.valueOf(name))
+                    .tag(METRIC_TAG_RESULT, "error")
+                    .register(meterRegistry);
+        } else {
+            this.refreshTimer = null;
+            this.refreshErrorTimer = null;
+        }
     }
 
     @Override
     public Result<T> get() {
+        if (this.memoizing && this.refreshAfter > 0) {
+            final Result<T> cached = this.cached;
+            final long age = System.currentTimeMillis() - this.lastMemoizingTime;
+            if (cached != null && age <= this.maxMemoizingTime) {
+                if (age > this.refreshAfter) {
+                    refreshAsync();
+                }
+                return cached;
+            }
+
+            return sharedCall();
+        }
+
+        return call();
+    }
+
+    /** Triggers an asynchronous refresh of the memorized data if there is no call running already */
+    private void refreshAsync() {
+        final CompletableFuture<Result<T>> refresh = new CompletableFuture<>();
+        if (!this.runningCall.compareAndSet(null, refresh)) {
+            return;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Refresh memoized result asynchronously at: {}", System.currentTimeMillis());
+        }
+
+        try {
+            this.asyncRunner.runAsync(() -> {
+                completeCall(refresh);
+            });
+        } catch (final Exception e) {
+            log.warn("Failed to trigger asynchronous refresh of memoized result: {}", e.getMessage());
+            refresh.complete(Result.ofError(e));
+            this.runningCall.compareAndSet(refresh, null);
+        }
+    }
+
+    /** Calls the supplier synchronously if there is no call running already. Otherwise waits for the result
+     * of the running call */
+    private Result<T> sharedCall() {
+        final CompletableFuture<Result<T>> call = new CompletableFuture<>();
+        while (!this.runningCall.compareAndSet(null, call)) {
+            final CompletableFuture<Result<T>> running = this.runningCall.get();
+            if (running != null) {
+                return running.join();
+            }
+        }
+
+        return completeCall(call);
+    }
+
+    private Result<T> completeCall(final CompletableFuture<Result<T>> runningCall) {
+        try {
+            final Result<T> result = call();
+            runningCall.complete(result);
+            return result;
+        } catch (final Exception e) {
+            final Result<T> error = Result.ofError(e);
+            runningCall.complete(error);
+            return error;
+        } finally {
+            this.runningCall.compareAndSet(runningCall, null);
+        }
+    }
+
+    private Result<T> call() {
+        final long startTime = System.nanoTime();
         final Result<T> result = this.delegate.protectedRun(this.supplier);
+        if (this.refreshTimer != null) {
+            ((result.hasError()) ? this.refreshErrorTimer : this.refreshTimer)
+                    .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+
         if (result.hasError()) {
             if (this.memoizing && this.cached != null) {
                 final long currentTimeMillis = System.currentTimeMillis();
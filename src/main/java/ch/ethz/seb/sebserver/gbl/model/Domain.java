@@ -109,6 +109,9 @@ public interface Domain {
         String ATTR_UPDATING = "updating";
         String ATTR_LASTUPDATE = "lastupdate";
         String ATTR_ACTIVE = "active";
+        String ATTR_QUIZ_NAME = "quizName";
+        String ATTR_QUIZ_START_TIME = "quizStartTime";
+        String ATTR_QUIZ_END_TIME = "quizEndTime";
     }
 
     interface CLIENT_CONNECTION {
@@ -56,6 +56,7 @@ public final class Exam implements GrantEntity {
     public static final String FILTER_ATTR_TYPE = "type";
     public static final String FILTER_ATTR_STATUS = "status";
     public static final String FILTER_CACHED_QUIZZES = "cached-quizzes";
+    public static final String FILTER_ATTR_OWNER_OR_SUPPORTER = "owner-or-supporter";
 
     public enum ExamStatus {
         UP_COMING,
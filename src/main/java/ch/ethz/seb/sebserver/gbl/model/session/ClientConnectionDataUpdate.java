@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.gbl.model.session;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+
+/** An update of the client connection data of a running exam.
+ *
+ * A full update (snapshot) contains the data of all client connections of the exam. Any other update only
+ * contains the data of the client connections that have changed and the identifiers of the client connections
+ * that have been removed since the last update, as well as the current indicator values of all other client
+ * connections. The indicator values of an unchanged client connection can still differ from the last update
+ * since the last ping time changes on every ping without changing the client connection.
+ *
+ * The version is the change version of the client connection data of the exam the update is based on
+ * and can be used to request the next update. It is null if the update is not based on a change version. */
+public final class ClientConnectionDataUpdate {
+
+    public static final String ATTR_EXAM_ID = "examId";
+    public static final String ATTR_VERSION = "version";
+    public static final String ATTR_FULL = "full";
+    public static final String ATTR_CHANGED = "changed";
+    public static final String ATTR_REMOVED = "removed";
+    public static final String ATTR_INDICATOR_VALUES = "indicatorValues";
+
+    @JsonProperty(ATTR_EXAM_ID)
+    public final Long examId;
+    @JsonProperty(ATTR_VERSION)
+    public final Long version;
+    @JsonProperty(ATTR_FULL)
+    public final boolean full;
+    @JsonProperty(ATTR_CHANGED)
+    public final Collection<ClientConnectionData> changed;
+    @JsonProperty(ATTR_REMOVED)
+    public final Collection<Long> removed;
+    /** The current indicator values of the client connections that are neither changed nor removed
+     * (connectionId -> indicator values) */
+    @JsonProperty(ATTR_INDICATOR_VALUES)
+    public final Map<Long, List<SimpleIndicatorValue>> indicatorValues;
+
+    @JsonCreator
+    public ClientConnectionDataUpdate(
+            @JsonProperty(ATTR_EXAM_ID) final Long examId,
+            @JsonProperty(ATTR_VERSION) final Long version,
+            @JsonProperty(ATTR_FULL) final boolean full,
+            @JsonProperty(ATTR_CHANGED) final Collection<ClientConnectionData> changed,
+            @JsonProperty(ATTR_REMOVED) final Collection<Long> removed,
+            @JsonProperty(ATTR_INDICATOR_VALUES) final Map<Long, List<SimpleIndicatorValue>> indicatorValues) {
+
+        this.examId = examId;
+        this.version = version;
+        this.full = full;
+        this.changed = Utils.immutableCollectionOf(changed);
+        this.removed = Utils.immutableCollectionOf(removed);
+        this.indicatorValues = Utils.immutableMapOf(indicatorValues);
+    }
+
+    public ClientConnectionDataUpdate(
+            final Long examId,
+            final Long version,
+            final boolean full,
+            final Collection<ClientConnectionData> changed,
+            final Collection<Long> removed) {
+
+        this(examId, version, full, changed, removed, null);
+    }
+
+    public Long getExamId() {
+        return this.examId;
+    }
+
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public boolean isFull() {
+        return this.full;
+    }
+
+    public Collection<ClientConnectionData> getChanged() {
+        return this.changed;
+    }
+
+    public Collection<Long> getRemoved() {
+        return this.removed;
+    }
+
+    public Map<Long, List<SimpleIndicatorValue>> getIndicatorValues() {
+        return this.indicatorValues;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("ClientConnectionDataUpdate [examId=");
+        builder.append(this.examId);
+        builder.append(", version=");
+        builder.append(this.version);
+        builder.append(", full=");
+        builder.append(this.full);
+        builder.append(", changed=");
+        builder.append(this.changed.size());
+        builder.append(", removed=");
+        builder.append(this.removed);
+        builder.append(", indicatorValues=");
+        builder.append(this.indicatorValues.size());
+        builder.append("]");
+        return builder.toString();
+    }
+
+}
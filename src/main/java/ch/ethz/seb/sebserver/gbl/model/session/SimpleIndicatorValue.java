@@ -32,6 +32,14 @@ public final class SimpleIndicatorValue implements IndicatorValue {
         this.value = value;
     }
 
+    /** Creates an immutable copy of the current value of the given IndicatorValue
+     *
+     * @param indicatorValue the IndicatorValue
+     * @return SimpleIndicatorValue with the type and the current value of the given IndicatorValue */
+    public static SimpleIndicatorValue of(final IndicatorValue indicatorValue) {
+        return new SimpleIndicatorValue(indicatorValue.getType(), indicatorValue.getValue());
+    }
+
     @Override
     public IndicatorType getType() {
         return this.type;
@@ -8,14 +8,28 @@
 
 package ch.ethz.seb.sebserver.gbl.util;
 
+import java.util.concurrent.TimeUnit;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.core.env.Environment;
 import org.springframework.security.crypto.encrypt.Encryptors;
+import org.springframework.security.crypto.encrypt.TextEncryptor;
 import org.springframework.security.crypto.keygen.KeyGenerators;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/** Encrypts and decrypts text with a secret by using a TextEncryptor of Encryptors.delux
+ * (256-bit AES in GCM mode with a PBKDF2 derived key). A cipher is the hex encoded encrypted text
+ * followed by the hex encoded salt of 16 characters that was used for the key derivation.
+ *
+ * Since the key derivation is expensive, the TextEncryptor of a secret and salt that has been used for a
+ * decryption is kept in a bounded cache, since the same stored ciphers are decrypted again and again.
+ * The salt of every cipher is generated on encryption, so the encryption derives its key without the cache. */
 @Lazy
 @Service
 public class Cryptor {
@@ -24,6 +38,17 @@ public class Cryptor {
 
     public static final String SEBSERVER_WEBSERVICE_INTERNAL_SECRET_KEY = "sebserver.webservice.internalSecret";
 
+    private static final int SALT_LENGTH = 16;
+    private static final long MAX_CACHED_ENCRYPTORS = 1000;
+    private static final long CACHED_ENCRYPTORS_EXPIRE_MINUTES = 60;
+
+    /** TextEncryptors with derived key for decryption, mapped by salt followed by secret */
+    private static final Cache<String, TextEncryptor> DECRYPTORS = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_ENCRYPTORS)
+            .expireAfterAccess(CACHED_ENCRYPTORS_EXPIRE_MINUTES, TimeUnit.MINUTES)
+            .recordStats()
+            .build();
+
     private final Environment environment;
 
     public Cryptor(final Environment environment) {
@@ -58,12 +83,12 @@ public class Cryptor {
 
         try {
 
-            final CharSequence salt = KeyGenerators.string().generateKey();
-            final CharSequence cipher = Encryptors
-                    .delux(secret, salt)
+            final String salt = KeyGenerators.string().generateKey();
+            final String cipher = Encryptors.delux(secret, salt)
                     .encrypt(text.toString());
 
-            return new StringBuilder(cipher)
+            return new StringBuilder(cipher.length() + SALT_LENGTH)
+                    .append(cipher)
                     .append(salt);
 
         } catch (final Exception e) {
@@ -84,18 +109,31 @@ public class Cryptor {
 
         try {
 
-            final int length = cipher.length();
-            final int cipherTextLength = length - 16;
-            final CharSequence salt = cipher.subSequence(cipherTextLength, length);
-            final CharSequence cipherText = cipher.subSequence(0, cipherTextLength);
+            final String cipherString = cipher.toString();
+            final int cipherTextLength = cipherString.length() - SALT_LENGTH;
+            final String salt = cipherString.substring(cipherTextLength);
 
-            return Encryptors
-                    .delux(secret, salt)
-                    .decrypt(cipherText.toString());
+            return getDecryptor(secret, salt)
+                    .decrypt(cipherString.substring(0, cipherTextLength));
 
         } catch (final Exception e) {
             log.error("Failed to decrypt text: ", e);
             throw e;
         }
     }
+
+    /** Get the statistics of the cached TextEncryptors that are used for decryption */
+    static CacheStats decryptorCacheStats() {
+        return DECRYPTORS.stats();
+    }
+
+    private static TextEncryptor getDecryptor(final CharSequence secret, final String salt) {
+        return DECRYPTORS.get(
+                new StringBuilder(SALT_LENGTH + secret.length())
+                        .append(salt)
+                        .append(secret)
+                        .toString(),
+                key -> Encryptors.delux(secret, salt));
+    }
+
 }
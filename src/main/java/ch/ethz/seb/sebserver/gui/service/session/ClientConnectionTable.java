@@ -52,13 +52,15 @@ import ch.ethz.seb.sebserver.gbl.model.exam.Indicator.IndicatorType;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection.ConnectionStatus;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionData;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionDataUpdate;
 import ch.ethz.seb.sebserver.gbl.model.session.IndicatorValue;
 import ch.ethz.seb.sebserver.gbl.util.Tuple;
 import ch.ethz.seb.sebserver.gui.service.ResourceService;
 import ch.ethz.seb.sebserver.gui.service.i18n.LocTextKey;
 import ch.ethz.seb.sebserver.gui.service.page.PageService;
 import ch.ethz.seb.sebserver.gui.service.page.impl.PageAction;
-import ch.ethz.seb.sebserver.gui.service.remote.webservice.api.RestCall;
+import ch.ethz.seb.sebserver.gui.service.remote.webservice.api.RestService;
+import ch.ethz.seb.sebserver.gui.service.remote.webservice.api.session.GetClientConnectionDataUpdate;
 import ch.ethz.seb.sebserver.gui.service.session.IndicatorData.ThresholdColor;
 import ch.ethz.seb.sebserver.gui.widget.WidgetFactory;
 
@@ -69,6 +71,9 @@ public final class ClientConnectionTable {
     private static final int BOTTOM_PADDING = 20;
     private static final int NUMBER_OF_NONE_INDICATOR_COLUMNS = 3;
     private static final String USER_SESSION_STATUS_FILTER_ATTRIBUTE = "USER_SESSION_STATUS_FILTER_ATTRIBUTE";
+    /** The number of delta updates after which a full update is requested. The client connections that are
+     * created on other webservice instances are only refreshed with a full update */
+    private static final int FULL_UPDATE_CYCLES = 10;
 
     private static final String INDICATOR_NAME_TEXT_KEY_PREFIX =
             "sebserver.exam.indicator.type.description.";
@@ -88,13 +93,15 @@ public final class ClientConnectionTable {
     private final WidgetFactory widgetFactory;
     private final ResourceService resourceService;
     private final Exam exam;
-    private final RestCall<Collection<ClientConnectionData>>.RestCallBuilder restCallBuilder;
+    private final RestService restService;
     private final EnumMap<IndicatorType, IndicatorData> indicatorMapping;
     private final Table table;
     private final ColorData colorData;
     private final EnumSet<ConnectionStatus> statusFilter;
     private String statusFilterParam = "";
     private boolean statusFilterChanged = false;
+    private long version = 0;
+    private int updateCycle = 0;
     private Consumer<Set<EntityKey>> selectionListener;
 
     private int tableWidth;
@@ -110,13 +117,12 @@ public final class ClientConnectionTable {
             final PageService pageService,
             final Composite tableRoot,
             final Exam exam,
-            final Collection<Indicator> indicators,
-            final RestCall<Collection<ClientConnectionData>>.RestCallBuilder restCallBuilder) {
+            final Collection<Indicator> indicators) {
 
         this.widgetFactory = pageService.getWidgetFactory();
         this.resourceService = pageService.getResourceService();
         this.exam = exam;
-        this.restCallBuilder = restCallBuilder;
+        this.restService = pageService.getRestService();
 
         final Display display = tableRoot.getDisplay();
         this.colorData = new ColorData(display);
@@ -290,37 +296,74 @@ public final class ClientConnectionTable {
     }
 
     public void updateValues() {
-        if (this.statusFilterChanged) {
-            this.toDelete.clear();
-            this.toDelete.addAll(this.tableMapping.keySet());
-        }
-        this.restCallBuilder
+        final boolean fullUpdate = this.statusFilterChanged || this.updateCycle >= FULL_UPDATE_CYCLES;
+        final ClientConnectionDataUpdate update = this.restService
+                .getBuilder(GetClientConnectionDataUpdate.class)
+                .withURIVariable(API.PARAM_MODEL_ID, this.exam.getModelId())
+                .withQueryParam(
+                        API.EXAM_MONITORING_SINCE_VERSION,
+                        (fullUpdate) ? "0" : String.valueOf(this.version))
                 .withHeader(API.EXAM_MONITORING_STATE_FILTER, this.statusFilterParam)
                 .call()
                 .get(error -> {
                     log.error("Error poll connection data: ", error);
-                    return Collections.emptyList();
-                })
-                .forEach(data -> {
-                    final UpdatableTableItem tableItem = this.tableMapping.computeIfAbsent(
-                            data.getConnectionId(),
-                            UpdatableTableItem::new);
-                    tableItem.push(data);
-                    if (this.statusFilterChanged) {
-                        this.toDelete.remove(data.getConnectionId());
-                    }
+                    return null;
                 });
 
-        if (this.statusFilterChanged && !this.toDelete.isEmpty()) {
-            this.toDelete.forEach(id -> {
-                final UpdatableTableItem item = this.tableMapping.remove(id);
-                final List<Long> list = this.sessionIds.get(item.connectionData.clientConnection.userSessionId);
-                if (list != null) {
-                    list.remove(id);
-                }
-            });
+        if (update == null) {
+            return;
+        }
+
+        if (update.full) {
+            this.toDelete.clear();
+            this.toDelete.addAll(this.tableMapping.keySet());
+        }
+
+        update.changed.forEach(data -> {
+            final UpdatableTableItem tableItem = this.tableMapping.computeIfAbsent(
+                    data.getConnectionId(),
+                    UpdatableTableItem::new);
+            tableItem.push(data);
+            if (update.full) {
+                this.toDelete.remove(data.getConnectionId());
+            }
+        });
+
+        update.indicatorValues.forEach((connectionId, indicatorValues) -> {
+            final UpdatableTableItem tableItem = this.tableMapping.get(connectionId);
+            if (tableItem != null && tableItem.connectionData != null) {
+                tableItem.push(new ClientConnectionData(
+                        tableItem.connectionData.getMissingPing(),
+                        tableItem.connectionData.clientConnection,
+                        indicatorValues));
+            }
+        });
+
+        if (update.full) {
+            this.toDelete.forEach(this::removeItem);
+            this.toDelete.clear();
             this.statusFilterChanged = false;
+            this.updateCycle = 0;
+        } else {
+            this.updateCycle++;
+        }
+
+        update.removed.forEach(this::removeItem);
+        this.version = update.version;
+    }
+
+    private void removeItem(final Long connectionId) {
+        final UpdatableTableItem item = this.tableMapping.remove(connectionId);
+        if (item == null) {
+            return;
+        }
+
+        final List<Long> list = this.sessionIds.get(item.connectionData.clientConnection.userSessionId);
+        if (list != null) {
+            list.remove(connectionId);
         }
+        // the remaining items are shifted within the table and have to be updated
+        this.needsSort = true;
     }
 
     public void updateGUI() {
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientConnectionDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.IndicatorDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ClientConfigService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ExamConfigService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ClientConnectionDataInternal;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ExamSessionCacheService;
+import ch.ethz.seb.sebserver.webservice.weblayer.oauth.CachableJdbcTokenStore;
+
+/** Defines the CacheManager of the webservice.
+ *
+ * Each known cache is a bounded Caffeine cache with its own maximum size, time-to-live (expireAfterWrite) and
+ * time-to-idle (expireAfterAccess) that is defined by a Caffeine specification within the property
+ * "sebserver.webservice.cache.[cache-name].spec", for example:
+ *
+ * sebserver.webservice.cache.RUNNING_EXAM.spec=maximumSize=1000,expireAfterAccess=1h
+ *
+ * All caches record statistics that are exported as "cache.*" metrics of the metrics actuator endpoint.
+ * A single cache can be inspected and flushed with the caches actuator endpoint. */
+@Configuration
+@WebServiceProfile
+public class WebserviceCacheConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(WebserviceCacheConfig.class);
+
+    public static final String CACHE_SPEC_PROPERTY_PREFIX = "sebserver.webservice.cache.";
+    public static final String CACHE_SPEC_PROPERTY_SUFFIX = ".spec";
+    public static final String DEFAULT_CACHE_SPEC_NAME = "default";
+
+    private static final String RECORD_STATS = "recordStats";
+
+    /** The caches of the webservice that are created on startup and so are bound to the cache metrics */
+    private static final List<String> KNOWN_CACHES = Arrays.asList(
+            ExamSessionCacheService.CACHE_NAME_RUNNING_EXAM,
+            ExamSessionCacheService.CACHE_NAME_ACTIVE_CLIENT_CONNECTION,
+            ExamSessionCacheService.CACHE_NAME_SEB_CONFIG_EXAM,
+            ExamSessionCacheService.CACHE_NAME_PING_RECORD,
+            CachableJdbcTokenStore.CACHE_NAME,
+            ClientConnectionDAO.CONNECTION_TOKENS_CACHE,
+            ClientConfigService.EXAM_CLIENT_DETAILS_CACHE,
+            IndicatorDAO.EXAM_INDICATORS_CACHE,
+            ExamConfigService.CONFIG_KEY_CACHE);
+
+    @Bean
+    public CacheManager cacheManager(
+            final Environment environment,
+            final ObjectProvider<ExamSessionCacheService> examSessionCacheService) {
+
+        final String defaultSpec = environment.getProperty(
+                CACHE_SPEC_PROPERTY_PREFIX + DEFAULT_CACHE_SPEC_NAME + CACHE_SPEC_PROPERTY_SUFFIX,
+                StringUtils.EMPTY);
+
+        final SimpleCacheManager cacheManager = new SimpleCacheManager() {
+            @Override
+            protected Cache getMissingCache(final String name) {
+                log.warn("Create cache: {} that is not known by configuration with default specification", name);
+                return createCache(name, defaultSpec, null);
+            }
+        };
+
+        final Collection<Cache> caches = KNOWN_CACHES
+                .stream()
+                .map(name -> createCache(
+                        name,
+                        environment.getProperty(
+                                CACHE_SPEC_PROPERTY_PREFIX + name + CACHE_SPEC_PROPERTY_SUFFIX,
+                                defaultSpec),
+                        (ExamSessionCacheService.CACHE_NAME_ACTIVE_CLIENT_CONNECTION.equals(name))
+                                ? examSessionCacheService
+                                : null))
+                .collect(Collectors.toList());
+
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+
+    private static Cache createCache(
+            final String name,
+            final String spec,
+            final ObjectProvider<ExamSessionCacheService> examSessionCacheService) {
+
+        log.info("Create cache: {} with specification: {}", name, spec);
+
+        final Caffeine<Object, Object> builder = (StringUtils.isBlank(spec))
+                ? Caffeine.newBuilder()
+                : Caffeine.from(spec);
+        if (!spec.contains(RECORD_STATS)) {
+            builder.recordStats();
+        }
+
+        // A ClientConnectionDataInternal that is evicted by size or expiry must also be dropped from the
+        // index of active client connections. Explicit evictions are handled by the ExamSessionCacheService
+        if (examSessionCacheService != null) {
+            builder.removalListener((key, value, cause) -> {
+                if (cause.wasEvicted() && value instanceof ClientConnectionDataInternal) {
+                    examSessionCacheService.ifAvailable(service -> service
+                            .getActiveClientConnectionIndex()
+                            .evicted((ClientConnectionDataInternal) value));
+                }
+            });
+        }
+
+        return new CaffeineCache(name, builder.build());
+    }
+
+}
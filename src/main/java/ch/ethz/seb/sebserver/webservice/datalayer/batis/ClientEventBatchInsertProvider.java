@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.datalayer.batis;
+
+import java.util.Collection;
+import java.util.Map;
+
+/** MyBatis SQL provider that builds one multi-row INSERT statement for a batch of client events
+ * instead of one INSERT statement per client event. */
+public final class ClientEventBatchInsertProvider {
+
+    public static final String PARAM_RECORDS = "records";
+
+    private static final String INSERT_INTO =
+            "INSERT INTO client_event (client_connection_id, type, client_time, server_time, numeric_value, text) VALUES ";
+
+    private ClientEventBatchInsertProvider() {
+    }
+
+    public static String insertMultiple(final Map<String, Object> params) {
+        final int size = ((Collection<?>) params.get(PARAM_RECORDS)).size();
+        final StringBuilder sql = new StringBuilder(INSERT_INTO.length() + size * 320);
+        sql.append(INSERT_INTO);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append("(#{records[").append(i).append("].clientConnectionId,jdbcType=BIGINT},")
+                    .append("#{records[").append(i).append("].type,jdbcType=INTEGER},")
+                    .append("#{records[").append(i).append("].clientTime,jdbcType=BIGINT},")
+                    .append("#{records[").append(i).append("].serverTime,jdbcType=BIGINT},")
+                    .append("#{records[").append(i).append("].numericValue,jdbcType=DECIMAL},")
+                    .append("#{records[").append(i).append("].text,jdbcType=VARCHAR})");
+        }
+        return sql.toString();
+    }
+
+}
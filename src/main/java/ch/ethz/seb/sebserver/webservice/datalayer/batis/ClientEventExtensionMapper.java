@@ -10,11 +10,15 @@ package ch.ethz.seb.sebserver.webservice.datalayer.batis;
 
 import static org.mybatis.dynamic.sql.SqlBuilder.equalTo;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.apache.ibatis.annotations.Arg;
 import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.InsertProvider;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.SelectProvider;
 import org.apache.ibatis.type.JdbcType;
@@ -28,10 +32,38 @@ import org.mybatis.dynamic.sql.util.SqlProviderAdapter;
 
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientConnectionRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordDynamicSqlSupport;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
 
 @Mapper
 public interface ClientEventExtensionMapper {
 
+    /** Maximal number of rows of one multi-row INSERT statement created by insertBatch */
+    int MAX_ROWS_PER_INSERT = 500;
+
+    @InsertProvider(type = ClientEventBatchInsertProvider.class, method = "insertMultiple")
+    int insertMultiple(@Param(ClientEventBatchInsertProvider.PARAM_RECORDS) List<ClientEventRecord> records);
+
+    /** Inserts the given client events with multi-row INSERT statements of at most MAX_ROWS_PER_INSERT rows.
+     * The id of the given records is ignored and generated by the database.
+     *
+     * @param records the client events to insert
+     * @return the number of inserted rows */
+    default int insertBatch(final Collection<ClientEventRecord> records) {
+        if (records == null || records.isEmpty()) {
+            return 0;
+        }
+
+        final List<ClientEventRecord> all = (records instanceof List)
+                ? (List<ClientEventRecord>) records
+                : new ArrayList<>(records);
+
+        int inserted = 0;
+        for (int from = 0; from < all.size(); from += MAX_ROWS_PER_INSERT) {
+            inserted += insertMultiple(all.subList(from, Math.min(all.size(), from + MAX_ROWS_PER_INSERT)));
+        }
+        return inserted;
+    }
+
     @SelectProvider(type = SqlProviderAdapter.class, method = "select")
     Long num(SelectStatementProvider selectStatement);
 
@@ -45,6 +77,35 @@ public interface ClientEventExtensionMapper {
                 .from(ClientEventRecordDynamicSqlSupport.clientEventRecord);
     }
 
+    @SelectProvider(type = SqlProviderAdapter.class, method = "select")
+    @ResultType(ClientEventExtensionMapper.ClientEventCountRecord.class)
+    @ConstructorArgs({
+            @Arg(column = "client_connection_id", javaType = Long.class, jdbcType = JdbcType.BIGINT),
+            @Arg(column = "type", javaType = Integer.class, jdbcType = JdbcType.INTEGER),
+            @Arg(column = "event_count", javaType = Long.class, jdbcType = JdbcType.BIGINT)
+    })
+    Collection<ClientEventCountRecord> selectEventCounts(SelectStatementProvider select);
+
+    /** Selects the number of client events per client connection and event type. Use the where clause to
+     * restrict the events (e.g. by exam of the client connection) and group by client connection and type.
+     *
+     * @return the select DSL to build the event count query */
+    default QueryExpressionDSL<MyBatis3SelectModelAdapter<Collection<ClientEventCountRecord>>>.JoinSpecificationFinisher eventCountByExample() {
+        return SelectDSL.selectWithMapper(
+                this::selectEventCounts,
+
+                ClientEventRecordDynamicSqlSupport.clientConnectionId.as("client_connection_id"),
+                ClientEventRecordDynamicSqlSupport.type,
+                SqlBuilder.count().as("event_count"))
+
+                .from(ClientEventRecordDynamicSqlSupport.clientEventRecord)
+
+                .join(ClientConnectionRecordDynamicSqlSupport.clientConnectionRecord)
+                .on(
+                        ClientEventRecordDynamicSqlSupport.clientEventRecord.clientConnectionId,
+                        equalTo(ClientConnectionRecordDynamicSqlSupport.clientConnectionRecord.id));
+    }
+
     @SelectProvider(type = SqlProviderAdapter.class, method = "select")
     @ResultType(ClientEventExtensionMapper.ConnectionEventJoinRecord.class)
     @ConstructorArgs({
@@ -86,6 +147,23 @@ public interface ClientEventExtensionMapper {
                         equalTo(ClientConnectionRecordDynamicSqlSupport.clientConnectionRecord.id));
     }
 
+    final class ClientEventCountRecord {
+
+        public final Long client_connection_id;
+        public final Integer type;
+        public final Long event_count;
+
+        public ClientEventCountRecord(
+                final Long client_connection_id,
+                final Integer type,
+                final Long event_count) {
+
+            this.client_connection_id = client_connection_id;
+            this.type = type;
+            this.event_count = event_count;
+        }
+    }
+
     final class ConnectionEventJoinRecord {
 
         public final Long id;
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.datalayer.batis;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/** Maintenance of the optional range partitioning of the client_event table by server time
+ * (see config/sql/partition). The partitions are named p_yyyy_MM after the month of events they hold
+ * and the last partition p_max takes all events that are newer than the upper bound of the other partitions. */
+@Mapper
+public interface ClientEventPartitionMapper {
+
+    /** The name of the last partition that has no upper bound */
+    String MAX_PARTITION = "p_max";
+
+    /** Get the upper bounds of all partitions of the client_event table. The bound of the last partition
+     * is MAXVALUE. If the table is not partitioned, the list is empty.
+     *
+     * @return the upper bounds (server time in milliseconds, exclusive) of all partitions */
+    @Select("SELECT PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'client_event' AND PARTITION_NAME IS NOT NULL")
+    List<String> partitionBounds();
+
+    /** Adds a new partition by splitting it off the start of the last partition p_max.
+     *
+     * @param name the name of the new partition
+     * @param upperBound the upper bound (server time in milliseconds, exclusive) of the new partition */
+    @Update("ALTER TABLE `client_event` REORGANIZE PARTITION `" + MAX_PARTITION + "` INTO ("
+            + "PARTITION `${name}` VALUES LESS THAN (${upperBound}), "
+            + "PARTITION `" + MAX_PARTITION + "` VALUES LESS THAN MAXVALUE)")
+    void addPartition(@Param("name") String name, @Param("upperBound") long upperBound);
+
+}
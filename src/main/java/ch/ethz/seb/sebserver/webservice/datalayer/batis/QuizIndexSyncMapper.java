@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.datalayer.batis;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/** Synchronization state of the local quiz index per LMS setup (see table quiz_index_sync).
+ *
+ * The lock is a lease: it is held by the owner that has set it last and can be taken over by another
+ * owner after its lock time has expired. It is taken with plain conditional statements so that it works
+ * the same on MariaDB and on the in-memory test database. */
+@Mapper
+public interface QuizIndexSyncMapper {
+
+    /** Creates the synchronization state of an LMS setup with the lock held by the given owner.
+     * Fails with a duplicate key error if the synchronization state of the LMS setup already exists.
+     *
+     * @param lmsSetupId the LMS setup identifier
+     * @param owner the lock owner
+     * @param lockTime the current time in milliseconds
+     * @return the number of created rows */
+    @Insert("INSERT INTO quiz_index_sync (lms_setup_id, lock_owner, lock_time) "
+            + "VALUES (#{lmsSetupId}, #{owner}, #{lockTime})")
+    int insertLocked(
+            @Param("lmsSetupId") Long lmsSetupId,
+            @Param("owner") String owner,
+            @Param("lockTime") long lockTime);
+
+    /** Takes the lock of an LMS setup if it is free, already held by the given owner or expired.
+     *
+     * @param lmsSetupId the LMS setup identifier
+     * @param owner the lock owner
+     * @param lockTime the current time in milliseconds
+     * @param expiredBefore a lock that has been set before this time is expired
+     * @return 1 if the lock has been taken, 0 otherwise */
+    @Update("UPDATE quiz_index_sync SET lock_owner = #{owner}, lock_time = #{lockTime} "
+            + "WHERE lms_setup_id = #{lmsSetupId} "
+            + "AND (lock_owner IS NULL OR lock_owner = #{owner} OR lock_time < #{expiredBefore})")
+    int lock(
+            @Param("lmsSetupId") Long lmsSetupId,
+            @Param("owner") String owner,
+            @Param("lockTime") long lockTime,
+            @Param("expiredBefore") long expiredBefore);
+
+    /** Releases the lock of an LMS setup if it is held by the given owner.
+     *
+     * @param lmsSetupId the LMS setup identifier
+     * @param owner the lock owner
+     * @return 1 if the lock has been released, 0 otherwise */
+    @Update("UPDATE quiz_index_sync SET lock_owner = NULL "
+            + "WHERE lms_setup_id = #{lmsSetupId} AND lock_owner = #{owner}")
+    int unlock(@Param("lmsSetupId") Long lmsSetupId, @Param("owner") String owner);
+
+    /** Sets the time of the last synchronization of an LMS setup.
+     *
+     * @param lmsSetupId the LMS setup identifier
+     * @param updateTime the time of the synchronization in milliseconds
+     * @return the number of updated rows */
+    @Update("UPDATE quiz_index_sync SET update_time = #{updateTime} WHERE lms_setup_id = #{lmsSetupId}")
+    int setUpdateTime(@Param("lmsSetupId") Long lmsSetupId, @Param("updateTime") long updateTime);
+
+    /** Sets the time of the last synchronization and the last full synchronization of an LMS setup.
+     *
+     * @param lmsSetupId the LMS setup identifier
+     * @param updateTime the time of the full synchronization in milliseconds
+     * @return the number of updated rows */
+    @Update("UPDATE quiz_index_sync SET update_time = #{updateTime}, full_update_time = #{updateTime} "
+            + "WHERE lms_setup_id = #{lmsSetupId}")
+    int setFullUpdateTime(@Param("lmsSetupId") Long lmsSetupId, @Param("updateTime") long updateTime);
+
+    /** Creates the synchronization state of an LMS setup that has not been locked yet.
+     *
+     * @param lmsSetupId the LMS setup identifier
+     * @param updateTime the time of the synchronization in milliseconds
+     * @param fullUpdateTime the time of the full synchronization in milliseconds or null
+     * @return the number of created rows */
+    @Insert("INSERT INTO quiz_index_sync (lms_setup_id, update_time, full_update_time) "
+            + "VALUES (#{lmsSetupId}, #{updateTime}, #{fullUpdateTime,jdbcType=BIGINT})")
+    int insertUpdated(
+            @Param("lmsSetupId") Long lmsSetupId,
+            @Param("updateTime") long updateTime,
+            @Param("fullUpdateTime") Long fullUpdateTime);
+
+    /** Resets the synchronization times of an LMS setup. The lock is not touched.
+     *
+     * @param lmsSetupId the LMS setup identifier
+     * @return the number of updated rows */
+    @Update("UPDATE quiz_index_sync SET update_time = NULL, full_update_time = NULL "
+            + "WHERE lms_setup_id = #{lmsSetupId}")
+    int resetUpdateTime(@Param("lmsSetupId") Long lmsSetupId);
+
+    /** Get the number of synchronization states of an LMS setup, that is 1 if it exists and 0 otherwise.
+     *
+     * @param lmsSetupId the LMS setup identifier
+     * @return the number of synchronization states of the LMS setup */
+    @Select("SELECT COUNT(*) FROM quiz_index_sync WHERE lms_setup_id = #{lmsSetupId}")
+    int count(@Param("lmsSetupId") Long lmsSetupId);
+
+    /** Get the time of the last synchronization of an LMS setup.
+     *
+     * @param lmsSetupId the LMS setup identifier
+     * @return the time in milliseconds or null if the LMS setup has not been synchronized yet */
+    @Select("SELECT update_time FROM quiz_index_sync WHERE lms_setup_id = #{lmsSetupId}")
+    Long getUpdateTime(@Param("lmsSetupId") Long lmsSetupId);
+
+    /** Get the time of the last full synchronization of an LMS setup.
+     *
+     * @param lmsSetupId the LMS setup identifier
+     * @return the time in milliseconds or null if the LMS setup has not been fully synchronized yet */
+    @Select("SELECT full_update_time FROM quiz_index_sync WHERE lms_setup_id = #{lmsSetupId}")
+    Long getFullUpdateTime(@Param("lmsSetupId") Long lmsSetupId);
+
+}
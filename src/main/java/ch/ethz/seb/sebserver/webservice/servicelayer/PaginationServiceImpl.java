@@ -25,6 +25,8 @@ import ch.ethz.seb.sebserver.gbl.model.Domain;
 import ch.ethz.seb.sebserver.gbl.model.Entity;
 import ch.ethz.seb.sebserver.gbl.model.Page;
 import ch.ethz.seb.sebserver.gbl.model.PageSortOrder;
+import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordDynamicSqlSupport;
@@ -232,10 +234,29 @@ public class PaginationServiceImpl implements PaginationService {
         this.defaultSortColumn.put(LmsSetupRecordDynamicSqlSupport.lmsSetupRecord.name(), Domain.LMS_SETUP.ATTR_ID);
 
         // Exam Table
+        // NOTE: the quiz name, start time and end time are the quiz data of the LMS held within the exam table
         final Map<String, String> examTableMap = new HashMap<>();
         examTableMap.put(
                 Domain.EXAM.ATTR_TYPE,
                 ExamRecordDynamicSqlSupport.type.name());
+        examTableMap.put(
+                Domain.EXAM.ATTR_LMS_SETUP_ID,
+                ExamRecordDynamicSqlSupport.lmsSetupId.name());
+        examTableMap.put(
+                Exam.FILTER_ATTR_NAME,
+                ExamRecordDynamicSqlSupport.quizName.name());
+        examTableMap.put(
+                QuizData.QUIZ_ATTR_NAME,
+                ExamRecordDynamicSqlSupport.quizName.name());
+        examTableMap.put(
+                QuizData.FILTER_ATTR_START_TIME,
+                ExamRecordDynamicSqlSupport.quizStartTime.name());
+        examTableMap.put(
+                QuizData.QUIZ_ATTR_START_TIME,
+                ExamRecordDynamicSqlSupport.quizStartTime.name());
+        examTableMap.put(
+                QuizData.QUIZ_ATTR_END_TIME,
+                ExamRecordDynamicSqlSupport.quizEndTime.name());
         this.sortColumnMapping.put(
                 ExamRecordDynamicSqlSupport.examRecord.name(),
                 examTableMap);
@@ -10,7 +10,9 @@ package ch.ethz.seb.sebserver.webservice.servicelayer.dao;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
 
 import ch.ethz.seb.sebserver.gbl.model.EntityKey;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationTableValues;
@@ -53,12 +55,33 @@ public interface ConfigurationValueDAO extends EntityDAO<ConfigurationValue, Con
             Long configurationId,
             Long attributeId);
 
+    /** Use this to get all ConfigurationValue of all table attributes of a specified configuration at once.
+     * The values are mapped by the identifier of the table attribute, the row/list index and the identifier
+     * of the column attribute. The rows are ordered by the row/list index.
+     *
+     * @param institutionId the institution identifier
+     * @param configurationId the configuration identifier
+     * @return all ConfigurationValue of all table attributes of the specified configuration */
+    Result<Map<Long, SortedMap<Integer, Map<Long, ConfigurationValue>>>> getAllTableValues(
+            Long institutionId,
+            Long configurationId);
+
     /** Use this to save all values of a table attribute.
      *
      * @param value the ConfigurationTableValues instance containing all actual table attribute and value information
      * @return the saved table values of the attribute and configuration */
     Result<ConfigurationTableValues> saveTableValues(ConfigurationTableValues value);
 
+    /** Use this to save a chunk of ConfigurationValue of a follow-up configuration at once.
+     * Existing values are updated and missing values are created with JDBC batch statements.
+     * Values that do not belong to the given institution and configuration are skipped.
+     *
+     * @param institutionId the institution identifier
+     * @param configurationId the identifier of the follow-up configuration
+     * @param values the values to save
+     * @return the number of saved values */
+    Result<Integer> saveAll(Long institutionId, Long configurationId, Collection<ConfigurationValue> values);
+
     /** Use this to (re)set the default value(s) for a configuration attributes of a given configuration entry.
      * This uses also the ExamConfigInitService to initialize table values
      *
@@ -14,6 +14,7 @@ import org.springframework.cache.annotation.CacheEvict;
 
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam.ExamStatus;
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.webservice.servicelayer.bulkaction.BulkActionSupportDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ExamSessionCacheService;
@@ -126,4 +127,13 @@ public interface ExamDAO extends ActivatableEntityDAO<Exam, Exam>, BulkActionSup
      * @return Result refer to the updated Exam or to an error if happened */
     Result<Exam> setSebRestriction(Long examId, boolean sebRestriction);
 
+    /** This is used to synchronize the quiz name, start time and end time that are held within the exam table
+     * with the given QuizData of the LMS. These quiz attributes are used to filter, sort and page exams on SQL level.
+     * Only exams of the given LMS setup that refer to one of the given quizzes and have changed quiz data are updated.
+     *
+     * @param lmsSetupId the LMS setup identifier
+     * @param quizzes the actual QuizData of the LMS setup
+     * @return Result refer to the number of updated exams or to an error if happened */
+    Result<Integer> updateQuizData(Long lmsSetupId, Collection<QuizData> quizzes);
+
 }
@@ -117,6 +117,10 @@ public class FilterMap extends POSTMapper {
         return getString(Exam.FILTER_ATTR_STATUS);
     }
 
+    public String getExamOwnerOrSupporter() {
+        return getString(Exam.FILTER_ATTR_OWNER_OR_SUPPORTER);
+    }
+
     public Long getIndicatorExamId() {
         return getLong(Indicator.FILTER_ATTR_EXAM_ID);
     }
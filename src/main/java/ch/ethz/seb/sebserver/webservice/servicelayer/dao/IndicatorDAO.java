@@ -9,7 +9,12 @@
 package ch.ethz.seb.sebserver.webservice.servicelayer.dao;
 
 import java.util.Collection;
+import java.util.Set;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+
+import ch.ethz.seb.sebserver.gbl.model.EntityKey;
 import ch.ethz.seb.sebserver.gbl.model.exam.Indicator;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.webservice.servicelayer.bulkaction.BulkActionSupportDAO;
@@ -17,10 +22,37 @@ import ch.ethz.seb.sebserver.webservice.servicelayer.bulkaction.BulkActionSuppor
 /** Concrete EntityDAO interface of Indicator entities */
 public interface IndicatorDAO extends EntityDAO<Indicator, Indicator>, BulkActionSupportDAO<Indicator> {
 
+    String EXAM_INDICATORS_CACHE = "EXAM_INDICATORS_CACHE";
+
     /** Get a collection of all Indicator entities for a specified exam.
+     * The Indicators of an exam are cached since they are needed for every new SEB client connection of the exam.
+     * A change on another webservice instance does not evict the cache of this instance, so the cached Indicators
+     * expire a few minutes after they have been loaded.
      *
      * @param examId the Exam identifier to get the Indicators for
-     * @return Result referring to the collection of Indicators of an Exam or to an error if happened */
+     * @return Result referring to the unmodifiable collection of Indicators of an Exam or to an error if happened */
+    @Cacheable(
+            cacheNames = EXAM_INDICATORS_CACHE,
+            key = "#examId",
+            unless = "#result.hasError()")
     Result<Collection<Indicator>> allForExam(Long examId);
 
+    @Override
+    @CacheEvict(
+            cacheNames = EXAM_INDICATORS_CACHE,
+            key = "#modified.examId")
+    Result<Indicator> createNew(Indicator modified);
+
+    @Override
+    @CacheEvict(
+            cacheNames = EXAM_INDICATORS_CACHE,
+            allEntries = true)
+    Result<Indicator> save(Indicator modified);
+
+    @Override
+    @CacheEvict(
+            cacheNames = EXAM_INDICATORS_CACHE,
+            allEntries = true)
+    Result<Collection<EntityKey>> delete(Set<EntityKey> all);
+
 }
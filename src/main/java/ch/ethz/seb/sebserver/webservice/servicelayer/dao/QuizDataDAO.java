@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.dao;
+
+import java.util.Collection;
+
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+
+/** Defines functionality to access the persistent part of the local quiz index.
+ *
+ * The quiz index holds the QuizData of all courses/quizzes of an LMS setup, identified by the LMS setup
+ * and the external quiz identifier of the LMS. It is synchronized with the LMS by a background task.
+ * The time of the last synchronization and the last full synchronization is recorded per LMS setup and
+ * a lock ensures that only one webservice instance at a time synchronizes an LMS setup. */
+public interface QuizDataDAO {
+
+    /** Use this to get all indexed QuizData of a specified LMS setup.
+     *
+     * @param lmsSetupId the LMS setup identifier (primary key)
+     * @return Result refer to the collection of indexed QuizData or to an error if happened */
+    Result<Collection<QuizData>> allOf(Long lmsSetupId);
+
+    /** Use this to save the given QuizData of a specified LMS setup to the index.
+     * QuizData that is not indexed yet is created, QuizData that has changed is updated and
+     * QuizData that has not changed is skipped. The given update time is recorded as the time of the last
+     * synchronization and on removeMissing also as the time of the last full synchronization of the LMS setup.
+     *
+     * @param lmsSetupId the LMS setup identifier (primary key)
+     * @param quizzes the QuizData to save
+     * @param removeMissing indicates if the given QuizData is the complete set of the LMS setup.
+     *            If true, all indexed QuizData of the LMS setup that is not within the given QuizData is removed
+     * @param updateTime the time the given QuizData has been fetched from the LMS
+     * @return Result refer to the number of created, updated and removed index entries or to an error if happened */
+    Result<Integer> saveAll(Long lmsSetupId, Collection<QuizData> quizzes, boolean removeMissing, long updateTime);
+
+    /** Use this to delete all indexed QuizData of a specified LMS setup. This also resets the recorded
+     * synchronization times of the LMS setup so that it is not indexed anymore.
+     *
+     * @param lmsSetupId the LMS setup identifier (primary key)
+     * @return Result refer to the number of deleted index entries or to an error if happened */
+    Result<Integer> deleteAll(Long lmsSetupId);
+
+    /** Use this to get the recorded time of the last synchronization of a specified LMS setup.
+     * An LMS setup that has been fully synchronized is indexed, also if the LMS has no quizzes.
+     *
+     * @param lmsSetupId the LMS setup identifier (primary key)
+     * @param full true to get the time of the last full synchronization
+     * @return Result refer to the time in milliseconds, to an empty Result if the LMS setup has not been
+     *         (fully) synchronized yet or to an error if happened */
+    Result<Long> getSynchronizationTime(Long lmsSetupId, boolean full);
+
+    /** Use this to take the synchronization lock of a specified LMS setup. The lock is taken if it is free,
+     * already held by the given owner or if it has been taken longer than the given lock timeout ago.
+     *
+     * @param lmsSetupId the LMS setup identifier (primary key)
+     * @param owner the identifier of the lock owner, for example of the webservice instance
+     * @param lockTimeout the time in milliseconds after a lock expires
+     * @return Result refer to true if the lock has been taken, false if it is held by another owner
+     *         or to an error if happened */
+    Result<Boolean> lockSynchronization(Long lmsSetupId, String owner, long lockTimeout);
+
+    /** Use this to release the synchronization lock of a specified LMS setup that is held by the given owner.
+     *
+     * @param lmsSetupId the LMS setup identifier (primary key)
+     * @param owner the identifier of the lock owner
+     * @return Result refer to true if the lock has been released or to an error if happened */
+    Result<Boolean> releaseSynchronization(Long lmsSetupId, String owner);
+
+}
@@ -54,6 +54,18 @@ public interface SebClientConfigDAO extends
      * @return encrypted configuration password */
     Result<CharSequence> getConfigPasswordCipherByClientName(String clientName);
 
+    @Override
+    @CacheEvict(
+            cacheNames = ClientConfigService.EXAM_CLIENT_DETAILS_CACHE,
+            allEntries = true)
+    Result<SebClientConfig> save(SebClientConfig data);
+
+    @Override
+    @CacheEvict(
+            cacheNames = ClientConfigService.EXAM_CLIENT_DETAILS_CACHE,
+            allEntries = true)
+    Result<Collection<EntityKey>> setActive(Set<EntityKey> all, boolean active);
+
     @Override
     @CacheEvict(
             cacheNames = ClientConfigService.EXAM_CLIENT_DETAILS_CACHE,
@@ -14,9 +14,11 @@ import static org.mybatis.dynamic.sql.SqlBuilder.isIn;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.mybatis.dynamic.sql.SqlBuilder;
 import org.springframework.context.annotation.Lazy;
@@ -31,6 +33,7 @@ import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
 import ch.ethz.seb.sebserver.gbl.model.session.ExtendedClientEvent;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper.ConnectionEventJoinRecord;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientConnectionRecordDynamicSqlSupport;
@@ -48,6 +51,14 @@ import ch.ethz.seb.sebserver.webservice.servicelayer.dao.TransactionHandler;
 @WebServiceProfile
 public class ClientEventDAOImpl implements ClientEventDAO {
 
+    /** All event type identifiers except LAST_PING. Used with IN instead of a not equal condition on the type
+     * so that the composite (client_connection_id, type, server_time) index can also be used for the server
+     * time range of the event queries */
+    private static final List<Integer> LOG_EVENT_TYPE_IDS = Utils.immutableListOf(Stream.of(EventType.values())
+            .filter(type -> type != EventType.LAST_PING)
+            .map(type -> type.id)
+            .collect(Collectors.toList()));
+
     private final ClientEventRecordMapper clientEventRecordMapper;
     private final ClientEventExtensionMapper clientEventExtensionMapper;
 
@@ -87,7 +98,7 @@ public class ClientEventDAOImpl implements ClientEventDAO {
                         isEqualToWhenPresent(filterMap.getClientEventTypeId()))
                 .and(
                         ClientEventRecordDynamicSqlSupport.type,
-                        SqlBuilder.isNotEqualTo(EventType.LAST_PING.id))
+                        isIn(LOG_EVENT_TYPE_IDS))
                 .and(
                         ClientEventRecordDynamicSqlSupport.clientTime,
                         SqlBuilder.isGreaterThanOrEqualToWhenPresent(filterMap.getClientEventClientTimeFrom()))
@@ -135,7 +146,7 @@ public class ClientEventDAOImpl implements ClientEventDAO {
                         isEqualToWhenPresent(filterMap.getClientEventTypeId()))
                 .and(
                         ClientEventRecordDynamicSqlSupport.type,
-                        SqlBuilder.isNotEqualTo(EventType.LAST_PING.id))
+                        isIn(LOG_EVENT_TYPE_IDS))
                 .and(
                         ClientEventRecordDynamicSqlSupport.clientTime,
                         SqlBuilder.isGreaterThanOrEqualToWhenPresent(filterMap.getClientEventClientTimeFrom()))
@@ -11,7 +11,9 @@ package ch.ethz.seb.sebserver.webservice.servicelayer.dao.impl;
 import static org.mybatis.dynamic.sql.SqlBuilder.isEqualTo;
 import static org.mybatis.dynamic.sql.SqlBuilder.isNotEqualTo;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -31,6 +33,7 @@ import org.springframework.context.annotation.DependsOn;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import ch.ethz.seb.sebserver.gbl.Constants;
 import ch.ethz.seb.sebserver.gbl.api.APIMessage.FieldValidationException;
 import ch.ethz.seb.sebserver.gbl.api.EntityType;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.AttributeType;
@@ -41,6 +44,7 @@ import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationNode;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationNode.ConfigurationStatus;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationTableValues;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationTableValues.TableValue;
+import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationValue;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
@@ -181,6 +185,91 @@ class ConfigurationDAOBatchService {
                 });
     }
 
+    Result<Integer> saveValues(
+            final Long institutionId,
+            final Long configurationId,
+            final Collection<ConfigurationValue> values) {
+
+        return Result.tryCatch(() -> {
+
+            final ConfigurationRecord config = this.batchConfigurationRecordMapper
+                    .selectByPrimaryKey(configurationId);
+            if (config == null) {
+                throw new ResourceNotFoundException(
+                        EntityType.CONFIGURATION,
+                        String.valueOf(configurationId));
+            }
+            if (config.getInstitutionId().longValue() != institutionId.longValue()) {
+                throw new IllegalArgumentException("Institutional integrity constraint violation");
+            }
+            checkFollowUp(configurationId);
+
+            // if a value is given more then once, the last one is saved
+            final Map<String, ConfigurationValue> valueMapping = new LinkedHashMap<>();
+            for (final ConfigurationValue value : values) {
+                if (!institutionId.equals(value.institutionId) || !configurationId.equals(value.configurationId)) {
+                    log.warn("Skip value that does not belong to configuration: {} value: {}",
+                            configurationId,
+                            value);
+                    continue;
+                }
+                valueMapping.put(valueKey(value.attributeId, value.listIndex), value);
+            }
+
+            if (valueMapping.isEmpty()) {
+                return 0;
+            }
+
+            // get the primary keys of the existing values with one query
+            final List<Long> attributeIds = valueMapping.values()
+                    .stream()
+                    .map(ConfigurationValue::getAttributeId)
+                    .distinct()
+                    .collect(Collectors.toList());
+            final Map<String, Long> valuePKs = this.batchConfigurationValueRecordMapper
+                    .selectByExample()
+                    .where(
+                            ConfigurationValueRecordDynamicSqlSupport.configurationId,
+                            isEqualTo(configurationId))
+                    .and(
+                            ConfigurationValueRecordDynamicSqlSupport.configurationAttributeId,
+                            SqlBuilder.isIn(attributeIds))
+                    .build()
+                    .execute()
+                    .stream()
+                    .collect(Collectors.toMap(
+                            rec -> valueKey(rec.getConfigurationAttributeId(), rec.getListIndex()),
+                            ConfigurationValueRecord::getId,
+                            (pk1, pk2) -> pk1));
+
+            for (final ConfigurationValue value : valueMapping.values()) {
+                final Long valuePK = valuePKs.get(valueKey(value.attributeId, value.listIndex));
+                if (valuePK != null) {
+                    this.batchConfigurationValueRecordMapper.updateByPrimaryKeySelective(
+                            new ConfigurationValueRecord(
+                                    valuePK,
+                                    null,
+                                    null,
+                                    null,
+                                    value.listIndex,
+                                    value.value));
+                } else {
+                    this.batchConfigurationValueRecordMapper.insert(
+                            new ConfigurationValueRecord(
+                                    null,
+                                    institutionId,
+                                    configurationId,
+                                    value.attributeId,
+                                    value.listIndex,
+                                    value.value));
+                }
+            }
+
+            this.batchSqlSessionTemplate.flushStatements();
+            return valueMapping.size();
+        });
+    }
+
     Result<Configuration> saveToHistory(final Long configurationNodeId) {
         return Result.tryCatch(() -> {
 
@@ -630,6 +719,10 @@ class ConfigurationDAOBatchService {
         return data;
     }
 
+    private static String valueKey(final Long attributeId, final Integer listIndex) {
+        return attributeId + Constants.LIST_SEPARATOR + listIndex;
+    }
+
     private void checkFollowUp(final Long configurationId) {
         final ConfigurationRecord config = this.batchConfigurationRecordMapper
                 .selectByPrimaryKey(configurationId);
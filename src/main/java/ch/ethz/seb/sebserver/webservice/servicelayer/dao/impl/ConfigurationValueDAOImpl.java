@@ -341,6 +341,62 @@ public class ConfigurationValueDAOImpl implements ConfigurationValueDAO {
         });
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Result<Map<Long, SortedMap<Integer, Map<Long, ConfigurationValue>>>> getAllTableValues(
+            final Long institutionId,
+            final Long configurationId) {
+
+        return Result.tryCatch(() -> {
+
+            // mapping of all column attributes to its table attribute
+            final Map<Long, Long> tableAttributeMapping = this.configurationAttributeRecordMapper
+                    .selectByExample()
+                    .where(
+                            ConfigurationAttributeRecordDynamicSqlSupport.parentId,
+                            SqlBuilder.isNotNull())
+                    .build()
+                    .execute()
+                    .stream()
+                    .collect(Collectors.toMap(
+                            ConfigurationAttributeRecord::getId,
+                            ConfigurationAttributeRecord::getParentId));
+
+            final Map<Long, SortedMap<Integer, Map<Long, ConfigurationValue>>> tableValues = new HashMap<>();
+            this.configurationValueRecordMapper
+                    .selectByExample()
+                    .join(ConfigurationAttributeRecordDynamicSqlSupport.configurationAttributeRecord)
+                    .on(
+                            ConfigurationAttributeRecordDynamicSqlSupport.id,
+                            SqlBuilder.equalTo(ConfigurationValueRecordDynamicSqlSupport.configurationAttributeId))
+                    .where(
+                            ConfigurationValueRecordDynamicSqlSupport.institutionId,
+                            isEqualTo(institutionId))
+                    .and(
+                            ConfigurationValueRecordDynamicSqlSupport.configurationId,
+                            isEqualTo(configurationId))
+                    .and(
+                            ConfigurationAttributeRecordDynamicSqlSupport.parentId,
+                            SqlBuilder.isNotNull())
+                    .build()
+                    .execute()
+                    .forEach(rec -> tableValues
+                            .computeIfAbsent(
+                                    tableAttributeMapping.get(rec.getConfigurationAttributeId()),
+                                    key -> new TreeMap<>())
+                            .computeIfAbsent(
+                                    rec.getListIndex(),
+                                    key -> new HashMap<>())
+                            .put(
+                                    rec.getConfigurationAttributeId(),
+                                    ConfigurationValueDAOImpl
+                                            .toDomainModel(rec)
+                                            .getOrThrow()));
+
+            return tableValues;
+        });
+    }
+
     @Override
     @Transactional
     public Result<ConfigurationTableValues> saveTableValues(final ConfigurationTableValues value) {
@@ -349,6 +405,18 @@ public class ConfigurationValueDAOImpl implements ConfigurationValueDAO {
                 .onError(TransactionHandler::rollback);
     }
 
+    @Override
+    @Transactional
+    public Result<Integer> saveAll(
+            final Long institutionId,
+            final Long configurationId,
+            final Collection<ConfigurationValue> values) {
+
+        return this.configurationDAOBatchService
+                .saveValues(institutionId, configurationId, values)
+                .onError(TransactionHandler::rollback);
+    }
+
     @Override
     @Transactional
     public Result<Set<EntityKey>> setDefaultValues(
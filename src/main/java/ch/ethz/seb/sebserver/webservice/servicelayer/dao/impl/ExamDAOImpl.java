@@ -17,6 +17,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -25,6 +26,8 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
+import org.mybatis.dynamic.sql.select.MyBatis3SelectModelAdapter;
+import org.mybatis.dynamic.sql.select.QueryExpressionDSL;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
@@ -56,6 +59,9 @@ import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPIService;
 @WebServiceProfile
 public class ExamDAOImpl implements ExamDAO {
 
+    /** The maximum length of the quiz name held within the exam table */
+    private static final int QUIZ_NAME_MAX_LENGTH = 255;
+
     private final ExamRecordMapper examRecordMapper;
     private final ClientConnectionRecordMapper clientConnectionRecordMapper;
     private final LmsAPIService lmsAPIService;
@@ -117,47 +123,56 @@ public class ExamDAOImpl implements ExamDAO {
         return Result.tryCatch(() -> {
 
             final boolean cached = filterMap.getBoolean(Exam.FILTER_CACHED_QUIZZES);
-            final String name = filterMap.getQuizName();
             final DateTime from = filterMap.getExamFromTime();
-            final Predicate<Exam> quizDataFilter = exam -> {
-                if (StringUtils.isNotBlank(name)) {
-                    if (!exam.name.contains(name)) {
-                        return false;
-                    }
-                }
-
-                if (from != null) {
-                    if (exam.startTime.isBefore(from)) {
-                        return false;
-                    }
-                }
+            final String ownerOrSupporter = filterMap.getExamOwnerOrSupporter();
+
+            // NOTE: the quiz name and start time are filtered on the quiz data held within the exam table
+            //       that is synchronized with the LMS. This allows to apply pagination on SQL level and
+            //       only the quiz data of the exams of the requested page have to be requested from the LMS.
+            final QueryExpressionDSL<MyBatis3SelectModelAdapter<List<ExamRecord>>>.QueryExpressionWhereBuilder where =
+                    this.examRecordMapper.selectByExample()
+                            .where(
+                                    ExamRecordDynamicSqlSupport.active,
+                                    isEqualToWhenPresent(filterMap.getActiveAsInt()))
+                            .and(
+                                    ExamRecordDynamicSqlSupport.institutionId,
+                                    isEqualToWhenPresent(filterMap.getInstitutionId()))
+                            .and(
+                                    ExamRecordDynamicSqlSupport.lmsSetupId,
+                                    isEqualToWhenPresent(filterMap.getLmsSetupId()))
+                            .and(
+                                    ExamRecordDynamicSqlSupport.type,
+                                    isEqualToWhenPresent(filterMap.getExamType()))
+                            .and(
+                                    ExamRecordDynamicSqlSupport.status,
+                                    isEqualToWhenPresent(filterMap.getExamStatus()))
+                            .and(
+                                    ExamRecordDynamicSqlSupport.quizName,
+                                    isLikeWhenPresent(filterMap.getName()));
+
+            // exams that have not been synchronized with the LMS yet have no start time and are not filtered out
+            if (from != null) {
+                where.and(
+                        ExamRecordDynamicSqlSupport.quizStartTime,
+                        isGreaterThanOrEqualTo(from),
+                        or(ExamRecordDynamicSqlSupport.quizStartTime, isNull()));
+            }
 
-                return true;
-            };
+            if (StringUtils.isNotBlank(ownerOrSupporter)) {
+                where.and(
+                        ExamRecordDynamicSqlSupport.owner,
+                        isEqualTo(ownerOrSupporter),
+                        or(ExamRecordDynamicSqlSupport.supporter, isLike(Utils.toSQLWildcard(ownerOrSupporter))));
+            }
 
-            final List<ExamRecord> records = this.examRecordMapper.selectByExample()
-                    .where(
-                            ExamRecordDynamicSqlSupport.active,
-                            isEqualToWhenPresent(filterMap.getActiveAsInt()))
-                    .and(
-                            ExamRecordDynamicSqlSupport.institutionId,
-                            isEqualToWhenPresent(filterMap.getInstitutionId()))
-                    .and(
-                            ExamRecordDynamicSqlSupport.lmsSetupId,
-                            isEqualToWhenPresent(filterMap.getLmsSetupId()))
-                    .and(
-                            ExamRecordDynamicSqlSupport.type,
-                            isEqualToWhenPresent(filterMap.getExamType()))
-                    .and(
-                            ExamRecordDynamicSqlSupport.status,
-                            isEqualToWhenPresent(filterMap.getExamStatus()))
+            final List<ExamRecord> records = where
                     .build()
                     .execute();
 
             return this.toDomainModel(records, cached)
                     .getOrThrow()
                     .stream()
-                    .filter(quizDataFilter.and(predicate))
+                    .filter(predicate)
                     .collect(Collectors.toList());
         });
     }
@@ -176,7 +191,7 @@ public class ExamDAOImpl implements ExamDAO {
                             examRecord.getId(),
                             null, null, null, null, null, null, null, null,
                             status.name(),
-                            null, null, null, null);
+                            null, null, null, null, null, null, null);
 
                     this.examRecordMapper.updateByPrimaryKeySelective(newExamRecord);
                     return this.examRecordMapper.selectByPrimaryKey(examId);
@@ -215,7 +230,10 @@ public class ExamDAOImpl implements ExamDAO {
                             : null,
                     null, // updating
                     null, // lastUpdate
-                    null // active
+                    null, // active
+                    null, // quizName
+                    null, // quizStartTime
+                    null // quizEndTime
             );
 
             this.examRecordMapper.updateByPrimaryKeySelective(examRecord);
@@ -234,7 +252,7 @@ public class ExamDAOImpl implements ExamDAO {
                     examId,
                     null, null, null, null, null, null, null, null, null,
                     BooleanUtils.toInteger(sebRestriction),
-                    null, null, null);
+                    null, null, null, null, null, null);
 
             this.examRecordMapper.updateByPrimaryKeySelective(examRecord);
             return this.examRecordMapper.selectByPrimaryKey(examId);
@@ -269,7 +287,10 @@ public class ExamDAOImpl implements ExamDAO {
                         null, // lmsSebRestriction
                         null, // updating
                         null, // lastUpdate
-                        BooleanUtils.toIntegerObject(exam.active));
+                        BooleanUtils.toIntegerObject(exam.active),
+                        quizName(exam.name),
+                        exam.startTime,
+                        exam.endTime);
 
                 this.examRecordMapper.updateByPrimaryKeySelective(newRecord);
                 return this.examRecordMapper.selectByPrimaryKey(examRecord.getId());
@@ -291,7 +312,10 @@ public class ExamDAOImpl implements ExamDAO {
                     BooleanUtils.toInteger(exam.lmsSebRestriction),
                     BooleanUtils.toInteger(false),
                     null, // lastUpdate
-                    BooleanUtils.toInteger(true));
+                    BooleanUtils.toInteger(true),
+                    quizName(exam.name),
+                    exam.startTime,
+                    exam.endTime);
 
             this.examRecordMapper.insert(examRecord);
             return examRecord;
@@ -307,7 +331,8 @@ public class ExamDAOImpl implements ExamDAO {
 
             final List<Long> ids = extractListOfPKs(all);
             final ExamRecord examRecord = new ExamRecord(null, null, null, null, null,
-                    null, null, null, null, null, null, null, null, BooleanUtils.toInteger(active));
+                    null, null, null, null, null, null, null, null, BooleanUtils.toInteger(active),
+                    null, null, null);
 
             this.examRecordMapper.updateByExampleSelective(examRecord)
                     .where(ExamRecordDynamicSqlSupport.id, isIn(ids))
@@ -437,7 +462,7 @@ public class ExamDAOImpl implements ExamDAO {
                     null, null, null, null, null, null, null, null, null, null,
                     BooleanUtils.toInteger(true),
                     updateId,
-                    null);
+                    null, null, null, null);
 
             this.examRecordMapper.updateByPrimaryKeySelective(newRecord);
             return newRecord;
@@ -467,7 +492,7 @@ public class ExamDAOImpl implements ExamDAO {
                     null, null, null, null, null, null, null, null, null, null,
                     BooleanUtils.toInteger(false),
                     updateId,
-                    null);
+                    null, null, null, null);
 
             this.examRecordMapper.updateByPrimaryKeySelective(newRecord);
             return newRecord;
@@ -490,7 +515,7 @@ public class ExamDAOImpl implements ExamDAO {
                     examId,
                     null, null, null, null, null, null, null, null, null, null,
                     BooleanUtils.toInteger(false),
-                    null, null);
+                    null, null, null, null, null);
 
             this.examRecordMapper.updateByPrimaryKeySelective(examRecord);
             return examRecord.getId();
@@ -583,6 +608,40 @@ public class ExamDAOImpl implements ExamDAO {
         return getDependencies(bulkAction, selectionFunction);
     }
 
+    @Override
+    @Transactional
+    public Result<Integer> updateQuizData(final Long lmsSetupId, final Collection<QuizData> quizzes) {
+        return Result.tryCatch(() -> {
+
+            final Map<String, QuizData> quizMapping = quizzes
+                    .stream()
+                    .filter(quiz -> lmsSetupId.equals(quiz.lmsSetupId))
+                    .collect(Collectors.toMap(quiz -> quiz.id, Function.identity(), (q1, q2) -> q1));
+
+            if (quizMapping.isEmpty()) {
+                return 0;
+            }
+
+            return this.examRecordMapper.selectByExample()
+                    .where(ExamRecordDynamicSqlSupport.lmsSetupId, isEqualTo(lmsSetupId))
+                    .build()
+                    .execute()
+                    .stream()
+                    .filter(record -> isQuizDataChanged(record, quizMapping.get(record.getExternalId())))
+                    .mapToInt(record -> {
+                        final QuizData quiz = quizMapping.get(record.getExternalId());
+                        return this.examRecordMapper.updateByPrimaryKeySelective(new ExamRecord(
+                                record.getId(),
+                                null, null, null, null, null, null, null, null, null, null, null, null, null,
+                                quizName(quiz.name),
+                                quiz.startTime,
+                                quiz.endTime));
+                    })
+                    .sum();
+        })
+                .onError(TransactionHandler::rollback);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Result<Collection<Exam>> allOf(final Set<Long> pks) {
@@ -671,12 +730,18 @@ public class ExamDAOImpl implements ExamDAO {
                             (map, record) -> Utils.mapCollect(map, record.getLmsSetupId(), record),
                             Utils::mapPutAll);
 
-            return lmsSetupToRecordMapping
+            final Map<Long, Exam> exams = lmsSetupToRecordMapping
                     .entrySet()
                     .stream()
                     .flatMap(entry -> toDomainModel(entry.getKey(), entry.getValue(), cached)
                             .getOrThrow()
                             .stream())
+                    .collect(Collectors.toMap(exam -> exam.id, Function.identity()));
+
+            // keep the order of the given records that may be sorted on SQL level
+            return records
+                    .stream()
+                    .map(record -> exams.get(record.getId()))
                     .collect(Collectors.toList());
         });
     }
@@ -719,6 +784,26 @@ public class ExamDAOImpl implements ExamDAO {
         });
     }
 
+    private static boolean isQuizDataChanged(final ExamRecord record, final QuizData quiz) {
+        if (quiz == null) {
+            return false;
+        }
+
+        return !Objects.equals(record.getQuizName(), quizName(quiz.name))
+                || !isSameTime(record.getQuizStartTime(), quiz.startTime)
+                || !isSameTime(record.getQuizEndTime(), quiz.endTime);
+    }
+
+    private static boolean isSameTime(final DateTime time1, final DateTime time2) {
+        return (time1 == null)
+                ? time2 == null
+                : time2 != null && time1.isEqual(time2);
+    }
+
+    private static String quizName(final String name) {
+        return StringUtils.left(name, QUIZ_NAME_MAX_LENGTH);
+    }
+
     private Result<Exam> toDomainModel(
             final ExamRecord record,
             final QuizData quizData) {
@@ -215,7 +215,9 @@ public class IndicatorDAOImpl implements IndicatorDAO {
                 .stream()
                 .map(this::toDomainModel)
                 .flatMap(DAOLoggingSupport::logAndSkipOnError)
-                .collect(Collectors.toList()));
+                .collect(Collectors.collectingAndThen(
+                        Collectors.toList(),
+                        Collections::unmodifiableList)));
     }
 
     @Override
@@ -36,6 +36,8 @@ import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.LmsSetupRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.LmsSetupRecordMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.QuizDataRecordDynamicSqlSupport;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.QuizDataRecordMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.LmsSetupRecord;
 import ch.ethz.seb.sebserver.webservice.servicelayer.bulkaction.impl.BulkAction;
 import ch.ethz.seb.sebserver.webservice.servicelayer.client.ClientCredentialService;
@@ -53,13 +55,16 @@ import ch.ethz.seb.sebserver.webservice.servicelayer.dao.TransactionHandler;
 public class LmsSetupDAOImpl implements LmsSetupDAO {
 
     private final LmsSetupRecordMapper lmsSetupRecordMapper;
+    private final QuizDataRecordMapper quizDataRecordMapper;
     private final ClientCredentialService clientCredentialService;
 
     protected LmsSetupDAOImpl(
             final LmsSetupRecordMapper lmsSetupRecordMapper,
+            final QuizDataRecordMapper quizDataRecordMapper,
             final ClientCredentialService clientCredentialService) {
 
         this.lmsSetupRecordMapper = lmsSetupRecordMapper;
+        this.quizDataRecordMapper = quizDataRecordMapper;
         this.clientCredentialService = clientCredentialService;
     }
 
@@ -237,6 +242,12 @@ public class LmsSetupDAOImpl implements LmsSetupDAO {
 
             final List<Long> ids = extractListOfPKs(all);
 
+            // delete all indexed quizzes of the LMS setups
+            this.quizDataRecordMapper.deleteByExample()
+                    .where(QuizDataRecordDynamicSqlSupport.lmsSetupId, isIn(ids))
+                    .build()
+                    .execute();
+
             this.lmsSetupRecordMapper.deleteByExample()
                     .where(LmsSetupRecordDynamicSqlSupport.id, isIn(ids))
                     .build()
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.dao.impl;
+
+import static org.mybatis.dynamic.sql.SqlBuilder.*;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.joda.time.DateTime;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import ch.ethz.seb.sebserver.gbl.api.JSONMapper;
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup.LmsType;
+import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.BatisConfig;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.QuizIndexSyncMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.QuizDataRecordDynamicSqlSupport;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.QuizDataRecordMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.QuizDataRecord;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.QuizDataDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.TransactionHandler;
+
+@Lazy
+@Component
+@WebServiceProfile
+@DependsOn("batisConfig")
+public class QuizDataDAOImpl implements QuizDataDAO {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizDataDAOImpl.class);
+
+    private final QuizDataRecordMapper quizDataRecordMapper;
+    private final QuizDataRecordMapper batchQuizDataRecordMapper;
+    private final QuizIndexSyncMapper quizIndexSyncMapper;
+    private final QuizIndexSyncMapper batchQuizIndexSyncMapper;
+    private final SqlSessionTemplate batchSqlSessionTemplate;
+    private final JSONMapper jsonMapper;
+
+    protected QuizDataDAOImpl(
+            final QuizDataRecordMapper quizDataRecordMapper,
+            final QuizIndexSyncMapper quizIndexSyncMapper,
+            @Qualifier(BatisConfig.SQL_BATCH_SESSION_TEMPLATE) final SqlSessionTemplate batchSqlSessionTemplate,
+            final JSONMapper jsonMapper) {
+
+        final org.apache.ibatis.session.Configuration batisConfig =
+                batchSqlSessionTemplate.getConfiguration();
+        if (!batisConfig.hasMapper(QuizDataRecordMapper.class)) {
+            batisConfig.addMapper(QuizDataRecordMapper.class);
+        }
+        if (!batisConfig.hasMapper(QuizIndexSyncMapper.class)) {
+            batisConfig.addMapper(QuizIndexSyncMapper.class);
+        }
+
+        this.quizDataRecordMapper = quizDataRecordMapper;
+        this.batchQuizDataRecordMapper = batchSqlSessionTemplate.getMapper(QuizDataRecordMapper.class);
+        this.quizIndexSyncMapper = quizIndexSyncMapper;
+        this.batchQuizIndexSyncMapper = batchSqlSessionTemplate.getMapper(QuizIndexSyncMapper.class);
+        this.batchSqlSessionTemplate = batchSqlSessionTemplate;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Result<Collection<QuizData>> allOf(final Long lmsSetupId) {
+        return Result.tryCatch(() -> this.quizDataRecordMapper
+                .selectByExample()
+                .where(QuizDataRecordDynamicSqlSupport.lmsSetupId, isEqualTo(lmsSetupId))
+                .build()
+                .execute()
+                .stream()
+                .map(this::toDomainModel)
+                .flatMap(DAOLoggingSupport::logAndSkipOnError)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional
+    public Result<Integer> saveAll(
+            final Long lmsSetupId,
+            final Collection<QuizData> quizzes,
+            final boolean removeMissing,
+            final long updateTime) {
+
+        return Result.tryCatch(() -> {
+
+            // NOTE: the existing entries are selected with the batch mapper too because MyBatis
+            //       cannot change the executor type within a running transaction
+            final Map<String, QuizDataRecord> indexed = this.batchQuizDataRecordMapper
+                    .selectByExample()
+                    .where(QuizDataRecordDynamicSqlSupport.lmsSetupId, isEqualTo(lmsSetupId))
+                    .build()
+                    .execute()
+                    .stream()
+                    .collect(Collectors.toMap(
+                            QuizDataRecord::getExternalId,
+                            Function.identity(),
+                            (rec1, rec2) -> rec1));
+            final boolean synchronizedBefore = this.batchQuizIndexSyncMapper.count(lmsSetupId) > 0;
+
+            final Set<String> externalIds = new HashSet<>();
+            int changes = 0;
+            for (final QuizData quiz : quizzes) {
+                if (!lmsSetupId.equals(quiz.lmsSetupId) || !externalIds.add(quiz.id)) {
+                    log.warn("Skip quiz that does not belong to LMS setup: {} or is given more then once: {}",
+                            lmsSetupId,
+                            quiz.id);
+                    continue;
+                }
+
+                final QuizDataRecord record = indexed.get(quiz.id);
+                if (record == null) {
+                    this.batchQuizDataRecordMapper.insert(toRecord(null, quiz, updateTime));
+                    changes++;
+                } else if (hasChanged(record, quiz)) {
+                    this.batchQuizDataRecordMapper.updateByPrimaryKey(toRecord(record.getId(), quiz, updateTime));
+                    changes++;
+                }
+            }
+
+            if (removeMissing) {
+                final List<Long> missing = indexed.values()
+                        .stream()
+                        .filter(rec -> !externalIds.contains(rec.getExternalId()))
+                        .map(QuizDataRecord::getId)
+                        .collect(Collectors.toList());
+
+                if (!missing.isEmpty()) {
+                    this.batchQuizDataRecordMapper
+                            .deleteByExample()
+                            .where(QuizDataRecordDynamicSqlSupport.id, isIn(missing))
+                            .build()
+                            .execute();
+                    changes += missing.size();
+                }
+            }
+
+            if (!synchronizedBefore) {
+                this.batchQuizIndexSyncMapper.insertUpdated(
+                        lmsSetupId,
+                        updateTime,
+                        (removeMissing) ? updateTime : null);
+            } else if (removeMissing) {
+                this.batchQuizIndexSyncMapper.setFullUpdateTime(lmsSetupId, updateTime);
+            } else {
+                this.batchQuizIndexSyncMapper.setUpdateTime(lmsSetupId, updateTime);
+            }
+
+            this.batchSqlSessionTemplate.flushStatements();
+            return changes;
+        })
+                .onError(TransactionHandler::rollback);
+    }
+
+    @Override
+    @Transactional
+    public Result<Integer> deleteAll(final Long lmsSetupId) {
+        return Result.tryCatch(() -> {
+            this.quizIndexSyncMapper.resetUpdateTime(lmsSetupId);
+            return this.quizDataRecordMapper
+                    .deleteByExample()
+                    .where(QuizDataRecordDynamicSqlSupport.lmsSetupId, isEqualTo(lmsSetupId))
+                    .build()
+                    .execute();
+        })
+                .onError(TransactionHandler::rollback);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Result<Long> getSynchronizationTime(final Long lmsSetupId, final boolean full) {
+        try {
+            final Long time = (full)
+                    ? this.quizIndexSyncMapper.getFullUpdateTime(lmsSetupId)
+                    : this.quizIndexSyncMapper.getUpdateTime(lmsSetupId);
+            return (time != null) ? Result.of(time) : Result.ofEmpty();
+        } catch (final Exception e) {
+            return Result.ofError(e);
+        }
+    }
+
+    // NOTE: the lock is taken and released without transaction so that each statement is committed immediately
+    @Override
+    public Result<Boolean> lockSynchronization(final Long lmsSetupId, final String owner, final long lockTimeout) {
+        return Result.tryCatch(() -> {
+            final long now = Utils.getMillisecondsNow();
+            if (this.quizIndexSyncMapper.lock(lmsSetupId, owner, now, now - lockTimeout) > 0) {
+                return true;
+            }
+
+            try {
+                return this.quizIndexSyncMapper.insertLocked(lmsSetupId, owner, now) > 0;
+            } catch (final DuplicateKeyException e) {
+                // the synchronization state exists and the lock is held by another owner
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public Result<Boolean> releaseSynchronization(final Long lmsSetupId, final String owner) {
+        return Result.tryCatch(() -> this.quizIndexSyncMapper.unlock(lmsSetupId, owner) > 0);
+    }
+
+    private Result<QuizData> toDomainModel(final QuizDataRecord record) {
+        return Result.tryCatch(() -> new QuizData(
+                record.getExternalId(),
+                record.getInstitutionId(),
+                record.getLmsSetupId(),
+                LmsType.valueOf(record.getLmsType()),
+                record.getName(),
+                record.getDescription(),
+                record.getStartTime(),
+                record.getEndTime(),
+                record.getStartUrl(),
+                (StringUtils.isNotBlank(record.getAdditionalAttributes()))
+                        ? this.jsonMapper.readValue(
+                                record.getAdditionalAttributes(),
+                                new TypeReference<Map<String, String>>() {
+                                })
+                        : Collections.emptyMap()));
+    }
+
+    private QuizDataRecord toRecord(final Long id, final QuizData quiz, final long updateTime) {
+        return new QuizDataRecord(
+                id,
+                quiz.institutionId,
+                quiz.lmsSetupId,
+                quiz.lmsType.name(),
+                quiz.id,
+                quiz.name,
+                quiz.description,
+                quiz.startTime,
+                quiz.endTime,
+                quiz.startURL,
+                additionalAttributesJSON(quiz),
+                updateTime);
+    }
+
+    private String additionalAttributesJSON(final QuizData quiz) {
+        if (quiz.additionalAttributes == null || quiz.additionalAttributes.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return this.jsonMapper.writeValueAsString(quiz.additionalAttributes);
+        } catch (final Exception e) {
+            throw new RuntimeException("Failed to write additional attributes of quiz: " + quiz.id, e);
+        }
+    }
+
+    private boolean hasChanged(final QuizDataRecord record, final QuizData quiz) {
+        return !Objects.equals(record.getInstitutionId(), quiz.institutionId)
+                || !Objects.equals(record.getLmsType(), quiz.lmsType.name())
+                || !Objects.equals(record.getName(), quiz.name)
+                || !Objects.equals(record.getDescription(), quiz.description)
+                || !sameTime(record.getStartTime(), quiz.startTime)
+                || !sameTime(record.getEndTime(), quiz.endTime)
+                || !Objects.equals(record.getStartUrl(), quiz.startURL)
+                || !Objects.equals(record.getAdditionalAttributes(), additionalAttributesJSON(quiz));
+    }
+
+    // NOTE: the index stores date-time values without milliseconds
+    private static boolean sameTime(final DateTime time1, final DateTime time2) {
+        if (time1 == null || time2 == null) {
+            return time1 == time2;
+        }
+        return time1.getMillis() / 1000 == time2.getMillis() / 1000;
+    }
+
+}
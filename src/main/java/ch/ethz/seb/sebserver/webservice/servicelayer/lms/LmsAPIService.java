@@ -8,8 +8,10 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.lms;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -58,11 +60,35 @@ public interface LmsAPIService {
      * @param sort the sort parameter
      * @param filterMap the FilterMap containing all filter criteria
      * @return the specified Page of QuizData form all active LMS Setups of the current users institution */
+    default Result<Page<QuizData>> requestQuizDataPage(
+            final int pageNumber,
+            final int pageSize,
+            final String sort,
+            final FilterMap filterMap) {
+
+        return requestQuizDataPage(pageNumber, pageSize, sort, filterMap, lmsSetups -> {
+        });
+    }
+
+    /** Used to get a specified page of QuizData from all active LMS Setup of the current users
+     * institution, filtered by the given FilterMap.
+     *
+     * The LMS Setups are requested concurrently and each within its own deadline. If a LMS Setup
+     * did not respond in time or responded with an error, the page is created from the QuizData of the
+     * LMS Setups that responded and the unavailable LMS Setups are reported to the given consumer.
+     *
+     * @param pageNumber the page number from the QuizData list to get
+     * @param pageSize the page size
+     * @param sort the sort parameter
+     * @param filterMap the FilterMap containing all filter criteria
+     * @param unavailableLmsSetups consumer of the LMS Setups that did not respond in time or with an error
+     * @return the specified Page of QuizData form all active LMS Setups of the current users institution */
     Result<Page<QuizData>> requestQuizDataPage(
             final int pageNumber,
             final int pageSize,
             final String sort,
-            final FilterMap filterMap);
+            final FilterMap filterMap,
+            final Consumer<Collection<LmsSetup>> unavailableLmsSetups);
 
     /** Get a LmsAPITemplate for specified LmsSetup configuration by model identifier.
      *
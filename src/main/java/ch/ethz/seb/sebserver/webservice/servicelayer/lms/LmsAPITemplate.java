@@ -17,6 +17,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
+import org.joda.time.DateTime;
 
 import ch.ethz.seb.sebserver.gbl.api.EntityType;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
@@ -104,6 +105,26 @@ public interface LmsAPITemplate {
 
     Result<QuizData> getQuizFromCache(String id);
 
+    /** Fetches QuizData directly from the LMS course/quiz API, bypassing any cache or index.
+     * This is used to synchronize the local quiz index with the LMS.
+     *
+     * If the LMS API supports modification times (see supportsModificationTime) and a modifiedSince time
+     * is given, only the QuizData of courses/quizzes that have been created or modified since then is fetched.
+     * Otherwise all QuizData of the LMS is fetched.
+     *
+     * @param modifiedSince the time of the last synchronization or null to fetch all QuizData
+     * @return Result refer to the fetched QuizData or to an error when happened */
+    default Result<List<QuizData>> fetchQuizzes(final DateTime modifiedSince) {
+        return getQuizzes(new FilterMap());
+    }
+
+    /** Indicates if the LMS API of this LmsAPITemplate supports fetching of QuizData by modification time.
+     *
+     * @return true if fetchQuizzes only fetches created or modified QuizData if a modifiedSince time is given */
+    default boolean supportsModificationTime() {
+        return false;
+    }
+
     // TODO this can be used in a future release to resolve examinee's account detail information by an
     //      examinee identifier received by on SEB-Client connection.
     //Result<ExamineeAccountDetails> getExamineeAccountDetails(String examineeUserId);
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.lms;
+
+import java.util.Collection;
+
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+
+/** A local index of the QuizData of the LMS setups, keyed by the LMS setup identifier and the
+ * external quiz identifier of the LMS.
+ *
+ * The index is persistent and held in memory. It is synchronized with the LMS by a background task so
+ * that quiz discovery and the quiz data of exams can be served without requesting the LMS API on the
+ * request path. */
+public interface QuizIndex {
+
+    /** Indicates if the QuizData of a given LMS setup is indexed.
+     * An LMS setup is indexed after its first full synchronization with the LMS, also if the LMS has no quizzes.
+     *
+     * @param lmsSetupId the LMS setup identifier (primary key)
+     * @return true if the QuizData of the given LMS setup is indexed */
+    boolean isIndexed(Long lmsSetupId);
+
+    /** Get all indexed QuizData of a given LMS setup.
+     *
+     * @param lmsSetupId the LMS setup identifier (primary key)
+     * @return Result refer to all indexed QuizData of the LMS setup or to an error if the LMS setup is not indexed */
+    Result<Collection<QuizData>> getQuizzes(Long lmsSetupId);
+
+    /** Get the indexed QuizData of a given LMS setup and external quiz identifier.
+     *
+     * @param lmsSetupId the LMS setup identifier (primary key)
+     * @param externalId the external quiz identifier of the LMS
+     * @return Result refer to the indexed QuizData or to a ResourceNotFoundException if not indexed */
+    Result<QuizData> getQuiz(Long lmsSetupId, String externalId);
+
+    /** Updates the index of a given LMS setup with the given QuizData fetched from the LMS.
+     *
+     * @param lmsSetupId the LMS setup identifier (primary key)
+     * @param quizzes the QuizData fetched from the LMS
+     * @param full indicates if the given QuizData is all QuizData of the LMS. On a full update, indexed QuizData
+     *            that is not within the given QuizData is removed from the index. Otherwise the given QuizData
+     *            is added to or replaced within the index.
+     * @param updateTime the time the given QuizData has been fetched from the LMS
+     * @return Result refer to the number of changed index entries or to an error if happened */
+    Result<Integer> update(Long lmsSetupId, Collection<QuizData> quizzes, boolean full, long updateTime);
+
+    /** Drops the in-memory index of a given LMS setup so that it is loaded again from the persistent index
+     * on next access. Use this if the LMS setup has been synchronized by another webservice instance.
+     *
+     * @param lmsSetupId the LMS setup identifier (primary key) */
+    void invalidate(Long lmsSetupId);
+
+    /** Removes all QuizData of a given LMS setup from the index. Use this if the LMS setup has changed.
+     *
+     * @param lmsSetupId the LMS setup identifier (primary key) */
+    void remove(Long lmsSetupId);
+
+}
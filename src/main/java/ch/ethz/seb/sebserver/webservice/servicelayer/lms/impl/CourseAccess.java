@@ -17,10 +17,13 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.joda.time.DateTime;
+
 import ch.ethz.seb.sebserver.gbl.Constants;
 import ch.ethz.seb.sebserver.gbl.async.AsyncService;
 import ch.ethz.seb.sebserver.gbl.async.MemoizingCircuitBreaker;
 import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
 import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPIService;
@@ -29,13 +32,16 @@ public abstract class CourseAccess {
 
     protected final MemoizingCircuitBreaker<List<QuizData>> allQuizzesSupplier;
 
-    protected CourseAccess(final AsyncService asyncService) {
+    protected CourseAccess(final LmsSetup lmsSetup, final AsyncService asyncService) {
+        // the quizzes are refreshed in the background after one minute. Older quizzes are still responded until
+        // the refresh is done but not if they are older than one hour. The refresh timings are tagged by LMS setup
         this.allQuizzesSupplier = asyncService.createMemoizingCircuitBreaker(
+                lmsSetup.getModelId(),
                 allQuizzesSupplier(),
                 3,
                 Constants.MINUTE_IN_MILLIS,
                 Constants.MINUTE_IN_MILLIS,
-                true,
+                Constants.MINUTE_IN_MILLIS,
                 Constants.HOUR_IN_MILLIS);
     }
 
@@ -80,6 +86,34 @@ public abstract class CourseAccess {
                 .map(LmsAPIService.quizzesFilterFunction(filterMap));
     }
 
+    /** Fetches the QuizData directly from the LMS, bypassing the memoizing cache but not the circuit breaker.
+     * By default all QuizData is fetched. A CourseAccess of an LMS that supports modification times
+     * overrides this to fetch only created or modified QuizData.
+     *
+     * @param modifiedSince the time of the last synchronization or null to fetch all QuizData
+     * @return Result refer to the fetched QuizData or to an error when happened */
+    public Result<List<QuizData>> fetchQuizzes(final DateTime modifiedSince) {
+        return protectedFetch(allQuizzesSupplier());
+    }
+
+    /** Indicates if fetchQuizzes supports fetching only created or modified QuizData.
+     *
+     * @return true if fetchQuizzes supports fetching only created or modified QuizData */
+    public boolean supportsModificationTime() {
+        return false;
+    }
+
+    /** Runs the given QuizData request on the circuit breaker of this CourseAccess. The request is cut off
+     * after the maximal blocking time of the circuit breaker and is not done at all while the breaker is open.
+     *
+     * @param quizzesSupplier the QuizData request to the LMS
+     * @return Result refer to the requested QuizData or to an error when happened */
+    protected Result<List<QuizData>> protectedFetch(final Supplier<List<QuizData>> quizzesSupplier) {
+        return this.allQuizzesSupplier
+                .getDelegate()
+                .protectedRun(quizzesSupplier);
+    }
+
     protected abstract Supplier<List<QuizData>> allQuizzesSupplier();
 
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.joda.time.DateTime;
+
+import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.model.exam.SebRestriction;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetupTestResult;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPIService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPITemplate;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.QuizIndex;
+
+/** Decorates a LmsAPITemplate to serve the QuizData from the local QuizIndex instead of requesting the LMS API.
+ *
+ * As long as the LMS setup is not indexed, the QuizData is requested from the decorated LmsAPITemplate.
+ * QuizData that is requested by identifier but is not indexed yet is also requested from the decorated
+ * LmsAPITemplate. All other functionality is delegated to the decorated LmsAPITemplate. */
+final class IndexedLmsAPITemplate implements LmsAPITemplate {
+
+    private final LmsAPITemplate delegate;
+    private final QuizIndex quizIndex;
+
+    IndexedLmsAPITemplate(final LmsAPITemplate delegate, final QuizIndex quizIndex) {
+        this.delegate = delegate;
+        this.quizIndex = quizIndex;
+    }
+
+    @Override
+    public LmsSetup lmsSetup() {
+        return this.delegate.lmsSetup();
+    }
+
+    @Override
+    public LmsSetupTestResult testCourseAccessAPI() {
+        return this.delegate.testCourseAccessAPI();
+    }
+
+    @Override
+    public LmsSetupTestResult testCourseRestrictionAPI() {
+        return this.delegate.testCourseRestrictionAPI();
+    }
+
+    @Override
+    public Result<List<QuizData>> getQuizzes(final FilterMap filterMap) {
+        final Long lmsSetupId = this.delegate.lmsSetup().id;
+        if (!this.quizIndex.isIndexed(lmsSetupId)) {
+            return this.delegate.getQuizzes(filterMap);
+        }
+
+        return this.quizIndex
+                .getQuizzes(lmsSetupId)
+                .map(quizzes -> quizzes
+                        .stream()
+                        .filter(LmsAPIService.quizFilterPredicate(filterMap))
+                        .collect(Collectors.toList()));
+    }
+
+    @Override
+    public Collection<Result<QuizData>> getQuizzes(final Set<String> ids) {
+        return getQuizzesFromIndex(ids, this.delegate::getQuizzes);
+    }
+
+    @Override
+    public Collection<Result<QuizData>> getQuizzesFromCache(final Set<String> ids) {
+        return getQuizzesFromIndex(ids, this.delegate::getQuizzesFromCache);
+    }
+
+    @Override
+    public Result<QuizData> getQuizFromCache(final String id) {
+        return this.quizIndex
+                .getQuiz(this.delegate.lmsSetup().id, id)
+                .orElse(() -> this.delegate.getQuizFromCache(id));
+    }
+
+    @Override
+    public Result<List<QuizData>> fetchQuizzes(final DateTime modifiedSince) {
+        return this.delegate.fetchQuizzes(modifiedSince);
+    }
+
+    @Override
+    public boolean supportsModificationTime() {
+        return this.delegate.supportsModificationTime();
+    }
+
+    @Override
+    public Result<SebRestriction> getSebClientRestriction(final Exam exam) {
+        return this.delegate.getSebClientRestriction(exam);
+    }
+
+    @Override
+    public Result<SebRestriction> applySebClientRestriction(
+            final String externalExamId,
+            final SebRestriction sebRestrictionData) {
+
+        return this.delegate.applySebClientRestriction(externalExamId, sebRestrictionData);
+    }
+
+    @Override
+    public Result<Exam> releaseSebClientRestriction(final Exam exam) {
+        return this.delegate.releaseSebClientRestriction(exam);
+    }
+
+    private Collection<Result<QuizData>> getQuizzesFromIndex(
+            final Set<String> ids,
+            final Function<Set<String>, Collection<Result<QuizData>>> fallback) {
+
+        final Long lmsSetupId = this.delegate.lmsSetup().id;
+        if (!this.quizIndex.isIndexed(lmsSetupId)) {
+            return fallback.apply(ids);
+        }
+
+        final List<Result<QuizData>> result = new ArrayList<>();
+        final Set<String> missing = new HashSet<>();
+        for (final String id : ids) {
+            final Result<QuizData> quiz = this.quizIndex.getQuiz(lmsSetupId, id);
+            if (quiz.hasError()) {
+                missing.add(id);
+            } else {
+                result.add(quiz);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            result.addAll(fallback.apply(missing));
+        }
+
+        return result;
+    }
+
+}
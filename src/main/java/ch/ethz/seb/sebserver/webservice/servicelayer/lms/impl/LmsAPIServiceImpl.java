@@ -9,22 +9,35 @@
 package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import ch.ethz.seb.sebserver.gbl.Constants;
+import ch.ethz.seb.sebserver.gbl.async.AsyncServiceSpringConfig;
 import ch.ethz.seb.sebserver.gbl.model.Page;
 import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
 import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup.LmsType;
 import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetupTestResult;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
@@ -36,8 +49,12 @@ import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.LmsSetupDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPIService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPITemplate;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.QuizIndex;
 import ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.edx.OpenEdxLmsAPITemplateFactory;
 import ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.moodle.MoodleLmsAPITemplateFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Lazy
 @Service
@@ -46,11 +63,23 @@ public class LmsAPIServiceImpl implements LmsAPIService {
 
     private static final Logger log = LoggerFactory.getLogger(LmsAPIServiceImpl.class);
 
+    public static final String METRIC_QUIZ_FETCH_LATENCY = "sebserver.lms.quizzes.fetch";
+    public static final String METRIC_QUIZ_FETCH_ERRORS = "sebserver.lms.quizzes.fetch.errors";
+    private static final String METRIC_TAG_LMS_SETUP = "lmsSetup";
+    private static final String METRIC_TAG_LMS_TYPE = "lmsType";
+    private static final String METRIC_TAG_CAUSE = "cause";
+    private static final String CAUSE_ERROR = "error";
+    private static final String CAUSE_TIMEOUT = "timeout";
+
     private final LmsSetupDAO lmsSetupDAO;
     private final ClientCredentialService clientCredentialService;
     private final WebserviceInfo webserviceInfo;
     private final OpenEdxLmsAPITemplateFactory openEdxLmsAPITemplateFactory;
     private final MoodleLmsAPITemplateFactory moodleLmsAPITemplateFactory;
+    private final QuizIndex quizIndex;
+    private final MeterRegistry meterRegistry;
+    private final Executor lmsFetchExecutor;
+    private final long quizFetchTimeout;
 
     private final Map<CacheKey, LmsAPITemplate> cache = new ConcurrentHashMap<>();
 
@@ -59,13 +88,21 @@ public class LmsAPIServiceImpl implements LmsAPIService {
             final MoodleLmsAPITemplateFactory moodleLmsAPITemplateFactory,
             final LmsSetupDAO lmsSetupDAO,
             final ClientCredentialService clientCredentialService,
-            final WebserviceInfo webserviceInfo) {
+            final WebserviceInfo webserviceInfo,
+            final QuizIndex quizIndex,
+            final MeterRegistry meterRegistry,
+            @Qualifier(AsyncServiceSpringConfig.LMS_FETCH_EXECUTOR_BEAN_NAME) final Executor lmsFetchExecutor,
+            @Value("${sebserver.webservice.lms.quiz.fetch.timeout:10000}") final long quizFetchTimeout) {
 
         this.openEdxLmsAPITemplateFactory = openEdxLmsAPITemplateFactory;
         this.moodleLmsAPITemplateFactory = moodleLmsAPITemplateFactory;
         this.lmsSetupDAO = lmsSetupDAO;
         this.clientCredentialService = clientCredentialService;
         this.webserviceInfo = webserviceInfo;
+        this.quizIndex = quizIndex;
+        this.meterRegistry = meterRegistry;
+        this.lmsFetchExecutor = lmsFetchExecutor;
+        this.quizFetchTimeout = quizFetchTimeout;
     }
 
     /** Listen to LmsSetupChangeEvent to release an affected LmsAPITemplate from cache
@@ -93,9 +130,10 @@ public class LmsAPIServiceImpl implements LmsAPIService {
             final int pageNumber,
             final int pageSize,
             final String sort,
-            final FilterMap filterMap) {
+            final FilterMap filterMap,
+            final Consumer<Collection<LmsSetup>> unavailableLmsSetups) {
 
-        return getAllQuizzesFromLMSSetups(filterMap)
+        return getAllQuizzesFromLMSSetups(filterMap, unavailableLmsSetups)
                 .map(LmsAPIService.quizzesSortFunction(sort))
                 .map(LmsAPIService.quizzesToPageFunction(sort, pageNumber, pageSize));
     }
@@ -142,36 +180,134 @@ public class LmsAPIServiceImpl implements LmsAPIService {
 
     /** Collect all QuizData from all affecting LmsSetup.
      * If filterMap contains a LmsSetup identifier, only the QuizData from that LmsSetup is collected.
-     * Otherwise QuizData from all active LmsSetup of the current institution are collected.
+     * Otherwise QuizData from all active LmsSetup of the current institution are collected concurrently.
      *
      * @param filterMap the FilterMap containing either an LmsSetup identifier or an institution identifier
+     * @param unavailableLmsSetups consumer of the LmsSetup that did not respond in time or with an error
      * @return list of QuizData from all affecting LmsSetup */
-    private Result<List<QuizData>> getAllQuizzesFromLMSSetups(final FilterMap filterMap) {
+    private Result<List<QuizData>> getAllQuizzesFromLMSSetups(
+            final FilterMap filterMap,
+            final Consumer<Collection<LmsSetup>> unavailableLmsSetups) {
 
         return Result.tryCatch(() -> {
             // case 1. if lmsSetupId is available only get quizzes from specified LmsSetup
             final Long lmsSetupId = filterMap.getLmsSetupId();
             if (lmsSetupId != null) {
-                return getLmsAPITemplate(lmsSetupId)
-                        .flatMap(template -> template.getQuizzes(filterMap))
+                return getLmsSetup(lmsSetupId)
+                        .flatMap(lmsSetup -> fetchQuizzes(lmsSetup, filterMap))
                         .getOrThrow();
             }
 
-            // case 2. get quizzes from all LmsSetups of specified institution
+            // case 2. get quizzes from all LmsSetups of specified institution concurrently
             final Long institutionId = filterMap.getInstitutionId();
-            return this.lmsSetupDAO.all(institutionId, true)
+            final List<QuizRequest> requests = this.lmsSetupDAO.all(institutionId, true)
                     .getOrThrow()
                     .stream()
-                    .map(this::getLmsAPITemplate)
-                    .flatMap(Result::onErrorLogAndSkip)
-                    .map(template -> template.getQuizzes(filterMap))
-                    .flatMap(Result::onErrorLogAndSkip)
-                    .flatMap(List::stream)
-                    .distinct()
+                    .map(lmsSetup -> new QuizRequest(lmsSetup, requestQuizzes(lmsSetup, filterMap)))
                     .collect(Collectors.toList());
+
+            return gatherQuizzes(requests, unavailableLmsSetups);
         });
     }
 
+    /** Starts the QuizData request for a LmsSetup on the LMS fetch executor. The request is a FutureTask
+     * and not a CompletableFuture since cancelling a FutureTask interrupts the thread that runs the request.
+     *
+     * @param lmsSetup the LmsSetup to request the QuizData from
+     * @param filterMap the FilterMap to filter the QuizData
+     * @return the running QuizData request */
+    private Future<List<QuizData>> requestQuizzes(final LmsSetup lmsSetup, final FilterMap filterMap) {
+        final FutureTask<List<QuizData>> request = new FutureTask<>(
+                () -> fetchQuizzes(lmsSetup, filterMap).getOrThrow());
+        try {
+            this.lmsFetchExecutor.execute(request);
+            return request;
+        } catch (final Exception e) {
+            // the request has been rejected by the executor
+            final CompletableFuture<List<QuizData>> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+    }
+
+    /** Waits for the requested QuizData of all LmsSetup. Since all requests are started at the same time,
+     * each LmsSetup has the quiz fetch timeout from that start on as deadline to respond. The LmsSetup that
+     * did not respond in time or responded with an error are skipped and reported to the given consumer.
+     * A request that did not respond in time is cancelled, which interrupts the thread that runs it.
+     *
+     * @param requests the running QuizData requests for all LmsSetup
+     * @param unavailableLmsSetups consumer of the LmsSetup that did not respond in time or with an error
+     * @return list of QuizData from all LmsSetup that responded in time */
+    private List<QuizData> gatherQuizzes(
+            final List<QuizRequest> requests,
+            final Consumer<Collection<LmsSetup>> unavailableLmsSetups) {
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.quizFetchTimeout);
+        final List<QuizData> result = new ArrayList<>();
+        final List<LmsSetup> unavailable = new ArrayList<>();
+        for (final QuizRequest request : requests) {
+            try {
+                result.addAll(request.quizzes.get(
+                        Math.max(0, deadline - System.nanoTime()),
+                        TimeUnit.NANOSECONDS));
+            } catch (final TimeoutException e) {
+                log.warn("LMS setup: {} did not respond within: {} ms",
+                        request.lmsSetup.name,
+                        this.quizFetchTimeout);
+                request.quizzes.cancel(true);
+                quizFetchErrorCounter(request.lmsSetup, CAUSE_TIMEOUT).increment();
+                unavailable.add(request.lmsSetup);
+            } catch (final ExecutionException e) {
+                log.warn("Failed to get quizzes from LMS setup: {} cause: {}",
+                        request.lmsSetup.name,
+                        (e.getCause() != null) ? e.getCause().getMessage() : e.getMessage());
+                unavailable.add(request.lmsSetup);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                request.quizzes.cancel(true);
+                unavailable.add(request.lmsSetup);
+            }
+        }
+
+        if (!unavailable.isEmpty()) {
+            unavailableLmsSetups.accept(unavailable);
+        }
+
+        return result
+                .stream()
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private Result<List<QuizData>> fetchQuizzes(final LmsSetup lmsSetup, final FilterMap filterMap) {
+        final long startTime = System.nanoTime();
+        final Result<List<QuizData>> quizzes = getLmsAPITemplate(lmsSetup)
+                .flatMap(template -> template.getQuizzes(filterMap));
+
+        Timer.builder(METRIC_QUIZ_FETCH_LATENCY)
+                .description("Time to get the quizzes from the LMS of a LMS setup")
+                .tag(METRIC_TAG_LMS_SETUP, lmsSetup.getModelId())
+                .tag(METRIC_TAG_LMS_TYPE, lmsSetup.lmsType.name())
+                .register(this.meterRegistry)
+                .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+
+        // a request that has been cancelled because of the timeout is already counted as timeout
+        if (quizzes.hasError() && !Thread.currentThread().isInterrupted()) {
+            quizFetchErrorCounter(lmsSetup, CAUSE_ERROR).increment();
+        }
+
+        return quizzes;
+    }
+
+    private Counter quizFetchErrorCounter(final LmsSetup lmsSetup, final String cause) {
+        return Counter.builder(METRIC_QUIZ_FETCH_ERRORS)
+                .description("Number of failed or timed out quiz requests to the LMS of a LMS setup")
+                .tag(METRIC_TAG_LMS_SETUP, lmsSetup.getModelId())
+                .tag(METRIC_TAG_LMS_TYPE, lmsSetup.lmsType.name())
+                .tag(METRIC_TAG_CAUSE, cause)
+                .register(this.meterRegistry);
+    }
+
     private Result<LmsAPITemplate> getLmsAPITemplate(final LmsSetup lmsSetup) {
         return Result.tryCatch(() -> {
             LmsAPITemplate lmsAPITemplate = getFromCache(lmsSetup);
@@ -209,7 +345,12 @@ public class LmsAPIServiceImpl implements LmsAPIService {
                 .getLmsAPIAccessProxyData(lmsSetup.getModelId())
                 .getOr(null);
 
-        return createLmsSetupTemplate(lmsSetup, credentials, proxyData);
+        final LmsAPITemplate lmsAPITemplate = createLmsSetupTemplate(lmsSetup, credentials, proxyData);
+
+        // the quizzes of an LMS are served from the local quiz index. The mockup has no LMS API to index
+        return (lmsSetup.lmsType == LmsType.MOCKUP)
+                ? lmsAPITemplate
+                : new IndexedLmsAPITemplate(lmsAPITemplate, this.quizIndex);
     }
 
     private LmsAPITemplate createLmsSetupTemplate(
@@ -237,6 +378,16 @@ public class LmsAPIServiceImpl implements LmsAPIService {
         }
     }
 
+    private static final class QuizRequest {
+        final LmsSetup lmsSetup;
+        final Future<List<QuizData>> quizzes;
+
+        QuizRequest(final LmsSetup lmsSetup, final Future<List<QuizData>> quizzes) {
+            this.lmsSetup = lmsSetup;
+            this.quizzes = quizzes;
+        }
+    }
+
     private static final class CacheKey {
         final String lmsSetupId;
         final long creationTimestamp;
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import ch.ethz.seb.sebserver.gbl.api.EntityType;
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
+import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.QuizDataDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ResourceNotFoundException;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.QuizIndex;
+
+@Lazy
+@Service
+@WebServiceProfile
+public class QuizIndexImpl implements QuizIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizIndexImpl.class);
+
+    private final QuizDataDAO quizDataDAO;
+
+    /** The in-memory index of all LMS setups. The index of an LMS setup is an immutable snapshot
+     * that is replaced on update and loaded lazily from the persistent index on first access */
+    private final Map<Long, Map<String, QuizData>> index = new ConcurrentHashMap<>();
+
+    public QuizIndexImpl(final QuizDataDAO quizDataDAO) {
+        this.quizDataDAO = quizDataDAO;
+    }
+
+    /** Listen to LmsSetupChangeEvent to remove the index of the changed LmsSetup.
+     * The index is rebuilt with the next synchronization with the LMS.
+     *
+     * @param event the event holding the changed LmsSetup */
+    @EventListener
+    public void notifyLmsSetupChange(final LmsSetupChangeEvent event) {
+        final LmsSetup lmsSetup = event.getLmsSetup();
+        if (lmsSetup == null) {
+            return;
+        }
+
+        remove(lmsSetup.id);
+    }
+
+    @Override
+    public boolean isIndexed(final Long lmsSetupId) {
+        return getIndex(lmsSetupId) != null;
+    }
+
+    @Override
+    public Result<Collection<QuizData>> getQuizzes(final Long lmsSetupId) {
+        return Result.tryCatch(() -> {
+            final Map<String, QuizData> quizzes = getIndex(lmsSetupId);
+            if (quizzes == null) {
+                throw new IllegalStateException("The quizzes of LMS setup: " + lmsSetupId + " are not indexed");
+            }
+            return quizzes.values();
+        });
+    }
+
+    @Override
+    public Result<QuizData> getQuiz(final Long lmsSetupId, final String externalId) {
+        return Result.tryCatch(() -> {
+            final Map<String, QuizData> quizzes = getIndex(lmsSetupId);
+            final QuizData quiz = (quizzes != null) ? quizzes.get(externalId) : null;
+            if (quiz == null) {
+                throw new ResourceNotFoundException(EntityType.EXAM, externalId);
+            }
+            return quiz;
+        });
+    }
+
+    @Override
+    public synchronized Result<Integer> update(
+            final Long lmsSetupId,
+            final Collection<QuizData> quizzes,
+            final boolean full,
+            final long updateTime) {
+
+        return Result.tryCatch(() -> {
+            final Map<String, QuizData> current = (full) ? Collections.emptyMap() : getIndex(lmsSetupId);
+            if (current == null) {
+                throw new IllegalStateException(
+                        "The quizzes of LMS setup: " + lmsSetupId + " are not indexed. A full update is needed");
+            }
+
+            final int changes = this.quizDataDAO
+                    .saveAll(lmsSetupId, quizzes, full, updateTime)
+                    .getOrThrow();
+
+            final Map<String, QuizData> newIndex = new HashMap<>(current);
+            quizzes
+                    .stream()
+                    .filter(quiz -> lmsSetupId.equals(quiz.lmsSetupId))
+                    .forEach(quiz -> newIndex.put(quiz.id, quiz));
+            this.index.put(lmsSetupId, Collections.unmodifiableMap(newIndex));
+
+            return changes;
+        });
+    }
+
+    @Override
+    public void invalidate(final Long lmsSetupId) {
+        this.index.remove(lmsSetupId);
+    }
+
+    @Override
+    public synchronized void remove(final Long lmsSetupId) {
+        log.debug("Remove quiz index of LMS setup: {}", lmsSetupId);
+
+        this.index.remove(lmsSetupId);
+        this.quizDataDAO
+                .deleteAll(lmsSetupId)
+                .onError(error -> log.error("Failed to delete quiz index of LMS setup: {}", lmsSetupId, error));
+    }
+
+    private Map<String, QuizData> getIndex(final Long lmsSetupId) {
+        final Map<String, QuizData> quizzes = this.index.get(lmsSetupId);
+        if (quizzes != null) {
+            return quizzes;
+        }
+
+        // load from persistent index if the LMS setup has been fully synchronized. The index of an LMS
+        // without quizzes is empty but indexed
+        final Long fullUpdateTime = this.quizDataDAO
+                .getSynchronizationTime(lmsSetupId, true)
+                .onError(error -> log.error("Failed to get quiz index state of LMS setup: {}", lmsSetupId, error))
+                .getOr(null);
+
+        if (fullUpdateTime == null) {
+            return null;
+        }
+
+        final Collection<QuizData> indexed = this.quizDataDAO
+                .allOf(lmsSetupId)
+                .onError(error -> log.error("Failed to load quiz index of LMS setup: {}", lmsSetupId, error))
+                .getOr(null);
+
+        if (indexed == null) {
+            return null;
+        }
+
+        final Map<String, QuizData> loaded = Collections.unmodifiableMap(indexed
+                .stream()
+                .collect(Collectors.toMap(quiz -> quiz.id, Function.identity(), (q1, q2) -> q1)));
+        final Map<String, QuizData> previous = this.index.putIfAbsent(lmsSetupId, loaded);
+        return (previous != null) ? previous : loaded;
+    }
+
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import ch.ethz.seb.sebserver.SEBServerInit;
+import ch.ethz.seb.sebserver.SEBServerInitEvent;
+import ch.ethz.seb.sebserver.gbl.Constants;
+import ch.ethz.seb.sebserver.gbl.async.AsyncServiceSpringConfig;
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup.LmsType;
+import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.LmsSetupDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.QuizDataDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPIService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPITemplate;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.QuizIndex;
+
+/** Background task that synchronizes the QuizIndex with the LMS of all active LMS setups.
+ *
+ * The first synchronization of an LMS setup is a full update. After that, only the QuizData that has been
+ * created or modified since the last synchronization is fetched if the LMS supports modification times.
+ * A full update is done on the full-update-interval to also get deleted quizzes and changes the LMS does
+ * not report with a modification time.
+ *
+ * The synchronization runs on its own executor and not on the scheduler thread. The times of the last
+ * synchronizations are persistent and an LMS setup is only synchronized by the webservice instance that holds
+ * its synchronization lock. The other instances skip it and reload their in-memory index of the LMS setup
+ * from the persistent index when it has been synchronized.
+ *
+ * The quiz name, start time and end time of the exams of an LMS setup are synchronized with the fetched QuizData.
+ * The QuizData of LMS mockups is not indexed but also synchronized with the exams of the mockup. */
+@Service
+@WebServiceProfile
+class QuizIndexSyncTask implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizIndexSyncTask.class);
+
+    private final LmsSetupDAO lmsSetupDAO;
+    private final ExamDAO examDAO;
+    private final LmsAPIService lmsAPIService;
+    private final QuizIndex quizIndex;
+    private final QuizDataDAO quizDataDAO;
+    private final Executor executor;
+    private final long updateInterval;
+    private final long fullUpdateInterval;
+    private final long lockTimeout;
+
+    /** Identifies this webservice instance as owner of the synchronization locks */
+    private final String lockOwner = UUID.randomUUID().toString();
+    /** The time of the last synchronization per LMS setup that the in-memory index of this instance is based on */
+    private final Map<Long, Long> lastUpdate = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private boolean quizIndexUpdateActive = false;
+
+    protected QuizIndexSyncTask(
+            final LmsSetupDAO lmsSetupDAO,
+            final ExamDAO examDAO,
+            final LmsAPIService lmsAPIService,
+            final QuizIndex quizIndex,
+            final QuizDataDAO quizDataDAO,
+            @Qualifier(AsyncServiceSpringConfig.QUIZ_INDEX_SYNC_EXECUTOR_BEAN_NAME) final Executor executor,
+            @Value("${sebserver.webservice.lms.quiz.index.update-interval:300000}") final long updateInterval,
+            @Value("${sebserver.webservice.lms.quiz.index.full-update-interval:86400000}") final long fullUpdateInterval,
+            @Value("${sebserver.webservice.lms.quiz.index.lock-timeout:1800000}") final long lockTimeout) {
+
+        this.lmsSetupDAO = lmsSetupDAO;
+        this.examDAO = examDAO;
+        this.lmsAPIService = lmsAPIService;
+        this.quizIndex = quizIndex;
+        this.quizDataDAO = quizDataDAO;
+        this.executor = executor;
+        this.updateInterval = updateInterval;
+        this.fullUpdateInterval = fullUpdateInterval;
+        this.lockTimeout = lockTimeout;
+    }
+
+    @EventListener(SEBServerInitEvent.class)
+    public void init() {
+        SEBServerInit.INIT_LOGGER.info("------>");
+        SEBServerInit.INIT_LOGGER.info(
+                "------> Activate LMS quiz index update background task on a fix delay of: {} milliseconds",
+                this.updateInterval);
+        SEBServerInit.INIT_LOGGER.info(
+                "--------> Full update of the quiz index on an interval of: {} milliseconds",
+                this.fullUpdateInterval);
+
+        this.quizIndexUpdateActive = true;
+    }
+
+    @Scheduled(fixedDelayString = "${sebserver.webservice.lms.quiz.index.update-interval:300000}")
+    public void quizIndexUpdateTask() {
+
+        if (!this.quizIndexUpdateActive) {
+            return;
+        }
+
+        // the previous synchronization is still running
+        if (!this.running.compareAndSet(false, true)) {
+            log.debug("Skip quiz index update, previous update still running");
+            return;
+        }
+
+        try {
+            this.executor.execute(() -> {
+                try {
+                    updateQuizIndex();
+                } finally {
+                    this.running.set(false);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            this.running.set(false);
+            log.warn("Failed to start quiz index update cause: {}", e.getMessage());
+        }
+    }
+
+    private void updateQuizIndex() {
+        try {
+            this.lmsSetupDAO.all(null, true)
+                    .getOrThrow()
+                    .forEach(lmsSetup -> {
+                        if (lmsSetup.lmsType == LmsType.MOCKUP) {
+                            updateMockupExamQuizData(lmsSetup);
+                        } else {
+                            updateQuizIndex(lmsSetup);
+                        }
+                    });
+        } catch (final Exception e) {
+            log.error("Unexpected error while trying to update the quiz index: ", e);
+        }
+    }
+
+    private void updateQuizIndex(final LmsSetup lmsSetup) {
+        final Long lmsSetupId = lmsSetup.id;
+        final long startTime = Utils.getMillisecondsNow();
+
+        // reload the in-memory index if the LMS setup has been synchronized by another instance and skip it if that
+        // has been recently. NOTE: half of the update interval to not skip the regular synchronization of this instance
+        final Long syncTime = this.quizDataDAO
+                .getSynchronizationTime(lmsSetupId, false)
+                .getOr(null);
+        if (syncTime != null && !syncTime.equals(this.lastUpdate.get(lmsSetupId))) {
+            this.quizIndex.invalidate(lmsSetupId);
+            this.lastUpdate.put(lmsSetupId, syncTime);
+        }
+        if (syncTime != null && startTime - syncTime < this.updateInterval / 2) {
+            return;
+        }
+
+        final boolean locked = this.quizDataDAO
+                .lockSynchronization(lmsSetupId, this.lockOwner, this.lockTimeout)
+                .onError(error -> log.warn(
+                        "Failed to lock quiz index synchronization of LMS setup: {} cause: {}",
+                        lmsSetup.name,
+                        error.getMessage()))
+                .getOr(false);
+        if (!locked) {
+            log.debug("Quiz index of LMS setup: {} is synchronized by another instance", lmsSetup.name);
+            return;
+        }
+
+        try {
+
+            final LmsAPITemplate template = this.lmsAPIService
+                    .getLmsAPITemplate(lmsSetupId)
+                    .getOrThrow();
+
+            // NOTE: the synchronization time is read again since another instance may have synchronized meanwhile
+            final Long lastUpdate = this.quizDataDAO
+                    .getSynchronizationTime(lmsSetupId, false)
+                    .getOrThrow();
+            if (lastUpdate != null && !lastUpdate.equals(syncTime)) {
+                this.quizIndex.invalidate(lmsSetupId);
+                this.lastUpdate.put(lmsSetupId, lastUpdate);
+                return;
+            }
+
+            final Long lastFullUpdate = this.quizDataDAO
+                    .getSynchronizationTime(lmsSetupId, true)
+                    .getOrThrow();
+            final boolean fullUpdate = lastUpdate == null
+                    || lastFullUpdate == null
+                    || startTime - lastFullUpdate >= this.fullUpdateInterval
+                    || !template.supportsModificationTime()
+                    || !this.quizIndex.isIndexed(lmsSetupId);
+
+            // NOTE: the modification time is set back one minute to compensate small clock differences with the LMS
+            final DateTime modifiedSince = (fullUpdate)
+                    ? null
+                    : new DateTime(lastUpdate - Constants.MINUTE_IN_MILLIS, DateTimeZone.UTC);
+
+            final List<QuizData> quizzes = template
+                    .fetchQuizzes(modifiedSince)
+                    .getOrThrow();
+            final int changes = this.quizIndex
+                    .update(lmsSetupId, quizzes, fullUpdate, startTime)
+                    .getOrThrow();
+            this.lastUpdate.put(lmsSetupId, startTime);
+
+            updateExamQuizData(lmsSetup, quizzes);
+
+            if (log.isDebugEnabled() || changes > 0) {
+                log.info("Updated quiz index of LMS setup: {} full update: {} changes: {} time: {} ms",
+                        lmsSetup.name,
+                        fullUpdate,
+                        changes,
+                        Utils.getMillisecondsNow() - startTime);
+            }
+
+        } catch (final Exception e) {
+            log.warn("Failed to update quiz index of LMS setup: {} cause: {}", lmsSetup.name, e.getMessage());
+        } finally {
+            this.quizDataDAO
+                    .releaseSynchronization(lmsSetupId, this.lockOwner)
+                    .onError(error -> log.warn(
+                            "Failed to release quiz index synchronization lock of LMS setup: {} cause: {}",
+                            lmsSetup.name,
+                            error.getMessage()));
+        }
+    }
+
+    private void updateMockupExamQuizData(final LmsSetup lmsSetup) {
+        this.lmsAPIService
+                .getLmsAPITemplate(lmsSetup.id)
+                .flatMap(template -> template.getQuizzes(new FilterMap()))
+                .onError(error -> log.warn(
+                        "Failed to get quizzes of LMS setup: {} cause: {}",
+                        lmsSetup.name,
+                        error.getMessage()))
+                .ifPresent(quizzes -> updateExamQuizData(lmsSetup, quizzes));
+    }
+
+    private void updateExamQuizData(final LmsSetup lmsSetup, final Collection<QuizData> quizzes) {
+        this.examDAO
+                .updateQuizData(lmsSetup.id, quizzes)
+                .onError(error -> log.warn(
+                        "Failed to update quiz data of the exams of LMS setup: {} cause: {}",
+                        lmsSetup.name,
+                        error.getMessage()))
+                .ifPresent(changes -> {
+                    if (changes > 0) {
+                        log.info("Updated quiz data of {} exams of LMS setup: {}", changes, lmsSetup.name);
+                    }
+                });
+    }
+
+    @Override
+    public void destroy() {
+        this.quizIndexUpdateActive = false;
+    }
+
+}
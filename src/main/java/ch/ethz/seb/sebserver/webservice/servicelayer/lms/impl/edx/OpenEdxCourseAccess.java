@@ -63,7 +63,7 @@ final class OpenEdxCourseAccess extends CourseAccess {
             final WebserviceInfo webserviceInfo,
             final AsyncService asyncService) {
 
-        super(asyncService);
+        super(lmsSetup, asyncService);
         this.lmsSetup = lmsSetup;
         this.openEdxRestTemplateFactory = openEdxRestTemplateFactory;
         this.webserviceInfo = webserviceInfo;
@@ -14,6 +14,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -78,6 +79,16 @@ final class OpenEdxLmsAPITemplate implements LmsAPITemplate {
                 .getOrElse(() -> getQuizzes(ids));
     }
 
+    @Override
+    public Result<List<QuizData>> fetchQuizzes(final DateTime modifiedSince) {
+        return this.openEdxCourseAccess.fetchQuizzes(modifiedSince);
+    }
+
+    @Override
+    public boolean supportsModificationTime() {
+        return this.openEdxCourseAccess.supportsModificationTime();
+    }
+
     @Override
     public Result<SebRestriction> getSebClientRestriction(final Exam exam) {
         if (log.isDebugEnabled()) {
@@ -8,15 +8,24 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.moodle;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiPredicate;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
+import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.LinkedMultiValueMap;
@@ -24,7 +33,8 @@ import org.springframework.util.LinkedMultiValueMap;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 
 import ch.ethz.seb.sebserver.gbl.api.JSONMapper;
 import ch.ethz.seb.sebserver.gbl.async.AsyncService;
@@ -47,10 +57,15 @@ public class MoodleCourseAccess extends CourseAccess {
     private static final String MOODLE_COURSE_API_FUNCTION_NAME = "core_course_get_courses";
     private static final String MOODLE_QUIZ_API_FUNCTION_NAME = "mod_quiz_get_quizzes_by_courses";
     private static final String MOODLE_COURSE_API_COURSE_IDS = "courseids";
+    private static final String MOODLE_QUIZ_API_QUIZZES = "quizzes";
+    private static final String MOODLE_API_ERROR_EXCEPTION = "exception";
 
     private final JSONMapper jsonMapper;
     private final LmsSetup lmsSetup;
     private final MoodleRestTemplateFactory moodleRestTemplateFactory;
+    private final Executor executor;
+    private final int quizRequestChunkSize;
+    private final int quizRequestParallelism;
 
     private MoodleAPIRestTemplate restTemplate;
 
@@ -58,12 +73,18 @@ public class MoodleCourseAccess extends CourseAccess {
             final JSONMapper jsonMapper,
             final LmsSetup lmsSetup,
             final MoodleRestTemplateFactory moodleRestTemplateFactory,
-            final AsyncService asyncService) {
+            final AsyncService asyncService,
+            final Executor executor,
+            final int quizRequestChunkSize,
+            final int quizRequestParallelism) {
 
-        super(asyncService);
+        super(lmsSetup, asyncService);
         this.jsonMapper = jsonMapper;
         this.lmsSetup = lmsSetup;
         this.moodleRestTemplateFactory = moodleRestTemplateFactory;
+        this.executor = executor;
+        this.quizRequestChunkSize = Math.max(1, quizRequestChunkSize);
+        this.quizRequestParallelism = Math.max(1, quizRequestParallelism);
     }
 
     LmsSetupTestResult initAPIAccess() {
@@ -98,103 +119,249 @@ public class MoodleCourseAccess extends CourseAccess {
     @Override
     protected Supplier<List<QuizData>> allQuizzesSupplier() {
         return () -> getRestTemplate()
-                .map(this::collectAllQuizzes)
+                .map(restTemplate -> collectAllQuizzes(restTemplate, (course, quiz) -> true))
                 .getOrThrow();
     }
 
-    private ArrayList<QuizData> collectAllQuizzes(final MoodleAPIRestTemplate restTemplate) {
-        final String urlPrefix = this.lmsSetup.lmsApiUrl + MOODLE_QUIZ_START_URL_PATH;
-        return collectAllCourses(
-                restTemplate)
-                        .stream()
-                        .reduce(
-                                new ArrayList<>(),
-                                (list, courseData) -> {
-                                    list.addAll(quizDataOf(
-                                            this.lmsSetup,
-                                            courseData,
-                                            urlPrefix));
-                                    return list;
-                                },
-                                (list1, list2) -> {
-                                    list1.addAll(list2);
-                                    return list1;
-                                });
+    /** Moodle gives the modification time of a course and of a quiz. If a modifiedSince time is given, only the
+     * quizzes that have been created or modified since then or that belong to a course that has been modified
+     * since then are given back. The quizzes of all courses are requested for that since Moodle does not update
+     * the modification time of a course if only a quiz of the course has changed. */
+    @Override
+    public Result<List<QuizData>> fetchQuizzes(final DateTime modifiedSince) {
+        if (modifiedSince == null) {
+            return super.fetchQuizzes(null);
+        }
+
+        // Moodle uses unix-time seconds
+        final long since = modifiedSince.getMillis() / 1000;
+        return protectedFetch(() -> getRestTemplate()
+                .map(restTemplate -> collectAllQuizzes(
+                        restTemplate,
+                        (course, quiz) -> modifiedSince(course, quiz, since)))
+                .getOrThrow());
     }
 
-    private List<CourseData> collectAllCourses(final MoodleAPIRestTemplate restTemplate) {
+    @Override
+    public boolean supportsModificationTime() {
+        return true;
+    }
+
+    /** Indicates if a quiz or its course has been modified since the given unix-time in seconds.
+     * A quiz without modification time is taken as modified. */
+    static boolean modifiedSince(final CourseData course, final CourseQuiz quiz, final long since) {
+        return (course.time_modified != null && course.time_modified >= since)
+                || quiz.time_modified == null
+                || quiz.time_modified >= since;
+    }
+
+    private List<QuizData> collectAllQuizzes(
+            final MoodleAPIRestTemplate restTemplate,
+            final BiPredicate<CourseData, CourseQuiz> quizFilter) {
 
         try {
 
             // first get courses form Moodle...
-            final String coursesJSON = restTemplate.callMoodleAPIFunction(MOODLE_COURSE_API_FUNCTION_NAME);
-            final Map<String, CourseData> courseData = this.jsonMapper.<Collection<CourseData>> readValue(
-                    coursesJSON,
-                    new TypeReference<Collection<CourseData>>() {
-                    })
-                    .stream()
-                    .collect(Collectors.toMap(d -> d.id, Function.identity()));
-
-            // then get all quizzes of courses and filter
-            final LinkedMultiValueMap<String, String> attributes = new LinkedMultiValueMap<>();
-            attributes.put(MOODLE_COURSE_API_COURSE_IDS, new ArrayList<>(courseData.keySet()));
-
-            final String quizzesJSON = restTemplate.callMoodleAPIFunction(
-                    MOODLE_QUIZ_API_FUNCTION_NAME,
-                    attributes);
-
-            final CourseQuizData courseQuizData = this.jsonMapper.readValue(
-                    quizzesJSON,
-                    CourseQuizData.class);
-
-            courseQuizData.quizzes
-                    .forEach(quiz -> {
-                        final CourseData course = courseData.get(quiz.course);
-                        if (course != null) {
-                            course.quizzes.add(quiz);
-                        }
-                    });
+            final Map<String, CourseData> courses = restTemplate.callMoodleAPIFunction(
+                    MOODLE_COURSE_API_FUNCTION_NAME,
+                    null,
+                    response -> readCourses(response.getBody(), course -> true));
 
-            return courseData.values()
-                    .stream()
-                    .filter(c -> !c.quizzes.isEmpty())
-                    .collect(Collectors.toList());
+            // NOTE: Moodle gives the quizzes of all courses if no course identifier is given
+            if (courses.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            // then get all quizzes of the courses in chunks of course identifiers
+            final String urlPrefix = this.lmsSetup.lmsApiUrl + MOODLE_QUIZ_START_URL_PATH;
+            return collectQuizzesInChunks(
+                    new ArrayList<>(courses.keySet()),
+                    chunk -> requestQuizzes(restTemplate, chunk, courses, urlPrefix, quizFilter));
         } catch (final Exception e) {
             throw new RuntimeException("Unexpected exception while trying to get course data: ", e);
         }
     }
 
-    static Map<String, String> additionalAttrs = new HashMap<>();
-    private static List<QuizData> quizDataOf(
+    /** Requests the quizzes of the given courses in chunks of course identifiers. The chunks are requested
+     * concurrently with a bounded parallelism. The calling thread works on the chunks too, so that all chunks
+     * are processed also if there is no free thread available within the executor.
+     *
+     * @param courseIds the identifiers of the courses to get the quizzes for
+     * @param chunkRequest the function that requests the quizzes of a chunk of course identifiers
+     * @return the quizzes of all chunks
+     * @throws RuntimeException if the request of any chunk has failed */
+    List<QuizData> collectQuizzesInChunks(
+            final List<String> courseIds,
+            final Function<List<String>, List<QuizData>> chunkRequest) throws InterruptedException {
+
+        final Queue<List<String>> chunks = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < courseIds.size(); i += this.quizRequestChunkSize) {
+            chunks.add(courseIds.subList(i, Math.min(i + this.quizRequestChunkSize, courseIds.size())));
+        }
+
+        final int numberOfChunks = chunks.size();
+        final CountDownLatch chunksDone = new CountDownLatch(numberOfChunks);
+        final Queue<QuizData> quizzes = new ConcurrentLinkedQueue<>();
+        final AtomicReference<Exception> error = new AtomicReference<>();
+        final Runnable worker = () -> {
+            List<String> chunk;
+            while ((chunk = chunks.poll()) != null) {
+                try {
+                    // skip the remaining chunks if one has failed
+                    if (error.get() == null) {
+                        quizzes.addAll(chunkRequest.apply(chunk));
+                    }
+                } catch (final Exception e) {
+                    error.compareAndSet(null, e);
+                } finally {
+                    chunksDone.countDown();
+                }
+            }
+        };
+
+        final int additionalWorkers = Math.min(this.quizRequestParallelism, numberOfChunks) - 1;
+        for (int i = 0; i < additionalWorkers; i++) {
+            try {
+                this.executor.execute(worker);
+            } catch (final RejectedExecutionException e) {
+                log.debug("No additional worker available to request the quizzes of: {}", this.lmsSetup.name);
+                break;
+            }
+        }
+
+        worker.run();
+        chunksDone.await();
+
+        // NOTE: partial quiz data must not be given back since a full synchronization would remove missing quizzes
+        if (error.get() != null) {
+            throw new RuntimeException("Failed to get quizzes of course chunk: ", error.get());
+        }
+
+        return new ArrayList<>(quizzes);
+    }
+
+    private List<QuizData> requestQuizzes(
+            final MoodleAPIRestTemplate restTemplate,
+            final List<String> courseIds,
+            final Map<String, CourseData> courses,
+            final String urlPrefix,
+            final BiPredicate<CourseData, CourseQuiz> quizFilter) {
+
+        final LinkedMultiValueMap<String, String> attributes = new LinkedMultiValueMap<>();
+        attributes.put(MOODLE_COURSE_API_COURSE_IDS, courseIds);
+
+        return restTemplate.callMoodleAPIFunction(
+                MOODLE_QUIZ_API_FUNCTION_NAME,
+                attributes,
+                response -> readQuizzes(response.getBody(), courses, urlPrefix, quizFilter));
+    }
+
+    /** Reads the courses from the core_course_get_courses response stream course by course and keeps only the
+     * courses that match the given filter. The response body is parsed from the stream and is not read into a
+     * String first. */
+    Map<String, CourseData> readCourses(
+            final InputStream responseBody,
+            final Predicate<CourseData> courseFilter) throws IOException {
+
+        try (final JsonParser parser = this.jsonMapper.getFactory().createParser(responseBody)) {
+            final JsonToken token = parser.nextToken();
+            if (token != JsonToken.START_ARRAY) {
+                throw new RuntimeException("Failed to call Moodle webservice API function: " +
+                        MOODLE_COURSE_API_FUNCTION_NAME + " lms setup: " + this.lmsSetup +
+                        " response: " + ((token == JsonToken.START_OBJECT) ? this.jsonMapper.readTree(parser) : token));
+            }
+
+            final Map<String, CourseData> courses = new HashMap<>();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                final CourseData course = this.jsonMapper.readValue(parser, CourseData.class);
+                if (courseFilter.test(course)) {
+                    courses.put(course.id, course);
+                }
+            }
+            return courses;
+        }
+    }
+
+    /** Reads the quizzes from the mod_quiz_get_quizzes_by_courses response stream quiz by quiz and maps
+     * them directly to QuizData. The response body is parsed from the stream and is not read into a
+     * String first. */
+    List<QuizData> readQuizzes(
+            final InputStream responseBody,
+            final Map<String, CourseData> courses,
+            final String urlPrefix) throws IOException {
+
+        return readQuizzes(responseBody, courses, urlPrefix, (course, quiz) -> true);
+    }
+
+    /** Reads the quizzes from the mod_quiz_get_quizzes_by_courses response stream like readQuizzes but keeps only
+     * the quizzes that match the given filter. */
+    List<QuizData> readQuizzes(
+            final InputStream responseBody,
+            final Map<String, CourseData> courses,
+            final String urlPrefix,
+            final BiPredicate<CourseData, CourseQuiz> quizFilter) throws IOException {
+
+        try (final JsonParser parser = this.jsonMapper.getFactory().createParser(responseBody)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new RuntimeException("Failed to call Moodle webservice API function: " +
+                        MOODLE_QUIZ_API_FUNCTION_NAME + " lms setup: " + this.lmsSetup +
+                        " unexpected response: " + parser.getCurrentToken());
+            }
+
+            final List<QuizData> quizzes = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+
+                // NOTE: Moodle API error responses come with a 200 OK response HTTP Status
+                if (MOODLE_API_ERROR_EXCEPTION.equals(fieldName)) {
+                    throw new RuntimeException("Failed to call Moodle webservice API function: " +
+                            MOODLE_QUIZ_API_FUNCTION_NAME + " lms setup: " + this.lmsSetup +
+                            " exception: " + parser.getText());
+                }
+
+                if (MOODLE_QUIZ_API_QUIZZES.equals(fieldName) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        final CourseQuiz quiz = this.jsonMapper.readValue(parser, CourseQuiz.class);
+                        final CourseData course = courses.get(quiz.course);
+                        if (course != null && quizFilter.test(course, quiz)) {
+                            quizzes.add(quizDataOf(this.lmsSetup, course, quiz, urlPrefix));
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return quizzes;
+        }
+    }
+
+    private static QuizData quizDataOf(
             final LmsSetup lmsSetup,
             final CourseData courseData,
+            final CourseQuiz courseQuiz,
             final String uriPrefix) {
 
-        additionalAttrs.clear();
+        final Map<String, String> additionalAttrs = new HashMap<>();
         additionalAttrs.put(QuizData.ATTR_ADDITIONAL_CREATION_TIME, String.valueOf(courseData.time_created));
         additionalAttrs.put(QuizData.ATTR_ADDITIONAL_SHORT_NAME, courseData.short_name);
         additionalAttrs.put(QuizData.ATTR_ADDITIONAL_FULL_NAME, courseData.full_name);
         additionalAttrs.put(QuizData.ATTR_ADDITIONAL_DISPLAY_NAME, courseData.display_name);
         additionalAttrs.put(QuizData.ATTR_ADDITIONAL_SUMMARY, courseData.summary);
-
-        return courseData.quizzes
-                .stream()
-                .map(courseQuizData -> {
-                    final String startURI = uriPrefix + courseData.id;
-                    additionalAttrs.put(QuizData.ATTR_ADDITIONAL_TIME_LIMIT, String.valueOf(courseQuizData.time_limit));
-                    return new QuizData(
-                            courseQuizData.id,
-                            lmsSetup.getInstitutionId(),
-                            lmsSetup.id,
-                            lmsSetup.getLmsType(),
-                            courseQuizData.name,
-                            courseQuizData.intro,
-                            Utils.toDateTimeUTCUnix(courseData.start_date),
-                            Utils.toDateTimeUTCUnix(courseData.end_date),
-                            startURI,
-                            additionalAttrs);
-                })
-                .collect(Collectors.toList());
+        additionalAttrs.put(QuizData.ATTR_ADDITIONAL_TIME_LIMIT, String.valueOf(courseQuiz.time_limit));
+
+        final String startURI = uriPrefix + courseData.id;
+        return new QuizData(
+                courseQuiz.id,
+                lmsSetup.getInstitutionId(),
+                lmsSetup.id,
+                lmsSetup.getLmsType(),
+                courseQuiz.name,
+                courseQuiz.intro,
+                Utils.toDateTimeUTCUnix(courseData.start_date),
+                Utils.toDateTimeUTCUnix(courseData.end_date),
+                startURI,
+                additionalAttrs);
     }
 
     private Result<MoodleAPIRestTemplate> getRestTemplate() {
@@ -222,7 +389,7 @@ public class MoodleCourseAccess extends CourseAccess {
         final Long start_date;   // unix-time milliseconds UTC
         final Long end_date;     // unix-time milliseconds UTC
         final Long time_created; // unix-time milliseconds UTC
-        final Collection<CourseQuiz> quizzes = new ArrayList<>();
+        final Long time_modified; // unix-time milliseconds UTC
 
         @JsonCreator
         protected CourseData(
@@ -233,7 +400,8 @@ public class MoodleCourseAccess extends CourseAccess {
                 @JsonProperty(value = "summary") final String summary,
                 @JsonProperty(value = "startdate") final Long start_date,
                 @JsonProperty(value = "enddate") final Long end_date,
-                @JsonProperty(value = "timecreated") final Long time_created) {
+                @JsonProperty(value = "timecreated") final Long time_created,
+                @JsonProperty(value = "timemodified") final Long time_modified) {
 
             this.id = id;
             this.short_name = short_name;
@@ -243,22 +411,11 @@ public class MoodleCourseAccess extends CourseAccess {
             this.start_date = start_date;
             this.end_date = end_date;
             this.time_created = time_created;
+            this.time_modified = time_modified;
         }
 
     }
 
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    static final class CourseQuizData {
-        final Collection<CourseQuiz> quizzes;
-
-        @JsonCreator
-        protected CourseQuizData(
-                @JsonProperty(value = "quizzes") final Collection<CourseQuiz> quizzes) {
-
-            this.quizzes = quizzes;
-        }
-    }
-
     @JsonIgnoreProperties(ignoreUnknown = true)
     static final class CourseQuiz {
         final String id;
@@ -267,6 +424,7 @@ public class MoodleCourseAccess extends CourseAccess {
         final String name;
         final String intro; // HTML
         final Long time_limit; // unix-time milliseconds UTC
+        final Long time_modified; // unix-time seconds UTC
 
         @JsonCreator
         protected CourseQuiz(
@@ -275,7 +433,8 @@ public class MoodleCourseAccess extends CourseAccess {
                 @JsonProperty(value = "coursemodule") final String course_module,
                 @JsonProperty(value = "name") final String name,
                 @JsonProperty(value = "intro") final String intro,
-                @JsonProperty(value = "timelimit") final Long time_limit) {
+                @JsonProperty(value = "timelimit") final Long time_limit,
+                @JsonProperty(value = "timemodified") final Long time_modified) {
 
             this.id = id;
             this.course = course;
@@ -283,6 +442,7 @@ public class MoodleCourseAccess extends CourseAccess {
             this.name = name;
             this.intro = intro;
             this.time_limit = time_limit;
+            this.time_modified = time_modified;
         }
 
     }
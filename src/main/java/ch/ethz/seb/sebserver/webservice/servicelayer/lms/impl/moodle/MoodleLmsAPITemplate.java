@@ -12,6 +12,8 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
+import org.joda.time.DateTime;
+
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
 import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
 import ch.ethz.seb.sebserver.gbl.model.exam.SebRestriction;
@@ -66,6 +68,16 @@ public class MoodleLmsAPITemplate implements LmsAPITemplate {
                 .orElse(() -> getQuiz(id));
     }
 
+    @Override
+    public Result<List<QuizData>> fetchQuizzes(final DateTime modifiedSince) {
+        return this.moodleCourseAccess.fetchQuizzes(modifiedSince);
+    }
+
+    @Override
+    public boolean supportsModificationTime() {
+        return this.moodleCourseAccess.supportsModificationTime();
+    }
+
     @Override
     public Result<SebRestriction> getSebClientRestriction(final Exam exam) {
         throw new UnsupportedOperationException("SEB Restriction API not available yet");
@@ -8,7 +8,10 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.moodle;
 
+import java.util.concurrent.Executor;
+
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
@@ -17,6 +20,7 @@ import ch.ethz.seb.sebserver.ClientHttpRequestFactoryService;
 import ch.ethz.seb.sebserver.gbl.Constants;
 import ch.ethz.seb.sebserver.gbl.api.JSONMapper;
 import ch.ethz.seb.sebserver.gbl.async.AsyncService;
+import ch.ethz.seb.sebserver.gbl.async.AsyncServiceSpringConfig;
 import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
@@ -34,13 +38,19 @@ public class MoodleLmsAPITemplateFactory {
     private final ClientCredentialService clientCredentialService;
     private final ClientHttpRequestFactoryService clientHttpRequestFactoryService;
     private final String[] alternativeTokenRequestPaths;
+    private final Executor lmsFetchExecutor;
+    private final int quizRequestChunkSize;
+    private final int quizRequestParallelism;
 
     protected MoodleLmsAPITemplateFactory(
             final JSONMapper jsonMapper,
             final AsyncService asyncService,
             final ClientCredentialService clientCredentialService,
             final ClientHttpRequestFactoryService clientHttpRequestFactoryService,
-            @Value("${sebserver.webservice.lms.moodle.api.token.request.paths:}") final String alternativeTokenRequestPaths) {
+            @Value("${sebserver.webservice.lms.moodle.api.token.request.paths:}") final String alternativeTokenRequestPaths,
+            @Qualifier(AsyncServiceSpringConfig.LMS_FETCH_EXECUTOR_BEAN_NAME) final Executor lmsFetchExecutor,
+            @Value("${sebserver.webservice.lms.moodle.api.quiz.request.chunk-size:100}") final int quizRequestChunkSize,
+            @Value("${sebserver.webservice.lms.moodle.api.quiz.request.parallelism:4}") final int quizRequestParallelism) {
 
         this.jsonMapper = jsonMapper;
         this.asyncService = asyncService;
@@ -49,6 +59,9 @@ public class MoodleLmsAPITemplateFactory {
         this.alternativeTokenRequestPaths = (alternativeTokenRequestPaths != null)
                 ? StringUtils.split(alternativeTokenRequestPaths, Constants.LIST_SEPARATOR)
                 : null;
+        this.lmsFetchExecutor = lmsFetchExecutor;
+        this.quizRequestChunkSize = quizRequestChunkSize;
+        this.quizRequestParallelism = quizRequestParallelism;
     }
 
     public Result<MoodleLmsAPITemplate> create(
@@ -71,7 +84,10 @@ public class MoodleLmsAPITemplateFactory {
                     this.jsonMapper,
                     lmsSetup,
                     moodleRestTemplateFactory,
-                    this.asyncService);
+                    this.asyncService,
+                    this.lmsFetchExecutor,
+                    this.quizRequestChunkSize,
+                    this.quizRequestParallelism);
 
             return new MoodleLmsAPITemplate(
                     lmsSetup,
@@ -32,6 +32,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -251,31 +252,11 @@ final class MoodleRestTemplateFactory {
 
             getAccessToken();
 
-            final UriComponentsBuilder queryParam = UriComponentsBuilder
-                    .fromHttpUrl(this.serverURL + MOODLE_DEFAULT_REST_API_PATH)
-                    .queryParam(REST_REQUEST_TOKEN_NAME, this.accessToken)
-                    .queryParam(REST_REQUEST_FUNCTION_NAME, functionName)
-                    .queryParam(REST_REQUEST_FORMAT_NAME, "json");
-
             final boolean usePOST = queryAttributes != null && !queryAttributes.isEmpty();
-            HttpEntity<?> functionReqEntity;
-            if (usePOST) {
-                final HttpHeaders headers = new HttpHeaders();
-                headers.set(
-                        HttpHeaders.CONTENT_TYPE,
-                        MediaType.APPLICATION_FORM_URLENCODED_VALUE);
-
-                final String body = Utils.toAppFormUrlEncodedBody(queryAttributes);
-                functionReqEntity = new HttpEntity<>(body, headers);
-
-            } else {
-                functionReqEntity = new HttpEntity<>(new LinkedMultiValueMap<>());
-            }
-
             final ResponseEntity<String> response = super.exchange(
-                    queryParam.toUriString(),
+                    functionRequestURI(functionName),
                     usePOST ? HttpMethod.POST : HttpMethod.GET,
-                    functionReqEntity,
+                    functionRequestEntity(queryAttributes),
                     String.class);
 
             if (response.getStatusCode() != HttpStatus.OK) {
@@ -296,6 +277,63 @@ final class MoodleRestTemplateFactory {
             return body;
         }
 
+        /** Calls a Moodle webservice API function and hands the response over to the given ResponseExtractor
+         * without reading the response body into a String first. Use this for API functions with possibly large
+         * responses and parse the response body stream within the ResponseExtractor.
+         *
+         * NOTE: Moodle API error responses come with a 200 OK response HTTP Status. The ResponseExtractor
+         * is responsible to detect such error responses.
+         *
+         * @param functionName the name of the Moodle webservice API function
+         * @param queryAttributes the function attributes or null if there are no attributes
+         * @param responseExtractor the ResponseExtractor that extracts the data from the response body stream
+         * @return the data extracted by the given ResponseExtractor */
+        public <T> T callMoodleAPIFunction(
+                final String functionName,
+                final MultiValueMap<String, String> queryAttributes,
+                final ResponseExtractor<T> responseExtractor) {
+
+            getAccessToken();
+
+            final boolean usePOST = queryAttributes != null && !queryAttributes.isEmpty();
+            return super.execute(
+                    functionRequestURI(functionName),
+                    usePOST ? HttpMethod.POST : HttpMethod.GET,
+                    super.httpEntityCallback(functionRequestEntity(queryAttributes)),
+                    response -> {
+                        if (response.getStatusCode() != HttpStatus.OK) {
+                            throw new RuntimeException(
+                                    "Failed to call Moodle webservice API function: " + functionName +
+                                            " lms setup: " + MoodleRestTemplateFactory.this.lmsSetup +
+                                            " response status: " + response.getStatusCode());
+                        }
+                        return responseExtractor.extractData(response);
+                    });
+        }
+
+        private String functionRequestURI(final String functionName) {
+            return UriComponentsBuilder
+                    .fromHttpUrl(this.serverURL + MOODLE_DEFAULT_REST_API_PATH)
+                    .queryParam(REST_REQUEST_TOKEN_NAME, this.accessToken)
+                    .queryParam(REST_REQUEST_FUNCTION_NAME, functionName)
+                    .queryParam(REST_REQUEST_FORMAT_NAME, "json")
+                    .toUriString();
+        }
+
+        private HttpEntity<?> functionRequestEntity(final MultiValueMap<String, String> queryAttributes) {
+            if (queryAttributes == null || queryAttributes.isEmpty()) {
+                return new HttpEntity<>(new LinkedMultiValueMap<>());
+            }
+
+            final HttpHeaders headers = new HttpHeaders();
+            headers.set(
+                    HttpHeaders.CONTENT_TYPE,
+                    MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+
+            final String body = Utils.toAppFormUrlEncodedBody(queryAttributes);
+            return new HttpEntity<>(body, headers);
+        }
+
         private void requestAccessToken() {
 
             final ResponseEntity<String> response = super.exchange(
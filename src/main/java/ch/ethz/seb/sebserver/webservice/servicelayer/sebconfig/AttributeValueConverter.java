@@ -12,12 +12,10 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Collections;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.stream.Stream;
 
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.AttributeType;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationAttribute;
-import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationValue;
 
 /** Defines the interface of a XML converter to be used to convert
  * ConfigurationValue for defined ConfigurationAttribute */
@@ -54,7 +52,7 @@ public interface AttributeValueConverter {
     void convertToXML(
             OutputStream out,
             ConfigurationAttribute attribute,
-            Function<ConfigurationAttribute, ConfigurationValue> valueSupplier) throws IOException;
+            ConfigurationValueSupplier valueSupplier) throws IOException;
 
     /** Used to convert the a given ConfigurationAttribute to plain JSON text or block of SEB Configuration attribute.
      *
@@ -65,7 +63,7 @@ public interface AttributeValueConverter {
     void convertToJSON(
             OutputStream out,
             ConfigurationAttribute attribute,
-            Function<ConfigurationAttribute, ConfigurationValue> valueSupplier) throws IOException;
+            ConfigurationValueSupplier valueSupplier) throws IOException;
 
     /** Get the real name of the SEB configuration attribute
      * by cutting of the prefixed used for nested attributes
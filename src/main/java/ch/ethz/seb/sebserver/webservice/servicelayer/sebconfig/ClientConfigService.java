@@ -48,6 +48,10 @@ public interface ClientConfigService {
             final String modelId);
 
     /** Get the ClientDetails for given client name that identifies a SebClientConfig entry.
+     *
+     * The ClientDetails are cached with the already decrypted and encoded client secret since this is used
+     * for every OAuth2 access token request of a SEB client. The cache is evicted on any change, activation,
+     * deactivation or deletion of a SebClientConfig (see SebClientConfigDAO)
      *
      * @param clientName the client name of a SebClientConfig entry
      * @return Result refer to the ClientDetails for the specified clientName or to an error if happened */
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationAttribute;
+
+/** An immutable snapshot of all SEB exam configuration attribute definitions with the lookup structures
+ * that are needed to export, import and validate SEB exam configurations.
+ *
+ * A new snapshot with a higher version is created by the ConfigurationAttributeRegistry whenever the
+ * attribute definitions have changed. */
+public final class ConfigurationAttributeMetadata {
+
+    /** The version of this snapshot. A reloaded snapshot has always a higher version */
+    public final long version;
+
+    private final List<ConfigurationAttribute> attributes;
+    private final List<ConfigurationAttribute> rootAttributes;
+    private final List<ConfigurationAttribute> exportAttributes;
+    private final Map<Long, ConfigurationAttribute> attributesById;
+    private final Map<String, ConfigurationAttribute> attributesByName;
+    private final Map<Long, List<ConfigurationAttribute>> childAttributes;
+    private final Map<String, AttributeValueConverter> convertersByName;
+
+    public ConfigurationAttributeMetadata(
+            final long version,
+            final Collection<ConfigurationAttribute> attributes,
+            final AttributeValueConverterService attributeValueConverterService) {
+
+        this.version = version;
+
+        final List<ConfigurationAttribute> sorted = attributes
+                .stream()
+                .sorted()
+                .collect(Collectors.toList());
+
+        final Map<Long, ConfigurationAttribute> byId = new HashMap<>();
+        final Map<String, ConfigurationAttribute> byName = new HashMap<>();
+        final Map<Long, List<ConfigurationAttribute>> children = new HashMap<>();
+        final Map<String, AttributeValueConverter> converters = new HashMap<>();
+        final List<ConfigurationAttribute> roots = new ArrayList<>();
+        final List<ConfigurationAttribute> export = new ArrayList<>();
+
+        for (final ConfigurationAttribute attribute : sorted) {
+            byId.put(attribute.id, attribute);
+            byName.put(attribute.name, attribute);
+
+            final AttributeValueConverter converter = resolveConverter(attribute, attributeValueConverterService);
+            if (converter != null) {
+                converters.put(attribute.name, converter);
+            }
+
+            if (attribute.parentId == null) {
+                roots.add(attribute);
+                if (converter == null) {
+                    export.add(attribute);
+                } else {
+                    // some attributes are exported as more then one attribute
+                    converter.convertAttribute(attribute).forEach(exportAttribute -> {
+                        export.add(exportAttribute);
+                        final AttributeValueConverter exportConverter =
+                                resolveConverter(exportAttribute, attributeValueConverterService);
+                        if (exportConverter != null) {
+                            converters.putIfAbsent(exportAttribute.name, exportConverter);
+                        }
+                    });
+                }
+            } else {
+                children.computeIfAbsent(attribute.parentId, id -> new ArrayList<>()).add(attribute);
+            }
+        }
+
+        Collections.sort(export);
+
+        this.attributes = Collections.unmodifiableList(sorted);
+        this.rootAttributes = Collections.unmodifiableList(roots);
+        this.exportAttributes = Collections.unmodifiableList(export);
+        this.attributesById = Collections.unmodifiableMap(byId);
+        this.attributesByName = Collections.unmodifiableMap(byName);
+        this.childAttributes = Collections.unmodifiableMap(children
+                .entrySet()
+                .stream()
+                .collect(Collectors.toMap(
+                        Map.Entry::getKey,
+                        entry -> Collections.unmodifiableList(entry.getValue()))));
+        this.convertersByName = Collections.unmodifiableMap(converters);
+    }
+
+    /** Get all attributes sorted by name.
+     *
+     * @return all attributes sorted by name */
+    public List<ConfigurationAttribute> getAttributes() {
+        return this.attributes;
+    }
+
+    /** Get all root attributes (attributes with no parent) sorted by name.
+     *
+     * @return all root attributes sorted by name */
+    public List<ConfigurationAttribute> getRootAttributes() {
+        return this.rootAttributes;
+    }
+
+    /** Get all root attributes as they are exported to a SEB configuration file, sorted by name.
+     * These are the root attributes converted by their AttributeValueConverter.
+     *
+     * @return all root attributes as they are exported, sorted by name */
+    public List<ConfigurationAttribute> getExportAttributes() {
+        return this.exportAttributes;
+    }
+
+    /** Get the attribute with the given identifier.
+     *
+     * @param attributeId the attribute identifier
+     * @return the attribute with the given identifier or null if there is no such attribute */
+    public ConfigurationAttribute getAttribute(final Long attributeId) {
+        return this.attributesById.get(attributeId);
+    }
+
+    /** Get the attribute with the given name.
+     *
+     * @param name the attribute name
+     * @return the attribute with the given name or null if there is no such attribute */
+    public ConfigurationAttribute getAttribute(final String name) {
+        return this.attributesByName.get(name);
+    }
+
+    /** Get all child attributes of a given parent attribute sorted by name.
+     *
+     * @param parentId the identifier of the parent attribute
+     * @return all child attributes of the parent attribute sorted by name or an empty list if there are none */
+    public List<ConfigurationAttribute> getChildAttributes(final Long parentId) {
+        return this.childAttributes.getOrDefault(parentId, Collections.emptyList());
+    }
+
+    /** Get the resolved AttributeValueConverter of a given attribute or export attribute.
+     *
+     * @param attribute the attribute
+     * @return the AttributeValueConverter of the attribute */
+    public AttributeValueConverter getAttributeValueConverter(final ConfigurationAttribute attribute) {
+        final AttributeValueConverter converter = this.convertersByName.get(attribute.name);
+        if (converter == null) {
+            throw new IllegalStateException("No XMLValueConverter found for attribute: " + attribute);
+        }
+        return converter;
+    }
+
+    private static AttributeValueConverter resolveConverter(
+            final ConfigurationAttribute attribute,
+            final AttributeValueConverterService attributeValueConverterService) {
+
+        final AttributeValueConverter converter = attributeValueConverterService
+                .getAttributeValueConverter(attribute.name);
+        if (converter != null) {
+            return converter;
+        }
+
+        return attributeValueConverterService.getAttributeValueConverter(attribute.type);
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigurationAttributeMetadata [version=" + this.version
+                + ", attributes=" + this.attributes.size()
+                + ", rootAttributes=" + this.rootAttributes.size()
+                + ", exportAttributes=" + this.exportAttributes.size() + "]";
+    }
+
+}
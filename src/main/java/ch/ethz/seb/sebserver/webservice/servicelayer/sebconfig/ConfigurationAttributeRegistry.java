@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig;
+
+import ch.ethz.seb.sebserver.gbl.util.Result;
+
+/** Holds the ConfigurationAttributeMetadata of all SEB exam configuration attribute definitions.
+ *
+ * The attribute definitions only change with a database migration or when an administrator edits an attribute.
+ * Therefore the metadata is loaded once and shared by the export, the import, the validation and the
+ * attribute API. On change, a new metadata snapshot is loaded and replaces the current one atomically.
+ * A change on another webservice instance is taken with the next reload after a short reload interval. */
+public interface ConfigurationAttributeRegistry {
+
+    /** Get the current ConfigurationAttributeMetadata. The metadata is loaded on first access and
+     * loaded again on an access after the reload interval has passed.
+     *
+     * @return the current ConfigurationAttributeMetadata */
+    ConfigurationAttributeMetadata getMetadata();
+
+    /** Loads the ConfigurationAttributeMetadata from the persistent storage and replaces the current
+     * metadata with it. Use this after a configuration attribute has been created, modified or deleted.
+     *
+     * @return Result refer to the new ConfigurationAttributeMetadata or to an error if happened */
+    Result<ConfigurationAttributeMetadata> reload();
+
+}
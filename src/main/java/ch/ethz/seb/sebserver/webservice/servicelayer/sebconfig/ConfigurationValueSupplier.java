@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.function.Function;
+
+import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationAttribute;
+import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationValue;
+
+/** Supplies the ConfigurationValue of the attributes of a SEB Exam Configuration to an AttributeValueConverter.
+ *
+ * The values of table attributes are supplied by table attribute, row index and column attribute to
+ * prevent the converters from loading them attribute by attribute. */
+@FunctionalInterface
+public interface ConfigurationValueSupplier extends Function<ConfigurationAttribute, ConfigurationValue> {
+
+    /** Get all values of a given table attribute. The rows are ordered by row index and map the identifier
+     * of the column attribute to the value of the column.
+     *
+     * @param tableAttribute the table attribute
+     * @return all rows of the table attribute ordered by row index or an empty map if there are no rows */
+    default SortedMap<Integer, Map<Long, ConfigurationValue>> getTableValues(
+            final ConfigurationAttribute tableAttribute) {
+
+        return Collections.emptySortedMap();
+    }
+
+    /** Creates a ConfigurationValueSupplier for given values of root attributes and table attributes.
+     *
+     * @param values the values of the root attributes mapped by attribute identifier
+     * @param tableValues the values of the table attributes mapped by table attribute identifier, row index and
+     *            column attribute identifier
+     * @return ConfigurationValueSupplier for the given values */
+    static ConfigurationValueSupplier of(
+            final Map<Long, ConfigurationValue> values,
+            final Map<Long, SortedMap<Integer, Map<Long, ConfigurationValue>>> tableValues) {
+
+        return new ConfigurationValueSupplier() {
+
+            @Override
+            public ConfigurationValue apply(final ConfigurationAttribute attribute) {
+                return values.get(attribute.id);
+            }
+
+            @Override
+            public SortedMap<Integer, Map<Long, ConfigurationValue>> getTableValues(
+                    final ConfigurationAttribute tableAttribute) {
+
+                return tableValues.getOrDefault(tableAttribute.id, Collections.emptySortedMap());
+            }
+        };
+    }
+
+}
@@ -21,6 +21,9 @@ import ch.ethz.seb.sebserver.gbl.util.Result;
 /** The base interface and service for all SEB Exam Configuration related functionality. */
 public interface ExamConfigService {
 
+    /** Name of the cache that memoizes the Config-Key of a stable configuration by the configuration identifier */
+    String CONFIG_KEY_CACHE = "CONFIG_KEY_CACHE";
+
     /** Validates a given ConfigurationValue by using registered ConfigurationValueValidator
      * beans to find a proper validator for the specified ConfigurationValue
      *
@@ -92,13 +95,15 @@ public interface ExamConfigService {
     /** Generates a Config-Key from the SEB exam configuration defined by configurationNodeId.
      * See https://www.safeexambrowser.org/developer/seb-config-key.html for more information about the Config-Key
      *
+     * The Config-Key of the last stable version of a configuration node is cached by the identifier of this version.
+     *
      * @param institutionId the institutional id
      * @param configurationNodeId the configurationNodeId
      * @return Result refer to the generated Config-Key or to an error if happened. */
     Result<String> generateConfigKey(Long institutionId, Long configurationNodeId);
 
     /** Generates a list of Config-Key from a given Exam by collecting all the SEB Exam Configurations that are attached
-     * to this Exam
+     * to this Exam. The Config-Keys of the configurations are generated in parallel.
      * See https://www.safeexambrowser.org/developer/seb-config-key.html for more information about the Config-Key
      *
      * @param institutionId the institutional id
@@ -8,6 +8,7 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Set;
@@ -40,6 +41,18 @@ public interface SebConfigCryptor {
             final InputStream input,
             final SebConfigEncryptionContext context);
 
+    /** Wraps the given output stream with an encrypting output stream.
+     * Other than encrypt this runs in the calling thread and can be stacked with other OutputStream filters.
+     * Closing the returned stream finishes the encryption and closes the given output stream.
+     *
+     * @param output the output stream to write encrypted data to
+     * @param context the SebConfigEncryptionContext to access strategy specific data needed for encryption
+     * @return OutputStream to write the plain data to
+     * @throws IOException if the encrypting output stream cannot be created */
+    OutputStream encryptingStream(
+            final OutputStream output,
+            final SebConfigEncryptionContext context) throws IOException;
+
     /** Decrypt an incoming cipher data stream to an outgoing plain text data stream
      * This uses Springs @Async annotation to run in a separated thread
      *
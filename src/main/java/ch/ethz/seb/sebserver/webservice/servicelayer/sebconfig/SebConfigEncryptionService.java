@@ -8,6 +8,7 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Arrays;
@@ -74,6 +75,18 @@ public interface SebConfigEncryptionService {
             final InputStream input,
             SebConfigEncryptionContext context);
 
+    /** This can be used to build a push-style streaming pipeline that encrypts all data written to the
+     * returned OutputStream within the calling thread. The strategy header is written to the given output
+     * stream immediately. Closing the returned stream finishes the encryption and closes the given output stream.
+     *
+     * @param output the output data stream to write the cipher text to
+     * @param context the SebConfigEncryptionContext to access strategy specific data needed for encryption
+     * @return OutputStream to write the plain text to
+     * @throws IOException if the header cannot be written or the encrypting stream cannot be created */
+    OutputStream encryptingStream(
+            final OutputStream output,
+            SebConfigEncryptionContext context) throws IOException;
+
     /** This can be used to stream incoming cipher data to decrypted plain text data output stream.
      *
      * @param output the output data stream to write encrypted plain text to
@@ -8,6 +8,7 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
@@ -27,6 +28,16 @@ public interface ZipService {
     @Async(AsyncServiceSpringConfig.EXECUTOR_BEAN_NAME)
     void write(OutputStream out, InputStream in);
 
+    /** Use this to wrap a given output stream with a gzip-compressing output stream that
+     * compresses all data written to it within the calling thread.
+     * Closing the returned stream finishes the compression and closes the given output stream.
+     *
+     * @param out the OutputStream to write the compressed data to
+     * @param bufferSize the size of the compression output buffer
+     * @return OutputStream to write the uncompressed data to
+     * @throws IOException if the gzip header cannot be written */
+    OutputStream zippingStream(OutputStream out, int bufferSize) throws IOException;
+
     /** Use this to read gzip-compressed data from a given input-stream,
      * uncompress this data and write the uncompressed data to
      * a given output stream.
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.impl;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationAttributeDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.AttributeValueConverterService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationAttributeMetadata;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationAttributeRegistry;
+
+@Lazy
+@Service
+@WebServiceProfile
+public class ConfigurationAttributeRegistryImpl implements ConfigurationAttributeRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigurationAttributeRegistryImpl.class);
+
+    private final ConfigurationAttributeDAO configurationAttributeDAO;
+    // NOTE: the converters are using the registry too, so the converter service is resolved on first load
+    private final ObjectProvider<AttributeValueConverterService> attributeValueConverterService;
+    private final long reloadInterval;
+
+    private final AtomicReference<ConfigurationAttributeMetadata> metadata = new AtomicReference<>();
+    private final AtomicLong version = new AtomicLong(0);
+    private final AtomicBoolean reloading = new AtomicBoolean(false);
+    private volatile long loadTime = 0;
+
+    public ConfigurationAttributeRegistryImpl(
+            final ConfigurationAttributeDAO configurationAttributeDAO,
+            final ObjectProvider<AttributeValueConverterService> attributeValueConverterService,
+            @Value("${sebserver.webservice.api.exam.config.attributes.reload-interval:60000}") final long reloadInterval) {
+
+        this.configurationAttributeDAO = configurationAttributeDAO;
+        this.attributeValueConverterService = attributeValueConverterService;
+        this.reloadInterval = reloadInterval;
+    }
+
+    @Override
+    public ConfigurationAttributeMetadata getMetadata() {
+        final ConfigurationAttributeMetadata current = this.metadata.get();
+        if (current == null) {
+            synchronized (this) {
+                if (this.metadata.get() == null) {
+                    reload().getOrThrow();
+                }
+                return this.metadata.get();
+            }
+        }
+
+        // an attribute edit on another webservice instance is taken after the reload interval.
+        // Only one thread reloads, all others keep on using the current metadata meanwhile
+        if (Utils.getMillisecondsNow() - this.loadTime >= this.reloadInterval
+                && this.reloading.compareAndSet(false, true)) {
+            try {
+                reload();
+            } finally {
+                this.reloading.set(false);
+            }
+            return this.metadata.get();
+        }
+
+        return current;
+    }
+
+    @Override
+    public synchronized Result<ConfigurationAttributeMetadata> reload() {
+        // NOTE: a failed load is also not repeated before the reload interval, the current metadata is kept
+        this.loadTime = Utils.getMillisecondsNow();
+        return this.configurationAttributeDAO
+                .allMatching(new FilterMap())
+                .map(attributes -> new ConfigurationAttributeMetadata(
+                        this.version.incrementAndGet(),
+                        attributes,
+                        this.attributeValueConverterService.getObject()))
+                .map(newMetadata -> {
+                    this.metadata.set(newMetadata);
+                    log.info("Loaded SEB exam configuration attribute metadata: {}", newMetadata);
+                    return newMetadata;
+                })
+                .onError(error -> log.error(
+                        "Failed to load SEB exam configuration attribute metadata: ",
+                        error));
+    }
+
+}
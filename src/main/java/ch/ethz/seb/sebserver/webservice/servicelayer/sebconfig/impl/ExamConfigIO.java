@@ -9,46 +9,51 @@
 package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.impl;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.io.SequenceInputStream;
+import java.security.DigestOutputStream;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
 import ch.ethz.seb.sebserver.gbl.util.Cryptor;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.output.NullOutputStream;
 import org.apache.tomcat.util.http.fileupload.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.xml.sax.SAXException;
 
 import ch.ethz.seb.sebserver.gbl.Constants;
-import ch.ethz.seb.sebserver.gbl.async.AsyncServiceSpringConfig;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationAttribute;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationValue;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
-import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationAttributeDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationValueDAO;
-import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.AttributeValueConverter;
-import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.AttributeValueConverterService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationAttributeMetadata;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationAttributeRegistry;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationFormat;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationValueSupplier;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ExamConfigService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ZipService;
 
 @Lazy
@@ -68,57 +73,77 @@ public class ExamConfigIO {
     private static final byte[] JSON_END = Utils.toByteArray("}");
     private static final byte[] JSON_SEPARATOR = Utils.toByteArray(Constants.LIST_SEPARATOR);
 
-    private final ConfigurationAttributeDAO configurationAttributeDAO;
+    private final ConfigurationAttributeRegistry configurationAttributeRegistry;
     private final ConfigurationValueDAO configurationValueDAO;
     private final ConfigurationDAO configurationDAO;
-    private final AttributeValueConverterService attributeValueConverterService;
     private final ZipService zipService;
     private final Cryptor cryptor;
+    private final int importBatchSize;
 
     protected ExamConfigIO(
-            final ConfigurationAttributeDAO configurationAttributeDAO,
+            final ConfigurationAttributeRegistry configurationAttributeRegistry,
             final ConfigurationValueDAO configurationValueDAO,
             final ConfigurationDAO configurationDAO,
-            final AttributeValueConverterService attributeValueConverterService,
             final ZipService zipService,
-            final Cryptor cryptor) {
+            final Cryptor cryptor,
+            @Value("${sebserver.webservice.api.exam.config.import.batchSize:500}") final int importBatchSize) {
 
-        this.configurationAttributeDAO = configurationAttributeDAO;
+        this.configurationAttributeRegistry = configurationAttributeRegistry;
         this.configurationValueDAO = configurationValueDAO;
         this.configurationDAO = configurationDAO;
-        this.attributeValueConverterService = attributeValueConverterService;
         this.zipService = zipService;
         this.cryptor = cryptor;
+        this.importBatchSize = importBatchSize;
     }
 
-    @Async(AsyncServiceSpringConfig.EXECUTOR_BEAN_NAME)
-    void exportPlain(
+    /** Writes the plain SEB configuration of the last stable version of the given configuration node
+     * to the given output stream within the calling thread. The output stream is neither flushed nor closed.
+     *
+     * @param exportFormat the format of the export (XML or JSON)
+     * @param out the OutputStream to write the plain configuration to
+     * @param institutionId the institution identifier of the configuration
+     * @param configurationNodeId the identifier of the configuration node
+     * @throws Exception if the configuration cannot be loaded or written */
+    void writePlain(
             final ConfigurationFormat exportFormat,
             final OutputStream out,
             final Long institutionId,
             final Long configurationNodeId) throws Exception {
 
-        if (log.isDebugEnabled()) {
-            log.debug("Start export SEB plain XML configuration asynconously");
-        }
+        writeConfiguration(
+                exportFormat,
+                out,
+                institutionId,
+                getLastStableConfigurationId(configurationNodeId));
+    }
+
+    /** Get the identifier of the last stable version of the given configuration node. This is the configuration
+     * that is exported and it is never changed, a new version gets a new configuration identifier.
+     *
+     * @param configurationNodeId the identifier of the configuration node
+     * @return the identifier of the last stable configuration of the configuration node */
+    Long getLastStableConfigurationId(final Long configurationNodeId) {
+        return this.configurationDAO
+                .getConfigurationLastStableVersion(configurationNodeId)
+                .getOrThrow().id;
+    }
+
+    private void writeConfiguration(
+            final ConfigurationFormat exportFormat,
+            final OutputStream out,
+            final Long institutionId,
+            final Long configurationId) throws Exception {
 
         try {
 
             // get all defined root configuration attributes prepared and sorted
-            final List<ConfigurationAttribute> sortedAttributes = this.configurationAttributeDAO.getAllRootAttributes()
-                    .getOrThrow()
+            final ConfigurationAttributeMetadata attributeMetadata = this.configurationAttributeRegistry.getMetadata();
+            final List<ConfigurationAttribute> sortedAttributes = attributeMetadata.getExportAttributes()
                     .stream()
-                    .flatMap(this::convertAttribute)
                     .filter(exportFormatBasedAttributeFilter(exportFormat))
-                    .sorted()
                     .collect(Collectors.toList());
 
-            // get follow-up configurationId for given configurationNodeId
-            final Long configurationId = this.configurationDAO
-                    .getConfigurationLastStableVersion(configurationNodeId)
-                    .getOrThrow().id;
-
-            final Function<ConfigurationAttribute, ConfigurationValue> configurationValueSupplier =
+            final ConfigurationValueSupplier configurationValueSupplier =
                     getConfigurationValueSupplier(institutionId, configurationId);
 
             writeHeader(exportFormat, out);
@@ -129,7 +154,7 @@ public class ExamConfigIO {
 
                 final ConfigurationAttribute attribute = iterator.next();
                 final AttributeValueConverter attributeValueConverter =
-                        this.attributeValueConverterService.getAttributeValueConverter(attribute);
+                        attributeMetadata.getAttributeValueConverter(attribute);
 
                 switch (exportFormat) {
                     case XML: {
@@ -154,23 +179,42 @@ public class ExamConfigIO {
 
             writeFooter(exportFormat, out);
 
-            if (log.isDebugEnabled()) {
-                log.debug("Finished export SEB plain XML configuration asynconously");
-            }
-
         } catch (final Exception e) {
             log.error("Unexpected error while trying to write SEB Exam Configuration XML to output stream: ", e);
             throw e;
-        } finally {
-            try {
-                out.flush();
-            } catch (final IOException e1) {
-                log.error("Unable to flush output stream after error");
-            }
-            IOUtils.closeQuietly(out);
         }
     }
 
+    /** Generates the Config-Key of the given stable configuration by writing the plain JSON SEB Configuration
+     * directly into a SHA-256 digest within the calling thread.
+     * The Config-Key is cached per configuration identifier. A stable configuration is never changed, so the
+     * cached Config-Key needs no eviction. Use getLastStableConfigurationId to get the configuration
+     * identifier of a configuration node.
+     *
+     * @param institutionId the institution identifier of the configuration
+     * @param configurationId the identifier of the stable configuration
+     * @return the Config-Key as hex encoded SHA-256 hash
+     * @throws Exception if the configuration cannot be loaded or written */
+    @Cacheable(
+            cacheNames = ExamConfigService.CONFIG_KEY_CACHE,
+            key = "#configurationId",
+            sync = true)
+    public String generateConfigKey(final Long institutionId, final Long configurationId) throws Exception {
+
+        final ByteArrayOutputStream traceOut = (log.isTraceEnabled()) ? new ByteArrayOutputStream() : null;
+        final DigestOutputStream digestOut = new DigestOutputStream(
+                (traceOut != null) ? traceOut : NullOutputStream.NULL_OUTPUT_STREAM,
+                DigestUtils.getSha256Digest());
+
+        writeConfiguration(ConfigurationFormat.JSON, digestOut, institutionId, configurationId);
+
+        if (traceOut != null) {
+            log.trace("SEB Configuration JSON to create Config-Key: {}", traceOut.toString("UTF-8"));
+        }
+
+        return Hex.encodeHexString(digestOut.getMessageDigest().digest());
+    }
+
     /** This parses the XML from given InputStream with a SAX parser to avoid keeping the
      * whole XML file in memory and keep up with the streaming approach of SEB Exam Configuration
      * to avoid trouble with big SEB Exam Configuration in the future.
@@ -180,31 +224,31 @@ public class ExamConfigIO {
      * @param configurationId the identifier of the internal configuration to apply the imported values to */
     void importPlainXML(final InputStream in, final Long institutionId, final Long configurationId) {
         try {
-            // get all attributes and map the names to ids
-            final Map<String, ConfigurationAttribute> attributeMap = this.configurationAttributeDAO
-                    .allMatching(new FilterMap())
-                    .getOrThrow()
-                    .stream()
-                    .collect(Collectors.toMap(
-                            attr -> attr.name,
-                            Function.identity()));
+            // get all attributes mapped by name
+            final ConfigurationAttributeMetadata attributeMetadata = this.configurationAttributeRegistry.getMetadata();
 
-            // the SAX handler with a ConfigValue sink that saves the values to DB
+            // the SAX handler with a ConfigValue sink that saves the values to DB in chunks
             // and a attribute-name/id mapping function with pre-created mapping
+            final ExamConfigImportBatch importBatch = new ExamConfigImportBatch(
+                    this.configurationValueDAO,
+                    institutionId,
+                    configurationId,
+                    this.importBatchSize);
             final ExamConfigXMLParser examConfigImportHandler = new ExamConfigXMLParser(
                     cryptor,
                     institutionId,
                     configurationId,
-                    value -> this.configurationValueDAO
-                            .save(value)
-                            .getOrThrow(),
-                    attributeMap::get);
+                    importBatch,
+                    attributeMetadata::getAttribute);
 
             // SAX parsing
             final SAXParserFactory saxParserFactory = SAXParserFactory.newInstance();
             final SAXParser parser = saxParserFactory.newSAXParser();
             parser.parse(in, examConfigImportHandler);
 
+            // save the values of the last chunk
+            importBatch.finish();
+
         } catch (final ParserConfigurationException | SAXException | IOException e) {
             log.error("Unexpected error while trying to parse imported SEB Config XML: ", e);
             throw new RuntimeException(e);
@@ -284,17 +328,7 @@ public class ExamConfigIO {
         out.write(XML_DICT_START_UTF_8);
     }
 
-    private Stream<ConfigurationAttribute> convertAttribute(final ConfigurationAttribute attr) {
-        final AttributeValueConverter attributeValueConverter =
-                this.attributeValueConverterService.getAttributeValueConverter(attr);
-        if (attributeValueConverter != null) {
-            return attributeValueConverter.convertAttribute(attr);
-        } else {
-            return Stream.of(attr);
-        }
-    }
-
-    private Function<ConfigurationAttribute, ConfigurationValue> getConfigurationValueSupplier(
+    private ConfigurationValueSupplier getConfigurationValueSupplier(
             final Long institutionId,
             final Long configurationId) {
 
@@ -306,7 +340,12 @@ public class ExamConfigIO {
                         ConfigurationValue::getAttributeId,
                         Function.identity()));
 
-        return attr -> mapping.get(attr.id);
+        // load the values of all table attributes at once instead of table by table while writing
+        return ConfigurationValueSupplier.of(
+                mapping,
+                this.configurationValueDAO
+                        .getAllTableValues(institutionId, configurationId)
+                        .getOrThrow());
     }
 
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationValue;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationValueDAO;
+
+/** A ConfigurationValue sink for the ExamConfigXMLParser that collects the parsed values and saves them
+ * chunk by chunk with ConfigurationValueDAO.saveAll instead of saving every single value on its own.
+ *
+ * The progress and the validation errors are reported per chunk. If a chunk fails, the import is aborted
+ * with an IllegalStateException that names the failed chunk. */
+class ExamConfigImportBatch implements Consumer<ConfigurationValue> {
+
+    private static final Logger log = LoggerFactory.getLogger(ExamConfigImportBatch.class);
+
+    private final ConfigurationValueDAO configurationValueDAO;
+    private final Long institutionId;
+    private final Long configurationId;
+    private final int chunkSize;
+
+    private final List<ConfigurationValue> chunk;
+    private int chunkNumber = 0;
+    private int parsedValues = 0;
+    private int savedValues = 0;
+
+    ExamConfigImportBatch(
+            final ConfigurationValueDAO configurationValueDAO,
+            final Long institutionId,
+            final Long configurationId,
+            final int chunkSize) {
+
+        this.configurationValueDAO = configurationValueDAO;
+        this.institutionId = institutionId;
+        this.configurationId = configurationId;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunk = new ArrayList<>(this.chunkSize);
+    }
+
+    @Override
+    public void accept(final ConfigurationValue value) {
+        this.chunk.add(value);
+        this.parsedValues++;
+        if (this.chunk.size() >= this.chunkSize) {
+            flush();
+        }
+    }
+
+    /** Saves the remaining values of the last chunk.
+     *
+     * @return the number of all saved values of the import */
+    int finish() {
+        flush();
+
+        log.info("Imported {} of {} parsed values into configuration: {} in {} chunks",
+                this.savedValues,
+                this.parsedValues,
+                this.configurationId,
+                this.chunkNumber);
+
+        return this.savedValues;
+    }
+
+    private void flush() {
+        if (this.chunk.isEmpty()) {
+            return;
+        }
+
+        this.chunkNumber++;
+        final int size = this.chunk.size();
+        final int saved = this.configurationValueDAO
+                .saveAll(this.institutionId, this.configurationId, this.chunk)
+                .onError(error -> log.error(
+                        "Failed to import chunk: {} with {} values into configuration: {} cause: {}",
+                        this.chunkNumber,
+                        size,
+                        this.configurationId,
+                        error.getMessage()))
+                .getOrThrow(error -> new IllegalStateException(
+                        "Failed to import chunk " + this.chunkNumber + ": " + error.getMessage(),
+                        error));
+
+        if (saved < size) {
+            log.warn("Skipped {} invalid or duplicate values of chunk: {} for configuration: {}",
+                    size - saved,
+                    this.chunkNumber,
+                    this.configurationId);
+        }
+
+        this.savedValues += saved;
+        this.chunk.clear();
+
+        if (log.isDebugEnabled()) {
+            log.debug("Imported chunk: {} with {} values into configuration: {}, {} values saved so far",
+                    this.chunkNumber,
+                    saved,
+                    this.configurationId,
+                    this.savedValues);
+        }
+    }
+
+}
@@ -8,28 +8,34 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.impl;
 
-import java.io.IOException;
+import java.io.BufferedOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import ch.ethz.seb.sebserver.gbl.api.APIMessage;
 import ch.ethz.seb.sebserver.gbl.api.APIMessage.APIMessageException;
 import ch.ethz.seb.sebserver.gbl.api.APIMessage.FieldValidationException;
+import ch.ethz.seb.sebserver.gbl.api.EntityType;
+import ch.ethz.seb.sebserver.gbl.async.AsyncServiceSpringConfig;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.Configuration;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationAttribute;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationTableValues;
@@ -37,8 +43,9 @@ import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationValue;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.webservice.servicelayer.client.ClientCredentialService;
-import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationAttributeDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamConfigurationMapDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ResourceNotFoundException;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationAttributeRegistry;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationFormat;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationValueValidator;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ExamConfigService;
@@ -55,29 +62,38 @@ public class ExamConfigServiceImpl implements ExamConfigService {
     private static final Logger log = LoggerFactory.getLogger(ExamConfigServiceImpl.class);
 
     private final ExamConfigIO examConfigIO;
-    private final ConfigurationAttributeDAO configurationAttributeDAO;
+    private final ConfigurationAttributeRegistry configurationAttributeRegistry;
     private final ExamConfigurationMapDAO examConfigurationMapDAO;
     private final Collection<ConfigurationValueValidator> validators;
     private final ClientCredentialService clientCredentialService;
     private final ZipService zipService;
     private final SebConfigEncryptionService sebConfigEncryptionService;
+    private final int bufferSize;
+    private final int zipBufferSize;
+    private final Executor executor;
 
     protected ExamConfigServiceImpl(
             final ExamConfigIO examConfigIO,
-            final ConfigurationAttributeDAO configurationAttributeDAO,
+            final ConfigurationAttributeRegistry configurationAttributeRegistry,
             final ExamConfigurationMapDAO examConfigurationMapDAO,
             final Collection<ConfigurationValueValidator> validators,
             final ClientCredentialService clientCredentialService,
             final ZipService zipService,
-            final SebConfigEncryptionService sebConfigEncryptionService) {
+            final SebConfigEncryptionService sebConfigEncryptionService,
+            @Value("${sebserver.webservice.api.exam.config.export.bufferSize:8192}") final int bufferSize,
+            @Value("${sebserver.webservice.api.exam.config.export.zipBufferSize:8192}") final int zipBufferSize,
+            @Qualifier(AsyncServiceSpringConfig.CONFIG_KEY_EXECUTOR_BEAN_NAME) final Executor executor) {
 
         this.examConfigIO = examConfigIO;
-        this.configurationAttributeDAO = configurationAttributeDAO;
+        this.configurationAttributeRegistry = configurationAttributeRegistry;
         this.examConfigurationMapDAO = examConfigurationMapDAO;
         this.validators = validators;
         this.clientCredentialService = clientCredentialService;
         this.zipService = zipService;
         this.sebConfigEncryptionService = sebConfigEncryptionService;
+        this.bufferSize = bufferSize;
+        this.zipBufferSize = zipBufferSize;
+        this.executor = executor;
     }
 
     @Override
@@ -87,9 +103,14 @@ public class ExamConfigServiceImpl implements ExamConfigService {
             return;
         }
 
-        final ConfigurationAttribute attribute = this.configurationAttributeDAO
-                .byPK(value.attributeId)
-                .getOrThrow();
+        final ConfigurationAttribute attribute = this.configurationAttributeRegistry
+                .getMetadata()
+                .getAttribute(value.attributeId);
+        if (attribute == null) {
+            throw new ResourceNotFoundException(
+                    EntityType.CONFIGURATION_ATTRIBUTE,
+                    String.valueOf(value.attributeId));
+        }
 
         this.validators
                 .stream()
@@ -186,55 +207,34 @@ public class ExamConfigServiceImpl implements ExamConfigService {
             final CharSequence encryptionPasswordPlaintext = this.clientCredentialService
                     .decrypt(passwordCipher);
 
-            PipedOutputStream plainOut = null;
-            PipedInputStream zipIn = null;
-
-            PipedOutputStream zipOut = null;
-            PipedInputStream cryptIn = null;
-
-            PipedOutputStream cryptOut = null;
-            PipedInputStream in = null;
-
+            // single-threaded push-style streaming pipeline:
+            // plain XML --> buffer --> gzip --> encryption --> buffer --> out
+            OutputStream plainOut = null;
             try {
 
-                plainOut = new PipedOutputStream();
-                zipIn = new PipedInputStream(plainOut);
-
-                zipOut = new PipedOutputStream();
-                cryptIn = new PipedInputStream(zipOut);
-
-                cryptOut = new PipedOutputStream();
-                in = new PipedInputStream(cryptOut);
+                final OutputStream cryptOut = this.sebConfigEncryptionService.encryptingStream(
+                        new BufferedOutputStream(new CloseShieldOutputStream(out), this.bufferSize),
+                        EncryptionContext.contextOf(
+                                Strategy.PASSWORD_PSWD,
+                                encryptionPasswordPlaintext));
+                final OutputStream zipOut = this.zipService.zippingStream(cryptOut, this.zipBufferSize);
+                plainOut = new BufferedOutputStream(zipOut, this.bufferSize);
 
-                // streaming...
-                // export plain text
-                this.examConfigIO.exportPlain(
+                this.examConfigIO.writePlain(
                         ConfigurationFormat.XML,
                         plainOut,
                         institutionId,
                         configurationNodeId);
-                // zip the plain text
-                this.zipService.write(zipOut, zipIn);
-                // encrypt the zipped plain text
-                this.sebConfigEncryptionService.streamEncrypted(
-                        cryptOut,
-                        cryptIn,
-                        EncryptionContext.contextOf(
-                                Strategy.PASSWORD_PSWD,
-                                encryptionPasswordPlaintext));
 
-                // copy to output
-                IOUtils.copyLarge(in, out);
+                // closing the pipeline finishes the compression and encryption and flushes all to the output
+                plainOut.close();
+                plainOut = null;
 
             } catch (final Exception e) {
                 log.error("Error while zip and encrypt seb exam config stream: ", e);
+                throw new RuntimeException("Failed to export SEB exam configuration. Cause is: " + e.getMessage(), e);
             } finally {
-                IOUtils.closeQuietly(zipIn);
                 IOUtils.closeQuietly(plainOut);
-                IOUtils.closeQuietly(cryptIn);
-                IOUtils.closeQuietly(zipOut);
-                IOUtils.closeQuietly(in);
-                IOUtils.closeQuietly(cryptOut);
             }
         } else {
             // just export in plain text XML format
@@ -250,68 +250,15 @@ public class ExamConfigServiceImpl implements ExamConfigService {
             final Long configurationNodeId) {
 
         if (log.isDebugEnabled()) {
-            log.debug("Start to stream plain JSON SEB Configuration data for Config-Key generation");
+            log.debug("Generate Config-Key for SEB Configuration: {}", configurationNodeId);
         }
 
-        if (log.isTraceEnabled()) {
-            PipedOutputStream pout;
-            PipedInputStream pin;
-            try {
-                pout = new PipedOutputStream();
-                pin = new PipedInputStream(pout);
-                this.examConfigIO.exportPlain(
-                        ConfigurationFormat.JSON,
-                        pout,
-                        institutionId,
-                        configurationNodeId);
-
-                final String json = IOUtils.toString(pin, "UTF-8");
-
-                log.trace("SEB Configuration JSON to create Config-Key: {}", json);
-            } catch (final Exception e) {
-                log.error("Failed to trace SEB Configuration JSON: ", e);
-            }
-        }
-
-        PipedOutputStream pout = null;
-        PipedInputStream pin = null;
-        try {
-            pout = new PipedOutputStream();
-            pin = new PipedInputStream(pout);
-
-            this.examConfigIO.exportPlain(
-                    ConfigurationFormat.JSON,
-                    pout,
-                    institutionId,
-                    configurationNodeId);
-
-            final String configKey = DigestUtils.sha256Hex(pin);
-
-            return Result.of(configKey);
-
-        } catch (final Exception e) {
-            log.error("Error while stream plain JSON SEB Configuration data for Config-Key generation: ", e);
-            return Result.ofError(e);
-        } finally {
-            try {
-                if (pin != null) {
-                    pin.close();
-                }
-            } catch (final IOException e1) {
-                log.error("Failed to close PipedInputStream: ", e1);
-            }
-            try {
-                if (pout != null) {
-                    pout.close();
-                }
-            } catch (final IOException e1) {
-                log.error("Failed to close PipedOutputStream: ", e1);
-            }
-
-            if (log.isDebugEnabled()) {
-                log.debug("Finished to stream plain JSON SEB Configuration data for Config-Key generation");
-            }
-        }
+        return Result.tryCatch(() -> this.examConfigIO.generateConfigKey(
+                institutionId,
+                this.examConfigIO.getLastStableConfigurationId(configurationNodeId)))
+                .onError(error -> log.error(
+                        "Error while stream plain JSON SEB Configuration data for Config-Key generation: ",
+                        error));
     }
 
     @Override
@@ -319,8 +266,12 @@ public class ExamConfigServiceImpl implements ExamConfigService {
         return this.examConfigurationMapDAO.getConfigurationNodeIds(examId)
                 .map(ids -> ids
                         .stream()
-                        .map(id -> generateConfigKey(institutionId, id)
-                                .getOrThrow())
+                        .map(id -> CompletableFuture.supplyAsync(
+                                () -> generateConfigKey(institutionId, id).getOrThrow(),
+                                this.executor))
+                        .collect(Collectors.toList())
+                        .stream()
+                        .map(CompletableFuture::join)
                         .collect(Collectors.toList()));
     }
 
@@ -390,39 +341,20 @@ public class ExamConfigServiceImpl implements ExamConfigService {
             log.debug("Start to stream plain text SEB Configuration data");
         }
 
-        PipedOutputStream pout = null;
-        PipedInputStream pin = null;
         try {
-            pout = new PipedOutputStream();
-            pin = new PipedInputStream(pout);
 
-            this.examConfigIO.exportPlain(
+            final OutputStream bufferedOut = new BufferedOutputStream(out, this.bufferSize);
+            this.examConfigIO.writePlain(
                     exportFormat,
-                    pout,
+                    bufferedOut,
                     institutionId,
                     configurationNodeId);
-
-            IOUtils.copyLarge(pin, out);
+            bufferedOut.flush();
 
         } catch (final Exception e) {
             log.error("Error while stream plain text SEB Configuration export data: ", e);
+            throw new RuntimeException("Failed to export SEB configuration. Cause is: " + e.getMessage(), e);
         } finally {
-            try {
-                if (pin != null) {
-                    pin.close();
-                }
-            } catch (final IOException e1) {
-                log.error("Failed to close PipedInputStream: ", e1);
-            }
-            try {
-                if (pout != null) {
-                    pout.flush();
-                    pout.close();
-                }
-            } catch (final IOException e1) {
-                log.error("Failed to close PipedOutputStream: ", e1);
-            }
-
             if (log.isDebugEnabled()) {
                 log.debug("Finished to stream plain text SEB Configuration export data");
             }
@@ -71,6 +71,14 @@ public class NoneEncryptor implements SebConfigCryptor {
         }
     }
 
+    @Override
+    public OutputStream encryptingStream(
+            final OutputStream output,
+            final SebConfigEncryptionContext context) {
+
+        return output;
+    }
+
     @Override
     public void decrypt(
             final OutputStream output,
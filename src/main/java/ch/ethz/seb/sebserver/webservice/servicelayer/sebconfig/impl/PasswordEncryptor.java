@@ -96,6 +96,21 @@ public class PasswordEncryptor implements SebConfigCryptor {
         }
     }
 
+    @Override
+    public OutputStream encryptingStream(
+            final OutputStream output,
+            final SebConfigEncryptionContext context) throws IOException {
+
+        try {
+            return new AES256JNCryptorOutputStream(
+                    output,
+                    Utils.toCharArray(context.getPassword()),
+                    Constants.JN_CRYPTOR_ITERATIONS);
+        } catch (final CryptorException e) {
+            throw new IOException("Failed to create AES256JNCryptorOutputStream: ", e);
+        }
+    }
+
     @Override
     public void decrypt(
             final OutputStream output,
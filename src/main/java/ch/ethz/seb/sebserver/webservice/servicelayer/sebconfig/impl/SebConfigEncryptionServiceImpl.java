@@ -104,6 +104,24 @@ public final class SebConfigEncryptionServiceImpl implements SebConfigEncryption
         }
     }
 
+    @Override
+    public OutputStream encryptingStream(
+            final OutputStream output,
+            final SebConfigEncryptionContext context) throws IOException {
+
+        final Strategy strategy = context.getStrategy();
+
+        if (log.isDebugEnabled()) {
+            log.debug("Streaming encryption with strategy: {}", strategy);
+        }
+
+        final SebConfigCryptor encryptor = getEncryptor(strategy)
+                .getOrThrow();
+
+        output.write(strategy.header);
+        return encryptor.encryptingStream(output, context);
+    }
+
     @Override
     public Future<Exception> streamDecrypted(
             final OutputStream output,
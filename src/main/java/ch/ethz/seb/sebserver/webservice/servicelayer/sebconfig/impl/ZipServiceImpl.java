@@ -64,6 +64,11 @@ public class ZipServiceImpl implements ZipService {
         }
     }
 
+    @Override
+    public OutputStream zippingStream(final OutputStream out, final int bufferSize) throws IOException {
+        return new GZIPOutputStream(out, bufferSize);
+    }
+
     @Override
     public void read(final OutputStream out, final InputStream in) {
         if (log.isDebugEnabled()) {
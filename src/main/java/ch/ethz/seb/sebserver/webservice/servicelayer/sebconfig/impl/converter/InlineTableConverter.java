@@ -14,7 +14,6 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.function.Function;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.context.annotation.Lazy;
@@ -28,6 +27,7 @@ import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.AttributeValueConverter;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.AttributeValueConverterService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationValueSupplier;
 
 @Lazy
 @Component
@@ -67,7 +67,7 @@ public class InlineTableConverter implements AttributeValueConverter {
     public void convertToXML(
             final OutputStream out,
             final ConfigurationAttribute attribute,
-            final Function<ConfigurationAttribute, ConfigurationValue> valueSupplier) throws IOException {
+            final ConfigurationValueSupplier valueSupplier) throws IOException {
 
         convert(out, attribute, valueSupplier.apply(attribute), true);
     }
@@ -76,7 +76,7 @@ public class InlineTableConverter implements AttributeValueConverter {
     public void convertToJSON(
             final OutputStream out,
             final ConfigurationAttribute attribute,
-            final Function<ConfigurationAttribute, ConfigurationValue> valueSupplier) throws IOException {
+            final ConfigurationValueSupplier valueSupplier) throws IOException {
 
         convert(out, attribute, valueSupplier.apply(attribute), false);
     }
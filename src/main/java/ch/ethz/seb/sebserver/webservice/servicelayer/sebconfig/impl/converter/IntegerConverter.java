@@ -11,7 +11,6 @@ package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.impl.converter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Set;
-import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +23,7 @@ import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationValue;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.AttributeValueConverter;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationValueSupplier;
 
 @Lazy
 @Component
@@ -59,7 +59,7 @@ public class IntegerConverter implements AttributeValueConverter {
     public void convertToXML(
             final OutputStream out,
             final ConfigurationAttribute attribute,
-            final Function<ConfigurationAttribute, ConfigurationValue> valueSupplier) throws IOException {
+            final ConfigurationValueSupplier valueSupplier) throws IOException {
 
         convert(out, attribute, valueSupplier.apply(attribute), XML_TEMPLATE);
     }
@@ -68,7 +68,7 @@ public class IntegerConverter implements AttributeValueConverter {
     public void convertToJSON(
             final OutputStream out,
             final ConfigurationAttribute attribute,
-            final Function<ConfigurationAttribute, ConfigurationValue> valueSupplier) throws IOException {
+            final ConfigurationValueSupplier valueSupplier) throws IOException {
 
         convert(out, attribute, valueSupplier.apply(attribute), JSON_TEMPLATE);
     }
@@ -12,7 +12,6 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Collections;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.stream.Stream;
 
 import org.springframework.context.annotation.Lazy;
@@ -25,6 +24,7 @@ import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationValue;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.AttributeValueConverter;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationValueSupplier;
 
 @Lazy
 @Component
@@ -71,7 +71,7 @@ public class KioskModeConverter implements AttributeValueConverter {
     public void convertToXML(
             final OutputStream out,
             final ConfigurationAttribute attribute,
-            final Function<ConfigurationAttribute, ConfigurationValue> valueSupplier) throws IOException {
+            final ConfigurationValueSupplier valueSupplier) throws IOException {
 
         convert(out, valueSupplier.apply(attribute), attribute.name, XML_TEMPLATE);
     }
@@ -80,7 +80,7 @@ public class KioskModeConverter implements AttributeValueConverter {
     public void convertToJSON(
             final OutputStream out,
             final ConfigurationAttribute attribute,
-            final Function<ConfigurationAttribute, ConfigurationValue> valueSupplier) throws IOException {
+            final ConfigurationValueSupplier valueSupplier) throws IOException {
 
         convert(out, valueSupplier.apply(attribute), attribute.name, JSON_TEMPLATE);
     }
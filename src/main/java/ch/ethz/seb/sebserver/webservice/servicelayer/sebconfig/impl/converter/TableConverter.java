@@ -15,15 +15,14 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.SortedMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
-import org.springframework.util.CollectionUtils;
 
 import ch.ethz.seb.sebserver.gbl.Constants;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.AttributeType;
@@ -31,11 +30,10 @@ import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationAttribute;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationValue;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
-import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationAttributeDAO;
-import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationValueDAO;
-import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.AttributeValueConverter;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.AttributeValueConverterService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationAttributeRegistry;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationValueSupplier;
 
 @Lazy
 @Component
@@ -63,16 +61,11 @@ public class TableConverter implements AttributeValueConverter {
     private static final byte[] JSON_DICT_END = Utils.toByteArray("}");
     private static final byte[] JSON_EMPTY_ARRAY = Utils.toByteArray("[]");
 
-    private final ConfigurationAttributeDAO configurationAttributeDAO;
-    private final ConfigurationValueDAO configurationValueDAO;
+    private final ConfigurationAttributeRegistry configurationAttributeRegistry;
     private AttributeValueConverterService attributeValueConverterService;
 
-    public TableConverter(
-            final ConfigurationAttributeDAO configurationAttributeDAO,
-            final ConfigurationValueDAO configurationValueDAO) {
-
-        this.configurationAttributeDAO = configurationAttributeDAO;
-        this.configurationValueDAO = configurationValueDAO;
+    public TableConverter(final ConfigurationAttributeRegistry configurationAttributeRegistry) {
+        this.configurationAttributeRegistry = configurationAttributeRegistry;
     }
 
     @Override
@@ -89,33 +82,28 @@ public class TableConverter implements AttributeValueConverter {
     public void convertToXML(
             final OutputStream out,
             final ConfigurationAttribute attribute,
-            final Function<ConfigurationAttribute, ConfigurationValue> valueSupplier) throws IOException {
+            final ConfigurationValueSupplier valueSupplier) throws IOException {
 
-        convert(out, attribute, valueSupplier.apply(attribute), true);
+        convert(out, attribute, valueSupplier, true);
     }
 
     @Override
     public void convertToJSON(
             final OutputStream out,
             final ConfigurationAttribute attribute,
-            final Function<ConfigurationAttribute, ConfigurationValue> valueSupplier) throws IOException {
+            final ConfigurationValueSupplier valueSupplier) throws IOException {
 
-        convert(out, attribute, valueSupplier.apply(attribute), false);
+        convert(out, attribute, valueSupplier, false);
     }
 
     private void convert(
             final OutputStream out,
             final ConfigurationAttribute attribute,
-            final ConfigurationValue value,
+            final ConfigurationValueSupplier valueSupplier,
             final boolean xml) throws IOException {
 
-        final List<List<ConfigurationValue>> values = this.configurationValueDAO.getOrderedTableValues(
-                value.institutionId,
-                value.configurationId,
-                attribute.id)
-                .getOrThrow();
-
-        final boolean noValues = CollectionUtils.isEmpty(values);
+        final SortedMap<Integer, Map<Long, ConfigurationValue>> values = valueSupplier.getTableValues(attribute);
+        final boolean noValues = values.isEmpty();
 
         if (attribute.type != AttributeType.COMPOSITE_TABLE) {
 
@@ -125,7 +113,6 @@ public class TableConverter implements AttributeValueConverter {
 
             if (noValues) {
                 out.write((xml) ? XML_EMPTY_ARRAY : JSON_EMPTY_ARRAY);
-                out.flush();
                 return;
             } else {
                 out.write((xml) ? XML_ARRAY_START : JSON_ARRAY_START);
@@ -141,7 +128,7 @@ public class TableConverter implements AttributeValueConverter {
         }
 
         writeRows(
-                value,
+                valueSupplier.apply(attribute),
                 out,
                 getSortedChildAttributes(attribute),
                 values,
@@ -151,20 +138,20 @@ public class TableConverter implements AttributeValueConverter {
         if (attribute.type != AttributeType.COMPOSITE_TABLE) {
             out.write((xml) ? XML_ARRAY_END : JSON_ARRAY_END);
         }
-
-        out.flush();
     }
 
     private void writeRows(
             final ConfigurationValue tableValue,
             final OutputStream out,
             final List<ConfigurationAttribute> sortedAttributes,
-            final List<List<ConfigurationValue>> values,
+            final SortedMap<Integer, Map<Long, ConfigurationValue>> values,
             final AttributeValueConverterService attributeValueConverterService,
             final boolean xml) throws IOException {
 
-        for (int index = 0; index < values.size(); index++) {
-            final List<ConfigurationValue> rowValues = values.get(index);
+        final Iterator<Map.Entry<Integer, Map<Long, ConfigurationValue>>> rowItr = values.entrySet().iterator();
+        while (rowItr.hasNext()) {
+            final Map.Entry<Integer, Map<Long, ConfigurationValue>> row = rowItr.next();
+            final Map<Long, ConfigurationValue> rowValues = row.getValue();
 
             out.write((xml) ? XML_DICT_START : JSON_DICT_START);
 
@@ -172,10 +159,7 @@ public class TableConverter implements AttributeValueConverter {
             while (attrItr.hasNext()) {
 
                 final ConfigurationAttribute attr = attrItr.next();
-                ConfigurationValue value = rowValues.stream()
-                        .filter(val -> val != null && attr.id.equals(val.attributeId))
-                        .findFirst()
-                        .orElse(null);
+                ConfigurationValue value = rowValues.get(attr.id);
 
                 if (value == null) {
 
@@ -186,7 +170,7 @@ public class TableConverter implements AttributeValueConverter {
                             tableValue.institutionId,
                             tableValue.configurationId,
                             attr.id,
-                            index,
+                            row.getKey(),
                             attr.defaultValue);
                 }
 
@@ -207,23 +191,16 @@ public class TableConverter implements AttributeValueConverter {
             }
             out.write((xml) ? XML_DICT_END : JSON_DICT_END);
 
-            if (!xml && index < values.size() - 1) {
+            if (!xml && rowItr.hasNext()) {
                 out.write(Utils.toByteArray(Constants.LIST_SEPARATOR));
             }
-
-            out.flush();
         }
     }
 
     private List<ConfigurationAttribute> getSortedChildAttributes(final ConfigurationAttribute attribute) {
-        return this.configurationAttributeDAO
-                .allMatching(new FilterMap().putIfAbsent(
-                        ConfigurationAttribute.FILTER_ATTR_PARENT_ID,
-                        attribute.getModelId()))
-                .getOrThrow()
-                .stream()
-                .sorted()
-                .collect(Collectors.toList());
+        return this.configurationAttributeRegistry
+                .getMetadata()
+                .getChildAttributes(attribute.id);
     }
 
 }
@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session;
+
+/** This exception is thrown by an EventHandlingStrategy that is not able to accept more SEB client events
+ * at the moment because its event queue is full.
+ * Throwing an EventHandlingOverloadException will lead to a HTTP 503 Service Unavailable response. */
+public class EventHandlingOverloadException extends RuntimeException {
+
+    private static final long serialVersionUID = -2876493457409617384L;
+
+    public EventHandlingOverloadException(final String message) {
+        super(message);
+    }
+
+}
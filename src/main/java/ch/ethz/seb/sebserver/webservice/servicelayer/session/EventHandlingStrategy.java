@@ -26,4 +26,13 @@ public interface EventHandlingStrategy extends Consumer<ClientEventRecord> {
      * and will be re-initialized on server restart */
     void enable();
 
+    /** Waits until all events that have been accepted before this call are stored or the maximal wait time
+     * is reached. An EventHandlingStrategy that stores an event within accept has nothing to wait for.
+     *
+     * @param maxWait the maximal time to wait in milliseconds
+     * @return true if all events accepted before this call are stored */
+    default boolean awaitStored(final long maxWait) {
+        return true;
+    }
+
 }
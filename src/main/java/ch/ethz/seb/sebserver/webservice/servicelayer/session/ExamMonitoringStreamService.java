@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionDataUpdate;
+
+/** Service to push the client connection data of running exams to monitoring clients with Server-Sent Events.
+ *
+ * A subscriber first gets a full ClientConnectionDataUpdate (snapshot) of all client connections of the exam
+ * and then, on every tick where something has changed, an update that only contains the changed and the
+ * removed client connections. The updates of an exam are computed and serialized once per tick for all
+ * subscribers of the exam. */
+public interface ExamMonitoringStreamService {
+
+    /** Name of the Server-Sent Event that carries a full update */
+    String EVENT_SNAPSHOT = "snapshot";
+    /** Name of the Server-Sent Event that carries a delta update */
+    String EVENT_DELTA = "delta";
+
+    /** Subscribe to the client connection data updates of a running exam.
+     *
+     * @param examId the exam identifier
+     * @return the SseEmitter that sends the ClientConnectionDataUpdate events to the subscriber */
+    SseEmitter subscribe(Long examId);
+
+    /** Computes the updates of all exams that have subscribers and sends them to the subscribers. */
+    void tick();
+
+    /** Get the number of current subscribers of an exam.
+     *
+     * @param examId the exam identifier
+     * @return the number of current subscribers of the exam */
+    int subscribers(Long examId);
+
+    /** Creates a ClientConnectionDataUpdate with all client connections of the exam.
+     *
+     * @param examId the exam identifier
+     * @return a full ClientConnectionDataUpdate */
+    ClientConnectionDataUpdate snapshot(Long examId);
+
+}
@@ -19,12 +19,14 @@ import ch.ethz.seb.sebserver.gbl.api.APIMessage;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection.ConnectionStatus;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionData;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionDataUpdate;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientConnectionDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ExamSessionCacheService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.InMemorySebConfig;
 
 /** A Service to handle running exam sessions */
 public interface ExamSessionService {
@@ -105,9 +107,12 @@ public interface ExamSessionService {
     Result<Collection<Exam>> getRunningExamsForInstitution(Long institutionId);
 
     /** Gets all currently running Exams for a particular FilterMap.
+     * The running Exams are selected by their status on SQL level and are not filtered afterwards,
+     * so this can be used with SQL level pagination.
      *
      * @param filterMap the FilterMap containing the filter attributes
-     * @param predicate additional filter predicate
+     * @param predicate additional filter predicate. Since it is applied after the SQL selection it must not
+     *            drop Exams that match the FilterMap if this is used with SQL level pagination
      * @return Result referencing the list of all currently running Exams or to an error if happened. */
     Result<Collection<Exam>> getFilteredRunningExams(
             FilterMap filterMap,
@@ -119,6 +124,15 @@ public interface ExamSessionService {
      * @param out The OutputStream to stream the data to */
     void streamDefaultExamConfig(String connectionToken, OutputStream out);
 
+    /** Get the prebuilt (zipped and encrypted) default SEB Exam Configuration of the exam of the ClientConnection
+     * with given connectionToken. This uses the cached ClientConnection and running exam and needs no
+     * persistent storage access if both are already cached.
+     *
+     * @param connectionToken The connection token that identifiers the ClientConnection
+     * @return Result refer to the InMemorySebConfig of the exam or to an error if the connection is not known or
+     *         the exam of the connection is not running */
+    Result<InMemorySebConfig> getDefaultExamConfig(String connectionToken);
+
     /** Get current ClientConnectionData for a specified active SEB client connection.
      *
      * active SEB client connections are connections that were initialized by a SEB client
@@ -143,6 +157,25 @@ public interface ExamSessionService {
             Long examId,
             Predicate<ClientConnectionData> filter);
 
+    /** Get the ClientConnectionData of all active SEB client connections of a running exam that have changed
+     * after the given change version.
+     *
+     * Changed client connections that do not match the filter are reported as removed as well as client
+     * connections that are not available anymore, for example because they have been deleted. A since version
+     * of zero or less requests a full update with all client connections that match the filter. A full update
+     * is also returned if the removals after the given since version are not known. An update that is not full
+     * also contains the current indicator values of all other client connections that match the filter.
+     * The version of the resulting update is to be used as since version for the next request.
+     *
+     * @param examId The exam identifier
+     * @param since the change version of the last update the caller has applied
+     * @param filter a filter predicate to apply
+     * @return ClientConnectionDataUpdate with the changed and removed client connections of the exam */
+    Result<ClientConnectionDataUpdate> getConnectionDataUpdate(
+            Long examId,
+            long since,
+            Predicate<ClientConnectionData> filter);
+
     /** Use this to check if the current cached running exam is up to date
      * and if not to flush the cache.
      *
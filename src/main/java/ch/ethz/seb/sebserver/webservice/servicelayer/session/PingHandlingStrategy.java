@@ -25,4 +25,10 @@ public interface PingHandlingStrategy {
      * @param pingNumber the ping number */
     void notifyPing(final String connectionToken, final long timestamp, final int pingNumber);
 
+    /** Used to notify that a SEB Client connection is not active anymore (closed or disabled)
+     * and the ping handling for this connection can be released.
+     *
+     * @param connectionToken the SEB Client connection token */
+    void releaseForConnection(String connectionToken);
+
 }
@@ -22,6 +22,9 @@ public abstract class AbstractClientIndicator implements ClientIndicator {
 
     protected double currentValue = Double.NaN;
 
+    /** Notified whenever the value of this indicator has changed in a way that is relevant for monitoring */
+    private Runnable valueChangeListener = null;
+
     @Override
     public void init(
             final Indicator indicatorDefinition,
@@ -52,4 +55,14 @@ public abstract class AbstractClientIndicator implements ClientIndicator {
         return this.currentValue;
     }
 
+    void setValueChangeListener(final Runnable valueChangeListener) {
+        this.valueChangeListener = valueChangeListener;
+    }
+
+    protected final void notifyValueChanged() {
+        if (this.valueChangeListener != null) {
+            this.valueChangeListener.run();
+        }
+    }
+
 }
@@ -8,54 +8,59 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
 
-import static org.mybatis.dynamic.sql.SqlBuilder.*;
-
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
-import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
+import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
 import ch.ethz.seb.sebserver.gbl.model.session.IndicatorValueHolder;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
-import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordDynamicSqlSupport;
-import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordMapper;
 
+/** Counts the log-level client events of a client connection.
+ *
+ * The counts are taken from the ClientEventCounts of the exam. The counted events are stored and counted
+ * by SebClientConnectionService before the indicators are notified, so this indicator only reads the counts
+ * and notifies a value change for an observed event. */
 public abstract class AbstractLogLevelCountIndicator extends AbstractClientIndicator {
 
     private final Set<EventType> observed;
-    private final List<Integer> eventTypeIds;
-    private final ClientEventRecordMapper clientEventRecordMapper;
+    private final ExamSessionCacheService examSessionCacheService;
 
     protected AbstractLogLevelCountIndicator(
-            final ClientEventRecordMapper clientEventRecordMapper,
+            final ExamSessionCacheService examSessionCacheService,
             final EventType... eventTypes) {
 
-        this.clientEventRecordMapper = clientEventRecordMapper;
+        this.examSessionCacheService = examSessionCacheService;
         this.observed = Collections.unmodifiableSet(EnumSet.of(eventTypes[0], eventTypes));
-        this.eventTypeIds = Utils.immutableListOf(Arrays.stream(eventTypes)
-                .map(et -> et.id)
-                .collect(Collectors.toList()));
     }
 
     @Override
-    public double computeValueAt(final long timestamp) {
+    public double getValue() {
+        return computeValueAt(Utils.getMillisecondsNow());
+    }
 
-        final Long errors = this.clientEventRecordMapper.countByExample()
-                .where(ClientEventRecordDynamicSqlSupport.clientConnectionId, isEqualTo(this.connectionId))
-                .and(ClientEventRecordDynamicSqlSupport.type, isIn(this.eventTypeIds))
-                .and(ClientEventRecordDynamicSqlSupport.serverTime, isLessThan(timestamp))
-                .build()
-                .execute();
+    @Override
+    public double computeValueAt(final long timestamp) {
+        if (this.examId == null) {
+            return 0d;
+        }
 
-        return errors.doubleValue();
+        return this.examSessionCacheService
+                .getClientEventCounts(this.examId)
+                .count(this.connectionId, this.observed);
     }
 
     @Override
     public void notifyValueChange(final IndicatorValueHolder indicatorValueHolder) {
-        this.currentValue = getValue() + 1d;
+        if (this.examId == null) {
+            return;
+        }
+
+        if (!(indicatorValueHolder instanceof ClientEvent)
+                || this.observed.contains(((ClientEvent) indicatorValueHolder).eventType)) {
+            notifyValueChanged();
+        }
     }
 
     @Override
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+
+/** An in-memory index of the cached ClientConnectionDataInternal of all established SEB client connections
+ * grouped by exam.
+ *
+ * The index is maintained by the ExamSessionCacheService. A ClientConnectionDataInternal is added when it is
+ * loaded into the cache in an established state and is removed when it is evicted from the cache, either
+ * explicitly or by the size and expiry bounds of the cache. Since every
+ * status change of a client connection reloads the cache entry, the index always refers to the current cached
+ * instance of a client connection.
+ *
+ * The index is only changed on cache loads and evictions and is read lock-free. Removal listeners are notified
+ * with the connection token of every client connection that is removed from the index.
+ *
+ * The index also holds the missing ping deadlines of the indexed client connections within a TimingWheel.
+ * A ping only moves the deadline of the ping indicator forward, the wheel entry is moved lazily when its
+ * original deadline has passed. So only client connections that are near a missing ping are visited. */
+public final class ActiveClientConnectionIndex {
+
+    private static final long PING_DEADLINE_TICK = 100;
+    private static final int PING_DEADLINE_TICKS_PER_WHEEL = 512;
+
+    private final Map<Long, Map<String, ClientConnectionDataInternal>> connectionsByExam =
+            new ConcurrentHashMap<>();
+    private final Map<String, Long> examByToken = new ConcurrentHashMap<>();
+    private final Collection<Consumer<String>> removalListeners = new CopyOnWriteArrayList<>();
+
+    private final TimingWheel<ClientConnectionDataInternal> pingDeadlines = new TimingWheel<>(
+            PING_DEADLINE_TICK,
+            PING_DEADLINE_TICKS_PER_WHEEL,
+            Utils.getMillisecondsNow());
+
+    /** Adds the given ClientConnectionDataInternal to the index if it belongs to an exam and is in an
+     * established state. Another instance of the same client connection is replaced or removed.
+     *
+     * @param connection the cached ClientConnectionDataInternal */
+    synchronized void put(final ClientConnectionDataInternal connection) {
+        final String connectionToken = connection.clientConnection.connectionToken;
+        final Long examId = connection.clientConnection.examId;
+        if (examId == null || !connection.clientConnection.status.establishedStatus) {
+            remove(connectionToken);
+            return;
+        }
+
+        final Long previousExamId = this.examByToken.put(connectionToken, examId);
+        if (previousExamId != null && !previousExamId.equals(examId)) {
+            removeFromExam(previousExamId, connectionToken);
+        }
+
+        this.connectionsByExam
+                .computeIfAbsent(examId, id -> new ConcurrentHashMap<>())
+                .put(connectionToken, connection);
+
+        schedulePingDeadline(connection);
+    }
+
+    /** Removes the client connection with the given connection token from the index.
+     *
+     * @param connectionToken the connection token of the client connection */
+    synchronized void remove(final String connectionToken) {
+        final Long examId = this.examByToken.remove(connectionToken);
+        if (examId != null) {
+            removeFromExam(examId, connectionToken);
+            notifyRemoved(connectionToken);
+        }
+    }
+
+    /** Removes the given ClientConnectionDataInternal from the index after it has been evicted from the cache
+     * by size or expiry. The client connection is only removed if the given instance is still the indexed one
+     * since the cache may already have loaded a new instance meanwhile.
+     *
+     * @param connection the evicted ClientConnectionDataInternal */
+    public synchronized void evicted(final ClientConnectionDataInternal connection) {
+        if (contains(connection)) {
+            remove(connection.clientConnection.connectionToken);
+        }
+    }
+
+    /** Removes all client connections of an exam from the index.
+     *
+     * @param examId the exam identifier */
+    synchronized void removeExam(final Long examId) {
+        final Map<String, ClientConnectionDataInternal> connections = this.connectionsByExam.remove(examId);
+        if (connections != null) {
+            connections.keySet().forEach(connectionToken -> {
+                this.examByToken.remove(connectionToken);
+                notifyRemoved(connectionToken);
+            });
+        }
+    }
+
+    /** Adds a listener that is notified with the connection token of each client connection that is removed
+     * from the index, either explicitly, by eviction or because its exam has ended. The listener is called
+     * while the index is locked and must not block.
+     *
+     * @param listener the removal listener */
+    public void addRemovalListener(final Consumer<String> listener) {
+        this.removalListeners.add(listener);
+    }
+
+    /** Get the identifiers of all exams that have established client connections.
+     *
+     * @return the identifiers of all exams that have established client connections */
+    Set<Long> examIds() {
+        return Collections.unmodifiableSet(this.connectionsByExam.keySet());
+    }
+
+    /** Get the ClientConnectionDataInternal of all established client connections of an exam.
+     *
+     * @param examId the exam identifier
+     * @return the ClientConnectionDataInternal of all established client connections of the exam */
+    Collection<ClientConnectionDataInternal> getConnections(final Long examId) {
+        final Map<String, ClientConnectionDataInternal> connections = this.connectionsByExam.get(examId);
+        if (connections == null) {
+            return Collections.emptyList();
+        }
+
+        return Collections.unmodifiableCollection(connections.values());
+    }
+
+    /** Indicates if the given instance is the indexed instance of its client connection.
+     *
+     * @param connection the ClientConnectionDataInternal
+     * @return true if the given instance is indexed */
+    boolean contains(final ClientConnectionDataInternal connection) {
+        final Map<String, ClientConnectionDataInternal> connections =
+                this.connectionsByExam.get(connection.clientConnection.examId);
+        return connections != null && connections.get(connection.clientConnection.connectionToken) == connection;
+    }
+
+    /** Schedules the missing ping deadline of a client connection that has a ping indicator.
+     *
+     * @param connection the ClientConnectionDataInternal */
+    void schedulePingDeadline(final ClientConnectionDataInternal connection) {
+        if (connection.pingIndicator != null) {
+            this.pingDeadlines.schedule(connection, connection.pingIndicator.getMissingPingDeadline());
+        }
+    }
+
+    /** Hands all indexed client connections with a passed missing ping deadline to the given consumer.
+     * Client connections that had a ping meanwhile are rescheduled to their new deadline and client
+     * connections that are no longer indexed are dropped. An expired client connection is not scheduled
+     * again, use schedulePingDeadline for this.
+     *
+     * @param now the current time in milliseconds
+     * @param expired consumer for the client connections with a passed missing ping deadline */
+    void expirePingDeadlines(final long now, final Consumer<ClientConnectionDataInternal> expired) {
+        this.pingDeadlines.advance(now, connection -> {
+            if (!contains(connection)) {
+                return;
+            }
+
+            final long deadline = connection.pingIndicator.getMissingPingDeadline();
+            if (deadline > now) {
+                this.pingDeadlines.schedule(connection, deadline);
+            } else {
+                expired.accept(connection);
+            }
+        });
+    }
+
+    int size() {
+        return this.examByToken.size();
+    }
+
+    private void notifyRemoved(final String connectionToken) {
+        this.removalListeners.forEach(listener -> listener.accept(connectionToken));
+    }
+
+    private void removeFromExam(final Long examId, final String connectionToken) {
+        this.connectionsByExam.computeIfPresent(examId, (id, connections) -> {
+            connections.remove(connectionToken);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+/** Adapts the batch size and the flush interval of the client event batch workers to the current queue depth
+ * and the measured insert latency.
+ *
+ * - The batch size is doubled while there are more events in the queue than one batch can take and the insert
+ * latency is within the target latency. It is halved when the insert latency exceeds the target latency.
+ * - The flush interval is the time a worker waits to collect more events for a batch that is not full. It is zero
+ * if the queue holds at least one full batch and grows linear up to the maximal flush interval for an empty queue. */
+final class AdaptiveBatchControl {
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long targetLatency;
+    private final long maxFlushInterval;
+
+    private volatile int batchSize;
+    private volatile long flushInterval;
+
+    AdaptiveBatchControl(
+            final int minBatchSize,
+            final int maxBatchSize,
+            final long targetLatency,
+            final long maxFlushInterval) {
+
+        this.minBatchSize = Math.max(1, minBatchSize);
+        this.maxBatchSize = Math.max(this.minBatchSize, maxBatchSize);
+        this.targetLatency = targetLatency;
+        this.maxFlushInterval = maxFlushInterval;
+        this.batchSize = this.minBatchSize;
+        this.flushInterval = maxFlushInterval;
+    }
+
+    int batchSize() {
+        return this.batchSize;
+    }
+
+    long flushInterval() {
+        return this.flushInterval;
+    }
+
+    /** Adapts the batch size and flush interval after a batch has been stored.
+     *
+     * @param latency the time in milliseconds it took to store the batch
+     * @param queueDepth the number of events that are still in the queue */
+    synchronized void onBatchStored(final long latency, final int queueDepth) {
+        int size = this.batchSize;
+        if (latency > this.targetLatency) {
+            size = Math.max(this.minBatchSize, size / 2);
+        } else if (queueDepth > size) {
+            size = Math.min(this.maxBatchSize, size * 2);
+        }
+
+        this.batchSize = size;
+        this.flushInterval = (queueDepth >= size)
+                ? 0
+                : this.maxFlushInterval - (this.maxFlushInterval * queueDepth / size);
+    }
+
+}
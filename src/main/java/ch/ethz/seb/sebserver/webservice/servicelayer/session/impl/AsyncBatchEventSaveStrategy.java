@@ -8,19 +8,26 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.PreDestroy;
 
-import org.apache.ibatis.session.ExecutorType;
-import org.apache.ibatis.session.SqlSessionFactory;
-import org.mybatis.spring.SqlSessionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
@@ -33,23 +40,45 @@ import ch.ethz.seb.sebserver.SEBServerInit;
 import ch.ethz.seb.sebserver.SEBServerInitEvent;
 import ch.ethz.seb.sebserver.gbl.Constants;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
-import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.EventHandlingOverloadException;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.EventHandlingStrategy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /** Approach 2 to handle/save client events internally
  *
  * This Approach uses a queue to collect ClientEvents that are stored later. The queue is shared between some
  * worker-threads that batch gets and stores the events from the queue afterwards. this approach is less blocking from
- * the caller perspective and also faster on store data by using bulk-insert
+ * the caller perspective and also faster on store data by using bulk-insert. A batch is stored with multi-row
+ * INSERT statements (see ClientEventExtensionMapper.insertBatch) to reduce the statement round trips per batch.
  *
- * A disadvantage is an potentially multiple event data loss on total server fail. The data in the queue is state that
- * is not stored somewhere yet and can't be recovered on total server fail.
+ * The batch size and the flush interval of the workers adapt to the queue depth and the measured insert latency
+ * (see AdaptiveBatchControl). The queue is bounded. If it is full, a caller is blocked for the configured
+ * back-pressure timeout and if there is still no space, the event is rejected with an
+ * EventHandlingOverloadException. Queue depth, batch size, flush latency and dropped events are exposed as metrics.
  *
- * If the performance of this approach is not enough or the potentially data loss on total server fail is a risk that
- * not can be taken, we have to consider using a messaging system/server like rabbitMQ or Apache-Kafka that brings the
- * ability to effectively store and recover message queues but also comes with more complexity on setup and installation
- * side as well as for the whole server system. */
+ * Every accepted event gets a sequence number that is pending until the batch of the event has been processed.
+ * This allows to wait for all events that have been accepted before a certain point in time (see awaitStored).
+ *
+ * To not lose the queued events on total server fail, every event is first appended to a local write-ahead log
+ * (ClientEventWriteAheadLog) and acknowledged there after the batch that stored it has been committed.
+ * Events that are not acknowledged are replayed from the log on the next server startup. The log can be disabled
+ * with sebserver.webservice.api.exam.event-log.enabled=false and then the data in the queue is lost on total
+ * server fail.
+ *
+ * The events of a batch that failed to be stored are queued again to be stored with a later batch. An event that
+ * failed MAX_STORE_ATTEMPTS times is given up and stays not acknowledged within the log to be replayed on the next
+ * server startup. On shutdown, new events are not accepted anymore and the workers store the events that are
+ * still queued before they stop.
+ *
+ * If the performance of this approach is not enough, we have to consider using a messaging system/server like
+ * rabbitMQ or Apache-Kafka that brings the ability to effectively store and recover message queues but also comes
+ * with more complexity on setup and installation side as well as for the whole server system. */
 @Lazy
 @Component(EventHandlingStrategy.EVENT_CONSUMER_STRATEGY_ASYNC_BATCH_STORE)
 @WebServiceProfile
@@ -58,26 +87,85 @@ public class AsyncBatchEventSaveStrategy implements EventHandlingStrategy {
     private static final Logger log = LoggerFactory.getLogger(AsyncBatchEventSaveStrategy.class);
 
     private static final int NUMBER_OF_WORKER_THREADS = 4;
-    private static final int BATCH_SIZE = 100;
+    private static final long MAX_IDLE_WAIT = 1000;
+    private static final long AWAIT_STORED_INTERVAL = 10;
+    private static final int MAX_STORE_ATTEMPTS = 3;
+    private static final long STORE_RETRY_INTERVAL = 500;
+    private static final long SHUTDOWN_DRAIN_TIMEOUT = 10 * Constants.SECOND_IN_MILLIS;
 
-    private final SqlSessionFactory sqlSessionFactory;
+    public static final String METRIC_QUEUE_DEPTH = "sebserver.client.events.queue.depth";
+    public static final String METRIC_BATCH_SIZE = "sebserver.client.events.batch.size";
+    public static final String METRIC_BATCH = "sebserver.client.events.batch";
+    public static final String METRIC_FLUSH_LATENCY = "sebserver.client.events.flush";
+    public static final String METRIC_DROPPED = "sebserver.client.events.dropped";
+
+    private final ClientEventExtensionMapper clientEventExtensionMapper;
     private final Executor executor;
     private final TransactionTemplate transactionTemplate;
+    private final ClientEventWriteAheadLog eventLog;
+    private final AdaptiveBatchControl batchControl;
+    private final long backpressureTimeout;
+
+    private final BlockingDeque<LoggedEvent> eventQueue;
+    private final AtomicLong acceptSequence = new AtomicLong();
+    private final ConcurrentSkipListSet<Long> pendingSequences = new ConcurrentSkipListSet<>();
+    private final Lock collectLock = new ReentrantLock();
+    private final DistributionSummary batchSummary;
+    private final Timer flushTimer;
+    private final Counter droppedCounter;
 
-    private final BlockingDeque<ClientEventRecord> eventQueue = new LinkedBlockingDeque<>();
-    private boolean workersRunning = false;
+    private volatile boolean workersRunning = false;
+    private volatile CountDownLatch workersStopped = new CountDownLatch(0);
     private boolean enabled = false;
 
     public AsyncBatchEventSaveStrategy(
-            final SqlSessionFactory sqlSessionFactory,
+            final ClientEventExtensionMapper clientEventExtensionMapper,
             final AsyncConfigurer asyncConfigurer,
-            final PlatformTransactionManager transactionManager) {
+            final PlatformTransactionManager transactionManager,
+            final MeterRegistry meterRegistry,
+            @Value("${sebserver.webservice.api.exam.event-log.enabled:true}") final boolean eventLogEnabled,
+            @Value("${sebserver.webservice.api.exam.event-log.dir:${java.io.tmpdir}/sebserver/event-log}") final String eventLogDir,
+            @Value("${sebserver.webservice.api.exam.event-log.segment-size:4194304}") final int eventLogSegmentSize,
+            @Value("${sebserver.webservice.api.exam.event-queue.capacity:100000}") final int queueCapacity,
+            @Value("${sebserver.webservice.api.exam.event-queue.backpressure-timeout:500}") final long backpressureTimeout,
+            @Value("${sebserver.webservice.api.exam.event-batch.min-size:20}") final int minBatchSize,
+            @Value("${sebserver.webservice.api.exam.event-batch.max-size:2000}") final int maxBatchSize,
+            @Value("${sebserver.webservice.api.exam.event-batch.target-latency:200}") final long targetLatency,
+            @Value("${sebserver.webservice.api.exam.event-batch.max-flush-interval:100}") final long maxFlushInterval) {
 
-        this.sqlSessionFactory = sqlSessionFactory;
+        this.clientEventExtensionMapper = clientEventExtensionMapper;
         this.executor = asyncConfigurer.getAsyncExecutor();
 
         this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.eventLog = (eventLogEnabled)
+                ? new ClientEventWriteAheadLog(Paths.get(eventLogDir), eventLogSegmentSize)
+                : null;
+
+        this.eventQueue = new LinkedBlockingDeque<>(queueCapacity);
+        this.backpressureTimeout = backpressureTimeout;
+        this.batchControl = new AdaptiveBatchControl(
+                minBatchSize,
+                maxBatchSize,
+                targetLatency,
+                maxFlushInterval);
+
+        Gauge.builder(METRIC_QUEUE_DEPTH, this.eventQueue, BlockingDeque::size)
+                .description("Number of SEB client events waiting to be stored")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_BATCH_SIZE, this.batchControl, AdaptiveBatchControl::batchSize)
+                .description("Current maximal batch size of the client event batch workers")
+                .register(meterRegistry);
+        this.batchSummary = DistributionSummary.builder(METRIC_BATCH)
+                .description("Number of SEB client events stored within one batch")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder(METRIC_FLUSH_LATENCY)
+                .description("Time to store one batch of SEB client events")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder(METRIC_DROPPED)
+                .description("Number of SEB client events rejected because of a full event queue")
+                .register(meterRegistry);
     }
 
     @Override
@@ -88,6 +176,10 @@ public class AsyncBatchEventSaveStrategy implements EventHandlingStrategy {
     @EventListener(SEBServerInitEvent.class)
     protected void recover() {
         if (this.enabled) {
+            if (this.eventLog != null) {
+                replayEventLog();
+            }
+
             SEBServerInit.INIT_LOGGER.info("------>");
             SEBServerInit.INIT_LOGGER.info("------> Start {} Event-Batch-Store Worker-Threads",
                     NUMBER_OF_WORKER_THREADS);
@@ -106,6 +198,18 @@ public class AsyncBatchEventSaveStrategy implements EventHandlingStrategy {
     protected void shutdown() {
         log.info("Reset workersRunning flag to stop worker after event queue is empty");
         this.workersRunning = false;
+
+        try {
+            if (!this.workersStopped.await(SHUTDOWN_DRAIN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                log.warn("Event queue not drained on shutdown. Remaining events: {}", this.eventQueue.size());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (this.eventLog != null) {
+            this.eventLog.force();
+        }
     }
 
     @Override
@@ -114,7 +218,73 @@ public class AsyncBatchEventSaveStrategy implements EventHandlingStrategy {
             return;
         }
 
-        this.eventQueue.add(record);
+        final ClientEventWriteAheadLog.Entry entry = (this.eventLog != null)
+                ? this.eventLog.append(record)
+                : null;
+
+        final LoggedEvent event = new LoggedEvent(record, entry, this.acceptSequence.incrementAndGet());
+        this.pendingSequences.add(event.sequence);
+
+        boolean queued = this.eventQueue.offer(event);
+        if (!queued) {
+            // back-pressure: slow down the caller until there is space in the queue or the timeout is reached
+            try {
+                queued = this.eventQueue.offer(
+                        event,
+                        this.backpressureTimeout,
+                        TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (!queued) {
+            this.pendingSequences.remove(event.sequence);
+            this.droppedCounter.increment();
+            if (entry != null) {
+                this.eventLog.acknowledge(Collections.singletonList(entry));
+            }
+            throw new EventHandlingOverloadException(
+                    "Client event queue is full. Event rejected for connection: " + record.getClientConnectionId());
+        }
+    }
+
+    @Override
+    public boolean awaitStored(final long maxWait) {
+        final long sequence = this.acceptSequence.get();
+        final long deadline = System.currentTimeMillis() + maxWait;
+        while (!isProcessed(sequence)) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+
+            try {
+                Thread.sleep(AWAIT_STORED_INTERVAL);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isProcessed(final long sequence) {
+        final Long firstPending = this.pendingSequences.ceiling(Long.MIN_VALUE);
+        return firstPending == null || firstPending > sequence;
+    }
+
+    private void replayEventLog() {
+        try {
+            final int replayed = this.eventLog.recover(events -> this.transactionTemplate
+                    .execute(status -> this.clientEventExtensionMapper.insertBatch(events)));
+
+            SEBServerInit.INIT_LOGGER.info("------>");
+            SEBServerInit.INIT_LOGGER.info("------> Replayed {} not stored client events from event log",
+                    replayed);
+        } catch (final Exception e) {
+            log.error("Failed to replay client event log: ", e);
+        }
     }
 
     private void runWorkers() {
@@ -124,6 +294,7 @@ public class AsyncBatchEventSaveStrategy implements EventHandlingStrategy {
         }
 
         this.workersRunning = true;
+        this.workersStopped = new CountDownLatch(NUMBER_OF_WORKER_THREADS);
         for (int i = 0; i < NUMBER_OF_WORKER_THREADS; i++) {
             this.executor.execute(batchSave());
         }
@@ -134,48 +305,169 @@ public class AsyncBatchEventSaveStrategy implements EventHandlingStrategy {
 
             SEBServerInit.INIT_LOGGER.info("> Worker Thread {} running", Thread.currentThread());
 
-            final Collection<ClientEventRecord> events = new ArrayList<>();
-            final SqlSessionTemplate sqlSessionTemplate = new SqlSessionTemplate(
-                    this.sqlSessionFactory,
-                    ExecutorType.BATCH);
-            final ClientEventRecordMapper clientEventMapper = sqlSessionTemplate.getMapper(
-                    ClientEventRecordMapper.class);
-
-            long sleepTime = 100;
+            final Collection<LoggedEvent> events = new ArrayList<>();
+            final List<ClientEventRecord> records = new ArrayList<>();
+            final List<ClientEventWriteAheadLog.Entry> acknowledge = new ArrayList<>();
 
+            boolean interrupted = false;
             try {
-                while (this.workersRunning) {
+                // on shutdown the workers stop after the event queue is drained
+                while (!interrupted && (this.workersRunning || !this.eventQueue.isEmpty())) {
                     events.clear();
-                    this.eventQueue.drainTo(events, BATCH_SIZE);
 
                     try {
-                        if (!events.isEmpty()) {
-                            sleepTime = 100;
-                            this.transactionTemplate
-                                    .execute(status -> {
-                                        events.forEach(clientEventMapper::insert);
-                                        return null;
-                                    });
-
-                            sqlSessionTemplate.flushStatements();
-                        } else {
-                            sleepTime += 100;
-                        }
-                    } catch (final Exception e) {
-                        log.error("unexpected Error while trying to batch store client-events: ", e);
+                        collectBatch(events);
+                    } catch (final InterruptedException e) {
+                        // the events that are already collected are stored before the worker stops
+                        log.warn("Worker Thread {} interrupted", Thread.currentThread());
+                        Thread.currentThread().interrupt();
+                        interrupted = true;
+                    }
+
+                    if (events.isEmpty()) {
+                        continue;
                     }
 
                     try {
-                        Thread.sleep(sleepTime);
-                    } catch (final InterruptedException e) {
-                        e.printStackTrace();
+                        records.clear();
+                        events.forEach(event -> records.add(event.record));
+
+                        final long start = System.nanoTime();
+                        this.transactionTemplate
+                                .execute(status -> this.clientEventExtensionMapper.insertBatch(records));
+                        final long latency = System.nanoTime() - start;
+
+                        acknowledge(events, acknowledge);
+                        events.forEach(event -> this.pendingSequences.remove(event.sequence));
+
+                        this.flushTimer.record(latency, TimeUnit.NANOSECONDS);
+                        this.batchSummary.record(events.size());
+                        this.batchControl.onBatchStored(
+                                TimeUnit.NANOSECONDS.toMillis(latency),
+                                this.eventQueue.size());
+
+                    } catch (final Exception e) {
+                        log.error("unexpected Error while trying to batch store client-events: ", e);
+                        retry(events);
+
+                        // give the database some time to recover before the next attempt
+                        try {
+                            Thread.sleep(STORE_RETRY_INTERVAL);
+                        } catch (final InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                        }
                     }
                 }
             } finally {
-                sqlSessionTemplate.close();
                 log.debug("Worker Thread {} stopped", Thread.currentThread());
+                this.workersStopped.countDown();
             }
         };
     }
 
+    /** Collects the next batch of events. Waits up to MAX_IDLE_WAIT for the first event and then up to the
+     * current flush interval for a not full batch to fill up. A batch is given back as soon as it is full,
+     * so a busy queue is not slowed down by the flush interval. On shutdown a batch does not wait to fill up.
+     *
+     * Only one worker collects a batch at a time. Otherwise the workers would split the queued events into
+     * several not full batches that all wait for the flush interval. The batch is stored outside of the lock.
+     *
+     * @param events the collection to add the events of the batch to
+     * @throws InterruptedException if the worker was interrupted while waiting for events */
+    private void collectBatch(final Collection<LoggedEvent> events) throws InterruptedException {
+        this.collectLock.lockInterruptibly();
+        try {
+            collectBatchLocked(events);
+        } finally {
+            this.collectLock.unlock();
+        }
+    }
+
+    private void collectBatchLocked(final Collection<LoggedEvent> events) throws InterruptedException {
+        final LoggedEvent first = this.eventQueue.poll(MAX_IDLE_WAIT, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+
+        events.add(first);
+        final int batchSize = this.batchControl.batchSize();
+        final long flushInterval = (this.workersRunning) ? this.batchControl.flushInterval() : 0;
+        final long flushDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushInterval);
+        this.eventQueue.drainTo(events, batchSize - events.size());
+        while (events.size() < batchSize) {
+            final long wait = flushDeadline - System.nanoTime();
+            if (wait <= 0) {
+                break;
+            }
+
+            final LoggedEvent next = this.eventQueue.poll(wait, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+
+            events.add(next);
+            this.eventQueue.drainTo(events, batchSize - events.size());
+        }
+    }
+
+    /** Queues the events of a failed batch again to store them with a later batch. An event that failed to be
+     * stored MAX_STORE_ATTEMPTS times or that does not fit into the queue anymore is given up. It stays not
+     * acknowledged within the event log and is replayed on the next server startup.
+     *
+     * @param events the events of the failed batch */
+    private void retry(final Collection<LoggedEvent> events) {
+        int givenUp = 0;
+        for (final LoggedEvent event : events) {
+            event.attempts++;
+            if (event.attempts >= MAX_STORE_ATTEMPTS || !this.eventQueue.offerLast(event)) {
+                this.pendingSequences.remove(event.sequence);
+                givenUp++;
+            }
+        }
+
+        if (givenUp > 0) {
+            log.error("Failed to store {} client events. {}",
+                    givenUp,
+                    (this.eventLog != null)
+                            ? "They are replayed from the event log on next startup"
+                            : "They are lost");
+        }
+    }
+
+    private void acknowledge(
+            final Collection<LoggedEvent> events,
+            final List<ClientEventWriteAheadLog.Entry> acknowledge) {
+
+        if (this.eventLog == null) {
+            return;
+        }
+
+        acknowledge.clear();
+        for (final LoggedEvent event : events) {
+            if (event.entry != null) {
+                acknowledge.add(event.entry);
+            }
+        }
+        this.eventLog.acknowledge(acknowledge);
+    }
+
+    private static final class LoggedEvent {
+
+        final ClientEventRecord record;
+        final ClientEventWriteAheadLog.Entry entry;
+        final long sequence;
+        // only accessed by the worker that currently holds the event
+        int attempts = 0;
+
+        LoggedEvent(
+                final ClientEventRecord record,
+                final ClientEventWriteAheadLog.Entry entry,
+                final long sequence) {
+
+            this.record = record;
+            this.entry = entry;
+            this.sequence = sequence;
+        }
+    }
+
 }
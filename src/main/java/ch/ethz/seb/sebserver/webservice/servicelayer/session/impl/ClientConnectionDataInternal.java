@@ -13,10 +13,12 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
@@ -32,12 +34,22 @@ public class ClientConnectionDataInternal extends ClientConnectionData {
 
     PingIntervalClientIndicator pingIndicator = null;
 
+    /** The change counter of the exam this client connection belongs to */
+    private final AtomicLong examVersion;
+    /** The exam version of the last change of this client connection */
+    private volatile long version;
+
     protected ClientConnectionDataInternal(
             final ClientConnection clientConnection,
-            final List<ClientIndicator> clientIndicators) {
+            final List<ClientIndicator> clientIndicators,
+            final AtomicLong examVersion) {
 
         super(clientConnection, clientIndicators);
 
+        // a new instance is created for every new or reloaded client connection and counts as a change
+        this.examVersion = examVersion;
+        this.version = examVersion.incrementAndGet();
+
         this.indicatorMapping = new EnumMap<>(EventType.class);
         for (final ClientIndicator clientIndicator : clientIndicators) {
             if (clientIndicator instanceof PingIntervalClientIndicator) {
@@ -47,6 +59,9 @@ public class ClientConnectionDataInternal extends ClientConnectionData {
                 }
                 this.pingIndicator = (PingIntervalClientIndicator) clientIndicator;
             }
+            if (clientIndicator instanceof AbstractClientIndicator) {
+                ((AbstractClientIndicator) clientIndicator).setValueChangeListener(this::notifyChange);
+            }
             for (final EventType eventType : clientIndicator.observedEvents()) {
                 this.indicatorMapping
                         .computeIfAbsent(eventType, key -> new ArrayList<>())
@@ -69,6 +84,20 @@ public class ClientConnectionDataInternal extends ClientConnectionData {
         return this.indicatorMapping.get(eventType);
     }
 
+    /** Get the exam version of the last change of this client connection. This is the status and the data of
+     * the client connection, the missing ping flag and all indicator values except the last ping time that
+     * changes on every ping.
+     *
+     * @return the exam version of the last change of this client connection */
+    @JsonIgnore
+    public long getVersion() {
+        return this.version;
+    }
+
+    void notifyChange() {
+        this.version = this.examVersion.incrementAndGet();
+    }
+
     @Override
     @JsonProperty("missingPing")
     public Boolean getMissingPing() {
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import ch.ethz.seb.sebserver.gbl.model.exam.Indicator.IndicatorType;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionData;
+import ch.ethz.seb.sebserver.gbl.model.session.IndicatorValue;
+
+/** An immutable copy of the current state of a ClientConnectionData with its indicator values
+ * that can be compared with a later state of the same client connection. */
+final class ClientConnectionDataSnapshot extends ClientConnectionData {
+
+    private final Boolean missingPingSnapshot;
+
+    private ClientConnectionDataSnapshot(
+            final ClientConnectionData data,
+            final List<IndicatorValueSnapshot> indicatorValues) {
+
+        super(data.clientConnection, indicatorValues);
+        this.missingPingSnapshot = data.getMissingPing();
+    }
+
+    static ClientConnectionDataSnapshot of(final ClientConnectionData data) {
+        final List<IndicatorValueSnapshot> values = new ArrayList<>(data.indicatorValues.size());
+        for (final IndicatorValue value : data.indicatorValues) {
+            values.add(new IndicatorValueSnapshot(value.getType(), value.getValue()));
+        }
+        return new ClientConnectionDataSnapshot(data, values);
+    }
+
+    @Override
+    @JsonProperty("missingPing")
+    public Boolean getMissingPing() {
+        return this.missingPingSnapshot;
+    }
+
+    /** Indicates if the state of this snapshot differs from the state of another snapshot of the same
+     * client connection. The values of ping indicators are not compared since they change on every ping.
+     * A change of the ping state is reflected by the missing ping flag.
+     *
+     * @param other the other snapshot
+     * @return true if the state has changed */
+    boolean hasChanged(final ClientConnectionDataSnapshot other) {
+        if (other == null) {
+            return true;
+        }
+        if (!Objects.equals(this.missingPingSnapshot, other.missingPingSnapshot)) {
+            return true;
+        }
+        if (!this.clientConnection.dataEquals(other.clientConnection)
+                || this.clientConnection.status != other.clientConnection.status) {
+            return true;
+        }
+        if (this.indicatorValues.size() != other.indicatorValues.size()) {
+            return true;
+        }
+
+        final Iterator<? extends IndicatorValue> i1 = this.indicatorValues.iterator();
+        final Iterator<? extends IndicatorValue> i2 = other.indicatorValues.iterator();
+        while (i1.hasNext()) {
+            final IndicatorValue iv1 = i1.next();
+            final IndicatorValue iv2 = i2.next();
+            if (iv1.getType() != iv2.getType()) {
+                return true;
+            }
+            if (iv1.getType() != IndicatorType.LAST_PING
+                    && Double.compare(iv1.getValue(), iv2.getValue()) != 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static final class IndicatorValueSnapshot implements IndicatorValue {
+
+        private final IndicatorType type;
+        private final double value;
+
+        IndicatorValueSnapshot(final IndicatorType type, final double value) {
+            this.type = type;
+            this.value = value;
+        }
+
+        @Override
+        public IndicatorType getType() {
+            return this.type;
+        }
+
+        @Override
+        public double getValue() {
+            return this.value;
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/** Tracks the client connections of an exam that have been removed, for example because they have been deleted
+ * or evicted and are not available anymore, to report them as removed with the monitoring updates.
+ *
+ * A removal is detected by comparing the available client connections of an update with the ones of the
+ * previous update and gets a new change version of the exam. Since removals before the creation of the
+ * tracking are not known, an update for a version before startVersion has to be a full update.
+ *
+ * The connection tokens of the exam that are loaded for an update are kept together with the change version
+ * of the exam at that time. As long as the change version of the exam stays the same, the client connections of
+ * the exam have not changed on this instance and the kept connection tokens are used again. */
+final class ClientConnectionRemovals {
+
+    /** The change version of the exam when the tracking of removals has started */
+    final long startVersion;
+
+    private final AtomicLong changeVersion;
+    private final Set<Long> available = new HashSet<>();
+    private final Map<Long, Long> removed = new HashMap<>();
+
+    private Collection<String> connectionTokens = null;
+    private long connectionTokensVersion = -1;
+
+    ClientConnectionRemovals(final AtomicLong changeVersion) {
+        this.changeVersion = changeVersion;
+        this.startVersion = changeVersion.get();
+    }
+
+    /** Indicates if the removals after the given version are known.
+     *
+     * @param since the change version of the last update of a caller
+     * @return true if all removals after the given version are known */
+    boolean isTracked(final long since) {
+        return since >= this.startVersion;
+    }
+
+    /** Get the connection tokens of the exam. They are loaded again if this is forced or if the change version
+     * of the exam has changed since they have been loaded last.
+     * The caller has to hold the lock of this instance.
+     *
+     * @param version the current change version of the exam
+     * @param forceLoad true to load the connection tokens in any case, for example for a full update
+     * @param load the function that loads the connection tokens of the exam
+     * @return the connection tokens of the exam */
+    Collection<String> getConnectionTokens(
+            final long version,
+            final boolean forceLoad,
+            final Supplier<Collection<String>> load) {
+
+        if (forceLoad || this.connectionTokens == null || this.connectionTokensVersion != version) {
+            this.connectionTokens = load.get();
+            this.connectionTokensVersion = version;
+        }
+        return this.connectionTokens;
+    }
+
+    /** Updates the tracking with the currently available client connections of the exam and gets the
+     * identifiers of the client connections that have been removed after the given version.
+     * The caller has to hold the lock of this instance while it collects the available client connections.
+     *
+     * @param availableConnectionIds the identifiers of the currently available client connections
+     * @param since the change version of the last update of a caller
+     * @return the identifiers of the client connections that have been removed after the given version */
+    Collection<Long> update(final Set<Long> availableConnectionIds, final long since) {
+        for (final Long connectionId : this.available) {
+            if (!availableConnectionIds.contains(connectionId)) {
+                this.removed.put(connectionId, this.changeVersion.incrementAndGet());
+            }
+        }
+        this.available.clear();
+        this.available.addAll(availableConnectionIds);
+        this.removed.keySet().removeAll(availableConnectionIds);
+
+        final List<Long> result = new ArrayList<>();
+        this.removed.forEach((connectionId, version) -> {
+            if (version > since) {
+                result.add(connectionId);
+            }
+        });
+        return result;
+    }
+
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper.ClientEventCountRecord;
+
+/** Holds the number of log-level client events (warnings and errors) for all client connections of an exam.
+ *
+ * The counts are seeded with one grouped query for all stored events of the exam and are then incremented in
+ * memory for every event that is stored with store. A counted event is stored and incremented while holding
+ * the read lock of the counts. The seed is taken by the one thread that claims the seed future, and the write
+ * lock is only held to mark the point from where stored events are counted on top of the seed. The seed function
+ * itself runs outside the lock and first waits until all events that are accepted before that point are stored.
+ * Until the first seed is done, count and store wait for the seed future.
+ *
+ * If a maximal seed age is given, the counts are seeded again when they are older, to also get the events
+ * that other SEB Server instances of a distributed setup have stored meanwhile. While seeding again the
+ * previous counts are used. An event that this instance stores while the seed query runs can be counted twice
+ * until the next seed. A retired instance must not be used anymore. Its store returns false and the caller has
+ * to use the current instance of the exam. */
+public final class ClientEventCounts {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientEventCounts.class);
+
+    /** The event types that are counted */
+    public static final Set<EventType> COUNTED_EVENT_TYPES = Collections.unmodifiableSet(
+            EnumSet.of(EventType.WARN_LOG, EventType.ERROR_LOG));
+
+    private static final int NUMBER_OF_TYPES = EventType.values().length;
+
+    public final Long examId;
+
+    private final Supplier<Collection<ClientEventCountRecord>> seed;
+    private final long maxSeedAge;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicReference<CompletableFuture<ConcurrentHashMap<Long, AtomicLongArray>>> seeding =
+            new AtomicReference<>();
+
+    private volatile ConcurrentHashMap<Long, AtomicLongArray> counts = null;
+    private volatile ConcurrentHashMap<Long, AtomicLongArray> pending = null;
+    private volatile long seedTime = 0;
+    private volatile boolean retired = false;
+
+    /** Creates new ClientEventCounts for an exam that are seeded on first use.
+     *
+     * @param examId the exam identifier
+     * @param seed the seed function that waits for the accepted events to be stored and counts the stored events
+     * @param maxSeedAge the maximal age of the seed in milliseconds or a negative value to seed only once */
+    ClientEventCounts(
+            final Long examId,
+            final Supplier<Collection<ClientEventCountRecord>> seed,
+            final long maxSeedAge) {
+
+        this.examId = examId;
+        this.seed = seed;
+        this.maxSeedAge = maxSeedAge;
+    }
+
+    /** Get the number of events of the given types for a client connection.
+     *
+     * @param connectionId the client connection identifier
+     * @param eventTypes the event types to count
+     * @return the number of events of the given types */
+    public long count(final Long connectionId, final Set<EventType> eventTypes) {
+        final AtomicLongArray connectionCounts = seeded().get(connectionId);
+        if (connectionCounts == null) {
+            return 0;
+        }
+
+        long result = 0;
+        for (final EventType eventType : eventTypes) {
+            result += connectionCounts.get(eventType.ordinal());
+        }
+        return result;
+    }
+
+    /** Stores a client event with the given store function and counts it if it has a counted type.
+     * The store function must not use this ClientEventCounts.
+     *
+     * @param connectionId the client connection identifier
+     * @param eventType the type of the event
+     * @param store the function that stores the event
+     * @return false if this ClientEventCounts is retired and the event was not stored */
+    public boolean store(final Long connectionId, final EventType eventType, final Runnable store) {
+        if (!COUNTED_EVENT_TYPES.contains(eventType)) {
+            store.run();
+            return true;
+        }
+
+        seeded();
+        this.lock.readLock().lock();
+        try {
+            if (this.retired) {
+                return false;
+            }
+
+            store.run();
+            increment(this.counts, connectionId, eventType, 1);
+            final ConcurrentHashMap<Long, AtomicLongArray> pending = this.pending;
+            if (pending != null) {
+                increment(pending, connectionId, eventType, 1);
+            }
+            return true;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /** Seeds the counts if they are not seeded yet or if the seed is older than the maximal seed age. */
+    void seed() {
+        seeded();
+    }
+
+    /** Retires this ClientEventCounts. This waits for all events that are currently stored with this instance. */
+    void retire() {
+        this.lock.writeLock().lock();
+        try {
+            this.retired = true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private ConcurrentHashMap<Long, AtomicLongArray> seeded() {
+        while (needsSeed()) {
+            final CompletableFuture<ConcurrentHashMap<Long, AtomicLongArray>> newSeed = new CompletableFuture<>();
+            if (this.seeding.compareAndSet(null, newSeed)) {
+                takeSeed(newSeed);
+                final ConcurrentHashMap<Long, AtomicLongArray> seeded = this.counts;
+                return (seeded != null) ? seeded : newSeed.join();
+            }
+
+            final ConcurrentHashMap<Long, AtomicLongArray> current = this.counts;
+            if (current != null) {
+                // another thread seeds again, use the previous counts meanwhile
+                return current;
+            }
+
+            // the first seed is taken by another thread
+            final CompletableFuture<ConcurrentHashMap<Long, AtomicLongArray>> running = this.seeding.get();
+            if (running != null) {
+                return running.join();
+            }
+        }
+
+        return this.counts;
+    }
+
+    private void takeSeed(final CompletableFuture<ConcurrentHashMap<Long, AtomicLongArray>> future) {
+        try {
+            // events that are stored from now on are counted on top of the seed
+            this.lock.writeLock().lock();
+            try {
+                this.pending = new ConcurrentHashMap<>();
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+
+            final ConcurrentHashMap<Long, AtomicLongArray> seeded = new ConcurrentHashMap<>();
+            for (final ClientEventCountRecord record : this.seed.get()) {
+                final EventType eventType = EventType.byId(record.type);
+                if (COUNTED_EVENT_TYPES.contains(eventType)) {
+                    increment(seeded, record.client_connection_id, eventType, record.event_count);
+                }
+            }
+
+            this.lock.writeLock().lock();
+            try {
+                this.pending.forEach((connectionId, pendingCounts) -> {
+                    for (final EventType eventType : COUNTED_EVENT_TYPES) {
+                        increment(seeded, connectionId, eventType, pendingCounts.get(eventType.ordinal()));
+                    }
+                });
+                this.pending = null;
+                this.seedTime = Utils.getMillisecondsNow();
+                this.counts = seeded;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+
+            future.complete(seeded);
+        } catch (final RuntimeException e) {
+            log.error("Failed to seed log-level client event counts for exam: {}", this.examId, e);
+            this.pending = null;
+            future.completeExceptionally(e);
+        } finally {
+            this.seeding.set(null);
+        }
+    }
+
+    private static void increment(
+            final ConcurrentHashMap<Long, AtomicLongArray> counts,
+            final Long connectionId,
+            final EventType eventType,
+            final long delta) {
+
+        counts.computeIfAbsent(connectionId, id -> new AtomicLongArray(NUMBER_OF_TYPES))
+                .addAndGet(eventType.ordinal(), delta);
+    }
+
+    private boolean needsSeed() {
+        return this.counts == null
+                || (this.maxSeedAge >= 0 && Utils.getMillisecondsNow() - this.seedTime > this.maxSeedAge);
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import ch.ethz.seb.sebserver.SEBServerInit;
+import ch.ethz.seb.sebserver.SEBServerInitEvent;
+import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventPartitionMapper;
+
+/** Background task that rolls the optional range partitioning of the client_event table forward.
+ *
+ * If the client_event table is partitioned (see config/sql/partition), one partition per month is split off
+ * the last partition p_max so that there are always partitions for the configured number of months ahead.
+ * The events of a month are then in their own partition and can be dropped as a whole. If the table is not
+ * partitioned, the task does nothing.
+ *
+ * In a distributed setup, all instances try to add the same partitions. Adding a partition that another
+ * instance has already added fails and is taken again from the current partitions on the next run. */
+@Service
+@WebServiceProfile
+class ClientEventPartitionTask implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientEventPartitionTask.class);
+
+    private final ClientEventPartitionMapper clientEventPartitionMapper;
+    private final int monthsAhead;
+
+    private boolean partitionUpdateActive = false;
+
+    protected ClientEventPartitionTask(
+            final ClientEventPartitionMapper clientEventPartitionMapper,
+            @Value("${sebserver.webservice.api.clientevent.partition.months-ahead:3}") final int monthsAhead) {
+
+        this.clientEventPartitionMapper = clientEventPartitionMapper;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(SEBServerInitEvent.class)
+    public void init() {
+        if (!isPartitioned()) {
+            return;
+        }
+
+        SEBServerInit.INIT_LOGGER.info("------>");
+        SEBServerInit.INIT_LOGGER.info(
+                "------> Activate client event partition update background task for {} months ahead",
+                this.monthsAhead);
+
+        this.partitionUpdateActive = true;
+        partitionUpdateTask();
+    }
+
+    @Scheduled(cron = "${sebserver.webservice.api.clientevent.partition.update-cron:0 0 2 * * *}")
+    public void partitionUpdateTask() {
+
+        if (!this.partitionUpdateActive) {
+            return;
+        }
+
+        try {
+            final DateTime currentMonth = new DateTime(Utils.getMillisecondsNow(), DateTimeZone.UTC)
+                    .withDayOfMonth(1)
+                    .withTimeAtStartOfDay();
+            final DateTime until = currentMonth.plusMonths(this.monthsAhead + 1);
+
+            // NOTE: if the partitions are behind the current month, the missed months go to the first new partition
+            long upperBound = Math.max(
+                    upperBound(this.clientEventPartitionMapper.partitionBounds()),
+                    currentMonth.getMillis());
+            while (upperBound < until.getMillis()) {
+                final DateTime start = new DateTime(upperBound, DateTimeZone.UTC);
+                final DateTime end = start
+                        .withDayOfMonth(1)
+                        .withTimeAtStartOfDay()
+                        .plusMonths(1);
+                final String name = "p_" + start.toString("yyyy_MM");
+
+                this.clientEventPartitionMapper.addPartition(name, end.getMillis());
+                log.info("Added client event partition: {} for server time less than: {}", name, end);
+                upperBound = end.getMillis();
+            }
+        } catch (final Exception e) {
+            log.warn("Failed to add client event partitions cause: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.partitionUpdateActive = false;
+    }
+
+    private boolean isPartitioned() {
+        try {
+            return !this.clientEventPartitionMapper.partitionBounds().isEmpty();
+        } catch (final Exception e) {
+            // the database has no partition information, for example the in-memory test database
+            log.debug("Failed to get client event partitions cause: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /** Get the highest upper bound of the partitions that have one, that is the lower bound of p_max */
+    static long upperBound(final List<String> partitionBounds) {
+        return partitionBounds
+                .stream()
+                .filter(bound -> bound != null && !"MAXVALUE".equalsIgnoreCase(bound))
+                .mapToLong(Long::parseLong)
+                .max()
+                .orElse(0L);
+    }
+
+}
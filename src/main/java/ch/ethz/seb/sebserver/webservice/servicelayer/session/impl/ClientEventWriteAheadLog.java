@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
+
+/** A local, append-only and memory-mapped segment log for client events that are not stored yet.
+ *
+ * Every event is appended in a compact binary form to the current segment file before it is queued for
+ * batch storing. After an event has been stored within a committed batch, its entry is marked as acknowledged
+ * within the segment file. A sealed segment that has all its events acknowledged is deleted.
+ *
+ * On startup all remaining segment files are replayed by recover. Only the entries that are not marked as
+ * acknowledged are replayed. Since the batch workers acknowledge in any order, the mark is kept per entry.
+ * An event might still be stored twice if the server fails between the commit of a batch and the acknowledge
+ * of its entries (at-least-once). The mapped segments survive a crash of the server process but a crash of the
+ * operating system only if the segment was forced to disk before.
+ *
+ * Entry layout: [int length][int checksum][int acknowledged][long connectionId][int type][long clientTime]
+ * [long serverTime][int numericLength][bytes numeric][int textLength][bytes text] where the numeric value is
+ * kept in its exact decimal string representation and a length of -1 marks a null value. The acknowledged mark
+ * is not part of the checksum.
+ *
+ * The length of an entry is written last, after the checksum of the entry payload. A length of 0 marks the end
+ * of a segment, also if the server failed while the entry was appended. On replay an entry with a checksum that
+ * does not match its payload is skipped and the replay of a segment stops at the first invalid length. */
+final class ClientEventWriteAheadLog {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientEventWriteAheadLog.class);
+
+    static final String SEGMENT_SUFFIX = ".seg";
+    static final String FAILED_SEGMENT_SUFFIX = ".failed";
+
+    private static final int HEADER_SIZE = 4 + 4 + 4;
+    private static final int ACKNOWLEDGED_OFFSET = 4 + 4;
+    private static final int ACKNOWLEDGED = 1;
+    private static final int FIXED_PAYLOAD_SIZE = 8 + 4 + 8 + 8 + 4 + 4;
+    private static final long NULL_VALUE = Long.MIN_VALUE;
+
+    private final Path directory;
+    private final int segmentSize;
+
+    private long nextSegmentId = 0;
+    private Segment currentSegment = null;
+
+    ClientEventWriteAheadLog(final Path directory, final int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /** Replays all segments that remained from a previous run and deletes them after they have been stored.
+     * Segments that fail to be stored are renamed with the FAILED_SEGMENT_SUFFIX to not replay them again.
+     * Acknowledged entries and invalid entries of a segment, for example an entry that was not completely written,
+     * are not replayed.
+     *
+     * @param store the store function that gets the events of one segment
+     * @return the number of replayed events
+     * @throws IOException on failure while reading the log directory */
+    synchronized int recover(final Consumer<Collection<ClientEventRecord>> store) throws IOException {
+        Files.createDirectories(this.directory);
+
+        int replayed = 0;
+        for (final Path segmentFile : existingSegments()) {
+            final long segmentId = segmentId(segmentFile);
+            this.nextSegmentId = Math.max(this.nextSegmentId, segmentId + 1);
+
+            try {
+                final List<ClientEventRecord> events = readSegment(segmentFile);
+                if (!events.isEmpty()) {
+                    store.accept(events);
+                    replayed += events.size();
+                }
+                Files.delete(segmentFile);
+            } catch (final Exception e) {
+                log.error("Failed to replay client event log segment: {}", segmentFile, e);
+                Files.move(
+                        segmentFile,
+                        segmentFile.resolveSibling(segmentFile.getFileName() + FAILED_SEGMENT_SUFFIX),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        return replayed;
+    }
+
+    /** Appends a client event to the current segment.
+     *
+     * @param record the client event
+     * @return the entry of the event or null if the event was not logged */
+    synchronized Entry append(final ClientEventRecord record) {
+        final byte[] numeric = (record.getNumericValue() != null)
+                ? record.getNumericValue().toString().getBytes(StandardCharsets.UTF_8)
+                : null;
+        final byte[] text = (record.getText() != null)
+                ? record.getText().getBytes(StandardCharsets.UTF_8)
+                : null;
+        final int payloadSize = FIXED_PAYLOAD_SIZE
+                + ((numeric != null) ? numeric.length : 0)
+                + ((text != null) ? text.length : 0);
+        final int entrySize = HEADER_SIZE + payloadSize;
+
+        // keep space for the end marker
+        if (entrySize + 4 > this.segmentSize) {
+            log.warn("Client event too large for event log. Event is not logged: {}", record);
+            return null;
+        }
+
+        try {
+            if (this.currentSegment == null || this.currentSegment.buffer.remaining() < entrySize + 4) {
+                rollSegment();
+            }
+
+            final ByteBuffer payload = ByteBuffer.allocate(payloadSize);
+            payload.putLong(nullToValue(record.getClientConnectionId()));
+            payload.putInt((record.getType() != null) ? record.getType() : -1);
+            payload.putLong(nullToValue(record.getClientTime()));
+            payload.putLong(nullToValue(record.getServerTime()));
+            putBytes(payload, numeric);
+            putBytes(payload, text);
+
+            // the length is written last so that a partially written entry is read as the end of the segment
+            final Segment segment = this.currentSegment;
+            final ByteBuffer buffer = segment.buffer;
+            final int entryPosition = buffer.position();
+            buffer.position(entryPosition + HEADER_SIZE);
+            buffer.put(payload.array());
+            buffer.putInt(entryPosition + ACKNOWLEDGED_OFFSET, 0);
+            buffer.putInt(entryPosition + 4, checksum(payload.array(), 0, payloadSize));
+            buffer.putInt(entryPosition, entrySize);
+
+            segment.appended++;
+            return new Entry(segment, entryPosition);
+
+        } catch (final Exception e) {
+            log.error("Failed to append client event to event log: {}", record, e);
+            return null;
+        }
+    }
+
+    /** Acknowledges the entries of events that are stored within a committed batch or that are rejected.
+     * The entries are marked as acknowledged within their segment files to not replay them on recover.
+     *
+     * @param entries the entries of the events */
+    synchronized void acknowledge(final Collection<Entry> entries) {
+        final Set<Segment> segments = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final Entry entry : entries) {
+            entry.segment.buffer.putInt(entry.position + ACKNOWLEDGED_OFFSET, ACKNOWLEDGED);
+            entry.segment.acknowledged++;
+            segments.add(entry.segment);
+        }
+
+        for (final Segment segment : segments) {
+            if (segment.sealed && segment.acknowledged >= segment.appended) {
+                deleteSegment(segment);
+            }
+        }
+    }
+
+    /** Forces the current segment to the storage device. */
+    synchronized void force() {
+        if (this.currentSegment != null) {
+            this.currentSegment.buffer.force();
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        if (this.currentSegment != null) {
+            final Segment sealed = this.currentSegment;
+            sealed.buffer.force();
+            sealed.sealed = true;
+            if (sealed.acknowledged >= sealed.appended) {
+                deleteSegment(sealed);
+            }
+        }
+
+        Files.createDirectories(this.directory);
+        final Path file = this.directory.resolve(String.format("%019d%s", this.nextSegmentId++, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+
+            this.currentSegment = new Segment(file, channel.map(FileChannel.MapMode.READ_WRITE, 0, this.segmentSize));
+        }
+    }
+
+    private void deleteSegment(final Segment segment) {
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (final IOException e) {
+            log.error("Failed to delete acknowledged client event log segment: {}", segment.file, e);
+        }
+    }
+
+    private List<Path> existingSegments() throws IOException {
+        try (Stream<Path> files = Files.list(this.directory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long segmentId(final Path segmentFile) {
+        final String name = segmentFile.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        } catch (final NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    static List<ClientEventRecord> readSegment(final Path segmentFile) throws IOException {
+        final byte[] bytes = Files.readAllBytes(segmentFile);
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        final List<ClientEventRecord> result = new ArrayList<>();
+        while (buffer.remaining() >= HEADER_SIZE) {
+            final int entryPosition = buffer.position();
+            final int entrySize = buffer.getInt();
+            if (entrySize == 0) {
+                // end of segment
+                break;
+            }
+            if (entrySize < HEADER_SIZE + FIXED_PAYLOAD_SIZE || entrySize - 4 > buffer.remaining()) {
+                log.warn("Invalid entry length in client event log segment: {} at: {}. Skip rest of segment",
+                        segmentFile,
+                        entryPosition);
+                break;
+            }
+
+            final int checksum = buffer.getInt();
+            final int acknowledged = buffer.getInt();
+            final int payloadPosition = entryPosition + HEADER_SIZE;
+            final int payloadSize = entrySize - HEADER_SIZE;
+            buffer.position(entryPosition + entrySize);
+            if (acknowledged == ACKNOWLEDGED) {
+                continue;
+            }
+            if (checksum != checksum(bytes, payloadPosition, payloadSize)) {
+                log.warn("Invalid checksum of entry in client event log segment: {} at: {}. Skip entry",
+                        segmentFile,
+                        entryPosition);
+                continue;
+            }
+
+            try {
+                result.add(readEntry(ByteBuffer.wrap(bytes, payloadPosition, payloadSize)));
+            } catch (final Exception e) {
+                log.warn("Invalid entry in client event log segment: {} at: {}. Skip entry",
+                        segmentFile,
+                        entryPosition,
+                        e);
+            }
+        }
+        return result;
+    }
+
+    private static ClientEventRecord readEntry(final ByteBuffer payload) {
+        final long connectionId = payload.getLong();
+        final int type = payload.getInt();
+        final long clientTime = payload.getLong();
+        final long serverTime = payload.getLong();
+        final byte[] numeric = getBytes(payload);
+        final byte[] text = getBytes(payload);
+
+        return new ClientEventRecord(
+                null,
+                valueToNull(connectionId),
+                (type >= 0) ? type : null,
+                valueToNull(clientTime),
+                valueToNull(serverTime),
+                (numeric != null) ? new BigDecimal(new String(numeric, StandardCharsets.UTF_8)) : null,
+                (text != null) ? new String(text, StandardCharsets.UTF_8) : null);
+    }
+
+    private static void putBytes(final ByteBuffer buffer, final byte[] bytes) {
+        if (bytes != null) {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        } else {
+            buffer.putInt(-1);
+        }
+    }
+
+    private static byte[] getBytes(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static int checksum(final byte[] bytes, final int offset, final int length) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static long nullToValue(final Long value) {
+        return (value != null) ? value : NULL_VALUE;
+    }
+
+    private static Long valueToNull(final long value) {
+        return (value != NULL_VALUE) ? value : null;
+    }
+
+    /** The entry of an event within a segment of the event log */
+    static final class Entry {
+
+        final Segment segment;
+        final int position;
+
+        Entry(final Segment segment, final int position) {
+            this.segment = segment;
+            this.position = position;
+        }
+    }
+
+    /** A segment of the event log with its append and acknowledge counts.
+     * Counts are only accessed while holding the lock of the ClientEventWriteAheadLog. */
+    static final class Segment {
+
+        final Path file;
+        final MappedByteBuffer buffer;
+        int appended = 0;
+        int acknowledged = 0;
+        boolean sealed = false;
+
+        Segment(final Path file, final MappedByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+
+}
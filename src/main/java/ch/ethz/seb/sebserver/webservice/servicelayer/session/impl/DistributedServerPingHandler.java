@@ -9,20 +9,43 @@
 package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+import javax.annotation.PreDestroy;
+
+import org.mybatis.spring.SqlSessionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.BatisConfig;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.PingHandlingStrategy;
 
+/** Ping handling strategy for a distributed SEB Server setup.
+ *
+ * The last ping of each connection is held in an in-memory PingRegistry and is not stored on every ping.
+ * A background task flushes all changed ping records to the LAST_PING client events of the connections
+ * within one batch on a fixed delay so that other SEB Server instances are able to see recent pings.
+ *
+ * The registry slot of a connection is released when the connection is closed or disabled and also when the
+ * connection is removed from the active client connection index, for example on cache eviction or when the
+ * exam has ended. Pending pings of released slots and pings of a failed flush are stored with the next flush. */
 @Lazy
 @Component
 @WebServiceProfile
@@ -32,32 +55,44 @@ public class DistributedServerPingHandler implements PingHandlingStrategy {
 
     private final ExamSessionCacheService examSessionCacheService;
     private final ClientEventRecordMapper clientEventRecordMapper;
+    private final SqlSessionTemplate batchSqlSessionTemplate;
+    private final ClientEventRecordMapper batchClientEventRecordMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final PingRegistry pingRegistry;
+    private final Queue<ClientEventRecord> releasedPingRecords = new ConcurrentLinkedQueue<>();
 
     protected DistributedServerPingHandler(
             final ExamSessionCacheService examSessionCacheService,
-            final ClientEventRecordMapper clientEventRecordMapper) {
+            final ClientEventRecordMapper clientEventRecordMapper,
+            @Qualifier(BatisConfig.SQL_BATCH_SESSION_TEMPLATE) final SqlSessionTemplate batchSqlSessionTemplate,
+            final PlatformTransactionManager transactionManager,
+            @Value("${sebserver.webservice.api.seb.ping.registry.size:10000}") final int registrySize) {
 
         this.examSessionCacheService = examSessionCacheService;
         this.clientEventRecordMapper = clientEventRecordMapper;
+        this.batchSqlSessionTemplate = batchSqlSessionTemplate;
+        this.batchClientEventRecordMapper = batchSqlSessionTemplate.getMapper(ClientEventRecordMapper.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.pingRegistry = new PingRegistry(registrySize);
+
+        examSessionCacheService
+                .getActiveClientConnectionIndex()
+                .addRemovalListener(this::releaseOnRemoval);
     }
 
     @Override
-    @Transactional
     public void notifyPing(final String connectionToken, final long timestamp, final int pingNumber) {
 
-        // store last ping in event
-        final ClientEventRecord pingRecord = this.examSessionCacheService.getPingRecord(connectionToken);
-        if (pingRecord != null) {
-            pingRecord.setClientTime(timestamp);
-            pingRecord.setServerTime(Utils.getMillisecondsNow());
-            pingRecord.setNumericValue(new BigDecimal(pingNumber));
-            this.clientEventRecordMapper.updateByPrimaryKeySelective(pingRecord);
-        }
-
-        // update ping indicators
         final ClientConnectionDataInternal activeClientConnection =
                 this.examSessionCacheService.getActiveClientConnection(connectionToken);
 
+        // store last ping in registry
+        if (!this.pingRegistry.notifyPing(connectionToken, timestamp, Utils.getMillisecondsNow(), pingNumber)) {
+            storePing(activeClientConnection, connectionToken, timestamp, pingNumber);
+        }
+
+        // update ping indicators
         if (activeClientConnection != null) {
             activeClientConnection.notifyPing(timestamp, pingNumber);
         }
@@ -78,4 +113,100 @@ public class DistributedServerPingHandler implements PingHandlingStrategy {
         this.clientEventRecordMapper.insertSelective(clientEventRecord);
     }
 
+    @Override
+    public void releaseForConnection(final String connectionToken) {
+        final ClientEventRecord pending = this.pingRegistry.release(connectionToken);
+        if (pending != null) {
+            this.clientEventRecordMapper.updateByPrimaryKeySelective(pending);
+        }
+    }
+
+    /** Stores all pings that came in since the last flush within one batch to the LAST_PING client events.
+     * If the batch fails, the drained pings are marked to be stored again with the next flush. */
+    @Scheduled(fixedDelayString = "${sebserver.webservice.api.seb.ping.flush-interval:2000}")
+    public void flushPings() {
+        final List<ClientEventRecord> releasedRecords = new ArrayList<>();
+        ClientEventRecord released;
+        while ((released = this.releasedPingRecords.poll()) != null) {
+            releasedRecords.add(released);
+        }
+
+        final Collection<ClientEventRecord> drainedRecords = this.pingRegistry.drainDirty();
+        if (releasedRecords.isEmpty() && drainedRecords.isEmpty()) {
+            return;
+        }
+
+        final List<ClientEventRecord> pingRecords = new ArrayList<>(releasedRecords);
+        pingRecords.addAll(drainedRecords);
+
+        try {
+            this.transactionTemplate
+                    .execute(status -> {
+                        pingRecords.forEach(this.batchClientEventRecordMapper::updateByPrimaryKeySelective);
+                        return null;
+                    });
+
+            this.batchSqlSessionTemplate.flushStatements();
+
+            if (log.isDebugEnabled()) {
+                log.debug("Flushed {} ping records", pingRecords.size());
+            }
+
+        } catch (final Exception e) {
+            log.error("Failed to flush ping records. Try again with the next flush: ", e);
+            this.releasedPingRecords.addAll(releasedRecords);
+            this.pingRegistry.markDirty(drainedRecords);
+        }
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        log.info("Flush ping records on shutdown");
+        flushPings();
+    }
+
+    /* Releases the registry slot of a connection that has been removed from the active client connection index.
+     * This is called while the index is locked, so a pending ping is stored with the next flush */
+    private void releaseOnRemoval(final String connectionToken) {
+        final ClientEventRecord pending = this.pingRegistry.release(connectionToken);
+        if (pending != null) {
+            this.releasedPingRecords.add(pending);
+        }
+    }
+
+    private void storePing(
+            final ClientConnectionDataInternal activeClientConnection,
+            final String connectionToken,
+            final long timestamp,
+            final int pingNumber) {
+
+        final ClientEventRecord pingRecord = this.examSessionCacheService.getPingRecord(connectionToken);
+        if (pingRecord == null) {
+            return;
+        }
+
+        pingRecord.setClientTime(timestamp);
+        pingRecord.setServerTime(Utils.getMillisecondsNow());
+        pingRecord.setNumericValue(new BigDecimal(pingNumber));
+
+        // register established connections for the next pings if there is space left,
+        // otherwise store the ping within this request
+        final boolean established = activeClientConnection != null &&
+                activeClientConnection.clientConnection.status.establishedStatus;
+        if (!established || !this.pingRegistry.register(connectionToken, pingRecord)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Connection not established or ping registry full ({}). Store ping directly: {}",
+                        this.pingRegistry.size(),
+                        connectionToken);
+            }
+            this.clientEventRecordMapper.updateByPrimaryKeySelective(pingRecord);
+        } else {
+            this.pingRegistry.notifyPing(
+                    connectionToken,
+                    timestamp,
+                    pingRecord.getServerTime(),
+                    pingNumber);
+        }
+    }
+
 }
@@ -15,15 +15,14 @@ import org.springframework.stereotype.Component;
 
 import ch.ethz.seb.sebserver.gbl.model.exam.Indicator.IndicatorType;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
-import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordMapper;
 
 @Lazy
 @Component(IndicatorType.Names.ERROR_COUNT)
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 public final class ErrorCountClientIndicator extends AbstractLogLevelCountIndicator {
 
-    protected ErrorCountClientIndicator(final ClientEventRecordMapper clientEventRecordMapper) {
-        super(clientEventRecordMapper, EventType.ERROR_LOG);
+    protected ErrorCountClientIndicator(final ExamSessionCacheService examSessionCacheService) {
+        super(examSessionCacheService, EventType.ERROR_LOG);
     }
 
     @Override
@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ch.ethz.seb.sebserver.gbl.api.JSONMapper;
+import ch.ethz.seb.sebserver.gbl.async.AsyncServiceSpringConfig;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionData;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionDataUpdate;
+import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.ExamMonitoringStreamService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.ExamSessionService;
+
+/** The updates of an exam are computed by the scheduler thread while holding the lock of the exam stream. The
+ * client connection data is loaded before, outside of the lock. The updates are sent to the subscribers on the
+ * monitoring stream executor, one update after the other per subscriber. A subscriber with a send that takes
+ * longer than the send timeout is completed with an error and removed. */
+@Lazy
+@Service
+@WebServiceProfile
+public class ExamMonitoringStreamServiceImpl implements ExamMonitoringStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExamMonitoringStreamServiceImpl.class);
+
+    private final ExamSessionService examSessionService;
+    private final JSONMapper jsonMapper;
+    private final Executor executor;
+    private final long subscriberTimeout;
+    private final long sendTimeout;
+
+    private final Map<Long, ExamStream> streams = new ConcurrentHashMap<>();
+
+    protected ExamMonitoringStreamServiceImpl(
+            final ExamSessionService examSessionService,
+            final JSONMapper jsonMapper,
+            @Qualifier(AsyncServiceSpringConfig.MONITORING_STREAM_EXECUTOR_BEAN_NAME) final Executor executor,
+            @Value("${sebserver.webservice.api.admin.monitoring.stream.timeout:1800000}") final long subscriberTimeout,
+            @Value("${sebserver.webservice.api.admin.monitoring.stream.send-timeout:5000}") final long sendTimeout) {
+
+        this.examSessionService = examSessionService;
+        this.jsonMapper = jsonMapper;
+        this.executor = executor;
+        this.subscriberTimeout = subscriberTimeout;
+        this.sendTimeout = sendTimeout;
+    }
+
+    @Override
+    public SseEmitter subscribe(final Long examId) {
+        final Subscriber subscriber = new Subscriber(new SseEmitter(this.subscriberTimeout));
+
+        ExamStream stream;
+        do {
+            stream = this.streams.computeIfAbsent(examId, ExamStream::new);
+        } while (!stream.subscribe(subscriber));
+
+        final ExamStream examStream = stream;
+        subscriber.emitter.onCompletion(() -> examStream.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> examStream.remove(subscriber));
+        subscriber.emitter.onError(error -> examStream.remove(subscriber));
+
+        return subscriber.emitter;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${sebserver.webservice.api.admin.monitoring.stream.tick:1000}")
+    public void tick() {
+        final Iterator<ExamStream> iterator = this.streams.values().iterator();
+        while (iterator.hasNext()) {
+            final ExamStream stream = iterator.next();
+            if (stream.closeIfUnused()) {
+                iterator.remove();
+                continue;
+            }
+
+            try {
+                stream.removeFailedSubscribers();
+                final long initialization = stream.initialization;
+                final Collection<ClientConnectionData> current = this.examSessionService
+                        .getConnectionData(stream.examId, Objects::nonNull)
+                        .getOrThrow();
+                stream.tick(current, initialization);
+            } catch (final Exception e) {
+                log.error("Failed to update monitoring stream of exam: {}", stream.examId, e);
+            }
+        }
+    }
+
+    @Override
+    public int subscribers(final Long examId) {
+        final ExamStream stream = this.streams.get(examId);
+        return (stream != null) ? stream.subscribers.size() : 0;
+    }
+
+    @Override
+    public ClientConnectionDataUpdate snapshot(final Long examId) {
+        return this.examSessionService
+                .getConnectionDataUpdate(examId, 0, Objects::nonNull)
+                .getOrThrow();
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        this.streams.values().forEach(stream -> stream.subscribers
+                .forEach(subscriber -> subscriber.emitter.complete()));
+        this.streams.clear();
+    }
+
+    /** The state of the client connections of an exam that was last sent to the subscribers */
+    private final class ExamStream {
+
+        final Long examId;
+        final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        final Map<Long, ClientConnectionDataSnapshot> lastState = new HashMap<>();
+
+        /** Counts the initializations of the last state by a first subscriber */
+        volatile long initialization = 0;
+        private boolean closed = false;
+
+        ExamStream(final Long examId) {
+            this.examId = examId;
+        }
+
+        /** Queues the snapshot for the subscriber and subscribes it to the stream afterwards. This is done
+         * while holding the lock of the stream, so no delta can be sent in between the snapshot and the
+         * subscription. The snapshot of the first subscriber is loaded before and defines the initial state.
+         * All other subscribers get the state that was last sent to the subscribers.
+         *
+         * @param subscriber the subscriber
+         * @return false if the stream has been closed meanwhile */
+        boolean subscribe(final Subscriber subscriber) {
+            final ClientConnectionDataUpdate loaded = (this.subscribers.isEmpty()) ? snapshot(this.examId) : null;
+            synchronized (this) {
+                if (this.closed) {
+                    return false;
+                }
+
+                final ClientConnectionDataUpdate snapshot;
+                if (this.subscribers.isEmpty() && loaded != null) {
+                    snapshot = loaded;
+                    this.initialization++;
+                    this.lastState.clear();
+                    snapshot.changed.forEach(data -> this.lastState.put(
+                            data.getConnectionId(),
+                            ClientConnectionDataSnapshot.of(data)));
+                } else {
+                    snapshot = new ClientConnectionDataUpdate(
+                            this.examId,
+                            null,
+                            true,
+                            new ArrayList<>(this.lastState.values()),
+                            null);
+                }
+
+                try {
+                    subscriber.send(EVENT_SNAPSHOT, ExamMonitoringStreamServiceImpl.this.jsonMapper
+                            .writeValueAsString(snapshot));
+                    this.subscribers.add(subscriber);
+                } catch (final IOException e) {
+                    log.warn("Failed to send monitoring snapshot for exam: {} cause: {}",
+                            this.examId,
+                            e.getMessage());
+                    subscriber.fail(e);
+                }
+                return true;
+            }
+        }
+
+        synchronized boolean closeIfUnused() {
+            this.closed = this.subscribers.isEmpty();
+            return this.closed;
+        }
+
+        void remove(final Subscriber subscriber) {
+            this.subscribers.remove(subscriber);
+        }
+
+        /** Removes the subscribers that have failed or that block a send longer than the send timeout */
+        void removeFailedSubscribers() {
+            final long now = Utils.getMillisecondsNow();
+            for (final Subscriber subscriber : this.subscribers) {
+                if (subscriber.hasToBeRemoved(now)) {
+                    remove(subscriber);
+                    subscriber.fail(new TimeoutException("Monitoring update not sent within "
+                            + ExamMonitoringStreamServiceImpl.this.sendTimeout + " ms"));
+                }
+            }
+        }
+
+        /** Computes the delta of the given client connection data to the last state and queues it for all
+         * subscribers. The client connection data is skipped if it was loaded before the last state has been
+         * initialized by a first subscriber since it might be older than the last state.
+         *
+         * @param current the current client connection data of the exam
+         * @param initialization the initialization count of the stream before the data was loaded */
+        synchronized void tick(
+                final Collection<ClientConnectionData> current,
+                final long initialization) throws IOException {
+
+            if (initialization != this.initialization) {
+                return;
+            }
+
+            final List<ClientConnectionData> changed = new ArrayList<>();
+            final Set<Long> present = new HashSet<>();
+            for (final ClientConnectionData data : current) {
+                final Long connectionId = data.getConnectionId();
+                present.add(connectionId);
+                final ClientConnectionDataSnapshot snapshot = ClientConnectionDataSnapshot.of(data);
+                if (snapshot.hasChanged(this.lastState.get(connectionId))) {
+                    changed.add(snapshot);
+                    this.lastState.put(connectionId, snapshot);
+                }
+            }
+
+            final List<Long> removed = new ArrayList<>();
+            final Iterator<Long> ids = this.lastState.keySet().iterator();
+            while (ids.hasNext()) {
+                final Long id = ids.next();
+                if (!present.contains(id)) {
+                    removed.add(id);
+                    ids.remove();
+                }
+            }
+
+            if (changed.isEmpty() && removed.isEmpty()) {
+                return;
+            }
+
+            // serialize once for all subscribers of the exam
+            final String delta = ExamMonitoringStreamServiceImpl.this.jsonMapper.writeValueAsString(
+                    new ClientConnectionDataUpdate(this.examId, null, false, changed, removed));
+
+            for (final Subscriber subscriber : this.subscribers) {
+                subscriber.send(EVENT_DELTA, delta);
+            }
+        }
+    }
+
+    /** A subscriber of an exam stream with the updates that are not sent yet. At most one send task of a
+     * subscriber is running at the same time, so the updates are sent to the subscriber in order.
+     *
+     * NOTE: A send blocks the SseEmitter. The emitter of a failed subscriber is therefore completed by the
+     * thread that holds the sending flag, so a blocked send never blocks the thread that removes the subscriber. */
+    private final class Subscriber implements Runnable {
+
+        final SseEmitter emitter;
+        final Queue<SseEmitter.SseEventBuilder> updates = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean sending = new AtomicBoolean(false);
+
+        /** The start time of the running send, or 0 if no update is sent at the moment */
+        private volatile long sendingSince = 0;
+        private volatile Exception failure = null;
+
+        Subscriber(final SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void send(final String name, final String data) {
+            this.updates.add(SseEmitter.event()
+                    .name(name)
+                    .data(data, MediaType.APPLICATION_JSON));
+            schedule();
+        }
+
+        /** Indicates if this subscriber has failed or if the running send takes longer than the send timeout
+         *
+         * @param now the current time in milliseconds
+         * @return true if the subscriber has to be removed */
+        boolean hasToBeRemoved(final long now) {
+            final long sendingSince = this.sendingSince;
+            return this.failure != null
+                    || (sendingSince > 0 && now - sendingSince > ExamMonitoringStreamServiceImpl.this.sendTimeout);
+        }
+
+        @Override
+        public void run() {
+            try {
+                SseEmitter.SseEventBuilder update;
+                while (this.failure == null && (update = this.updates.poll()) != null) {
+                    this.sendingSince = Utils.getMillisecondsNow();
+                    this.emitter.send(update);
+                    this.sendingSince = 0;
+                }
+            } catch (final Exception e) {
+                fail(e);
+            } finally {
+                this.sendingSince = 0;
+                this.sending.set(false);
+            }
+
+            completeIfFailed();
+            // an update might have been added after the queue was seen empty
+            schedule();
+        }
+
+        void fail(final Exception error) {
+            if (this.failure != null) {
+                return;
+            }
+
+            log.debug("Failed to send monitoring update, remove subscriber: {}", error.getMessage());
+            this.failure = error;
+            this.updates.clear();
+            completeIfFailed();
+        }
+
+        private void completeIfFailed() {
+            // the sending flag is kept, so nothing is sent to the completed emitter anymore
+            if (this.failure != null && this.sending.compareAndSet(false, true)) {
+                this.emitter.completeWithError(this.failure);
+            }
+        }
+
+        private void schedule() {
+            if (this.failure != null || this.updates.isEmpty() || !this.sending.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                ExamMonitoringStreamServiceImpl.this.executor.execute(this);
+            } catch (final Exception e) {
+                this.sending.set(false);
+                fail(e);
+            }
+        }
+    }
+
+}
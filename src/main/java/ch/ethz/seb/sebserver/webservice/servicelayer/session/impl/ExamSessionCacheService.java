@@ -9,6 +9,10 @@
 package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
 
 import java.io.ByteArrayOutputStream;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import org.mybatis.dynamic.sql.SqlBuilder;
 import org.slf4j.Logger;
@@ -19,6 +23,7 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import ch.ethz.seb.sebserver.gbl.Constants;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam.ExamStatus;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
@@ -26,10 +31,16 @@ import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.WebserviceInfo;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper.ClientEventCountRecord;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientConnectionRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordMapper;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientConnectionDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamConfigurationMapDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ExamConfigService;
 
@@ -38,7 +49,12 @@ import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ExamConfigService
  * - Running exams (examId -> Exam)
  * - in-memory exam configuration (examId -> InMemorySebConfig)
  * - active client connections (connectionToken -> ClientConnectionDataInternal)
- * - client event records for last ping store (connectionToken -> ReusableClientEventRecord) */
+ * - client event records for last ping store (connectionToken -> ReusableClientEventRecord)
+ *
+ * and holds the change counter of the client connection data of each exam (examId -> AtomicLong),
+ * the removed client connections of each exam for the monitoring updates (examId -> ClientConnectionRemovals),
+ * the log-level client event counts of all client connections of each exam (examId -> ClientEventCounts)
+ * as well as an index of the cached established client connections of each exam (ActiveClientConnectionIndex) */
 @Lazy
 @Service
 @WebServiceProfile
@@ -49,29 +65,59 @@ public class ExamSessionCacheService {
     public static final String CACHE_NAME_SEB_CONFIG_EXAM = "SEB_CONFIG_EXAM";
     public static final String CACHE_NAME_PING_RECORD = "CACHE_NAME_PING_RECORD";
 
+    /** In a distributed setup other SEB Server instances also store events of an exam, so the log-level
+     * client event counts of an exam are seeded again if they are older than this */
+    static final long DISTRIBUTED_CLIENT_EVENT_COUNTS_MAX_AGE = 5 * Constants.SECOND_IN_MILLIS;
+    /** The maximal time to wait for the accepted client events to be stored before the counts are seeded */
+    static final long CLIENT_EVENT_COUNTS_MAX_STORE_WAIT = 2 * Constants.SECOND_IN_MILLIS;
+
     private static final Logger log = LoggerFactory.getLogger(ExamSessionCacheService.class);
 
     private final ExamDAO examDAO;
     private final ClientConnectionDAO clientConnectionDAO;
     private final ClientIndicatorFactory clientIndicatorFactory;
     private final ExamConfigService sebExamConfigService;
+    private final ExamConfigurationMapDAO examConfigurationMapDAO;
+    private final ConfigurationDAO configurationDAO;
     private final ClientEventRecordMapper clientEventRecordMapper;
+    private final ClientEventExtensionMapper clientEventExtensionMapper;
     private final ExamUpdateHandler examUpdateHandler;
+    private final EventHandlingStrategyFactory eventHandlingStrategyFactory;
+    private final long clientEventCountsMaxAge;
+
+    private final ConcurrentHashMap<Long, AtomicLong> changeVersions = new ConcurrentHashMap<>();
+    /** The highest change version of all evicted change counters. A new change counter starts above it */
+    private final AtomicLong evictedChangeVersion = new AtomicLong();
+    private final ConcurrentHashMap<Long, ClientConnectionRemovals> connectionRemovals = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ClientEventCounts> clientEventCounts = new ConcurrentHashMap<>();
+    private final ActiveClientConnectionIndex activeClientConnectionIndex = new ActiveClientConnectionIndex();
 
     protected ExamSessionCacheService(
             final ExamDAO examDAO,
             final ClientConnectionDAO clientConnectionDAO,
             final ClientIndicatorFactory clientIndicatorFactory,
             final ExamConfigService sebExamConfigService,
+            final ExamConfigurationMapDAO examConfigurationMapDAO,
+            final ConfigurationDAO configurationDAO,
             final ClientEventRecordMapper clientEventRecordMapper,
-            final ExamUpdateHandler examUpdateHandler) {
+            final ClientEventExtensionMapper clientEventExtensionMapper,
+            final ExamUpdateHandler examUpdateHandler,
+            final EventHandlingStrategyFactory eventHandlingStrategyFactory,
+            final WebserviceInfo webserviceInfo) {
 
         this.examDAO = examDAO;
         this.clientConnectionDAO = clientConnectionDAO;
         this.clientIndicatorFactory = clientIndicatorFactory;
         this.sebExamConfigService = sebExamConfigService;
+        this.examConfigurationMapDAO = examConfigurationMapDAO;
+        this.configurationDAO = configurationDAO;
         this.clientEventRecordMapper = clientEventRecordMapper;
+        this.clientEventExtensionMapper = clientEventExtensionMapper;
         this.examUpdateHandler = examUpdateHandler;
+        this.eventHandlingStrategyFactory = eventHandlingStrategyFactory;
+        this.clientEventCountsMaxAge = (webserviceInfo.isDistributed())
+                ? DISTRIBUTED_CLIENT_EVENT_COUNTS_MAX_AGE
+                : -1;
     }
 
     @Cacheable(
@@ -144,9 +190,14 @@ public class ExamSessionCacheService {
         if (clientConnection == null) {
             return null;
         } else {
-            return new ClientConnectionDataInternal(
+            final ClientConnectionDataInternal activeClientConnection = new ClientConnectionDataInternal(
                     clientConnection,
-                    this.clientIndicatorFactory.createFor(clientConnection));
+                    this.clientIndicatorFactory.createFor(clientConnection),
+                    (clientConnection.examId != null)
+                            ? getChangeVersion(clientConnection.examId)
+                            : new AtomicLong());
+            this.activeClientConnectionIndex.put(activeClientConnection);
+            return activeClientConnection;
         }
     }
 
@@ -157,6 +208,59 @@ public class ExamSessionCacheService {
         if (log.isDebugEnabled()) {
             log.debug("Eviction of ClientConnectionData from cache: {}", connectionToken);
         }
+
+        this.activeClientConnectionIndex.remove(connectionToken);
+    }
+
+    /** Get the index of the cached established client connections of all exams.
+     * This is used to iterate the active client connections without querying the persistent storage.
+     *
+     * @return the ActiveClientConnectionIndex */
+    public ActiveClientConnectionIndex getActiveClientConnectionIndex() {
+        return this.activeClientConnectionIndex;
+    }
+
+    /** Get the change counter of the client connection data of an exam. The counter starts with the current time
+     * in milliseconds, or above the last version of an evicted counter, so that it stays monotonically increasing
+     * for the monitoring clients over an eviction or a restart of the service.
+     *
+     * @param examId the exam identifier
+     * @return the change counter of the client connection data of the exam */
+    public AtomicLong getChangeVersion(final Long examId) {
+        return this.changeVersions.computeIfAbsent(
+                examId,
+                id -> new AtomicLong(Math.max(
+                        Utils.getMillisecondsNow(),
+                        this.evictedChangeVersion.get() + 1)));
+    }
+
+    public void evictChangeVersion(final Long examId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Eviction of client connection change counter for exam: {}", examId);
+        }
+
+        final AtomicLong changeVersion = this.changeVersions.remove(examId);
+        if (changeVersion != null) {
+            this.evictedChangeVersion.accumulateAndGet(changeVersion.get(), Math::max);
+        }
+    }
+
+    /** Get the tracking of the removed client connections of an exam.
+     *
+     * @param examId the exam identifier
+     * @return the tracking of the removed client connections of the exam */
+    public ClientConnectionRemovals getConnectionRemovals(final Long examId) {
+        return this.connectionRemovals.computeIfAbsent(
+                examId,
+                id -> new ClientConnectionRemovals(getChangeVersion(id)));
+    }
+
+    public void evictConnectionRemovals(final Long examId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Eviction of removed client connections for exam: {}", examId);
+        }
+
+        this.connectionRemovals.remove(examId);
     }
 
     @Cacheable(
@@ -166,13 +270,23 @@ public class ExamSessionCacheService {
     public InMemorySebConfig getDefaultSebConfigForExam(final Exam exam) {
         try {
 
+            final Long configurationNodeId = this.examConfigurationMapDAO
+                    .getDefaultConfigurationNode(exam.id)
+                    .getOrThrow();
+            // NOTE: the version is taken before the export so that the version of the bytes is never older
+            //       than the version that is named by the entity tag
+            final Long configurationId = this.configurationDAO
+                    .getConfigurationLastStableVersion(configurationNodeId)
+                    .getOrThrow().id;
+
             final ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
             final Long configId = this.sebExamConfigService.exportForExam(
                     byteOut,
                     exam.institutionId,
-                    exam.id);
+                    exam.id,
+                    configurationNodeId);
 
-            return new InMemorySebConfig(configId, exam.id, byteOut.toByteArray());
+            return new InMemorySebConfig(configId, configurationId, exam.id, byteOut.toByteArray());
 
         } catch (final Exception e) {
             log.error("Unexpected error while getting default exam configuration for running exam; {}", exam, e);
@@ -232,6 +346,60 @@ public class ExamSessionCacheService {
         }
     }
 
+    /** Get the seeded log-level client event counts of an exam. The counts are kept until they are evicted.
+     *
+     * @param examId the exam identifier
+     * @return the log-level client event counts of the exam */
+    public ClientEventCounts getClientEventCounts(final Long examId) {
+        final ClientEventCounts counts = this.clientEventCounts.computeIfAbsent(
+                examId,
+                id -> new ClientEventCounts(
+                        id,
+                        () -> seedClientEventCounts(id),
+                        this.clientEventCountsMaxAge));
+        counts.seed();
+        return counts;
+    }
+
+    public void evictClientEventCounts(final Long examId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Eviction of log-level client event counts for exam: {}", examId);
+        }
+
+        final ClientEventCounts counts = this.clientEventCounts.remove(examId);
+        if (counts != null) {
+            counts.retire();
+        }
+    }
+
+    private Collection<ClientEventCountRecord> seedClientEventCounts(final Long examId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Seed log-level client event counts for exam: {}", examId);
+        }
+
+        if (!this.eventHandlingStrategyFactory.get().awaitStored(CLIENT_EVENT_COUNTS_MAX_STORE_WAIT)) {
+            log.warn("Accepted client events are not stored within {} ms. Seed client event counts for exam: {}",
+                    CLIENT_EVENT_COUNTS_MAX_STORE_WAIT,
+                    examId);
+        }
+
+        return this.clientEventExtensionMapper.eventCountByExample()
+                .where(
+                        ClientConnectionRecordDynamicSqlSupport.examId,
+                        SqlBuilder.isEqualTo(examId))
+                .and(
+                        ClientEventRecordDynamicSqlSupport.type,
+                        SqlBuilder.isIn(ClientEventCounts.COUNTED_EVENT_TYPES
+                                .stream()
+                                .map(type -> type.id)
+                                .collect(Collectors.toList())))
+                .groupBy(
+                        ClientEventRecordDynamicSqlSupport.clientConnectionId,
+                        ClientEventRecordDynamicSqlSupport.type)
+                .build()
+                .execute();
+    }
+
     private ClientConnection getClientConnectionByToken(final String connectionToken) {
         final Result<ClientConnection> byPK = this.clientConnectionDAO
                 .byConnectionToken(connectionToken);
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import ch.ethz.seb.sebserver.gbl.async.AsyncServiceSpringConfig;
+import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
+import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.IndicatorDAO;
+
+/** Loads the caches of an exam session before the SEB clients of the exam are connecting.
+ *
+ * The running exam (with the quiz data from the LMS) is loaded first, then the default SEB exam configuration,
+ * the indicator definitions and the client event counts of the exam are loaded in parallel. The pre-warming
+ * runs on an own executor with bounded parallelism and logs the duration of each stage. */
+@Lazy
+@Service
+@WebServiceProfile
+class ExamSessionCacheWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(ExamSessionCacheWarmer.class);
+
+    static final String STAGE_EXAM = "exam";
+    static final String STAGE_CONFIG = "config";
+    static final String STAGE_INDICATORS = "indicators";
+    static final String STAGE_EVENT_COUNTS = "eventCounts";
+
+    private final ExamSessionCacheService examSessionCacheService;
+    private final IndicatorDAO indicatorDAO;
+    private final Executor executor;
+
+    protected ExamSessionCacheWarmer(
+            final ExamSessionCacheService examSessionCacheService,
+            final IndicatorDAO indicatorDAO,
+            @Qualifier(AsyncServiceSpringConfig.EXAM_CACHE_PREWARM_EXECUTOR_BEAN_NAME) final Executor executor) {
+
+        this.examSessionCacheService = examSessionCacheService;
+        this.indicatorDAO = indicatorDAO;
+        this.executor = executor;
+    }
+
+    /** Pre-warms the caches of a running exam asynchronously.
+     *
+     * @param examId the identifier of the running exam
+     * @return CompletableFuture that completes with the duration of each stage in milliseconds */
+    CompletableFuture<Map<String, Long>> prewarm(final Long examId) {
+        final Map<String, Long> durations = new ConcurrentSkipListMap<>();
+        return CompletableFuture
+                .supplyAsync(
+                        () -> stage(examId, STAGE_EXAM, durations,
+                                () -> this.examSessionCacheService.getRunningExam(examId)),
+                        this.executor)
+                .thenCompose(exam -> {
+                    if (exam == null) {
+                        log.warn("Skip pre-warming of exam session caches. Exam: {} is not running", examId);
+                        return CompletableFuture.completedFuture(null);
+                    }
+
+                    return CompletableFuture.allOf(
+                            CompletableFuture.runAsync(
+                                    () -> stage(examId, STAGE_CONFIG, durations,
+                                            () -> this.examSessionCacheService.getDefaultSebConfigForExam(exam)),
+                                    this.executor),
+                            CompletableFuture.runAsync(
+                                    () -> stage(examId, STAGE_INDICATORS, durations,
+                                            () -> this.indicatorDAO.allForExam(examId).getOrThrow()),
+                                    this.executor),
+                            CompletableFuture.runAsync(
+                                    () -> stage(examId, STAGE_EVENT_COUNTS, durations,
+                                            () -> this.examSessionCacheService.getClientEventCounts(examId)),
+                                    this.executor));
+                })
+                .handle((result, error) -> {
+                    if (error != null) {
+                        log.error("Failed to pre-warm exam session caches for exam: {}", examId, error);
+                    }
+
+                    log.info("Pre-warmed exam session caches for exam: {} stage durations in ms: {}",
+                            examId,
+                            durations);
+
+                    return durations;
+                });
+    }
+
+    private static <T> T stage(
+            final Long examId,
+            final String name,
+            final Map<String, Long> durations,
+            final Supplier<T> loader) {
+
+        final long start = Utils.getMillisecondsNow();
+        try {
+            return loader.get();
+        } catch (final Exception e) {
+            log.warn("Failed to pre-warm stage: {} for exam: {} cause: {}", name, examId, e.getMessage());
+            return null;
+        } finally {
+            durations.put(name, Utils.getMillisecondsNow() - start);
+        }
+    }
+
+}
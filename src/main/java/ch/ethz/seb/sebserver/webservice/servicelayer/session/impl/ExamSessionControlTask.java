@@ -37,6 +37,7 @@ class ExamSessionControlTask implements DisposableBean {
     private final ExamDAO examDAO;
     private final SebClientConnectionService sebClientConnectionService;
     private final ExamUpdateHandler examUpdateHandler;
+    private final ExamSessionCacheWarmer examSessionCacheWarmer;
     private final Long examTimePrefix;
     private final Long examTimeSuffix;
     private final String examTaskCron;
@@ -60,14 +61,16 @@ class ExamSessionControlTask implements DisposableBean {
             final ExamDAO examDAO,
             final SebClientConnectionService sebClientConnectionService,
             final ExamUpdateHandler examUpdateHandler,
+            final ExamSessionCacheWarmer examSessionCacheWarmer,
             @Value("${sebserver.webservice.api.exam.time-prefix:3600000}") final Long examTimePrefix,
             @Value("${sebserver.webservice.api.exam.time-suffix:3600000}") final Long examTimeSuffix,
             @Value("${sebserver.webservice.api.exam.update-interval:1 * * * * *}") final String examTaskCron,
-            @Value("${sebserver.webservice.api.seb.lostping.update:15000}") final Long pingUpdateRate) {
+            @Value("${sebserver.webservice.api.seb.lostping.update:1000}") final Long pingUpdateRate) {
 
         this.examDAO = examDAO;
         this.sebClientConnectionService = sebClientConnectionService;
         this.examUpdateHandler = examUpdateHandler;
+        this.examSessionCacheWarmer = examSessionCacheWarmer;
         this.examTimePrefix = examTimePrefix;
         this.examTimeSuffix = examTimeSuffix;
         this.examTaskCron = examTaskCron;
@@ -112,7 +115,7 @@ class ExamSessionControlTask implements DisposableBean {
         controlExamEnd(updateId);
     }
 
-    @Scheduled(fixedRateString = "${sebserver.webservice.api.seb.lostping.update:5000}")
+    @Scheduled(fixedRateString = "${sebserver.webservice.api.seb.lostping.update:1000}")
     public void pingEventUpdateTask() {
 
         if (!this.lostPingUpdateActive) {
@@ -135,6 +138,7 @@ class ExamSessionControlTask implements DisposableBean {
                     .stream()
                     .filter(exam -> exam.startTime.minus(this.examTimePrefix).isBefore(now))
                     .map(exam -> this.examUpdateHandler.setRunning(exam, updateId))
+                    .map(this::prewarmExamSessionCaches)
                     .collect(Collectors.toMap(Exam::getId, Exam::getName));
 
             if (!updated.isEmpty()) {
@@ -146,6 +150,13 @@ class ExamSessionControlTask implements DisposableBean {
         }
     }
 
+    /* Loads the caches of a started exam, including the zipped and encrypted default SEB exam configuration,
+     * asynchronously before the SEB clients of the exam are connecting */
+    private Exam prewarmExamSessionCaches(final Exam exam) {
+        this.examSessionCacheWarmer.prewarm(exam.id);
+        return exam;
+    }
+
     private void controlExamEnd(final String updateId) {
         if (log.isDebugEnabled()) {
             log.debug("Check ending exams: {}", updateId);
@@ -160,6 +171,11 @@ class ExamSessionControlTask implements DisposableBean {
                     .stream()
                     .filter(exam -> exam.endTime != null && exam.endTime.plus(this.examTimeSuffix).isBefore(now))
                     .map(exam -> this.examUpdateHandler.setFinished(exam, updateId))
+                    // release the cached session data of the finished exam, including the active connection index
+                    .map(exam -> this.sebClientConnectionService
+                            .getExamSessionService()
+                            .flushCache(exam)
+                            .getOr(exam))
                     .collect(Collectors.toMap(Exam::getId, Exam::getName));
 
             if (!updated.isEmpty()) {
@@ -13,8 +13,13 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -36,6 +41,8 @@ import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
 import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup.Features;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionData;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionDataUpdate;
+import ch.ethz.seb.sebserver.gbl.model.session.SimpleIndicatorValue;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientConnectionDAO;
@@ -238,11 +245,9 @@ public class ExamSessionServiceImpl implements ExamSessionService {
                 .putIfAbsent(Exam.FILTER_ATTR_ACTIVE, Constants.TRUE_STRING)
                 .putIfAbsent(Exam.FILTER_ATTR_STATUS, ExamStatus.RUNNING.name());
 
-        return this.examDAO.allMatching(filterMap, predicate)
-                .map(col -> col.stream()
-                        .map(exam -> this.examSessionCacheService.getRunningExam(exam.id))
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toList()));
+        // NOTE: the running exams are selected by their status on SQL level. They must not be filtered again
+        //       afterwards since this is used with SQL level pagination and a page would get short otherwise
+        return this.examDAO.allMatching(filterMap, predicate);
     }
 
     @Override
@@ -250,41 +255,9 @@ public class ExamSessionServiceImpl implements ExamSessionService {
             final String connectionToken,
             final OutputStream out) {
 
-        if (log.isDebugEnabled()) {
-            log.debug("SEB exam configuration download request, connectionToken: {}", connectionToken);
-        }
-
-        final ClientConnection connection = this.clientConnectionDAO
-                .byConnectionToken(connectionToken)
-                .getOrThrow();
-
-        if (connection == null) {
-            log.warn("SEB exam configuration download request, no active ClientConnection found for token: {}",
-                    connectionToken);
-            throw new AccessDeniedException("Illegal connection token. No active ClientConnection found for token");
-        }
-
-        // exam integrity check
-        if (connection.examId == null || !isExamRunning(connection.examId)) {
-            log.error("Missing exam identifier or requested exam is not running for connection: {}", connection);
-            throw new IllegalStateException("Missing exam identifier or requested exam is not running");
-        }
-
-        if (log.isDebugEnabled()) {
-            log.debug("Trying to get exam from InMemorySebConfig");
-        }
-
-        final Exam exam = this.getRunningExam(connection.examId)
+        final InMemorySebConfig sebConfigForExam = getDefaultExamConfig(connectionToken)
                 .getOrThrow();
 
-        final InMemorySebConfig sebConfigForExam = this.examSessionCacheService
-                .getDefaultSebConfigForExam(exam);
-
-        if (sebConfigForExam == null) {
-            log.error("Failed to get and cache InMemorySebConfig for connection: {}", connection);
-            return;
-        }
-
         try {
 
             if (log.isDebugEnabled()) {
@@ -302,6 +275,48 @@ public class ExamSessionServiceImpl implements ExamSessionService {
         }
     }
 
+    @Override
+    public Result<InMemorySebConfig> getDefaultExamConfig(final String connectionToken) {
+        return Result.tryCatch(() -> {
+
+            if (log.isDebugEnabled()) {
+                log.debug("SEB exam configuration download request, connectionToken: {}", connectionToken);
+            }
+
+            final ClientConnectionDataInternal connectionData = this.examSessionCacheService
+                    .getActiveClientConnection(connectionToken);
+
+            if (connectionData == null) {
+                log.warn("SEB exam configuration download request, no active ClientConnection found for token: {}",
+                        connectionToken);
+                throw new AccessDeniedException(
+                        "Illegal connection token. No active ClientConnection found for token");
+            }
+
+            final ClientConnection connection = connectionData.clientConnection;
+
+            // exam integrity check
+            if (connection.examId == null || !isExamRunning(connection.examId)) {
+                log.error("Missing exam identifier or requested exam is not running for connection: {}",
+                        connection);
+                throw new IllegalStateException("Missing exam identifier or requested exam is not running");
+            }
+
+            final Exam exam = this.getRunningExam(connection.examId)
+                    .getOrThrow();
+
+            final InMemorySebConfig sebConfigForExam = this.examSessionCacheService
+                    .getDefaultSebConfigForExam(exam);
+
+            if (sebConfigForExam == null) {
+                log.error("Failed to get and cache InMemorySebConfig for connection: {}", connection);
+                throw new IllegalStateException("Failed to get SEB exam configuration for exam");
+            }
+
+            return sebConfigForExam;
+        });
+    }
+
     @Override
     public Result<ClientConnectionData> getConnectionData(final String connectionToken) {
         return Result.tryCatch(() -> {
@@ -324,6 +339,64 @@ public class ExamSessionServiceImpl implements ExamSessionService {
                 .collect(Collectors.toList()));
     }
 
+    @Override
+    public Result<ClientConnectionDataUpdate> getConnectionDataUpdate(
+            final Long examId,
+            final long since,
+            final Predicate<ClientConnectionData> filter) {
+
+        return Result.tryCatch(() -> {
+            final ClientConnectionRemovals removals = this.examSessionCacheService.getConnectionRemovals(examId);
+            synchronized (removals) {
+                // get the version before the data. A change that happens meanwhile gets a higher version
+                // and is reported again with the next update
+                final long version = this.examSessionCacheService.getChangeVersion(examId).get();
+                final boolean full = since <= 0 || !removals.isTracked(since);
+                final List<ClientConnectionData> changed = new ArrayList<>();
+                final List<Long> removed = new ArrayList<>();
+                final Map<Long, List<SimpleIndicatorValue>> indicatorValues = new HashMap<>();
+                final Set<Long> available = new HashSet<>();
+
+                // NOTE: the connection tokens are only loaded again if the exam has changed since or on a full
+                //       update. New client connections of other instances are therefore reported with a full update
+                removals.getConnectionTokens(
+                        version,
+                        full,
+                        () -> this.clientConnectionDAO.getConnectionTokens(examId).getOrThrow())
+                        .stream()
+                        .map(this.examSessionCacheService::getActiveClientConnection)
+                        .filter(Objects::nonNull)
+                        .forEach(data -> {
+                            available.add(data.getConnectionId());
+                            if (!full && data.getVersion() <= since) {
+                                // the last ping time changes without a new version, send the current values
+                                if (filter.test(data)) {
+                                    indicatorValues.put(data.getConnectionId(), data.indicatorValues
+                                            .stream()
+                                            .map(SimpleIndicatorValue::of)
+                                            .collect(Collectors.toList()));
+                                }
+                                return;
+                            }
+
+                            if (filter.test(data)) {
+                                changed.add(data);
+                            } else if (!full) {
+                                removed.add(data.getConnectionId());
+                            }
+                        });
+
+                // client connections that are not available anymore, for example deleted ones
+                final Collection<Long> removedConnections = removals.update(available, since);
+                if (!full) {
+                    removed.addAll(removedConnections);
+                }
+
+                return new ClientConnectionDataUpdate(examId, version, full, changed, removed, indicatorValues);
+            }
+        });
+    }
+
     @Override
     public Result<Exam> updateExamCache(final Long examId) {
         final Exam exam = this.examSessionCacheService.getRunningExam(examId);
@@ -343,6 +416,9 @@ public class ExamSessionServiceImpl implements ExamSessionService {
         return Result.tryCatch(() -> {
             this.examSessionCacheService.evict(exam);
             this.examSessionCacheService.evictDefaultSebConfig(exam);
+            this.examSessionCacheService.evictClientEventCounts(exam.id);
+            this.examSessionCacheService.evictConnectionRemovals(exam.id);
+            this.examSessionCacheService.evictChangeVersion(exam.id);
             this.clientConnectionDAO
                     .getConnectionTokens(exam.id)
                     .getOrElse(Collections::emptyList)
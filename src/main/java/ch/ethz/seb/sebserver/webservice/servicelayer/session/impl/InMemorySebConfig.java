@@ -8,17 +8,33 @@
 
 package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
+/** The final (zipped and encrypted) bytes of the default SEB Exam Configuration of a running exam.
+ *
+ * The bytes are built once per exam and shared by all download requests of the exam. The entity tag
+ * names the configuration node and the version of the configuration that the bytes are built from and is
+ * used by SEB clients to skip or resume a download. It stays the same over a rebuild of the bytes and on
+ * all webservice instances as long as the configuration has no new version. */
 public final class InMemorySebConfig {
 
     public final Long configId;
     public final Long examId;
     private final byte[] data;
+    private final String eTag;
+
+    protected InMemorySebConfig(
+            final Long configId,
+            final Long configVersionId,
+            final Long examId,
+            final byte[] data) {
 
-    protected InMemorySebConfig(final Long configId, final Long examId, final byte[] data) {
         super();
         this.configId = configId;
         this.examId = examId;
         this.data = data;
+        this.eTag = "\"" + configId + "-" + configVersionId + "\"";
     }
 
     public Long getConfigId() {
@@ -33,6 +49,27 @@ public final class InMemorySebConfig {
         return this.data;
     }
 
+    public int getSize() {
+        return this.data.length;
+    }
+
+    /** Get the quoted entity tag of the configuration node and version of the configuration bytes.
+     *
+     * @return the quoted entity tag of the configuration bytes */
+    public String getETag() {
+        return this.eTag;
+    }
+
+    /** Writes a range of the configuration bytes to the given OutputStream without copying them.
+     *
+     * @param out the OutputStream to write to
+     * @param start the index of the first byte to write
+     * @param end the index of the last byte to write (inclusive)
+     * @throws IOException if writing to the OutputStream failed */
+    public void writeTo(final OutputStream out, final long start, final long end) throws IOException {
+        out.write(this.data, (int) start, (int) (end - start + 1));
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -78,6 +78,14 @@ public final class PingIntervalClientIndicator extends AbstractPingIndicator {
 
     }
 
+    /** Get the time in milliseconds after which the ping of the client connection is missing
+     * if no other ping comes in until then.
+     *
+     * @return the missing ping deadline in milliseconds */
+    long getMissingPingDeadline() {
+        return (long) super.currentValue + this.pingErrorThreshold;
+    }
+
     @Override
     public ClientEventRecord updateLogEvent() {
         final long now = DateTime.now(DateTimeZone.UTC).getMillis();
@@ -85,6 +93,7 @@ public final class PingIntervalClientIndicator extends AbstractPingIndicator {
         if (this.missingPing) {
             if (this.pingErrorThreshold > value) {
                 this.missingPing = false;
+                notifyValueChanged();
                 return new ClientEventRecord(
                         null,
                         this.connectionId,
@@ -97,6 +106,7 @@ public final class PingIntervalClientIndicator extends AbstractPingIndicator {
         } else {
             if (this.pingErrorThreshold < value) {
                 this.missingPing = true;
+                notifyValueChanged();
                 return new ClientEventRecord(
                         null,
                         this.connectionId,
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
+
+/** A fixed size slot table that holds the last ping time and ping number of SEB client connections.
+ *
+ * Every registered connection gets its own slot that is addressed by the connection token. A ping only writes
+ * the primitive values of the slot and marks it dirty. Dirty slots are collected by a flusher with drainDirty
+ * to be stored to the LAST_PING client event records in one batch.
+ *
+ * Each registration of a slot gets a new owner handle that is made of the slot index and a generation.
+ * Writers and the flusher claim the slot with the owner handle they know before they access the slot values,
+ * so a ping of a released connection can never be written to the slot of the connection that reuses it and
+ * a drained record always contains the values of one ping. */
+final class PingRegistry {
+
+    private static final int CLEAN = 0;
+    private static final int DIRTY = 1;
+
+    private static final long FREE = 0L;
+    private static final long CLAIMED = 1L << 62;
+    private static final int GENERATION_MASK = 0x3FFFFFFF;
+
+    private final int capacity;
+    private final Map<String, Long> slots;
+    private final long[] recordIds;
+    private final long[] connectionIds;
+    private final int[] generations;
+    private final AtomicLongArray owners;
+    private final AtomicLongArray clientTimes;
+    private final AtomicLongArray serverTimes;
+    private final AtomicIntegerArray pingNumbers;
+    private final AtomicIntegerArray dirty;
+
+    private final int[] freeSlots;
+    private int freeSlotsPointer = 0;
+    private volatile int highWaterMark = 0;
+
+    PingRegistry(final int capacity) {
+        this.capacity = capacity;
+        this.slots = new ConcurrentHashMap<>(capacity);
+        this.recordIds = new long[capacity];
+        this.connectionIds = new long[capacity];
+        this.generations = new int[capacity];
+        this.owners = new AtomicLongArray(capacity);
+        this.clientTimes = new AtomicLongArray(capacity);
+        this.serverTimes = new AtomicLongArray(capacity);
+        this.pingNumbers = new AtomicIntegerArray(capacity);
+        this.dirty = new AtomicIntegerArray(capacity);
+        this.freeSlots = new int[capacity];
+    }
+
+    int capacity() {
+        return this.capacity;
+    }
+
+    int size() {
+        return this.slots.size();
+    }
+
+    boolean isRegistered(final String connectionToken) {
+        return this.slots.containsKey(connectionToken);
+    }
+
+    /** Registers a connection with its LAST_PING client event record.
+     *
+     * @param connectionToken the connection token of the SEB client connection
+     * @param pingRecord the LAST_PING client event record of the connection
+     * @return true if the connection is registered, false if there is no free slot left */
+    synchronized boolean register(final String connectionToken, final ClientEventRecord pingRecord) {
+        if (this.slots.containsKey(connectionToken)) {
+            return true;
+        }
+
+        final int slot;
+        if (this.freeSlotsPointer > 0) {
+            slot = this.freeSlots[--this.freeSlotsPointer];
+        } else if (this.highWaterMark < this.capacity) {
+            slot = this.highWaterMark;
+        } else {
+            return false;
+        }
+
+        this.generations[slot] = (this.generations[slot] % GENERATION_MASK) + 1;
+        final long handle = ((long) this.generations[slot] << 32) | slot;
+
+        this.recordIds[slot] = pingRecord.getId();
+        this.connectionIds[slot] = pingRecord.getClientConnectionId();
+        this.clientTimes.set(slot, (pingRecord.getClientTime() != null) ? pingRecord.getClientTime() : 0L);
+        this.serverTimes.set(slot, (pingRecord.getServerTime() != null) ? pingRecord.getServerTime() : 0L);
+        this.pingNumbers.set(slot, (pingRecord.getNumericValue() != null)
+                ? pingRecord.getNumericValue().intValue()
+                : 0);
+        this.dirty.set(slot, CLEAN);
+        this.owners.set(slot, handle);
+
+        if (slot == this.highWaterMark) {
+            this.highWaterMark = slot + 1;
+        }
+        this.slots.put(connectionToken, handle);
+        return true;
+    }
+
+    /** Releases the slot of a connection.
+     *
+     * @param connectionToken the connection token of the SEB client connection
+     * @return the pending (not yet drained) LAST_PING record of the connection or null if there is none */
+    synchronized ClientEventRecord release(final String connectionToken) {
+        final Long handle = this.slots.remove(connectionToken);
+        if (handle == null) {
+            return null;
+        }
+
+        // wait for a concurrent ping or drain of this connection and take over the slot
+        final int slot = slotOf(handle);
+        while (!this.owners.compareAndSet(slot, handle, FREE)) {
+            Thread.yield();
+        }
+
+        final ClientEventRecord pending = (this.dirty.getAndSet(slot, CLEAN) == DIRTY)
+                ? toRecord(slot)
+                : null;
+
+        this.recordIds[slot] = 0L;
+        this.freeSlots[this.freeSlotsPointer++] = slot;
+        return pending;
+    }
+
+    /** Notifies a ping for a registered connection. This is allocation free and only waits for a concurrent
+     * ping or drain of the same connection.
+     *
+     * @param connectionToken the connection token of the SEB client connection
+     * @param timestamp the ping time-stamp of the client
+     * @param serverTime the time the ping was received by the server
+     * @param pingNumber the ping number
+     * @return true if the ping has been registered, false if the connection has no slot */
+    boolean notifyPing(
+            final String connectionToken,
+            final long timestamp,
+            final long serverTime,
+            final int pingNumber) {
+
+        final Long handle = this.slots.get(connectionToken);
+        if (handle == null) {
+            return false;
+        }
+
+        final long owner = handle;
+        final int slot = slotOf(owner);
+        if (!claim(slot, owner)) {
+            // the slot has been released meanwhile
+            return false;
+        }
+
+        this.clientTimes.set(slot, timestamp);
+        this.serverTimes.set(slot, serverTime);
+        this.pingNumbers.set(slot, pingNumber);
+        this.dirty.set(slot, DIRTY);
+        this.owners.set(slot, owner);
+        return true;
+    }
+
+    /** Collects all slots that had a ping since the last drain and resets their dirty flag.
+     * Slots that are currently written by a ping stay dirty and are collected by the next drain.
+     *
+     * @return Collection of LAST_PING client event records to update */
+    Collection<ClientEventRecord> drainDirty() {
+        final int limit = this.highWaterMark;
+        final Collection<ClientEventRecord> result = new ArrayList<>();
+        for (int i = 0; i < limit; i++) {
+            if (this.dirty.get(i) != DIRTY) {
+                continue;
+            }
+
+            final long owner = this.owners.get(i);
+            if (owner == FREE || (owner & CLAIMED) != 0 || !this.owners.compareAndSet(i, owner, owner | CLAIMED)) {
+                continue;
+            }
+
+            try {
+                if (this.dirty.compareAndSet(i, DIRTY, CLEAN)) {
+                    final ClientEventRecord record = toRecord(i);
+                    if (record != null) {
+                        result.add(record);
+                    }
+                }
+            } finally {
+                this.owners.set(i, owner);
+            }
+        }
+        return result;
+    }
+
+    /** Marks the slots of the given drained records dirty again, for example after they failed to be stored.
+     * Records of connections that have been released meanwhile are dropped.
+     *
+     * @param records the drained LAST_PING client event records */
+    void markDirty(final Collection<ClientEventRecord> records) {
+        final Set<Long> recordIds = new HashSet<>();
+        records.forEach(record -> recordIds.add(record.getId()));
+
+        final int limit = this.highWaterMark;
+        for (int i = 0; i < limit && !recordIds.isEmpty(); i++) {
+            final long owner = this.owners.get(i);
+            if (owner == FREE || (owner & CLAIMED) != 0 || !claim(i, owner)) {
+                continue;
+            }
+
+            try {
+                if (recordIds.remove(this.recordIds[i])) {
+                    this.dirty.set(i, DIRTY);
+                }
+            } finally {
+                this.owners.set(i, owner);
+            }
+        }
+    }
+
+    private boolean claim(final int slot, final long owner) {
+        while (!this.owners.compareAndSet(slot, owner, owner | CLAIMED)) {
+            if (this.owners.get(slot) != (owner | CLAIMED)) {
+                return false;
+            }
+            Thread.yield();
+        }
+        return true;
+    }
+
+    private static int slotOf(final long handle) {
+        return (int) handle;
+    }
+
+    private ClientEventRecord toRecord(final int slot) {
+        final long recordId = this.recordIds[slot];
+        if (recordId <= 0) {
+            return null;
+        }
+
+        return new ClientEventRecord(
+                recordId,
+                this.connectionIds[slot],
+                null,
+                this.clientTimes.get(slot),
+                this.serverTimes.get(slot),
+                new BigDecimal(this.pingNumbers.get(slot)),
+                null);
+    }
+
+}
@@ -9,16 +9,16 @@
 package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
 
 import java.security.Principal;
-import java.util.Objects;
+import java.util.Iterator;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
@@ -32,6 +32,7 @@ import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
 import ch.ethz.seb.sebserver.webservice.WebserviceInfo;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ClientConnectionDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.SebClientConfigDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.EventHandlingStrategy;
@@ -48,9 +49,10 @@ public class SebClientConnectionServiceImpl implements SebClientConnectionServic
 
     private static final Logger log = LoggerFactory.getLogger(SebClientConnectionServiceImpl.class);
 
+    private static final int MAX_COUNTED_EVENT_STORE_ATTEMPTS = 3;
+
     private final ExamSessionService examSessionService;
     private final ExamSessionCacheService examSessionCacheService;
-    private final CacheManager cacheManager;
     private final EventHandlingStrategy eventHandlingStrategy;
     private final ClientConnectionDAO clientConnectionDAO;
     private final PingHandlingStrategy pingHandlingStrategy;
@@ -58,6 +60,9 @@ public class SebClientConnectionServiceImpl implements SebClientConnectionServic
     private final SebInstructionService sebInstructionService;
     private final WebserviceInfo webserviceInfo;
 
+    /** The client connections that currently have a missing ping */
+    private final Set<ClientConnectionDataInternal> missingPingConnections = ConcurrentHashMap.newKeySet();
+
     protected SebClientConnectionServiceImpl(
             final ExamSessionService examSessionService,
             final EventHandlingStrategyFactory eventHandlingStrategyFactory,
@@ -67,7 +72,6 @@ public class SebClientConnectionServiceImpl implements SebClientConnectionServic
 
         this.examSessionService = examSessionService;
         this.examSessionCacheService = examSessionService.getExamSessionCacheService();
-        this.cacheManager = examSessionService.getCacheManager();
         this.clientConnectionDAO = examSessionService.getClientConnectionDAO();
         this.pingHandlingStrategy = pingHandlingStrategyFactory.get();
         this.eventHandlingStrategy = eventHandlingStrategyFactory.get();
@@ -372,6 +376,7 @@ public class SebClientConnectionServiceImpl implements SebClientConnectionServic
                 updatedClientConnection = clientConnection;
             }
 
+            this.pingHandlingStrategy.releaseForConnection(connectionToken);
             reloadConnectionCache(connectionToken);
             return updatedClientConnection;
         });
@@ -426,6 +431,7 @@ public class SebClientConnectionServiceImpl implements SebClientConnectionServic
                 updatedClientConnection = clientConnection;
             }
 
+            this.pingHandlingStrategy.releaseForConnection(connectionToken);
             reloadConnectionCache(connectionToken);
             return updatedClientConnection;
         });
@@ -435,29 +441,64 @@ public class SebClientConnectionServiceImpl implements SebClientConnectionServic
     public void updatePingEvents() {
         try {
 
-            final Cache cache = this.cacheManager.getCache(ExamSessionCacheService.CACHE_NAME_ACTIVE_CLIENT_CONNECTION);
-            this.examSessionService
-                    .getExamDAO()
-                    .allRunningExamIds()
-                    .getOrThrow()
-                    .stream()
-                    .flatMap(examId -> this.clientConnectionDAO
-                            .getConnectionTokens(examId)
-                            .getOrThrow()
-                            .stream())
-                    .map(token -> cache.get(token, ClientConnectionDataInternal.class))
-                    .filter(Objects::nonNull)
-                    .filter(connection -> connection.pingIndicator != null &&
-                            connection.clientConnection.status.establishedStatus)
-                    .map(connection -> connection.pingIndicator.updateLogEvent())
-                    .filter(Objects::nonNull)
-                    .forEach(this.eventHandlingStrategy);
+            final ActiveClientConnectionIndex index = this.examSessionCacheService.getActiveClientConnectionIndex();
+
+            // client connections with a passed missing ping deadline
+            index.expirePingDeadlines(
+                    Utils.getMillisecondsNow(),
+                    connection -> updatePingEvent(index, connection));
+
+            // client connections with a missing ping are checked on every update until they are back to normal
+            final Iterator<ClientConnectionDataInternal> missing = this.missingPingConnections.iterator();
+            while (missing.hasNext()) {
+                final ClientConnectionDataInternal connection = missing.next();
+                if (!index.contains(connection)) {
+                    missing.remove();
+                } else if (updatePingEvent(index, connection)) {
+                    missing.remove();
+                }
+            }
 
         } catch (final Exception e) {
             log.error("Failed to update ping events: ", e);
         }
     }
 
+    /** Updates the ping state of a client connection and schedules its next missing ping deadline
+     * if the ping is not missing.
+     *
+     * @return true if the client connection has no missing ping that needs further checks */
+    private boolean updatePingEvent(
+            final ActiveClientConnectionIndex index,
+            final ClientConnectionDataInternal connection) {
+
+        try {
+
+            final Long examId = connection.clientConnection.examId;
+            if (!this.examSessionService.isExamRunning(examId)) {
+                index.removeExam(examId);
+                return true;
+            }
+
+            final ClientEventRecord pingEvent = connection.pingIndicator.updateLogEvent();
+            if (pingEvent != null) {
+                this.eventHandlingStrategy.accept(pingEvent);
+            }
+
+            if (connection.pingIndicator.missingPing) {
+                this.missingPingConnections.add(connection);
+                return false;
+            }
+
+            index.schedulePingDeadline(connection);
+            return true;
+
+        } catch (final Exception e) {
+            log.error("Failed to update ping event for connection: {}", connection.clientConnection.id, e);
+            return true;
+        }
+    }
+
     @Override
     public String notifyPing(
             final String connectionToken,
@@ -478,10 +519,15 @@ public class SebClientConnectionServiceImpl implements SebClientConnectionServic
 
         if (activeClientConnection != null) {
 
-            // store event
-            this.eventHandlingStrategy.accept(ClientEvent.toRecord(
-                    event,
-                    activeClientConnection.getConnectionId()));
+            // store event, log-level events are counted within the client event counts of the exam
+            final Long connectionId = activeClientConnection.getConnectionId();
+            final Long examId = activeClientConnection.clientConnection.examId;
+            final ClientEventRecord record = ClientEvent.toRecord(event, connectionId);
+            if (examId != null && ClientEventCounts.COUNTED_EVENT_TYPES.contains(event.eventType)) {
+                storeCountedEvent(examId, connectionId, event, record);
+            } else {
+                this.eventHandlingStrategy.accept(record);
+            }
 
             // update indicators
             activeClientConnection.getIndicatorMapping(event.eventType)
@@ -491,6 +537,28 @@ public class SebClientConnectionServiceImpl implements SebClientConnectionServic
         }
     }
 
+    private void storeCountedEvent(
+            final Long examId,
+            final Long connectionId,
+            final ClientEvent event,
+            final ClientEventRecord record) {
+
+        for (int attempt = 0; attempt < MAX_COUNTED_EVENT_STORE_ATTEMPTS; attempt++) {
+            if (this.examSessionCacheService
+                    .getClientEventCounts(examId)
+                    .store(connectionId, event.eventType, () -> this.eventHandlingStrategy.accept(record))) {
+                return;
+            }
+            // the counts have been evicted meanwhile, store with the new counts of the exam
+        }
+
+        // store without counting and evict the counts so that they are seeded again from the stored events
+        log.warn("Client event counts of exam: {} are evicted repeatedly. Store the event uncounted and seed again",
+                examId);
+        this.eventHandlingStrategy.accept(record);
+        this.examSessionCacheService.evictClientEventCounts(examId);
+    }
+
     private void checkExamRunning(final Long examId) {
         if (examId != null && !this.examSessionService.isExamRunning(examId)) {
             examNotRunningException(examId);
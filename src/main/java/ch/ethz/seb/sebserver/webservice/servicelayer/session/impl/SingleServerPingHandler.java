@@ -41,4 +41,9 @@ public class SingleServerPingHandler implements PingHandlingStrategy {
         // nothing to do here
     }
 
+    @Override
+    public void releaseForConnection(final String connectionToken) {
+        // nothing to do here
+    }
+
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/** A hashed timing wheel that holds items with a deadline in milliseconds.
+ *
+ * The wheel has a fixed number of buckets that each cover one tick of the given tick duration. An item is
+ * scheduled in O(1) to the bucket of the tick of its deadline. Deadlines that are more than one revolution
+ * ahead share the bucket with nearer deadlines and are kept in the bucket until their tick is reached.
+ * Advancing the wheel only visits the buckets of the ticks that have passed since the last advance.
+ *
+ * Scheduling is thread-safe and lock-free. Advancing the wheel is meant to be done by one thread at a time. */
+final class TimingWheel<T> {
+
+    private final long tickDuration;
+    private final int mask;
+    private final Queue<Entry<T>>[] buckets;
+
+    /** The last tick that has been advanced */
+    private volatile long currentTick;
+
+    /** Creates a new TimingWheel.
+     *
+     * @param tickDuration the duration of one tick in milliseconds
+     * @param ticksPerWheel the number of buckets, rounded up to the next power of two
+     * @param now the current time in milliseconds */
+    @SuppressWarnings("unchecked")
+    TimingWheel(final long tickDuration, final int ticksPerWheel, final long now) {
+        if (tickDuration <= 0 || ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("tickDuration and ticksPerWheel must be positive");
+        }
+
+        int size = 1;
+        while (size < ticksPerWheel) {
+            size <<= 1;
+        }
+
+        this.tickDuration = tickDuration;
+        this.mask = size - 1;
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            this.buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = now / tickDuration;
+    }
+
+    /** Schedules an item for the given deadline. An item with a deadline that has already passed
+     * expires with the next advance.
+     *
+     * @param item the item to schedule
+     * @param deadline the deadline of the item in milliseconds */
+    void schedule(final T item, final long deadline) {
+        // round up to not expire an item before its deadline
+        final long tick = Math.max(
+                (deadline + this.tickDuration - 1) / this.tickDuration,
+                this.currentTick + 1);
+        this.buckets[(int) (tick & this.mask)].add(new Entry<>(item, tick));
+    }
+
+    /** Advances the wheel to the given time and hands all items with a deadline up to that time
+     * to the given consumer. The consumer may schedule items again.
+     *
+     * @param now the current time in milliseconds
+     * @param expired the consumer for the expired items */
+    synchronized void advance(final long now, final Consumer<T> expired) {
+        final long targetTick = now / this.tickDuration;
+        final long fromTick = this.currentTick + 1;
+        if (targetTick < fromTick) {
+            return;
+        }
+
+        // items that are rescheduled by the consumer must go to the next tick and not to a bucket of this advance
+        this.currentTick = targetTick;
+
+        // if more then one revolution has passed every bucket is visited once
+        final long lastTick = Math.min(targetTick, fromTick + this.mask);
+        for (long tick = fromTick; tick <= lastTick; tick++) {
+            final Iterator<Entry<T>> iterator = this.buckets[(int) (tick & this.mask)].iterator();
+            while (iterator.hasNext()) {
+                final Entry<T> entry = iterator.next();
+                if (entry.tick <= targetTick) {
+                    iterator.remove();
+                    expired.accept(entry.item);
+                }
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (final Queue<Entry<T>> bucket : this.buckets) {
+            size += bucket.size();
+        }
+        return size;
+    }
+
+    private static final class Entry<T> {
+        final T item;
+        final long tick;
+
+        Entry(final T item, final long tick) {
+            this.item = item;
+            this.tick = tick;
+        }
+    }
+
+}
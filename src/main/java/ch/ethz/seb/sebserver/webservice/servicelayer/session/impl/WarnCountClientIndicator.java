@@ -15,15 +15,14 @@ import org.springframework.stereotype.Component;
 
 import ch.ethz.seb.sebserver.gbl.model.exam.Indicator.IndicatorType;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
-import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordMapper;
 
 @Lazy
 @Component(IndicatorType.Names.WARN_COUNT)
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 public class WarnCountClientIndicator extends AbstractLogLevelCountIndicator {
 
-    protected WarnCountClientIndicator(final ClientEventRecordMapper clientEventRecordMapper) {
-        super(clientEventRecordMapper, EventType.WARN_LOG);
+    protected WarnCountClientIndicator(final ExamSessionCacheService examSessionCacheService) {
+        super(examSessionCacheService, EventType.WARN_LOG);
     }
 
     @Override
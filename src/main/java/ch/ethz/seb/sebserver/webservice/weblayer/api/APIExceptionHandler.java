@@ -36,6 +36,7 @@ import ch.ethz.seb.sebserver.gbl.api.APIMessage.FieldValidationException;
 import ch.ethz.seb.sebserver.gbl.util.Utils;
 import ch.ethz.seb.sebserver.webservice.servicelayer.authorization.PermissionDeniedException;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ResourceNotFoundException;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.EventHandlingOverloadException;
 import ch.ethz.seb.sebserver.webservice.servicelayer.validation.BeanValidationException;
 
 @Order(Ordered.HIGHEST_PRECEDENCE)
@@ -164,6 +165,16 @@ public class APIExceptionHandler extends ResponseEntityExceptionHandler {
                 .createErrorResponse(ex.getMessage());
     }
 
+    @ExceptionHandler(EventHandlingOverloadException.class)
+    public ResponseEntity<Object> handleEventHandlingOverload(
+            final EventHandlingOverloadException ex,
+            final WebRequest request) {
+
+        log.warn("Event handling overload: {}", ex.getMessage());
+        return APIMessage.ErrorMessage.SERVICE_UNAVAILABLE
+                .createErrorResponse(ex.getMessage());
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<Object> handleUnexpected(
             final AccessDeniedException ex,
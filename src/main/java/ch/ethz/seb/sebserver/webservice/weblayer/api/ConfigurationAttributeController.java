@@ -10,17 +10,19 @@ package ch.ethz.seb.sebserver.webservice.weblayer.api;
 
 import ch.ethz.seb.sebserver.gbl.api.API;
 import ch.ethz.seb.sebserver.gbl.api.POSTMapper;
+import ch.ethz.seb.sebserver.gbl.model.EntityProcessingReport;
 import ch.ethz.seb.sebserver.gbl.model.GrantEntity;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationAttribute;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Pair;
 import ch.ethz.seb.sebserver.gbl.util.Result;
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ConfigurationAttributeRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.servicelayer.PaginationService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.authorization.AuthorizationService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.bulkaction.BulkActionService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationAttributeDAO;
-import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.UserActivityLogDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationAttributeRegistry;
 import ch.ethz.seb.sebserver.webservice.servicelayer.validation.BeanValidationService;
 import org.apache.commons.lang3.StringUtils;
 import org.mybatis.dynamic.sql.SqlTable;
@@ -38,13 +40,16 @@ import java.util.List;
 @RequestMapping("${sebserver.webservice.api.admin.endpoint}" + API.CONFIGURATION_ATTRIBUTE_ENDPOINT)
 public class ConfigurationAttributeController extends EntityController<ConfigurationAttribute, ConfigurationAttribute> {
 
+    private final ConfigurationAttributeRegistry configurationAttributeRegistry;
+
     protected ConfigurationAttributeController(
             final AuthorizationService authorization,
             final BulkActionService bulkActionService,
             final ConfigurationAttributeDAO entityDAO,
             final UserActivityLogDAO userActivityLogDAO,
             final PaginationService paginationService,
-            final BeanValidationService beanValidationService) {
+            final BeanValidationService beanValidationService,
+            final ConfigurationAttributeRegistry configurationAttributeRegistry) {
 
         super(authorization,
                 bulkActionService,
@@ -52,6 +57,8 @@ public class ConfigurationAttributeController extends EntityController<Configura
                 userActivityLogDAO,
                 paginationService,
                 beanValidationService);
+
+        this.configurationAttributeRegistry = configurationAttributeRegistry;
     }
 
     @Override
@@ -67,9 +74,9 @@ public class ConfigurationAttributeController extends EntityController<Configura
             return super.getForIds(modelIds);
         }
 
-        return new ArrayList<>(this.entityDAO
-                .allMatching(new FilterMap())
-                .getOrThrow());
+        return new ArrayList<>(this.configurationAttributeRegistry
+                .getMetadata()
+                .getAttributes());
     }
 
     @Override
@@ -77,6 +84,26 @@ public class ConfigurationAttributeController extends EntityController<Configura
         return new ConfigurationAttribute(postParams);
     }
 
+    @Override
+    protected Result<ConfigurationAttribute> notifyCreated(final ConfigurationAttribute entity) {
+        this.configurationAttributeRegistry.reload();
+        return super.notifyCreated(entity);
+    }
+
+    @Override
+    protected Result<ConfigurationAttribute> notifySaved(final ConfigurationAttribute entity) {
+        this.configurationAttributeRegistry.reload();
+        return super.notifySaved(entity);
+    }
+
+    @Override
+    protected Result<Pair<ConfigurationAttribute, EntityProcessingReport>> notifyDeleted(
+            final Pair<ConfigurationAttribute, EntityProcessingReport> pair) {
+
+        this.configurationAttributeRegistry.reload();
+        return super.notifyDeleted(pair);
+    }
+
     @Override
     protected SqlTable getSQLTableOfEntity() {
         return ConfigurationAttributeRecordDynamicSqlSupport.configurationAttributeRecord;
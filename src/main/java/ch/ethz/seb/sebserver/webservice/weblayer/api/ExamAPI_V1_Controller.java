@@ -24,6 +24,8 @@ import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.util.MultiValueMap;
@@ -42,7 +44,6 @@ import ch.ethz.seb.sebserver.gbl.api.POSTMapper;
 import ch.ethz.seb.sebserver.gbl.async.AsyncServiceSpringConfig;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
-import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionData;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent;
 import ch.ethz.seb.sebserver.gbl.model.session.RunningExamInfo;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
@@ -51,6 +52,7 @@ import ch.ethz.seb.sebserver.webservice.servicelayer.dao.LmsSetupDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.SebClientConfigDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.ExamSessionService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.SebClientConnectionService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.InMemorySebConfig;
 
 @WebServiceProfile
 @RestController
@@ -59,6 +61,8 @@ public class ExamAPI_V1_Controller {
 
     private static final Logger log = LoggerFactory.getLogger(ExamAPI_V1_Controller.class);
 
+    private static final String RANGE_UNIT_BYTES = "bytes";
+
     private final LmsSetupDAO lmsSetupDAO;
     private final ExamSessionService examSessionService;
     private final SebClientConnectionService sebClientConnectionService;
@@ -266,7 +270,7 @@ public class ExamAPI_V1_Controller {
             final HttpServletResponse response) {
 
         return CompletableFuture.runAsync(
-                () -> streamExamConfig(connectionToken, formParams, principal, response),
+                () -> streamExamConfig(connectionToken, formParams, principal, request, response),
                 this.executor);
     }
 
@@ -331,6 +335,7 @@ public class ExamAPI_V1_Controller {
             final String connectionToken,
             final MultiValueMap<String, String> formParams,
             final Principal principal,
+            final HttpServletRequest request,
             final HttpServletResponse response) {
 
         try {
@@ -354,20 +359,14 @@ public class ExamAPI_V1_Controller {
 
             final ServletOutputStream outputStream = response.getOutputStream();
 
+            // the prebuilt exam configuration of the running exam of the connection (includes integrity check)
+            final InMemorySebConfig sebConfig;
             try {
 
-                final ClientConnectionData connection = this.examSessionService
-                        .getConnectionData(connectionToken)
+                sebConfig = this.examSessionService
+                        .getDefaultExamConfig(connectionToken)
                         .getOrThrow();
 
-                // exam integrity check
-                if (connection.clientConnection.examId == null ||
-                        !this.examSessionService.isExamRunning(connection.clientConnection.examId)) {
-
-                    log.error("Missing exam identifier or requested exam is not running for connection: {}",
-                            connection);
-                    throw new IllegalStateException("Missing exam identifier or requested exam is not running");
-                }
             } catch (final Exception e) {
 
                 log.error("Unexpected error: ", e);
@@ -382,12 +381,7 @@ public class ExamAPI_V1_Controller {
 
             try {
 
-                this.examSessionService
-                        .streamDefaultExamConfig(
-                                connectionToken,
-                                outputStream);
-
-                response.setStatus(HttpStatus.OK.value());
+                writeExamConfig(sebConfig, request, response, outputStream);
 
             } catch (final Exception e) {
                 final APIMessage errorMessage = APIMessage.ErrorMessage.GENERIC.of(e.getMessage());
@@ -414,4 +408,66 @@ public class ExamAPI_V1_Controller {
         }
     }
 
+    /* Writes the prebuilt exam configuration to the response. A SEB client that already has the
+     * configuration gets a 304 (Not Modified) by sending its entity tag within If-None-Match and a
+     * SEB client that reconnects can resume an interrupted download with a single byte range.
+     * A range is only served if If-Range contains the entity tag of the current configuration version,
+     * otherwise the full content is sent. */
+    private void writeExamConfig(
+            final InMemorySebConfig sebConfig,
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final ServletOutputStream outputStream) throws IOException {
+
+        final int size = sebConfig.getSize();
+        response.setHeader(HttpHeaders.ETAG, sebConfig.getETag());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, RANGE_UNIT_BYTES);
+
+        final String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.contains(sebConfig.getETag())) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        final String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        final String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && sebConfig.getETag().equals(ifRange)) {
+            final List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (final IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, RANGE_UNIT_BYTES + " */" + size);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+
+            // multiple ranges are not used by SEB clients and are answered with the full content
+            if (ranges.size() == 1) {
+                final HttpRange range = ranges.get(0);
+                final long start;
+                final long end;
+                try {
+                    start = range.getRangeStart(size);
+                    end = range.getRangeEnd(size);
+                } catch (final IllegalArgumentException e) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, RANGE_UNIT_BYTES + " */" + size);
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(
+                        HttpHeaders.CONTENT_RANGE,
+                        RANGE_UNIT_BYTES + " " + start + "-" + end + "/" + size);
+                response.setContentLengthLong(end - start + 1);
+                sebConfig.writeTo(outputStream, start, end);
+                return;
+            }
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentLength(size);
+        sebConfig.writeTo(outputStream, 0, size - 1);
+    }
+
 }
@@ -9,27 +9,20 @@
 package ch.ethz.seb.sebserver.webservice.weblayer.api;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.servlet.ServletOutputStream;
-import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 import org.apache.commons.lang3.BooleanUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.mybatis.dynamic.sql.SqlTable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.util.MultiValueMap;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -41,13 +34,9 @@ import org.springframework.web.bind.annotation.RestController;
 import ch.ethz.seb.sebserver.gbl.api.API;
 import ch.ethz.seb.sebserver.gbl.api.APIMessage;
 import ch.ethz.seb.sebserver.gbl.api.APIMessage.APIMessageException;
-import ch.ethz.seb.sebserver.gbl.api.EntityType;
 import ch.ethz.seb.sebserver.gbl.api.POSTMapper;
-import ch.ethz.seb.sebserver.gbl.api.authorization.PrivilegeType;
 import ch.ethz.seb.sebserver.gbl.model.Domain;
 import ch.ethz.seb.sebserver.gbl.model.Domain.EXAM;
-import ch.ethz.seb.sebserver.gbl.model.Page;
-import ch.ethz.seb.sebserver.gbl.model.PageSortOrder;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
 import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
 import ch.ethz.seb.sebserver.gbl.model.exam.SebRestriction;
@@ -63,7 +52,6 @@ import ch.ethz.seb.sebserver.webservice.servicelayer.authorization.UserService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.authorization.impl.SEBServerUser;
 import ch.ethz.seb.sebserver.webservice.servicelayer.bulkaction.BulkActionService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamDAO;
-import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.UserActivityLogDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.UserDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.exam.ExamAdminService;
@@ -123,52 +111,6 @@ public class ExamAdministrationController extends EntityController<Exam, Exam> {
         return ExamRecordDynamicSqlSupport.examRecord;
     }
 
-    @RequestMapping(
-            method = RequestMethod.GET,
-            consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE,
-            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    @Override
-    public Page<Exam> getPage(
-            @RequestParam(
-                    name = API.PARAM_INSTITUTION_ID,
-                    required = true,
-                    defaultValue = UserService.USERS_INSTITUTION_AS_DEFAULT) final Long institutionId,
-            @RequestParam(name = Page.ATTR_PAGE_NUMBER, required = false) final Integer pageNumber,
-            @RequestParam(name = Page.ATTR_PAGE_SIZE, required = false) final Integer pageSize,
-            @RequestParam(name = Page.ATTR_SORT, required = false) final String sort,
-            @RequestParam final MultiValueMap<String, String> allRequestParams,
-            final HttpServletRequest request) {
-
-        checkReadPrivilege(institutionId);
-
-        // NOTE: several attributes for sorting may be originated by the QuizData from LMS not by the database
-        //       of the SEB Server. Therefore in the case we have no or the default sorting we can use the
-        //       native PaginationService within MyBatis and SQL. For the other cases we need an in-line sorting and paging
-        if (StringUtils.isBlank(sort) ||
-                this.paginationService.isNativeSortingSupported(ExamRecordDynamicSqlSupport.examRecord, sort)) {
-
-            return super.getPage(institutionId, pageNumber, pageSize, sort, allRequestParams, request);
-
-        } else {
-
-            this.authorization.check(
-                    PrivilegeType.READ,
-                    EntityType.EXAM,
-                    institutionId);
-
-            final List<Exam> exams = new ArrayList<>(
-                    this.examDAO
-                            .allMatching(new FilterMap(allRequestParams, request.getQueryString()), this::hasReadAccess)
-                            .getOrThrow());
-
-            return buildSortedExamPage(
-                    this.paginationService.getPageNumber(pageNumber),
-                    this.paginationService.getPageSize(pageSize),
-                    sort,
-                    exams);
-        }
-    }
-
     @RequestMapping(
             path = API.MODEL_ID_VAR_PATH_SEGMENT
                     + API.EXAM_ADMINISTRATION_DOWNLOAD_CONFIG_PATH_SEGMENT
@@ -427,39 +369,4 @@ public class ExamAdministrationController extends EntityController<Exam, Exam> {
         }
     }
 
-    public static Page<Exam> buildSortedExamPage(
-            final Integer pageNumber,
-            final Integer pageSize,
-            final String sort,
-            final List<Exam> exams) {
-
-        if (!StringUtils.isBlank(sort)) {
-            final String sortBy = PageSortOrder.decode(sort);
-            if (sortBy.equals(Exam.FILTER_ATTR_NAME)) {
-                exams.sort(Comparator.comparing(exam -> exam.name));
-            }
-            if (sortBy.equals(Exam.FILTER_ATTR_TYPE)) {
-                exams.sort(Comparator.comparing(exam -> exam.type));
-            }
-            if (sortBy.equals(QuizData.FILTER_ATTR_START_TIME)) {
-                exams.sort(Comparator.comparing(exam -> exam.startTime));
-            }
-        }
-
-        if (PageSortOrder.DESCENDING == PageSortOrder.getSortOrder(sort)) {
-            Collections.reverse(exams);
-        }
-
-        final int start = (pageNumber - 1) * pageSize;
-        int end = start + pageSize;
-        if (exams.size() < end) {
-            end = exams.size();
-        }
-        return new Page<>(
-                exams.size() / pageSize,
-                pageNumber,
-                sort,
-                exams.subList(start, end));
-    }
-
 }
@@ -8,11 +8,10 @@
 
 package ch.ethz.seb.sebserver.webservice.weblayer.api;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
-import java.util.List;
 import java.util.Objects;
+import java.util.function.Predicate;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
@@ -31,6 +30,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import ch.ethz.seb.sebserver.gbl.Constants;
 import ch.ethz.seb.sebserver.gbl.api.API;
@@ -41,14 +41,18 @@ import ch.ethz.seb.sebserver.gbl.model.Page;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection.ConnectionStatus;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionData;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionDataUpdate;
 import ch.ethz.seb.sebserver.gbl.model.session.ClientInstruction;
 import ch.ethz.seb.sebserver.gbl.model.user.UserRole;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ExamRecordDynamicSqlSupport;
 import ch.ethz.seb.sebserver.webservice.servicelayer.PaginationService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.authorization.AuthorizationService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.authorization.PermissionDeniedException;
 import ch.ethz.seb.sebserver.webservice.servicelayer.authorization.UserService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.ExamMonitoringStreamService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.ExamSessionService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.SebClientConnectionService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.SebInstructionService;
@@ -65,18 +69,21 @@ public class ExamMonitoringController {
     private final SebInstructionService sebInstructionService;
     private final AuthorizationService authorization;
     private final PaginationService paginationService;
+    private final ExamMonitoringStreamService examMonitoringStreamService;
 
     public ExamMonitoringController(
             final SebClientConnectionService sebClientConnectionService,
             final SebInstructionService sebInstructionService,
             final AuthorizationService authorization,
-            final PaginationService paginationService) {
+            final PaginationService paginationService,
+            final ExamMonitoringStreamService examMonitoringStreamService) {
 
         this.sebClientConnectionService = sebClientConnectionService;
         this.examSessionService = sebClientConnectionService.getExamSessionService();
         this.sebInstructionService = sebInstructionService;
         this.authorization = authorization;
         this.paginationService = paginationService;
+        this.examMonitoringStreamService = examMonitoringStreamService;
     }
 
     /** This is called by Spring to initialize the WebDataBinder and is used here to
@@ -130,23 +137,23 @@ public class ExamMonitoringController {
 
         final FilterMap filterMap = new FilterMap(allRequestParams, request.getQueryString());
 
-        // if current user has no read access for specified entity type within other institution
-        // then the current users institutionId is put as a SQL filter criteria attribute to extends query performance
-        if (!this.authorization.hasGrant(PrivilegeType.READ, EntityType.EXAM)) {
-            filterMap.putIfAbsent(API.PARAM_INSTITUTION_ID, String.valueOf(institutionId));
-        }
-
-        final List<Exam> exams = new ArrayList<>(this.examSessionService
-                .getFilteredRunningExams(
-                        filterMap,
-                        exam -> this.hasRunningExamPrivilege(exam, institutionId))
-                .getOrThrow());
+        // only the running exams of the requested institution that are owned or supported by the current user
+        // are listed. These criteria are put as SQL filter criteria attributes to apply the pagination on SQL level.
+        // NOTE: the exams are not filtered again afterwards since a page would get short otherwise
+        final String userId = this.authorization.getUserService().getCurrentUser().getUserInfo().uuid;
+        filterMap
+                .putIfAbsent(API.PARAM_INSTITUTION_ID, String.valueOf(institutionId))
+                .putIfAbsent(Exam.FILTER_ATTR_OWNER_OR_SUPPORTER, userId);
 
-        return ExamAdministrationController.buildSortedExamPage(
-                this.paginationService.getPageNumber(pageNumber),
-                this.paginationService.getPageSize(pageSize),
+        return this.paginationService.getPage(
+                pageNumber,
+                pageSize,
                 sort,
-                exams);
+                ExamRecordDynamicSqlSupport.examRecord.name(),
+                () -> this.examSessionService.getFilteredRunningExams(
+                        filterMap,
+                        Utils.truePredicate()))
+                .getOrThrow();
     }
 
     @RequestMapping(
@@ -176,23 +183,100 @@ public class ExamMonitoringController {
                     this.authorization.getUserService().getCurrentUser().getUserInfo());
         }
 
-        final EnumSet<ConnectionStatus> filterStates = EnumSet.noneOf(ConnectionStatus.class);
-        if (StringUtils.isNoneBlank(hiddenStates)) {
-            final String[] split = StringUtils.split(hiddenStates, Constants.LIST_SEPARATOR);
-            for (int i = 0; i < split.length; i++) {
-                filterStates.add(ConnectionStatus.valueOf(split[0]));
-            }
+        return this.examSessionService
+                .getConnectionData(examId, hiddenStatesFilter(hiddenStates))
+                .getOrThrow();
+    }
+
+    /** Get the ClientConnectionData of a running exam that has changed after a given change version.
+     *
+     * GET /admin-api/v1/monitoring/{examId}?since={version}
+     *
+     * This is the fallback for the monitoring stream if long-lived connections are not possible.
+     * The response contains the changed client connections and the identifiers of the client connections
+     * that are hidden or removed since the given version. A since version of 0 requests a full update.
+     * The version of the response is to be used as since version for the next request.
+     *
+     * @param institutionId The institution identifier of the request.
+     *            Default is the institution identifier of the institution of the current user
+     * @param examId the exam identifier
+     * @param since the version of the last update the caller has applied
+     * @param hiddenStates the connection states that are hidden for the caller
+     * @return ClientConnectionDataUpdate with the changed and removed client connections */
+    @RequestMapping(
+            path = API.MODEL_ID_VAR_PATH_SEGMENT,
+            method = RequestMethod.GET,
+            params = API.EXAM_MONITORING_SINCE_VERSION,
+            consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE,
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ClientConnectionDataUpdate getConnectionDataUpdate(
+            @RequestParam(
+                    name = API.PARAM_INSTITUTION_ID,
+                    required = true,
+                    defaultValue = UserService.USERS_INSTITUTION_AS_DEFAULT) final Long institutionId,
+            @PathVariable(name = API.PARAM_MODEL_ID, required = true) final Long examId,
+            @RequestParam(name = API.EXAM_MONITORING_SINCE_VERSION, required = true) final Long since,
+            @RequestHeader(name = API.EXAM_MONITORING_STATE_FILTER, required = false) final String hiddenStates) {
+
+        // check overall privilege
+        this.authorization.checkRole(
+                institutionId,
+                EntityType.EXAM,
+                UserRole.EXAM_SUPPORTER);
+
+        // check running exam privilege for specified exam
+        if (!hasRunningExamPrivilege(examId, institutionId)) {
+            throw new PermissionDeniedException(
+                    EntityType.EXAM,
+                    PrivilegeType.READ,
+                    this.authorization.getUserService().getCurrentUser().getUserInfo());
         }
 
         return this.examSessionService
-                .getConnectionData(
-                        examId,
-                        filterStates.isEmpty()
-                                ? Objects::nonNull
-                                : conn -> conn != null && !filterStates.contains(conn.clientConnection.status))
+                .getConnectionDataUpdate(examId, since, hiddenStatesFilter(hiddenStates))
                 .getOrThrow();
     }
 
+    /** Opens a Server-Sent Events stream of the client connection data of a running exam.
+     *
+     * GET /admin-api/v1/monitoring/{examId}/stream
+     *
+     * The stream starts with a "snapshot" event that contains the data of all client connections of the exam
+     * followed by "delta" events that only contain the changed and removed client connections.
+     * See ExamMonitoringStreamService
+     *
+     * @param institutionId The institution identifier of the request.
+     *            Default is the institution identifier of the institution of the current user
+     * @param examId the exam identifier
+     * @return SseEmitter that sends ClientConnectionDataUpdate events */
+    @RequestMapping(
+            path = API.MODEL_ID_VAR_PATH_SEGMENT + API.EXAM_MONITORING_STREAM_PATH_SEGMENT,
+            method = RequestMethod.GET,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamConnectionData(
+            @RequestParam(
+                    name = API.PARAM_INSTITUTION_ID,
+                    required = true,
+                    defaultValue = UserService.USERS_INSTITUTION_AS_DEFAULT) final Long institutionId,
+            @PathVariable(name = API.PARAM_MODEL_ID, required = true) final Long examId) {
+
+        // check overall privilege
+        this.authorization.checkRole(
+                institutionId,
+                EntityType.EXAM,
+                UserRole.EXAM_SUPPORTER);
+
+        // check running exam privilege for specified exam
+        if (!hasRunningExamPrivilege(examId, institutionId)) {
+            throw new PermissionDeniedException(
+                    EntityType.EXAM,
+                    PrivilegeType.READ,
+                    this.authorization.getUserService().getCurrentUser().getUserInfo());
+        }
+
+        return this.examMonitoringStreamService.subscribe(examId);
+    }
+
     @RequestMapping(
             path = API.MODEL_ID_VAR_PATH_SEGMENT + API.EXAM_MONITORING_SEB_CONNECTION_TOKEN_PATH_SEGMENT,
             method = RequestMethod.GET,
@@ -269,6 +353,20 @@ public class ExamMonitoringController {
 
     }
 
+    private static Predicate<ClientConnectionData> hiddenStatesFilter(final String hiddenStates) {
+        final EnumSet<ConnectionStatus> filterStates = EnumSet.noneOf(ConnectionStatus.class);
+        if (StringUtils.isNoneBlank(hiddenStates)) {
+            final String[] split = StringUtils.split(hiddenStates, Constants.LIST_SEPARATOR);
+            for (int i = 0; i < split.length; i++) {
+                filterStates.add(ConnectionStatus.valueOf(split[i]));
+            }
+        }
+
+        return filterStates.isEmpty()
+                ? Objects::nonNull
+                : conn -> conn != null && !filterStates.contains(conn.clientConnection.status);
+    }
+
     private boolean hasRunningExamPrivilege(final Long examId, final Long institution) {
         return hasRunningExamPrivilege(
                 this.examSessionService.getRunningExam(examId).getOr(null),
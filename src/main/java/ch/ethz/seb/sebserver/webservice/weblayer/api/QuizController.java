@@ -8,7 +8,10 @@
 
 package ch.ethz.seb.sebserver.webservice.weblayer.api;
 
+import java.util.stream.Collectors;
+
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
@@ -21,12 +24,14 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import ch.ethz.seb.sebserver.gbl.Constants;
 import ch.ethz.seb.sebserver.gbl.api.API;
 import ch.ethz.seb.sebserver.gbl.api.EntityType;
 import ch.ethz.seb.sebserver.gbl.api.authorization.PrivilegeType;
 import ch.ethz.seb.sebserver.gbl.model.Entity;
 import ch.ethz.seb.sebserver.gbl.model.Page;
 import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
 import ch.ethz.seb.sebserver.gbl.profile.WebServiceProfile;
 import ch.ethz.seb.sebserver.webservice.servicelayer.authorization.AuthorizationService;
 import ch.ethz.seb.sebserver.webservice.servicelayer.authorization.UserService;
@@ -81,7 +86,8 @@ public class QuizController {
             @RequestParam(name = Page.ATTR_PAGE_SIZE, required = false) final Integer pageSize,
             @RequestParam(name = Page.ATTR_SORT, required = false) final String sort,
             @RequestParam final MultiValueMap<String, String> allRequestParams,
-            final HttpServletRequest request) {
+            final HttpServletRequest request,
+            final HttpServletResponse response) {
 
         this.authorization.check(
                 PrivilegeType.READ,
@@ -105,7 +111,13 @@ public class QuizController {
                                 : this.maxPageSize
                         : this.defaultPageSize,
                 sort,
-                filterMap)
+                filterMap,
+                unavailableLmsSetups -> response.setHeader(
+                        API.QUIZ_DISCOVERY_UNAVAILABLE_LMS_SETUPS_HEADER,
+                        unavailableLmsSetups
+                                .stream()
+                                .map(LmsSetup::getModelId)
+                                .collect(Collectors.joining(Constants.LIST_SEPARATOR))))
                 .getOrThrow();
     }
 
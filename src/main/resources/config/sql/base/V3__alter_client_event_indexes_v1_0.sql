@@ -0,0 +1,16 @@
+-- -----------------------------------------------------
+-- Table `client_event` composite indexes
+--
+-- The hot queries on client_event filter by client connection, event type and server time:
+-- the log-level count indicators, the last ping lookup and the client event log views.
+-- The connection index is replaced by a composite index that starts with the connection
+-- and therefore still serves the foreign key to client_connection.
+-- -----------------------------------------------------
+ALTER TABLE `client_event`
+  ADD INDEX IF NOT EXISTS `eventConnectionTypeTime_idx` (`client_connection_id` ASC, `type` ASC, `server_time` ASC),
+  ADD INDEX IF NOT EXISTS `eventTypeServerTime_idx` (`type` ASC, `server_time` ASC)
+;
+
+ALTER TABLE `client_event`
+  DROP INDEX IF EXISTS `eventConnectionRef_idx`
+;
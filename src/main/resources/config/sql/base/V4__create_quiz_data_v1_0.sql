@@ -0,0 +1,23 @@
+-- -----------------------------------------------------
+-- Table `quiz_data`
+--
+-- Local index of the courses/quizzes of the LMS setups. The index is synchronized
+-- by a background task and used for quiz discovery and the quiz data of exams
+-- instead of requesting the LMS API on each request.
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `quiz_data` (
+  `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+  `institution_id` BIGINT UNSIGNED NOT NULL,
+  `lms_setup_id` BIGINT UNSIGNED NOT NULL,
+  `lms_type` VARCHAR(45) NOT NULL,
+  `external_id` VARCHAR(255) NOT NULL,
+  `name` VARCHAR(255) NULL,
+  `description` MEDIUMTEXT NULL,
+  `start_time` DATETIME NULL,
+  `end_time` DATETIME NULL,
+  `start_url` VARCHAR(4000) NULL,
+  `additional_attributes` MEDIUMTEXT NULL,
+  `update_time` BIGINT UNSIGNED NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE INDEX `quizLmsSetupExternalId_idx` (`lms_setup_id` ASC, `external_id` ASC))
+;
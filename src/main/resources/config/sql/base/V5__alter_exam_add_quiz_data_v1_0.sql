@@ -0,0 +1,31 @@
+-- -----------------------------------------------------
+-- Table `exam` quiz data
+--
+-- The name, start time and end time of the quiz of an exam are denormalized into the exam table
+-- and synchronized with the LMS quiz data. This allows filtering, sorting and paging of exams on SQL
+-- level without requesting the quiz data of all exams from the LMS.
+-- -----------------------------------------------------
+ALTER TABLE `exam`
+  ADD COLUMN IF NOT EXISTS `quiz_name` VARCHAR(255) NULL,
+  ADD COLUMN IF NOT EXISTS `quiz_start_time` DATETIME NULL,
+  ADD COLUMN IF NOT EXISTS `quiz_end_time` DATETIME NULL,
+  ADD INDEX IF NOT EXISTS `examQuizName_idx` (`quiz_name` ASC),
+  ADD INDEX IF NOT EXISTS `examQuizStartTime_idx` (`quiz_start_time` ASC)
+;
+
+-- -----------------------------------------------------
+-- Backfill the quiz data of existing exams from the local quiz index.
+--
+-- Exams whose quiz is not indexed yet keep empty quiz data until the
+-- next synchronization of the quiz index with the LMS.
+-- -----------------------------------------------------
+UPDATE `exam`
+  INNER JOIN `quiz_data`
+    ON `quiz_data`.`lms_setup_id` = `exam`.`lms_setup_id`
+    AND `quiz_data`.`external_id` = `exam`.`external_id`
+  SET
+    `exam`.`quiz_name` = `quiz_data`.`name`,
+    `exam`.`quiz_start_time` = `quiz_data`.`start_time`,
+    `exam`.`quiz_end_time` = `quiz_data`.`end_time`
+  WHERE `exam`.`quiz_name` IS NULL
+;
@@ -0,0 +1,15 @@
+-- -----------------------------------------------------
+-- Table `quiz_index_sync`
+--
+-- Synchronization state of the local quiz index of the LMS setups. Holds the time of the last
+-- and the last full synchronization of an LMS setup and a lock with an expiry time, so that only
+-- one webservice instance at a time synchronizes an LMS setup.
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `quiz_index_sync` (
+  `lms_setup_id` BIGINT UNSIGNED NOT NULL,
+  `update_time` BIGINT UNSIGNED NULL,
+  `full_update_time` BIGINT UNSIGNED NULL,
+  `lock_owner` VARCHAR(255) NULL,
+  `lock_time` BIGINT UNSIGNED NOT NULL DEFAULT 0,
+  PRIMARY KEY (`lms_setup_id`))
+;
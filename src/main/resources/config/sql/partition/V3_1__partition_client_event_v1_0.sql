@@ -0,0 +1,42 @@
+-- -----------------------------------------------------
+-- Optional range partitioning of table `client_event` by server time
+--
+-- This migration is not applied by default. To apply it, add the location to the Flyway locations:
+--     spring.flyway.locations=classpath:config/sql/base,classpath:config/sql/partition
+-- and if the database has already been migrated to a later version also set:
+--     spring.flyway.outOfOrder=true
+--
+-- Partitioned InnoDB tables do not support foreign keys and every unique key must contain the
+-- partitioning column. Therefore the foreign key to client_connection is dropped (client events are
+-- deleted explicitly before their client connection) and the primary key is extended by server_time.
+--
+-- The table is partitioned with one partition for the events up to the end of the current month (UTC) and
+-- the partition `p_max` for all newer events. While the table is partitioned, the webservice splits one
+-- partition per month off `p_max` ahead of time (ClientEventPartitionTask, configured by
+-- sebserver.webservice.api.clientevent.partition.months-ahead and .update-cron). This is the same as:
+--     ALTER TABLE `client_event` REORGANIZE PARTITION `p_max` INTO (
+--         PARTITION `p_2020_03` VALUES LESS THAN (1585699200000),
+--         PARTITION `p_max` VALUES LESS THAN MAXVALUE);
+--
+-- Events of old exams are then removed by dropping the partitions that only contain events
+-- older than the retention time instead of a DELETE over the whole table:
+--     ALTER TABLE `client_event` DROP PARTITION `p_2020_01`;
+-- -----------------------------------------------------
+ALTER TABLE `client_event`
+  DROP FOREIGN KEY IF EXISTS `eventConnectionRef`
+;
+
+ALTER TABLE `client_event`
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (`id`, `server_time`)
+;
+
+SET @next_month = TIMESTAMPDIFF(SECOND, '1970-01-01', DATE_FORMAT(UTC_DATE() + INTERVAL 1 MONTH, '%Y-%m-01')) * 1000;
+SET @partition_client_event = CONCAT(
+  'ALTER TABLE `client_event` PARTITION BY RANGE (`server_time`) (',
+  'PARTITION `p_', DATE_FORMAT(UTC_DATE(), '%Y_%m'), '` VALUES LESS THAN (', @next_month, '), ',
+  'PARTITION `p_max` VALUES LESS THAN MAXVALUE)');
+
+PREPARE partition_client_event FROM @partition_client_event;
+EXECUTE partition_client_event;
+DEALLOCATE PREPARE partition_client_event;
@@ -10,6 +10,13 @@ package ch.ethz.seb.sebserver.gbl.async;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
@@ -110,6 +117,103 @@ public class MemoizingCircuitBreakerTest {
         assertTrue(result.hasError());
     }
 
+    @Test
+    public void staleWhileRevalidate() throws InterruptedException {
+        final AtomicInteger calls = new AtomicInteger(0);
+        final CountDownLatch refreshStarted = new CountDownLatch(1);
+        final CountDownLatch releaseRefresh = new CountDownLatch(1);
+        final MemoizingCircuitBreaker<String> circuitBreaker = this.asyncService.createMemoizingCircuitBreaker(
+                "test",
+                () -> {
+                    final int call = calls.incrementAndGet();
+                    if (call > 1) {
+                        refreshStarted.countDown();
+                        await(releaseRefresh);
+                    }
+                    return "Hello " + call;
+                },
+                3, 10000, 1000, 200, 10000);
+
+        // first call is synchronous
+        Result<String> result = circuitBreaker.get();
+        assertEquals("Hello 1", result.get());
+
+        // within the refresh time the cached result is responded without calling the supplier
+        result = circuitBreaker.get();
+        assertEquals("Hello 1", result.get());
+        assertEquals(1, calls.get());
+
+        // after the refresh time the cached result is still responded while a single refresh is running
+        Thread.sleep(300);
+        assertEquals("Hello 1", circuitBreaker.get().get());
+        assertTrue(refreshStarted.await(5, TimeUnit.SECONDS));
+        assertEquals("Hello 1", circuitBreaker.get().get());
+        assertEquals("Hello 1", circuitBreaker.get().get());
+        assertTrue(circuitBreaker.isRefreshing());
+        assertEquals(2, calls.get());
+
+        releaseRefresh.countDown();
+        awaitRefreshed(circuitBreaker);
+        assertEquals(2, calls.get());
+        assertEquals("Hello 2", circuitBreaker.get().get());
+    }
+
+    @Test
+    public void concurrentCallsAfterMaxMemoizingTimeShareOneCall() throws Exception {
+        final AtomicInteger calls = new AtomicInteger(0);
+        final CountDownLatch callStarted = new CountDownLatch(1);
+        final CountDownLatch releaseCall = new CountDownLatch(1);
+        final MemoizingCircuitBreaker<String> circuitBreaker = this.asyncService.createMemoizingCircuitBreaker(
+                "test",
+                () -> {
+                    final int call = calls.incrementAndGet();
+                    if (call > 1) {
+                        callStarted.countDown();
+                        await(releaseCall);
+                    }
+                    return "Hello " + call;
+                },
+                3, 10000, 1000, 100, 200);
+
+        assertEquals("Hello 1", circuitBreaker.get().get());
+
+        // after the max memoizing time the supplier is called synchronously once for all concurrent calls
+        Thread.sleep(300);
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final List<Future<Result<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> circuitBreaker.get()));
+            }
+
+            assertTrue(callStarted.await(5, TimeUnit.SECONDS));
+            releaseCall.countDown();
+
+            for (final Future<Result<String>> result : results) {
+                assertEquals("Hello 2", result.get(5, TimeUnit.SECONDS).get());
+            }
+            assertEquals(2, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitRefreshed(final MemoizingCircuitBreaker<?> circuitBreaker) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (circuitBreaker.isRefreshing() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(circuitBreaker.isRefreshing());
+    }
+
     private Supplier<String> tester(final long delay, final int unavailableAfter, final int unavailableUntil) {
         final AtomicInteger count = new AtomicInteger(0);
         final AtomicBoolean wasUnavailable = new AtomicBoolean(false);
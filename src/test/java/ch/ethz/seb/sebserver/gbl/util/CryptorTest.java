@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.gbl.util;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.springframework.security.crypto.encrypt.Encryptors;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+public class CryptorTest {
+
+    private static final int NUMBER_OF_DECRYPTIONS = 200;
+
+    @Test
+    public void testEncryptDecrypt() {
+        final CharSequence cipher1 = Cryptor.encrypt("text", "secret");
+        final CharSequence cipher2 = Cryptor.encrypt("text", "secret");
+
+        // every encryption has its own salt
+        assertNotEquals(cipher1.toString(), cipher2.toString());
+        assertEquals("text", Cryptor.decrypt(cipher1, "secret").toString());
+        assertEquals("text", Cryptor.decrypt(cipher2, "secret").toString());
+        assertEquals("text", Cryptor.decrypt(cipher1.toString(), "secret").toString());
+
+        try {
+            Cryptor.decrypt(cipher1, "other");
+            fail("Decryption with wrong secret expected to fail");
+        } catch (final Exception e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testDecryptCompatibleWithUncachedEncryption() {
+        final String salt = "0123456789abcdef";
+        final String cipher = Encryptors.delux("secret", salt).encrypt("text") + salt;
+
+        assertEquals("text", Cryptor.decrypt(cipher, "secret").toString());
+    }
+
+    @Test
+    public void testDecryptReusesDerivedKey() {
+        final CharSequence cipher = Cryptor.encrypt("text", "secret");
+
+        CacheStats stats = Cryptor.decryptorCacheStats();
+        assertEquals("text", Cryptor.decrypt(cipher, "secret").toString());
+        final CacheStats firstStats = Cryptor.decryptorCacheStats().minus(stats);
+
+        stats = Cryptor.decryptorCacheStats();
+        for (int i = 0; i < NUMBER_OF_DECRYPTIONS; i++) {
+            assertEquals("text", Cryptor.decrypt(cipher, "secret").toString());
+        }
+        final CacheStats repeatedStats = Cryptor.decryptorCacheStats().minus(stats);
+
+        // the key is derived once for the first decryption and taken from the cache afterwards
+        assertEquals(1, firstStats.missCount());
+        assertEquals(0, repeatedStats.missCount());
+        assertEquals(NUMBER_OF_DECRYPTIONS, repeatedStats.hitCount());
+    }
+
+    @Test
+    public void testEncryptDoesNotFillCache() {
+        final CacheStats stats = Cryptor.decryptorCacheStats();
+        for (int i = 0; i < NUMBER_OF_DECRYPTIONS; i++) {
+            Cryptor.encrypt("text", "secret");
+        }
+
+        assertEquals(0, Cryptor.decryptorCacheStats().minus(stats).requestCount());
+    }
+
+}
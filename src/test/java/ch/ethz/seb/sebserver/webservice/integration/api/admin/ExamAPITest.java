@@ -22,8 +22,12 @@ import com.fasterxml.jackson.core.type.TypeReference;
 
 import ch.ethz.seb.sebserver.gbl.api.API;
 import ch.ethz.seb.sebserver.gbl.api.APIMessage;
+import ch.ethz.seb.sebserver.gbl.model.Entity;
+import ch.ethz.seb.sebserver.gbl.model.Page;
+import ch.ethz.seb.sebserver.gbl.model.PageSortOrder;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
 import ch.ethz.seb.sebserver.gbl.model.exam.Exam.ExamType;
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
 
 @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql" })
 public class ExamAPITest extends AdministrationAPIIntegrationTester {
@@ -111,4 +115,52 @@ public class ExamAPITest extends AdministrationAPIIntegrationTester {
         assertEquals("[exam, supporter, grantDenied, user2]", String.valueOf(error1.attributes));
     }
 
+    @Test
+    public void testGetPageSortedAndFilteredByQuizData() throws Exception {
+        final String sebAdminAccess = getSebAdminAccess();
+        ExamImportTest.createImportedExamFromLmsSetupMock(
+                this,
+                sebAdminAccess,
+                sebAdminAccess,
+                "LmsSetupMock",
+                "quiz2",
+                ExamType.MANAGED,
+                "user5");
+        ExamImportTest.createImportedExamFromLmsSetupMock(
+                this,
+                sebAdminAccess,
+                sebAdminAccess,
+                "LmsSetupMock2",
+                "quiz3",
+                ExamType.MANAGED,
+                "user5");
+
+        // sort by the quiz name that is held within the exam table
+        Page<Exam> exams = new RestAPITestHelper()
+                .withAccessToken(sebAdminAccess)
+                .withPath(API.EXAM_ADMINISTRATION_ENDPOINT)
+                .withAttribute(Page.ATTR_SORT, PageSortOrder.DESCENDING.encode(QuizData.QUIZ_ATTR_NAME))
+                .withExpectedStatus(HttpStatus.OK)
+                .getAsObject(new TypeReference<Page<Exam>>() {
+                });
+
+        assertNotNull(exams);
+        assertEquals(2, exams.content.size());
+        assertEquals("quiz3", exams.content.get(0).externalId);
+        assertEquals("quiz2", exams.content.get(1).externalId);
+
+        // filter by the quiz name that is held within the exam table
+        exams = new RestAPITestHelper()
+                .withAccessToken(sebAdminAccess)
+                .withPath(API.EXAM_ADMINISTRATION_ENDPOINT)
+                .withAttribute(Entity.FILTER_ATTR_NAME, "Quiz 2")
+                .withExpectedStatus(HttpStatus.OK)
+                .getAsObject(new TypeReference<Page<Exam>>() {
+                });
+
+        assertNotNull(exams);
+        assertEquals(1, exams.content.size());
+        assertEquals("quiz2", exams.content.get(0).externalId);
+    }
+
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.integration.api.exam;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.security.oauth2.provider.ClientDetails;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import ch.ethz.seb.sebserver.gbl.api.EntityType;
+import ch.ethz.seb.sebserver.gbl.model.EntityKey;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.SebClientConfigDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ClientConfigService;
+
+@Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+public class ClientConfigDetailsCacheTest extends ExamAPIIntegrationTester {
+
+    private static final int NUMBER_OF_REQUESTS = 200;
+
+    @Autowired
+    private ClientConfigService clientConfigService;
+    @Autowired
+    private SebClientConfigDAO sebClientConfigDAO;
+
+    @Test
+    public void testClientDetailsAreCachedAndEvictedOnDeactivation() {
+        final ClientDetails clientDetails = this.clientConfigService
+                .getClientConfigDetails("test")
+                .getOrThrow();
+
+        assertNotNull(clientDetails.getClientSecret());
+        assertSame(clientDetails, this.clientConfigService.getClientConfigDetails("test").getOrThrow());
+
+        this.sebClientConfigDAO.setActive(
+                new HashSet<>(Arrays.asList(new EntityKey(1L, EntityType.SEB_CLIENT_CONFIGURATION))),
+                false)
+                .getOrThrow();
+
+        assertTrue(this.clientConfigService.getClientConfigDetails("test").hasError());
+    }
+
+    @Test
+    public void testClientDetailsAreServedFromCache() {
+        final CaffeineCache cache = (CaffeineCache) super.cacheManager
+                .getCache(ClientConfigService.EXAM_CLIENT_DETAILS_CACHE);
+        cache.clear();
+
+        CacheStats stats = cache.getNativeCache().stats();
+        for (int i = 0; i < NUMBER_OF_REQUESTS; i++) {
+            cache.clear();
+            this.clientConfigService.getClientConfigDetails("test").getOrThrow();
+        }
+        final CacheStats uncachedStats = cache.getNativeCache().stats().minus(stats);
+
+        stats = cache.getNativeCache().stats();
+        for (int i = 0; i < NUMBER_OF_REQUESTS; i++) {
+            this.clientConfigService.getClientConfigDetails("test").getOrThrow();
+        }
+        final CacheStats cachedStats = cache.getNativeCache().stats().minus(stats);
+
+        assertEquals(0, uncachedStats.hitCount());
+        assertEquals(NUMBER_OF_REQUESTS, uncachedStats.missCount());
+        assertEquals(NUMBER_OF_REQUESTS, cachedStats.hitCount());
+        assertEquals(0, cachedStats.missCount());
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.integration.api.exam;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.Test;
+import org.mybatis.dynamic.sql.SqlBuilder;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientConnectionRecordMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordDynamicSqlSupport;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.mapper.ClientEventRecordMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientConnectionRecord;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
+
+@Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+public class ClientEventBatchInsertTest extends ExamAPIIntegrationTester {
+
+    private static final int NUMBER_OF_EVENTS = 2000;
+
+    private static final InsertStatementCounter INSERT_STATEMENT_COUNTER = new InsertStatementCounter();
+
+    @Autowired
+    private ClientConnectionRecordMapper clientConnectionRecordMapper;
+    @Autowired
+    private ClientEventRecordMapper clientEventRecordMapper;
+    @Autowired
+    private ClientEventExtensionMapper clientEventExtensionMapper;
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void testInsertBatch() {
+        final Long connectionId = createConnection("batch-insert-connection");
+        final List<ClientEventRecord> events = createEvents(connectionId, NUMBER_OF_EVENTS);
+
+        final int inserted = this.clientEventExtensionMapper.insertBatch(events);
+        assertEquals(NUMBER_OF_EVENTS, inserted);
+
+        final List<ClientEventRecord> stored = this.clientEventRecordMapper.selectByExample()
+                .where(ClientEventRecordDynamicSqlSupport.clientConnectionId, SqlBuilder.isEqualTo(connectionId))
+                .orderBy(ClientEventRecordDynamicSqlSupport.id)
+                .build()
+                .execute();
+
+        assertEquals(NUMBER_OF_EVENTS, stored.size());
+        final ClientEventRecord last = stored.get(NUMBER_OF_EVENTS - 1);
+        assertEquals(Long.valueOf(NUMBER_OF_EVENTS - 1), last.getClientTime());
+        assertEquals("event " + (NUMBER_OF_EVENTS - 1), last.getText());
+        assertNull(stored.get(1).getNumericValue());
+        assertNotNull(stored.get(0).getNumericValue());
+    }
+
+    @Test
+    public void testInsertBatchEmpty() {
+        assertEquals(0, this.clientEventExtensionMapper.insertBatch(new ArrayList<>()));
+        assertEquals(0, this.clientEventExtensionMapper.insertBatch(null));
+    }
+
+    @Test
+    public void testInsertStatementsCompareToBatchExecutor() {
+        final Long connectionId1 = createConnection("batch-executor-connection");
+        final Long connectionId2 = createConnection("multi-row-insert-connection");
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+
+        // the previous way of storing a batch: one INSERT per event on a BATCH executor within one transaction
+        final SqlSessionTemplate batchSqlSessionTemplate = new SqlSessionTemplate(
+                this.sqlSessionFactory,
+                ExecutorType.BATCH);
+        final ClientEventRecordMapper batchClientEventMapper = batchSqlSessionTemplate.getMapper(
+                ClientEventRecordMapper.class);
+        final List<ClientEventRecord> batchExecutorEvents = createEvents(connectionId1, NUMBER_OF_EVENTS);
+        final List<BatchResult> batchResults = transactionTemplate.execute(status -> {
+            batchExecutorEvents.forEach(batchClientEventMapper::insert);
+            return batchSqlSessionTemplate.flushStatements();
+        });
+
+        // the BATCH executor sends one single row INSERT statement per event
+        assertEquals(NUMBER_OF_EVENTS, batchResults
+                .stream()
+                .mapToInt(result -> result.getUpdateCounts().length)
+                .sum());
+
+        final List<ClientEventRecord> multiRowEvents = createEvents(connectionId2, NUMBER_OF_EVENTS);
+        final int statements = countInsertStatements(() -> transactionTemplate.execute(
+                status -> this.clientEventExtensionMapper.insertBatch(multiRowEvents)));
+
+        // insertBatch sends one multi-row INSERT statement per MAX_ROWS_PER_INSERT events
+        assertEquals(NUMBER_OF_EVENTS / ClientEventExtensionMapper.MAX_ROWS_PER_INSERT, statements);
+
+        assertEquals(Long.valueOf(NUMBER_OF_EVENTS), countEvents(connectionId1));
+        assertEquals(Long.valueOf(NUMBER_OF_EVENTS), countEvents(connectionId2));
+    }
+
+    private int countInsertStatements(final Runnable insert) {
+        final Configuration configuration = this.sqlSessionFactory.getConfiguration();
+        synchronized (INSERT_STATEMENT_COUNTER) {
+            if (!configuration.getInterceptors().contains(INSERT_STATEMENT_COUNTER)) {
+                configuration.addInterceptor(INSERT_STATEMENT_COUNTER);
+            }
+        }
+
+        final int before = INSERT_STATEMENT_COUNTER.statements.get();
+        insert.run();
+        return INSERT_STATEMENT_COUNTER.statements.get() - before;
+    }
+
+    private Long createConnection(final String connectionToken) {
+        final ClientConnectionRecord connection = new ClientConnectionRecord(
+                null, 1L, 2L, "ESTABLISHED", connectionToken, null, "", null, 1L);
+        this.clientConnectionRecordMapper.insert(connection);
+        return connection.getId();
+    }
+
+    private Long countEvents(final Long connectionId) {
+        return this.clientEventRecordMapper.countByExample()
+                .where(ClientEventRecordDynamicSqlSupport.clientConnectionId, SqlBuilder.isEqualTo(connectionId))
+                .build()
+                .execute();
+    }
+
+    private static List<ClientEventRecord> createEvents(final Long connectionId, final int number) {
+        final List<ClientEventRecord> events = new ArrayList<>(number);
+        for (int i = 0; i < number; i++) {
+            events.add(new ClientEventRecord(
+                    null,
+                    connectionId,
+                    EventType.INFO_LOG.id,
+                    (long) i,
+                    (long) i,
+                    (i % 2 == 0) ? new BigDecimal(i) : null,
+                    "event " + i));
+        }
+        return events;
+    }
+
+    /** Counts the multi-row INSERT statements that are sent to the database by ClientEventExtensionMapper */
+    @Intercepts({ @Signature(
+            type = Executor.class,
+            method = "update",
+            args = { MappedStatement.class, Object.class }) })
+    private static final class InsertStatementCounter implements Interceptor {
+
+        private final AtomicInteger statements = new AtomicInteger();
+
+        @Override
+        public Object intercept(final Invocation invocation) throws Throwable {
+            final MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+            if (mappedStatement.getId().startsWith(ClientEventExtensionMapper.class.getName())) {
+                this.statements.incrementAndGet();
+            }
+            return invocation.proceed();
+        }
+
+        @Override
+        public Object plugin(final Object target) {
+            return Plugin.wrap(target, this);
+        }
+
+        @Override
+        public void setProperties(final Properties properties) {
+        }
+    }
+
+}
@@ -31,6 +31,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -290,12 +291,25 @@ public abstract class ExamAPIIntegrationTester {
             final String connectionToken,
             final Long examId) throws Exception {
 
+        return getExamConfig(accessToken, connectionToken, examId, null);
+    }
+
+    protected MockHttpServletResponse getExamConfig(
+            final String accessToken,
+            final String connectionToken,
+            final Long examId,
+            final HttpHeaders headers) throws Exception {
+
         final MockHttpServletRequestBuilder builder = get(this.endpoint + API.EXAM_API_CONFIGURATION_REQUEST_ENDPOINT)
                 .header("Content-Type", MediaType.APPLICATION_FORM_URLENCODED_VALUE)
                 .header("Authorization", "Bearer " + accessToken)
                 .header(API.EXAM_API_SEB_CONNECTION_TOKEN, connectionToken)
                 .accept(MediaType.APPLICATION_OCTET_STREAM_VALUE);
 
+        if (headers != null) {
+            builder.headers(headers);
+        }
+
         if (examId != null) {
             builder.content("examId=" + examId);
         }
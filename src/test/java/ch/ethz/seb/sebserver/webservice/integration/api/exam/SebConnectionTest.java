@@ -11,6 +11,7 @@ package ch.ethz.seb.sebserver.webservice.integration.api.exam;
 import static org.junit.Assert.*;
 
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 
 import org.junit.Test;
@@ -38,6 +39,7 @@ import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientConnectionRe
 import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.AbstractPingIndicator;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ClientConnectionDataInternal;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ClientEventCounts;
 import ch.ethz.seb.sebserver.webservice.servicelayer.session.impl.ExamSessionCacheService;
 
 @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
@@ -49,6 +51,8 @@ public class SebConnectionTest extends ExamAPIIntegrationTester {
     private ClientEventRecordMapper clientEventRecordMapper;
     @Autowired
     private JSONMapper jsonMapper;
+    @Autowired
+    private ExamSessionCacheService examSessionCacheService;
 
     @Test
     @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
@@ -628,4 +632,53 @@ public class SebConnectionTest extends ExamAPIIntegrationTester {
                 .execute();
         assertTrue(events.isEmpty());
     }
+
+    @Test
+    @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+    public void testClientEventCounts() {
+        final ClientConnectionRecord connection1 = new ClientConnectionRecord(
+                null, 1L, 2L, "ESTABLISHED", "token1", null, "", null, 1L);
+        final ClientConnectionRecord connection2 = new ClientConnectionRecord(
+                null, 1L, 2L, "ESTABLISHED", "token2", null, "", null, 1L);
+        this.clientConnectionRecordMapper.insert(connection1);
+        this.clientConnectionRecordMapper.insert(connection2);
+
+        this.clientEventRecordMapper.insert(new ClientEventRecord(
+                null, connection1.getId(), EventType.ERROR_LOG.id, 1L, 1L, null, "error"));
+        this.clientEventRecordMapper.insert(new ClientEventRecord(
+                null, connection1.getId(), EventType.ERROR_LOG.id, 2L, 2L, null, "error"));
+        this.clientEventRecordMapper.insert(new ClientEventRecord(
+                null, connection1.getId(), EventType.WARN_LOG.id, 3L, 3L, null, "warn"));
+        this.clientEventRecordMapper.insert(new ClientEventRecord(
+                null, connection1.getId(), EventType.INFO_LOG.id, 4L, 4L, null, "info"));
+        this.clientEventRecordMapper.insert(new ClientEventRecord(
+                null, connection2.getId(), EventType.WARN_LOG.id, 5L, 5L, null, "warn"));
+
+        final ClientEventCounts counts = this.examSessionCacheService.getClientEventCounts(2L);
+        assertEquals(2, counts.count(connection1.getId(), EnumSet.of(EventType.ERROR_LOG)));
+        assertEquals(1, counts.count(connection1.getId(), EnumSet.of(EventType.WARN_LOG)));
+        assertEquals(3, counts.count(connection1.getId(), EnumSet.of(EventType.ERROR_LOG, EventType.WARN_LOG)));
+        assertEquals(0, counts.count(connection2.getId(), EnumSet.of(EventType.ERROR_LOG)));
+        assertEquals(1, counts.count(connection2.getId(), EnumSet.of(EventType.WARN_LOG)));
+
+        // stored log-level events are counted in memory, other types are stored but not counted
+        assertTrue(counts.store(connection2.getId(), EventType.ERROR_LOG, () -> this.clientEventRecordMapper.insert(
+                new ClientEventRecord(null, connection2.getId(), EventType.ERROR_LOG.id, 6L, 6L, null, "error"))));
+        assertTrue(counts.store(connection2.getId(), EventType.INFO_LOG, () -> this.clientEventRecordMapper.insert(
+                new ClientEventRecord(null, connection2.getId(), EventType.INFO_LOG.id, 7L, 7L, null, "info"))));
+        assertEquals(1, counts.count(connection2.getId(), EnumSet.of(EventType.ERROR_LOG)));
+        assertEquals(0, counts.count(connection2.getId(), EnumSet.of(EventType.INFO_LOG)));
+
+        // the counts are kept per exam
+        assertSame(counts, this.examSessionCacheService.getClientEventCounts(2L));
+
+        // evicted counts are retired and the new counts of the exam are seeded with the stored events
+        this.examSessionCacheService.evictClientEventCounts(2L);
+        assertFalse(counts.store(connection2.getId(), EventType.ERROR_LOG, () -> fail()));
+        final ClientEventCounts seeded = this.examSessionCacheService.getClientEventCounts(2L);
+        assertNotSame(counts, seeded);
+        assertEquals(1, seeded.count(connection2.getId(), EnumSet.of(EventType.ERROR_LOG)));
+        assertEquals(2, seeded.count(connection1.getId(), EnumSet.of(EventType.ERROR_LOG)));
+    }
+
 }
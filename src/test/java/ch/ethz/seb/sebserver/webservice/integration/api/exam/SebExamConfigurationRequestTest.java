@@ -10,9 +10,12 @@ package ch.ethz.seb.sebserver.webservice.integration.api.exam;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 import org.springframework.cache.Cache;
 import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.jdbc.Sql;
@@ -68,6 +71,89 @@ public class SebExamConfigurationRequestTest extends ExamAPIIntegrationTester {
         assertNotNull(config);
     }
 
+    @Test
+    @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
+    public void testGetExamConfigNotModifiedAndRange() throws Exception {
+        final String accessToken = super.obtainAccessToken("test", "test", "SEBClient");
+        final MockHttpServletResponse createConnection = super.createConnection(accessToken, 1L, EXAM_ID);
+        final String connectionToken = createConnection.getHeader(API.EXAM_API_SEB_CONNECTION_TOKEN);
+        assertNotNull(connectionToken);
+
+        final MockHttpServletResponse configResponse = super.getExamConfig(
+                accessToken,
+                connectionToken,
+                null);
+
+        assertEquals(HttpStatus.OK.value(), configResponse.getStatus());
+        final byte[] content = configResponse.getContentAsByteArray();
+        final String eTag = configResponse.getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        assertEquals("bytes", configResponse.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(content.length, configResponse.getContentLength());
+
+        // a SEB client that already has the configuration
+        final HttpHeaders ifNoneMatch = new HttpHeaders();
+        ifNoneMatch.set(HttpHeaders.IF_NONE_MATCH, eTag);
+        final MockHttpServletResponse notModifiedResponse = super.getExamConfig(
+                accessToken,
+                connectionToken,
+                null,
+                ifNoneMatch);
+
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), notModifiedResponse.getStatus());
+        assertEquals(0, notModifiedResponse.getContentAsByteArray().length);
+
+        // a SEB client that resumes an interrupted download
+        final HttpHeaders range = new HttpHeaders();
+        range.set(HttpHeaders.RANGE, "bytes=10-");
+        range.set(HttpHeaders.IF_RANGE, eTag);
+        final MockHttpServletResponse rangeResponse = super.getExamConfig(
+                accessToken,
+                connectionToken,
+                null,
+                range);
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT.value(), rangeResponse.getStatus());
+        assertEquals(
+                "bytes 10-" + (content.length - 1) + "/" + content.length,
+                rangeResponse.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(
+                Arrays.copyOfRange(content, 10, content.length),
+                rangeResponse.getContentAsByteArray());
+
+        // a range without If-Range or with the entity tag of other bytes is answered with the full content
+        final HttpHeaders rangeOnly = new HttpHeaders();
+        rangeOnly.set(HttpHeaders.RANGE, "bytes=10-");
+        final MockHttpServletResponse rangeOnlyResponse = super.getExamConfig(
+                accessToken,
+                connectionToken,
+                null,
+                rangeOnly);
+
+        assertEquals(HttpStatus.OK.value(), rangeOnlyResponse.getStatus());
+        assertArrayEquals(content, rangeOnlyResponse.getContentAsByteArray());
+
+        rangeOnly.set(HttpHeaders.IF_RANGE, "\"other\"");
+        final MockHttpServletResponse otherRangeResponse = super.getExamConfig(
+                accessToken,
+                connectionToken,
+                null,
+                rangeOnly);
+
+        assertEquals(HttpStatus.OK.value(), otherRangeResponse.getStatus());
+        assertArrayEquals(content, otherRangeResponse.getContentAsByteArray());
+
+        // an unsatisfiable range
+        range.set(HttpHeaders.RANGE, "bytes=" + content.length + "-");
+        final MockHttpServletResponse unsatisfiableResponse = super.getExamConfig(
+                accessToken,
+                connectionToken,
+                null,
+                range);
+
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value(), unsatisfiableResponse.getStatus());
+    }
+
     @Test
     @Sql(scripts = { "classpath:schema-test.sql", "classpath:data-test.sql", "classpath:data-test-additional.sql" })
     public void testGetExamConfigOnNoneEstablishedConnectionButExamIdExists() throws Exception {
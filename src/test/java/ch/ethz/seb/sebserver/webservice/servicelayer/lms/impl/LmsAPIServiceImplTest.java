@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.ethz.seb.sebserver.gbl.api.API;
+import ch.ethz.seb.sebserver.gbl.model.Page;
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup.LmsType;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.WebserviceInfo;
+import ch.ethz.seb.sebserver.webservice.servicelayer.client.ClientCredentialService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.client.ClientCredentials;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.FilterMap;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.LmsSetupDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.QuizIndex;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.edx.OpenEdxLmsAPITemplateFactory;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.moodle.MoodleLmsAPITemplate;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.moodle.MoodleLmsAPITemplateFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LmsAPIServiceImplTest {
+
+    private static final long QUIZ_FETCH_TIMEOUT = 500;
+
+    private final LmsSetup available = lmsSetup(1L, "available");
+    private final LmsSetup slow = lmsSetup(2L, "slow");
+    private final LmsSetup failing = lmsSetup(3L, "failing");
+
+    private final CountDownLatch allRequested = new CountDownLatch(3);
+    private final CountDownLatch slowInterrupted = new CountDownLatch(1);
+
+    private ExecutorService lmsFetchExecutor;
+    private SimpleMeterRegistry meterRegistry;
+    private LmsAPIServiceImpl lmsAPIService;
+
+    @Before
+    public void init() {
+        final LmsSetupDAO lmsSetupDAO = mock(LmsSetupDAO.class);
+        when(lmsSetupDAO.all(1L, true))
+                .thenReturn(Result.of(Arrays.asList(this.available, this.slow, this.failing)));
+        when(lmsSetupDAO.getLmsAPIAccessCredentials(any()))
+                .thenReturn(Result.of(new ClientCredentials("client", "secret")));
+        when(lmsSetupDAO.getLmsAPIAccessProxyData(any()))
+                .thenReturn(Result.ofEmpty());
+
+        final MoodleLmsAPITemplateFactory moodleLmsAPITemplateFactory = mock(MoodleLmsAPITemplateFactory.class);
+        when(moodleLmsAPITemplateFactory.create(eq(this.available), any(), any()))
+                .thenReturn(Result.of(template(this.available, () -> {
+                    awaitAllRequested();
+                    return Result.of(Arrays.asList(quiz("quiz1", this.available)));
+                })));
+        when(moodleLmsAPITemplateFactory.create(eq(this.slow), any(), any()))
+                .thenReturn(Result.of(template(this.slow, () -> {
+                    awaitAllRequested();
+                    try {
+                        Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                    } catch (final InterruptedException e) {
+                        this.slowInterrupted.countDown();
+                        Thread.currentThread().interrupt();
+                        return Result.ofError(e);
+                    }
+                    return Result.of(Arrays.asList(quiz("quiz2", this.slow)));
+                })));
+        when(moodleLmsAPITemplateFactory.create(eq(this.failing), any(), any()))
+                .thenReturn(Result.of(template(this.failing, () -> {
+                    awaitAllRequested();
+                    return Result.ofRuntimeError("LMS not available");
+                })));
+
+        this.lmsFetchExecutor = Executors.newFixedThreadPool(3);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.lmsAPIService = new LmsAPIServiceImpl(
+                mock(OpenEdxLmsAPITemplateFactory.class),
+                moodleLmsAPITemplateFactory,
+                lmsSetupDAO,
+                mock(ClientCredentialService.class),
+                mock(WebserviceInfo.class),
+                mock(QuizIndex.class),
+                this.meterRegistry,
+                this.lmsFetchExecutor,
+                QUIZ_FETCH_TIMEOUT);
+    }
+
+    @After
+    public void shutdown() {
+        this.lmsFetchExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testSlowAndFailingLmsSetupsAreReportedAsUnavailable() throws Exception {
+        final List<LmsSetup> unavailable = new ArrayList<>();
+        final FilterMap filterMap = new FilterMap().putIfAbsent(API.PARAM_INSTITUTION_ID, "1");
+
+        final long start = System.nanoTime();
+        final Page<QuizData> page = this.lmsAPIService
+                .requestQuizDataPage(1, 10, QuizData.QUIZ_ATTR_NAME, filterMap, unavailable::addAll)
+                .getOrThrow();
+        final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // all LMS setups have been requested concurrently
+        assertEquals(0, this.allRequested.getCount());
+        // the slow LMS setup is cut off at the deadline and its request is interrupted
+        assertTrue("duration: " + duration, duration >= QUIZ_FETCH_TIMEOUT);
+        assertTrue("duration: " + duration, duration < QUIZ_FETCH_TIMEOUT + 4000);
+        assertTrue(this.slowInterrupted.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1, page.content.size());
+        assertEquals("quiz1", page.content.get(0).id);
+        assertEquals(2, unavailable.size());
+        assertTrue(unavailable.containsAll(Arrays.asList(this.slow, this.failing)));
+
+        assertEquals(1, fetchCount(this.available));
+        assertEquals(1, fetchCount(this.failing));
+        assertEquals(0.0, errorCount(this.available, "error") + errorCount(this.available, "timeout"), 0.0);
+        assertEquals(1.0, errorCount(this.failing, "error"), 0.0);
+        assertEquals(0.0, errorCount(this.failing, "timeout"), 0.0);
+        assertEquals(1.0, errorCount(this.slow, "timeout"), 0.0);
+        assertEquals(0.0, errorCount(this.slow, "error"), 0.0);
+    }
+
+    private void awaitAllRequested() {
+        this.allRequested.countDown();
+        try {
+            this.allRequested.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long fetchCount(final LmsSetup lmsSetup) {
+        return this.meterRegistry
+                .get(LmsAPIServiceImpl.METRIC_QUIZ_FETCH_LATENCY)
+                .tag("lmsSetup", lmsSetup.getModelId())
+                .timer()
+                .count();
+    }
+
+    private double errorCount(final LmsSetup lmsSetup, final String cause) {
+        return this.meterRegistry
+                .find(LmsAPIServiceImpl.METRIC_QUIZ_FETCH_ERRORS)
+                .tag("lmsSetup", lmsSetup.getModelId())
+                .tag("cause", cause)
+                .counters()
+                .stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private static MoodleLmsAPITemplate template(
+            final LmsSetup lmsSetup,
+            final Supplier<Result<List<QuizData>>> quizzes) {
+
+        final MoodleLmsAPITemplate template = mock(MoodleLmsAPITemplate.class);
+        when(template.lmsSetup()).thenReturn(lmsSetup);
+        when(template.getQuizzes(any(FilterMap.class))).thenAnswer(invocation -> quizzes.get());
+        return template;
+    }
+
+    private static LmsSetup lmsSetup(final Long id, final String name) {
+        return new LmsSetup(id, 1L, name, LmsType.MOODLE, null, null, null, null, null, null, null, null, true);
+    }
+
+    private static QuizData quiz(final String id, final LmsSetup lmsSetup) {
+        return new QuizData(id, 1L, lmsSetup.id, LmsType.MOODLE, id, null, null, null, null);
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup.LmsType;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.QuizDataDAO;
+
+public class QuizIndexImplTest {
+
+    @Test
+    public void testLoadFromPersistentIndex() {
+        final QuizDataDAO quizDataDAO = Mockito.mock(QuizDataDAO.class);
+        Mockito.when(quizDataDAO.getSynchronizationTime(1L, true)).thenReturn(Result.of(1000L));
+        Mockito.when(quizDataDAO.getSynchronizationTime(2L, true)).thenReturn(Result.ofEmpty());
+        Mockito.when(quizDataDAO.allOf(1L))
+                .thenReturn(Result.<Collection<QuizData>> of(Arrays.asList(quiz("quiz1", 1L), quiz("quiz2", 1L))));
+
+        final QuizIndexImpl quizIndex = new QuizIndexImpl(quizDataDAO);
+
+        assertTrue(quizIndex.isIndexed(1L));
+        assertEquals("quiz1", quizIndex.getQuiz(1L, "quiz1").get().name);
+        assertTrue(quizIndex.getQuiz(1L, "quiz3").hasError());
+        assertEquals(2, quizIndex.getQuizzes(1L).get().size());
+        // loaded only once
+        Mockito.verify(quizDataDAO, Mockito.times(1)).allOf(1L);
+
+        assertFalse(quizIndex.isIndexed(2L));
+        assertTrue(quizIndex.getQuizzes(2L).hasError());
+        Mockito.verify(quizDataDAO, Mockito.never()).allOf(2L);
+
+        // loaded again after invalidation
+        quizIndex.invalidate(1L);
+        assertTrue(quizIndex.isIndexed(1L));
+        Mockito.verify(quizDataDAO, Mockito.times(2)).allOf(1L);
+    }
+
+    @Test
+    public void testIndexedWithoutQuizzes() {
+        final QuizDataDAO quizDataDAO = Mockito.mock(QuizDataDAO.class);
+        Mockito.when(quizDataDAO.getSynchronizationTime(1L, true)).thenReturn(Result.of(1000L));
+        Mockito.when(quizDataDAO.allOf(1L))
+                .thenReturn(Result.<Collection<QuizData>> of(Collections.emptyList()));
+
+        final QuizIndexImpl quizIndex = new QuizIndexImpl(quizDataDAO);
+
+        // an LMS without quizzes that has been fully synchronized is indexed
+        assertTrue(quizIndex.isIndexed(1L));
+        assertTrue(quizIndex.getQuizzes(1L).get().isEmpty());
+        assertTrue(quizIndex.getQuiz(1L, "quiz1").hasError());
+        Mockito.verify(quizDataDAO, Mockito.times(1)).allOf(1L);
+    }
+
+    @Test
+    public void testFullAndIncrementalUpdate() {
+        final QuizDataDAO quizDataDAO = Mockito.mock(QuizDataDAO.class);
+        Mockito.when(quizDataDAO.getSynchronizationTime(1L, true)).thenReturn(Result.ofEmpty());
+        Mockito.when(quizDataDAO.saveAll(eq(1L), any(), anyBoolean(), anyLong()))
+                .thenAnswer(invocation -> Result.of(((Collection<?>) invocation.getArgument(1)).size()));
+
+        final QuizIndexImpl quizIndex = new QuizIndexImpl(quizDataDAO);
+
+        // an incremental update needs a full update first
+        assertTrue(quizIndex.update(1L, Arrays.asList(quiz("quiz1", 1L)), false, 1000L).hasError());
+        assertFalse(quizIndex.isIndexed(1L));
+
+        assertEquals(
+                Integer.valueOf(2),
+                quizIndex.update(1L, Arrays.asList(quiz("quiz1", 1L), quiz("quiz2", 1L)), true, 1000L).get());
+        assertTrue(quizIndex.isIndexed(1L));
+
+        final QuizData modified = new QuizData(
+                "quiz2", 1L, 1L, LmsType.MOODLE, "modified", null, null, null, null);
+        quizIndex.update(1L, Arrays.asList(modified, quiz("quiz3", 1L)), false, 2000L).getOrThrow();
+        assertEquals(3, quizIndex.getQuizzes(1L).get().size());
+        assertEquals("modified", quizIndex.getQuiz(1L, "quiz2").get().name);
+
+        quizIndex.update(1L, Arrays.asList(quiz("quiz3", 1L)), true, 3000L).getOrThrow();
+        assertEquals(1, quizIndex.getQuizzes(1L).get().size());
+        assertTrue(quizIndex.getQuiz(1L, "quiz1").hasError());
+
+        Mockito.verify(quizDataDAO, Mockito.times(1)).saveAll(eq(1L), any(), eq(true), eq(1000L));
+        Mockito.verify(quizDataDAO, Mockito.times(1)).saveAll(eq(1L), any(), eq(false), eq(2000L));
+        Mockito.verify(quizDataDAO, Mockito.times(1)).saveAll(eq(1L), any(), eq(true), eq(3000L));
+    }
+
+    @Test
+    public void testRemove() {
+        final QuizDataDAO quizDataDAO = Mockito.mock(QuizDataDAO.class);
+        Mockito.when(quizDataDAO.getSynchronizationTime(1L, true))
+                .thenReturn(Result.of(1000L))
+                .thenReturn(Result.ofEmpty());
+        Mockito.when(quizDataDAO.allOf(1L))
+                .thenReturn(Result.<Collection<QuizData>> of(Arrays.asList(quiz("quiz1", 1L))));
+        Mockito.when(quizDataDAO.deleteAll(1L)).thenReturn(Result.of(1));
+
+        final QuizIndexImpl quizIndex = new QuizIndexImpl(quizDataDAO);
+        assertTrue(quizIndex.isIndexed(1L));
+
+        quizIndex.remove(1L);
+        assertFalse(quizIndex.isIndexed(1L));
+        Mockito.verify(quizDataDAO, Mockito.times(1)).deleteAll(1L);
+    }
+
+    private static QuizData quiz(final String id, final Long lmsSetupId) {
+        return new QuizData(id, 1L, lmsSetupId, LmsType.MOODLE, id, null, null, null, null);
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup.LmsType;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.LmsSetupDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.QuizDataDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPIService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.LmsAPITemplate;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.QuizIndex;
+
+public class QuizIndexSyncTaskTest {
+
+    private static final long UPDATE_INTERVAL = 300000;
+
+    private final LmsSetup lmsSetup = new LmsSetup(
+            1L, 1L, "moodle", LmsType.MOODLE, null, null, null, null, null, null, null, null, true);
+    private final List<QuizData> quizzes = Arrays.asList(
+            new QuizData("quiz1", 1L, 1L, LmsType.MOODLE, "quiz1", null, null, null, null));
+
+    private final LmsAPITemplate template = mock(LmsAPITemplate.class);
+    private final QuizIndex quizIndex = mock(QuizIndex.class);
+    private final QuizDataDAO quizDataDAO = mock(QuizDataDAO.class);
+    private QuizIndexSyncTask quizIndexSyncTask;
+
+    @Before
+    public void init() {
+        final LmsSetupDAO lmsSetupDAO = mock(LmsSetupDAO.class);
+        when(lmsSetupDAO.all(null, true)).thenReturn(Result.of(Arrays.asList(this.lmsSetup)));
+        final LmsAPIService lmsAPIService = mock(LmsAPIService.class);
+        when(lmsAPIService.getLmsAPITemplate(1L)).thenReturn(Result.of(this.template));
+        when(this.template.supportsModificationTime()).thenReturn(true);
+        when(this.template.fetchQuizzes(any())).thenReturn(Result.of(this.quizzes));
+        final ExamDAO examDAO = mock(ExamDAO.class);
+        when(examDAO.updateQuizData(eq(1L), any())).thenReturn(Result.of(0));
+        when(this.quizIndex.update(eq(1L), any(), anyBoolean(), anyLong())).thenReturn(Result.of(1));
+        when(this.quizDataDAO.releaseSynchronization(eq(1L), anyString())).thenReturn(Result.of(true));
+
+        this.quizIndexSyncTask = new QuizIndexSyncTask(
+                lmsSetupDAO,
+                examDAO,
+                lmsAPIService,
+                this.quizIndex,
+                this.quizDataDAO,
+                Runnable::run,
+                UPDATE_INTERVAL,
+                UPDATE_INTERVAL * 10,
+                UPDATE_INTERVAL * 2);
+        this.quizIndexSyncTask.init();
+    }
+
+    @Test
+    public void testFirstSynchronizationIsFullUpdate() {
+        when(this.quizDataDAO.getSynchronizationTime(eq(1L), anyBoolean())).thenReturn(Result.ofEmpty());
+        when(this.quizDataDAO.lockSynchronization(eq(1L), anyString(), anyLong())).thenReturn(Result.of(true));
+
+        this.quizIndexSyncTask.quizIndexUpdateTask();
+
+        verify(this.template).fetchQuizzes(null);
+        verify(this.quizIndex).update(eq(1L), eq(this.quizzes), eq(true), anyLong());
+        verify(this.quizDataDAO).releaseSynchronization(eq(1L), anyString());
+    }
+
+    @Test
+    public void testSkipIfLockedByAnotherInstance() {
+        when(this.quizDataDAO.getSynchronizationTime(eq(1L), anyBoolean())).thenReturn(Result.ofEmpty());
+        when(this.quizDataDAO.lockSynchronization(eq(1L), anyString(), anyLong())).thenReturn(Result.of(false));
+
+        this.quizIndexSyncTask.quizIndexUpdateTask();
+
+        verify(this.template, never()).fetchQuizzes(any());
+        verify(this.quizIndex, never()).update(any(), any(), anyBoolean(), anyLong());
+        verify(this.quizDataDAO, never()).releaseSynchronization(any(), any());
+    }
+
+    @Test
+    public void testReloadAndSkipIfRecentlySynchronizedByAnotherInstance() {
+        when(this.quizDataDAO.getSynchronizationTime(1L, false))
+                .thenReturn(Result.of(System.currentTimeMillis()));
+
+        this.quizIndexSyncTask.quizIndexUpdateTask();
+
+        verify(this.quizIndex).invalidate(1L);
+        verify(this.quizDataDAO, never()).lockSynchronization(any(), any(), anyLong());
+        verify(this.template, never()).fetchQuizzes(any());
+    }
+
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.moodle;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import ch.ethz.seb.sebserver.gbl.api.JSONMapper;
+import ch.ethz.seb.sebserver.gbl.async.AsyncService;
+import ch.ethz.seb.sebserver.gbl.model.exam.QuizData;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup;
+import ch.ethz.seb.sebserver.gbl.model.institution.LmsSetup.LmsType;
+import ch.ethz.seb.sebserver.webservice.servicelayer.lms.impl.moodle.MoodleCourseAccess.CourseData;
+
+public class MoodleCourseAccessTest {
+
+    private static final String COURSES_RESPONSE = "["
+            + "{\"id\":\"1\",\"shortname\":\"c1\",\"fullname\":\"Course 1\",\"displayname\":\"Course 1\","
+            + "\"summary\":\"\",\"startdate\":1577836800,\"enddate\":1609459200,\"timecreated\":1577836800,"
+            + "\"timemodified\":1577836800,\"format\":\"topics\",\"courseformatoptions\":[{\"name\":\"numsections\","
+            + "\"value\":4}]},"
+            + "{\"id\":\"2\",\"shortname\":\"c2\",\"fullname\":\"Course 2\",\"displayname\":\"Course 2\","
+            + "\"summary\":\"\",\"startdate\":1577836800,\"enddate\":0,\"timecreated\":1577836800,"
+            + "\"timemodified\":1590969600}"
+            + "]";
+
+    private static final String QUIZZES_RESPONSE = "{"
+            + "\"quizzes\":["
+            + "{\"id\":\"10\",\"course\":\"1\",\"coursemodule\":\"100\",\"name\":\"Quiz 10\",\"intro\":\"<p>quiz</p>\","
+            + "\"timelimit\":3600,\"introfiles\":[],\"grade\":10,\"navmethod\":\"free\",\"timemodified\":1577836800},"
+            + "{\"id\":\"20\",\"course\":\"2\",\"coursemodule\":\"200\",\"name\":\"Quiz 20\",\"intro\":\"\","
+            + "\"timelimit\":0,\"timemodified\":1600000000},"
+            + "{\"id\":\"30\",\"course\":\"3\",\"coursemodule\":\"300\",\"name\":\"Quiz 30\",\"intro\":\"\","
+            + "\"timelimit\":0}"
+            + "],"
+            + "\"warnings\":[{\"item\":\"course\",\"itemid\":4,\"warningcode\":\"1\",\"message\":\"No access\"}]"
+            + "}";
+
+    private static final String EXCEPTION_RESPONSE = "{"
+            + "\"exception\":\"moodle_exception\","
+            + "\"errorcode\":\"invalidtoken\","
+            + "\"message\":\"Invalid token - token not found\""
+            + "}";
+
+    private final LmsSetup lmsSetup = new LmsSetup(
+            1L, 1L, "moodle", LmsType.MOODLE, null, null, "https://moodle.test", null, null, null, null, null, true);
+
+    private ExecutorService executor;
+
+    @After
+    public void shutdown() {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReadCourses() throws Exception {
+        final MoodleCourseAccess courseAccess = courseAccess(10, 1);
+
+        final Map<String, CourseData> courses = courseAccess.readCourses(stream(COURSES_RESPONSE), course -> true);
+
+        assertEquals(2, courses.size());
+        assertEquals("Course 1", courses.get("1").full_name);
+        assertEquals(Long.valueOf(1590969600), courses.get("2").time_modified);
+    }
+
+    @Test
+    public void testReadCoursesWithFilter() throws Exception {
+        final MoodleCourseAccess courseAccess = courseAccess(10, 1);
+
+        final Map<String, CourseData> courses = courseAccess.readCourses(
+                stream(COURSES_RESPONSE),
+                course -> course.time_modified >= 1590969600);
+
+        assertEquals(Collections.singleton("2"), courses.keySet());
+    }
+
+    @Test
+    public void testReadCoursesExceptionResponse() throws Exception {
+        final MoodleCourseAccess courseAccess = courseAccess(10, 1);
+
+        try {
+            courseAccess.readCourses(stream(EXCEPTION_RESPONSE), course -> true);
+            fail("RuntimeException expected");
+        } catch (final RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("invalidtoken"));
+        }
+    }
+
+    @Test
+    public void testReadQuizzes() throws Exception {
+        final MoodleCourseAccess courseAccess = courseAccess(10, 1);
+        final Map<String, CourseData> courses = courseAccess.readCourses(stream(COURSES_RESPONSE), course -> true);
+
+        final List<QuizData> quizzes = courseAccess.readQuizzes(
+                stream(QUIZZES_RESPONSE),
+                courses,
+                "https://moodle.test/mod/quiz/view.php?id=");
+
+        // the quiz of the unknown course 3 is skipped
+        assertEquals(2, quizzes.size());
+        final QuizData quiz = quizzes.get(0);
+        assertEquals("10", quiz.id);
+        assertEquals(Long.valueOf(1), quiz.lmsSetupId);
+        assertEquals("Quiz 10", quiz.name);
+        assertEquals("<p>quiz</p>", quiz.description);
+        assertEquals("https://moodle.test/mod/quiz/view.php?id=1", quiz.startURL);
+        assertEquals("3600", quiz.additionalAttributes.get(QuizData.ATTR_ADDITIONAL_TIME_LIMIT));
+        assertEquals("c1", quiz.additionalAttributes.get(QuizData.ATTR_ADDITIONAL_SHORT_NAME));
+        assertEquals("20", quizzes.get(1).id);
+    }
+
+    @Test
+    public void testReadQuizzesModifiedSince() throws Exception {
+        final MoodleCourseAccess courseAccess = courseAccess(10, 1);
+        final Map<String, CourseData> courses = courseAccess.readCourses(stream(COURSES_RESPONSE), course -> true);
+
+        // quiz 20 belongs to the modified course 2, quiz 10 and its course 1 are not modified
+        assertEquals(
+                Arrays.asList("20"),
+                courseAccess.readQuizzes(
+                        stream(QUIZZES_RESPONSE),
+                        courses,
+                        "",
+                        (course, quiz) -> MoodleCourseAccess.modifiedSince(course, quiz, 1590969600))
+                        .stream()
+                        .map(quiz -> quiz.id)
+                        .collect(Collectors.toList()));
+
+        // quiz 20 has been modified itself after its course
+        assertEquals(
+                Arrays.asList("20"),
+                courseAccess.readQuizzes(
+                        stream(QUIZZES_RESPONSE),
+                        courses,
+                        "",
+                        (course, quiz) -> MoodleCourseAccess.modifiedSince(course, quiz, 1600000000))
+                        .stream()
+                        .map(quiz -> quiz.id)
+                        .collect(Collectors.toList()));
+
+        assertTrue(courseAccess.readQuizzes(
+                stream(QUIZZES_RESPONSE),
+                courses,
+                "",
+                (course, quiz) -> MoodleCourseAccess.modifiedSince(course, quiz, 1600000001))
+                .isEmpty());
+    }
+
+    @Test
+    public void testReadQuizzesExceptionResponse() throws Exception {
+        final MoodleCourseAccess courseAccess = courseAccess(10, 1);
+        final Map<String, CourseData> courses = courseAccess.readCourses(stream(COURSES_RESPONSE), course -> true);
+
+        try {
+            courseAccess.readQuizzes(stream(EXCEPTION_RESPONSE), courses, "");
+            fail("RuntimeException expected");
+        } catch (final RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("moodle_exception"));
+        }
+    }
+
+    @Test
+    public void testCollectQuizzesInChunks() throws Exception {
+        this.executor = Executors.newFixedThreadPool(2);
+        final MoodleCourseAccess courseAccess = courseAccess(2, 3);
+        final List<List<String>> chunks = Collections.synchronizedList(new ArrayList<>());
+
+        final List<QuizData> quizzes = courseAccess.collectQuizzesInChunks(
+                Arrays.asList("1", "2", "3", "4", "5"),
+                chunk -> {
+                    chunks.add(new ArrayList<>(chunk));
+                    return chunk.stream()
+                            .map(this::quiz)
+                            .collect(Collectors.toList());
+                });
+
+        assertEquals(3, chunks.size());
+        assertTrue(chunks.stream().allMatch(chunk -> chunk.size() <= 2));
+        assertEquals(
+                Arrays.asList("1", "2", "3", "4", "5"),
+                quizzes.stream().map(quiz -> quiz.id).sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testCollectQuizzesInChunksFailsIfOneChunkFails() throws Exception {
+        this.executor = Executors.newFixedThreadPool(2);
+        final MoodleCourseAccess courseAccess = courseAccess(2, 3);
+        final IllegalStateException chunkError = new IllegalStateException("chunk failed");
+
+        try {
+            courseAccess.collectQuizzesInChunks(
+                    Arrays.asList("1", "2", "3", "4", "5"),
+                    chunk -> {
+                        if (chunk.contains("3")) {
+                            throw chunkError;
+                        }
+                        return chunk.stream()
+                                .map(this::quiz)
+                                .collect(Collectors.toList());
+                    });
+            fail("RuntimeException expected");
+        } catch (final RuntimeException e) {
+            // no partial result is given back
+            assertSame(chunkError, e.getCause());
+        }
+    }
+
+    private MoodleCourseAccess courseAccess(final int chunkSize, final int parallelism) {
+        return new MoodleCourseAccess(
+                new JSONMapper(),
+                this.lmsSetup,
+                null,
+                mock(AsyncService.class),
+                (this.executor != null) ? this.executor : Runnable::run,
+                chunkSize,
+                parallelism);
+    }
+
+    private QuizData quiz(final String id) {
+        return new QuizData(id, 1L, this.lmsSetup.id, LmsType.MOODLE, id, null, null, null, null);
+    }
+
+    private static InputStream stream(final String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.impl;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+
+import ch.ethz.seb.sebserver.gbl.model.sebconfig.AttributeType;
+import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationAttribute;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.servicelayer.client.ClientCredentialService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationAttributeDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.AttributeValueConverterService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationAttributeMetadata;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.impl.converter.AttributeValueConverterServiceImpl;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.impl.converter.StringConverter;
+
+public class ConfigurationAttributeRegistryImplTest {
+
+    private final ConfigurationAttribute TABLE_ATTR =
+            new ConfigurationAttribute(1L, null, "table", AttributeType.TABLE, null, null, null, null);
+    private final ConfigurationAttribute COLUMN_ATTR_2 =
+            new ConfigurationAttribute(2L, 1L, "column2", AttributeType.TEXT_FIELD, null, null, null, null);
+    private final ConfigurationAttribute COLUMN_ATTR_1 =
+            new ConfigurationAttribute(3L, 1L, "column1", AttributeType.TEXT_FIELD, null, null, null, null);
+    private final ConfigurationAttribute TEXT_ATTR =
+            new ConfigurationAttribute(4L, null, "text", AttributeType.TEXT_FIELD, null, null, null, null);
+
+    @Test
+    public void testLoadOnceAndReload() {
+        final ConfigurationAttributeDAO configurationAttributeDAO = Mockito.mock(ConfigurationAttributeDAO.class);
+        Mockito.when(configurationAttributeDAO.allMatching(any()))
+                .thenReturn(Result.<Collection<ConfigurationAttribute>> of(Arrays.asList(
+                        this.TEXT_ATTR,
+                        this.COLUMN_ATTR_2,
+                        this.TABLE_ATTR,
+                        this.COLUMN_ATTR_1)));
+
+        final StringConverter stringConverter = new StringConverter(Mockito.mock(ClientCredentialService.class));
+        final ConfigurationAttributeRegistryImpl registry = new ConfigurationAttributeRegistryImpl(
+                configurationAttributeDAO,
+                converterServiceProvider(stringConverter),
+                60000);
+
+        final ConfigurationAttributeMetadata metadata = registry.getMetadata();
+        assertSame(metadata, registry.getMetadata());
+        Mockito.verify(configurationAttributeDAO, Mockito.times(1)).allMatching(any());
+
+        assertEquals(Arrays.asList(this.TABLE_ATTR, this.TEXT_ATTR), metadata.getRootAttributes());
+        assertEquals(Arrays.asList(this.COLUMN_ATTR_1, this.COLUMN_ATTR_2), metadata.getChildAttributes(1L));
+        assertTrue(metadata.getChildAttributes(4L).isEmpty());
+        assertSame(this.TEXT_ATTR, metadata.getAttribute("text"));
+        assertSame(this.COLUMN_ATTR_1, metadata.getAttribute(3L));
+        assertSame(stringConverter, metadata.getAttributeValueConverter(this.TEXT_ATTR));
+
+        final ConfigurationAttributeMetadata reloaded = registry.reload().getOrThrow();
+        assertNotSame(metadata, reloaded);
+        assertSame(reloaded, registry.getMetadata());
+        assertTrue(reloaded.version > metadata.version);
+    }
+
+    @Test
+    public void testReloadAfterReloadInterval() {
+        final ConfigurationAttributeDAO configurationAttributeDAO = Mockito.mock(ConfigurationAttributeDAO.class);
+        Mockito.when(configurationAttributeDAO.allMatching(any()))
+                .thenReturn(Result.<Collection<ConfigurationAttribute>> of(Arrays.asList(this.TEXT_ATTR)))
+                .thenReturn(Result.<Collection<ConfigurationAttribute>> of(Arrays.asList(
+                        this.TEXT_ATTR,
+                        this.TABLE_ATTR)))
+                .thenReturn(Result.ofRuntimeError("database not available"));
+
+        // a reload interval of zero reloads the metadata on every access
+        final ConfigurationAttributeRegistryImpl registry = new ConfigurationAttributeRegistryImpl(
+                configurationAttributeDAO,
+                converterServiceProvider(new StringConverter(Mockito.mock(ClientCredentialService.class))),
+                0);
+
+        final ConfigurationAttributeMetadata metadata = registry.getMetadata();
+        assertNull(metadata.getAttribute("table"));
+
+        // an attribute that has been created on another instance is taken with the reload
+        final ConfigurationAttributeMetadata reloaded = registry.getMetadata();
+        assertNotSame(metadata, reloaded);
+        assertSame(this.TABLE_ATTR, reloaded.getAttribute("table"));
+
+        // a failed reload keeps the current metadata
+        assertSame(reloaded, registry.getMetadata());
+        Mockito.verify(configurationAttributeDAO, Mockito.times(3)).allMatching(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<AttributeValueConverterService> converterServiceProvider(
+            final StringConverter stringConverter) {
+
+        final ObjectProvider<AttributeValueConverterService> converterServiceProvider =
+                Mockito.mock(ObjectProvider.class);
+        Mockito.when(converterServiceProvider.getObject())
+                .thenReturn(new AttributeValueConverterServiceImpl(Collections.singletonList(stringConverter)));
+        return converterServiceProvider;
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.impl;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationValue;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationValueDAO;
+
+public class ExamConfigImportBatchTest {
+
+    @Test
+    public void testSaveInChunks() {
+        final ConfigurationValueDAO configurationValueDAO = Mockito.mock(ConfigurationValueDAO.class);
+        final List<Integer> chunkSizes = new ArrayList<>();
+        Mockito.when(configurationValueDAO.saveAll(eq(1L), eq(2L), any())).thenAnswer(invocation -> {
+            final Collection<ConfigurationValue> values = invocation.getArgument(2);
+            chunkSizes.add(values.size());
+            return Result.of(values.size());
+        });
+
+        final ExamConfigImportBatch importBatch = new ExamConfigImportBatch(configurationValueDAO, 1L, 2L, 2);
+        for (int i = 0; i < 5; i++) {
+            importBatch.accept(new ConfigurationValue(null, 1L, 2L, (long) i, 0, "value" + i));
+        }
+
+        // the last chunk is saved on finish
+        assertEquals(Arrays.asList(2, 2), chunkSizes);
+        assertEquals(5, importBatch.finish());
+        assertEquals(Arrays.asList(2, 2, 1), chunkSizes);
+    }
+
+    @Test
+    public void testFailingChunkAbortsImport() {
+        final ConfigurationValueDAO configurationValueDAO = Mockito.mock(ConfigurationValueDAO.class);
+        Mockito.when(configurationValueDAO.saveAll(eq(1L), eq(2L), any()))
+                .thenReturn(Result.of(2))
+                .thenReturn(Result.ofError(new IllegalArgumentException("Institutional integrity constraint violation")));
+
+        final ExamConfigImportBatch importBatch = new ExamConfigImportBatch(configurationValueDAO, 1L, 2L, 2);
+        importBatch.accept(new ConfigurationValue(null, 1L, 2L, 1L, 0, "value1"));
+        importBatch.accept(new ConfigurationValue(null, 1L, 2L, 2L, 0, "value2"));
+        importBatch.accept(new ConfigurationValue(null, 1L, 2L, 3L, 0, "value3"));
+
+        try {
+            importBatch.finish();
+            fail("IllegalStateException expected");
+        } catch (final IllegalStateException e) {
+            assertEquals(
+                    "Failed to import chunk 2: Institutional integrity constraint violation",
+                    e.getMessage());
+        }
+    }
+
+}
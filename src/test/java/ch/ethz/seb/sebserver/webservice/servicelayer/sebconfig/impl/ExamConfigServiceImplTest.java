@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.impl;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.cryptonode.jncryptor.AES256JNCryptor;
+import org.cryptonode.jncryptor.AES256JNCryptorInputStream;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import ch.ethz.seb.sebserver.gbl.Constants;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.servicelayer.client.ClientCredentialService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ExamConfigurationMapDAO;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationAttributeRegistry;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.SebConfigEncryptionService.Strategy;
+
+public class ExamConfigServiceImplTest {
+
+    private static final String PASSWORD = "password";
+
+    private final PasswordEncryptor passwordEncryptor = new PasswordEncryptor(new AES256JNCryptor());
+    private final ZipServiceImpl zipService = new ZipServiceImpl();
+
+    @Test
+    public void testExportForExamSingleThreaded() throws Exception {
+        final byte[] plainXML = plainXML(2000);
+        final AtomicReference<Thread> writerThread = new AtomicReference<>();
+        final ExamConfigServiceImpl examConfigService = examConfigService(plainXML, writerThread);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Long configurationNodeId = examConfigService.exportForExam(out, 1L, 1L, 2L);
+
+        assertEquals(Long.valueOf(2L), configurationNodeId);
+        assertSame(Thread.currentThread(), writerThread.get());
+        assertArrayEquals(plainXML, decryptAndUnzip(out.toByteArray()));
+    }
+
+    @Test
+    public void testExportForExamPlain() throws Exception {
+        final byte[] plainXML = plainXML(2000);
+        final AtomicReference<Thread> writerThread = new AtomicReference<>();
+        final ExamConfigServiceImpl examConfigService = examConfigService(plainXML, writerThread);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Long configurationNodeId = examConfigService.exportForExam(out, 1L, 1L, 4L);
+
+        // a configuration without password is exported as plain XML
+        assertEquals(Long.valueOf(4L), configurationNodeId);
+        assertSame(Thread.currentThread(), writerThread.get());
+        assertArrayEquals(plainXML, out.toByteArray());
+    }
+
+    @Test
+    public void testExportForExamFailureKeepsCause() throws Exception {
+        final ExamConfigIO examConfigIO = Mockito.mock(ExamConfigIO.class);
+        final ExamConfigServiceImpl examConfigService = examConfigService(
+                examConfigIO,
+                new byte[0],
+                new AtomicReference<>(),
+                Runnable::run);
+        final IOException failure = new IOException("write failed");
+        Mockito.doThrow(failure).when(examConfigIO).writePlain(any(), any(), any(), any());
+
+        try {
+            examConfigService.exportForExam(new ByteArrayOutputStream(), 1L, 1L, 2L);
+            fail("RuntimeException expected");
+        } catch (final RuntimeException e) {
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    @Test
+    public void testExportForExamPlainFailureKeepsCause() throws Exception {
+        final ExamConfigIO examConfigIO = Mockito.mock(ExamConfigIO.class);
+        final ExamConfigServiceImpl examConfigService = examConfigService(
+                examConfigIO,
+                new byte[0],
+                new AtomicReference<>(),
+                Runnable::run);
+        final IOException failure = new IOException("write failed");
+        Mockito.doThrow(failure).when(examConfigIO).writePlain(any(), any(), any(), any());
+
+        try {
+            examConfigService.exportForExam(new ByteArrayOutputStream(), 1L, 1L, 4L);
+            fail("RuntimeException expected");
+        } catch (final RuntimeException e) {
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    private ExamConfigServiceImpl examConfigService(
+            final byte[] plainXML,
+            final AtomicReference<Thread> writerThread) throws Exception {
+
+        return examConfigService(Mockito.mock(ExamConfigIO.class), plainXML, writerThread, Runnable::run);
+    }
+
+    private ExamConfigServiceImpl examConfigService(
+            final ExamConfigIO examConfigIO,
+            final byte[] plainXML,
+            final AtomicReference<Thread> writerThread,
+            final Executor executor) throws Exception {
+
+        Mockito.doAnswer(invocation -> {
+            writerThread.set(Thread.currentThread());
+            final OutputStream out = invocation.getArgument(1);
+            // the XML writer writes attribute by attribute in small chunks
+            for (int i = 0; i < plainXML.length; i += 64) {
+                out.write(plainXML, i, Math.min(64, plainXML.length - i));
+            }
+            return null;
+        }).when(examConfigIO).writePlain(any(), any(), any(), any());
+
+        final ExamConfigurationMapDAO examConfigurationMapDAO = Mockito.mock(ExamConfigurationMapDAO.class);
+        Mockito.when(examConfigurationMapDAO.getConfigPasswordCipher(1L, 2L))
+                .thenReturn(Result.<CharSequence> of("cipher"));
+        Mockito.when(examConfigurationMapDAO.getConfigPasswordCipher(1L, 4L))
+                .thenReturn(Result.<CharSequence> ofEmpty());
+        final ClientCredentialService clientCredentialService = Mockito.mock(ClientCredentialService.class);
+        Mockito.when(clientCredentialService.decrypt("cipher")).thenReturn(PASSWORD);
+        Mockito.when(examConfigurationMapDAO.getConfigurationNodeIds(1L))
+                .thenReturn(Result.<Collection<Long>> of(Arrays.asList(2L, 3L)));
+
+        return new ExamConfigServiceImpl(
+                examConfigIO,
+                Mockito.mock(ConfigurationAttributeRegistry.class),
+                examConfigurationMapDAO,
+                Collections.emptyList(),
+                clientCredentialService,
+                this.zipService,
+                new SebConfigEncryptionServiceImpl(Arrays.asList(this.passwordEncryptor, new NoneEncryptor())),
+                8192,
+                8192,
+                executor);
+    }
+
+    @Test
+    public void testGenerateConfigKeysInParallel() throws Exception {
+        final ExamConfigIO examConfigIO = Mockito.mock(ExamConfigIO.class);
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        final CountDownLatch allStarted = new CountDownLatch(2);
+        Mockito.when(examConfigIO.getLastStableConfigurationId(2L)).thenReturn(20L);
+        Mockito.when(examConfigIO.getLastStableConfigurationId(3L)).thenReturn(30L);
+        Mockito.when(examConfigIO.generateConfigKey(any(), any())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread());
+            allStarted.countDown();
+            // both keys are generated at the same time
+            assertTrue(allStarted.await(10, TimeUnit.SECONDS));
+            return "key" + invocation.getArgument(1);
+        });
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final ExamConfigServiceImpl examConfigService = examConfigService(
+                    examConfigIO,
+                    new byte[0],
+                    new AtomicReference<>(),
+                    executor);
+
+            final Collection<String> configKeys = examConfigService.generateConfigKeys(1L, 1L).getOrThrow();
+
+            assertEquals(Arrays.asList("key20", "key30"), configKeys);
+            assertEquals(2, threads.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private byte[] decryptAndUnzip(final byte[] data) throws Exception {
+        final byte[] header = Arrays.copyOf(data, Constants.SEB_FILE_HEADER_SIZE);
+        assertEquals(Utils.toString(Strategy.PASSWORD_PSWD.header), Utils.toString(header));
+
+        final InputStream in = new GZIPInputStream(new AES256JNCryptorInputStream(
+                new ByteArrayInputStream(data, header.length, data.length - header.length),
+                PASSWORD.toCharArray()));
+        try {
+            return IOUtils.toByteArray(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static byte[] plainXML(final int numberOfAttributes) {
+        final StringBuilder builder = new StringBuilder(Constants.XML_PLIST_START_V1);
+        for (int i = 0; i < numberOfAttributes; i++) {
+            builder.append("<key>attribute").append(i).append("</key><string>value").append(i).append("</string>");
+        }
+        return Utils.toByteArray(builder.append(Constants.XML_PLIST_END));
+    }
+
+}
@@ -16,6 +16,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import ch.ethz.seb.sebserver.webservice.servicelayer.client.ClientCredentialService;
 import org.junit.Test;
@@ -24,11 +29,11 @@ import org.mockito.Mockito;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.AttributeType;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationAttribute;
 import ch.ethz.seb.sebserver.gbl.model.sebconfig.ConfigurationValue;
-import ch.ethz.seb.sebserver.gbl.util.Result;
-import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationAttributeDAO;
-import ch.ethz.seb.sebserver.webservice.servicelayer.dao.ConfigurationValueDAO;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.AttributeValueConverter;
 import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.AttributeValueConverterService;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationAttributeMetadata;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationAttributeRegistry;
+import ch.ethz.seb.sebserver.webservice.servicelayer.sebconfig.ConfigurationValueSupplier;
 
 public class TableConverterTest {
 
@@ -91,21 +96,20 @@ public class TableConverterTest {
     @Test
     public void testXMLNormalTable() throws Exception {
 
-        final ConfigurationAttributeDAO configurationAttributeDAO =
-                Mockito.mock(ConfigurationAttributeDAO.class);
-        Mockito.when(configurationAttributeDAO.allMatching(Mockito.any()))
-                .thenReturn(Result.of(this.TABLE_COLUMNS));
+        final ConfigurationAttributeRegistry configurationAttributeRegistry = attributeRegistry(
+                this.TABLE_ATTR,
+                this.TABLE_COLUMNS);
 
-        final ConfigurationValueDAO configurationValueDAO =
-                Mockito.mock(ConfigurationValueDAO.class);
-        Mockito.when(configurationValueDAO.getOrderedTableValues(1L, 1L, 1L))
-                .thenReturn(Result.of(this.TABLE_VALUES));
+        final ConfigurationValueSupplier valueSupplier = valueSupplier(
+                this.TABLE_ATTR,
+                this.TABLE_VALUE,
+                this.TABLE_VALUES);
 
-        final TableConverter tableConverter = new TableConverter(configurationAttributeDAO, configurationValueDAO);
+        final TableConverter tableConverter = new TableConverter(configurationAttributeRegistry);
         tableConverter.init(createAttributeValueConverterService());
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
 
-        tableConverter.convertToXML(out, this.TABLE_ATTR, attr -> this.TABLE_VALUE);
+        tableConverter.convertToXML(out, this.TABLE_ATTR, valueSupplier);
 
         final String xmlString = new String(out.toByteArray());
         assertEquals(
@@ -131,21 +135,20 @@ public class TableConverterTest {
     @Test
     public void testXMLNormalTableNoValues() throws Exception {
 
-        final ConfigurationAttributeDAO configurationAttributeDAO =
-                Mockito.mock(ConfigurationAttributeDAO.class);
-        Mockito.when(configurationAttributeDAO.allMatching(Mockito.any()))
-                .thenReturn(Result.of(this.TABLE_COLUMNS));
+        final ConfigurationAttributeRegistry configurationAttributeRegistry = attributeRegistry(
+                this.TABLE_ATTR,
+                this.TABLE_COLUMNS);
 
-        final ConfigurationValueDAO configurationValueDAO =
-                Mockito.mock(ConfigurationValueDAO.class);
-        Mockito.when(configurationValueDAO.getOrderedTableValues(1L, 1L, 1L))
-                .thenReturn(Result.of(Collections.emptyList()));
+        final ConfigurationValueSupplier valueSupplier = valueSupplier(
+                this.TABLE_ATTR,
+                this.TABLE_VALUE,
+                Collections.emptyList());
 
-        final TableConverter tableConverter = new TableConverter(configurationAttributeDAO, configurationValueDAO);
+        final TableConverter tableConverter = new TableConverter(configurationAttributeRegistry);
         tableConverter.init(createAttributeValueConverterService());
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
 
-        tableConverter.convertToXML(out, this.TABLE_ATTR, attr -> this.TABLE_VALUE);
+        tableConverter.convertToXML(out, this.TABLE_ATTR, valueSupplier);
 
         final String xmlString = new String(out.toByteArray());
         assertEquals(
@@ -157,21 +160,20 @@ public class TableConverterTest {
     @Test
     public void testXMLCompositeTable() throws Exception {
 
-        final ConfigurationAttributeDAO configurationAttributeDAO =
-                Mockito.mock(ConfigurationAttributeDAO.class);
-        Mockito.when(configurationAttributeDAO.allMatching(Mockito.any()))
-                .thenReturn(Result.of(this.COMPOSITE_TABLE_ENTRIES));
+        final ConfigurationAttributeRegistry configurationAttributeRegistry = attributeRegistry(
+                this.COMPOSITE_TABLE_ATTR,
+                this.COMPOSITE_TABLE_ENTRIES);
 
-        final ConfigurationValueDAO configurationValueDAO =
-                Mockito.mock(ConfigurationValueDAO.class);
-        Mockito.when(configurationValueDAO.getOrderedTableValues(1L, 1L, 1L))
-                .thenReturn(Result.of(this.COMPOSITE_TABLE_VALUES));
+        final ConfigurationValueSupplier valueSupplier = valueSupplier(
+                this.COMPOSITE_TABLE_ATTR,
+                this.COMPOSITE_TABLE_VALUE,
+                this.COMPOSITE_TABLE_VALUES);
 
-        final TableConverter tableConverter = new TableConverter(configurationAttributeDAO, configurationValueDAO);
+        final TableConverter tableConverter = new TableConverter(configurationAttributeRegistry);
         tableConverter.init(createAttributeValueConverterService());
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
 
-        tableConverter.convertToXML(out, this.COMPOSITE_TABLE_ATTR, attr -> this.COMPOSITE_TABLE_VALUE);
+        tableConverter.convertToXML(out, this.COMPOSITE_TABLE_ATTR, valueSupplier);
 
         final String xmlString = new String(out.toByteArray());
         assertEquals(
@@ -189,21 +191,20 @@ public class TableConverterTest {
     @Test
     public void testXMLCompositeTableEmpty() throws Exception {
 
-        final ConfigurationAttributeDAO configurationAttributeDAO =
-                Mockito.mock(ConfigurationAttributeDAO.class);
-        Mockito.when(configurationAttributeDAO.allMatching(Mockito.any()))
-                .thenReturn(Result.of(this.COMPOSITE_TABLE_ENTRIES));
+        final ConfigurationAttributeRegistry configurationAttributeRegistry = attributeRegistry(
+                this.COMPOSITE_TABLE_ATTR,
+                this.COMPOSITE_TABLE_ENTRIES);
 
-        final ConfigurationValueDAO configurationValueDAO =
-                Mockito.mock(ConfigurationValueDAO.class);
-        Mockito.when(configurationValueDAO.getOrderedTableValues(1L, 1L, 1L))
-                .thenReturn(Result.of(Collections.emptyList()));
+        final ConfigurationValueSupplier valueSupplier = valueSupplier(
+                this.COMPOSITE_TABLE_ATTR,
+                this.COMPOSITE_TABLE_VALUE,
+                Collections.emptyList());
 
-        final TableConverter tableConverter = new TableConverter(configurationAttributeDAO, configurationValueDAO);
+        final TableConverter tableConverter = new TableConverter(configurationAttributeRegistry);
         tableConverter.init(createAttributeValueConverterService());
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
 
-        tableConverter.convertToXML(out, this.COMPOSITE_TABLE_ATTR, attr -> this.COMPOSITE_TABLE_VALUE);
+        tableConverter.convertToXML(out, this.COMPOSITE_TABLE_ATTR, valueSupplier);
 
         final String xmlString = new String(out.toByteArray());
         assertEquals(
@@ -215,21 +216,20 @@ public class TableConverterTest {
     @Test
     public void testJSONNormalTable() throws Exception {
 
-        final ConfigurationAttributeDAO configurationAttributeDAO =
-                Mockito.mock(ConfigurationAttributeDAO.class);
-        Mockito.when(configurationAttributeDAO.allMatching(Mockito.any()))
-                .thenReturn(Result.of(this.TABLE_COLUMNS));
+        final ConfigurationAttributeRegistry configurationAttributeRegistry = attributeRegistry(
+                this.TABLE_ATTR,
+                this.TABLE_COLUMNS);
 
-        final ConfigurationValueDAO configurationValueDAO =
-                Mockito.mock(ConfigurationValueDAO.class);
-        Mockito.when(configurationValueDAO.getOrderedTableValues(1L, 1L, 1L))
-                .thenReturn(Result.of(this.TABLE_VALUES));
+        final ConfigurationValueSupplier valueSupplier = valueSupplier(
+                this.TABLE_ATTR,
+                this.TABLE_VALUE,
+                this.TABLE_VALUES);
 
-        final TableConverter tableConverter = new TableConverter(configurationAttributeDAO, configurationValueDAO);
+        final TableConverter tableConverter = new TableConverter(configurationAttributeRegistry);
         tableConverter.init(createAttributeValueConverterService());
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
 
-        tableConverter.convertToJSON(out, this.TABLE_ATTR, attr -> this.TABLE_VALUE);
+        tableConverter.convertToJSON(out, this.TABLE_ATTR, valueSupplier);
 
         final String xmlString = new String(out.toByteArray());
         // expected : "table":[{"attr1":"1","attr2":"2"},{"attr1":"3","attr2":"4"}]
@@ -242,21 +242,20 @@ public class TableConverterTest {
     @Test
     public void testJSONNormalTableEmpty() throws Exception {
 
-        final ConfigurationAttributeDAO configurationAttributeDAO =
-                Mockito.mock(ConfigurationAttributeDAO.class);
-        Mockito.when(configurationAttributeDAO.allMatching(Mockito.any()))
-                .thenReturn(Result.of(this.TABLE_COLUMNS));
+        final ConfigurationAttributeRegistry configurationAttributeRegistry = attributeRegistry(
+                this.TABLE_ATTR,
+                this.TABLE_COLUMNS);
 
-        final ConfigurationValueDAO configurationValueDAO =
-                Mockito.mock(ConfigurationValueDAO.class);
-        Mockito.when(configurationValueDAO.getOrderedTableValues(1L, 1L, 1L))
-                .thenReturn(Result.of(Collections.emptyList()));
+        final ConfigurationValueSupplier valueSupplier = valueSupplier(
+                this.TABLE_ATTR,
+                this.TABLE_VALUE,
+                Collections.emptyList());
 
-        final TableConverter tableConverter = new TableConverter(configurationAttributeDAO, configurationValueDAO);
+        final TableConverter tableConverter = new TableConverter(configurationAttributeRegistry);
         tableConverter.init(createAttributeValueConverterService());
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
 
-        tableConverter.convertToJSON(out, this.TABLE_ATTR, attr -> this.TABLE_VALUE);
+        tableConverter.convertToJSON(out, this.TABLE_ATTR, valueSupplier);
 
         final String xmlString = new String(out.toByteArray());
         // expected : "table":[]
@@ -269,21 +268,20 @@ public class TableConverterTest {
     @Test
     public void testJSONCompositeTable() throws Exception {
 
-        final ConfigurationAttributeDAO configurationAttributeDAO =
-                Mockito.mock(ConfigurationAttributeDAO.class);
-        Mockito.when(configurationAttributeDAO.allMatching(Mockito.any()))
-                .thenReturn(Result.of(this.COMPOSITE_TABLE_ENTRIES));
+        final ConfigurationAttributeRegistry configurationAttributeRegistry = attributeRegistry(
+                this.COMPOSITE_TABLE_ATTR,
+                this.COMPOSITE_TABLE_ENTRIES);
 
-        final ConfigurationValueDAO configurationValueDAO =
-                Mockito.mock(ConfigurationValueDAO.class);
-        Mockito.when(configurationValueDAO.getOrderedTableValues(1L, 1L, 1L))
-                .thenReturn(Result.of(this.COMPOSITE_TABLE_VALUES));
+        final ConfigurationValueSupplier valueSupplier = valueSupplier(
+                this.COMPOSITE_TABLE_ATTR,
+                this.COMPOSITE_TABLE_VALUE,
+                this.COMPOSITE_TABLE_VALUES);
 
-        final TableConverter tableConverter = new TableConverter(configurationAttributeDAO, configurationValueDAO);
+        final TableConverter tableConverter = new TableConverter(configurationAttributeRegistry);
         tableConverter.init(createAttributeValueConverterService());
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
 
-        tableConverter.convertToJSON(out, this.COMPOSITE_TABLE_ATTR, attr -> this.COMPOSITE_TABLE_VALUE);
+        tableConverter.convertToJSON(out, this.COMPOSITE_TABLE_ATTR, valueSupplier);
 
         final String xmlString = new String(out.toByteArray());
         // expected : "table":{"attr1":"1","attr2":"2"}
@@ -296,21 +294,20 @@ public class TableConverterTest {
     @Test
     public void testJSONCompositeTableEmpty() throws Exception {
 
-        final ConfigurationAttributeDAO configurationAttributeDAO =
-                Mockito.mock(ConfigurationAttributeDAO.class);
-        Mockito.when(configurationAttributeDAO.allMatching(Mockito.any()))
-                .thenReturn(Result.of(this.COMPOSITE_TABLE_ENTRIES));
+        final ConfigurationAttributeRegistry configurationAttributeRegistry = attributeRegistry(
+                this.COMPOSITE_TABLE_ATTR,
+                this.COMPOSITE_TABLE_ENTRIES);
 
-        final ConfigurationValueDAO configurationValueDAO =
-                Mockito.mock(ConfigurationValueDAO.class);
-        Mockito.when(configurationValueDAO.getOrderedTableValues(1L, 1L, 1L))
-                .thenReturn(Result.of(Collections.emptyList()));
+        final ConfigurationValueSupplier valueSupplier = valueSupplier(
+                this.COMPOSITE_TABLE_ATTR,
+                this.COMPOSITE_TABLE_VALUE,
+                Collections.emptyList());
 
-        final TableConverter tableConverter = new TableConverter(configurationAttributeDAO, configurationValueDAO);
+        final TableConverter tableConverter = new TableConverter(configurationAttributeRegistry);
         tableConverter.init(createAttributeValueConverterService());
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
 
-        tableConverter.convertToJSON(out, this.COMPOSITE_TABLE_ATTR, attr -> this.COMPOSITE_TABLE_VALUE);
+        tableConverter.convertToJSON(out, this.COMPOSITE_TABLE_ATTR, valueSupplier);
 
         final String xmlString = new String(out.toByteArray());
         // expected :
@@ -320,6 +317,40 @@ public class TableConverterTest {
 
     }
 
+    private ConfigurationAttributeRegistry attributeRegistry(
+            final ConfigurationAttribute tableAttribute,
+            final Collection<ConfigurationAttribute> columns) {
+
+        final List<ConfigurationAttribute> attributes = new ArrayList<>(columns);
+        attributes.add(tableAttribute);
+
+        final ConfigurationAttributeRegistry configurationAttributeRegistry =
+                Mockito.mock(ConfigurationAttributeRegistry.class);
+        Mockito.when(configurationAttributeRegistry.getMetadata())
+                .thenReturn(new ConfigurationAttributeMetadata(
+                        1L,
+                        attributes,
+                        createAttributeValueConverterService()));
+        return configurationAttributeRegistry;
+    }
+
+    private ConfigurationValueSupplier valueSupplier(
+            final ConfigurationAttribute tableAttribute,
+            final ConfigurationValue tableValue,
+            final List<List<ConfigurationValue>> rows) {
+
+        final SortedMap<Integer, Map<Long, ConfigurationValue>> tableValues = new TreeMap<>();
+        for (final List<ConfigurationValue> row : rows) {
+            tableValues.put(
+                    row.get(0).listIndex,
+                    row.stream().collect(Collectors.toMap(val -> val.attributeId, Function.identity())));
+        }
+
+        return ConfigurationValueSupplier.of(
+                Collections.singletonMap(tableAttribute.id, tableValue),
+                Collections.singletonMap(tableAttribute.id, tableValues));
+    }
+
     private AttributeValueConverterService createAttributeValueConverterService() {
         final ClientCredentialService clientCredentialServiceMock = Mockito.mock(ClientCredentialService.class);
         final List<AttributeValueConverter> converter = new ArrayList<>();
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.DateTimeUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection.ConnectionStatus;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper;
+
+public class ActiveClientConnectionIndexTest {
+
+    @After
+    public void resetTime() {
+        DateTimeUtils.setCurrentMillisSystem();
+    }
+
+    @Test
+    public void testEstablishedConnectionsOnly() {
+        final ActiveClientConnectionIndex index = new ActiveClientConnectionIndex();
+
+        index.put(connection("token1", 1L, ConnectionStatus.CONNECTION_REQUESTED));
+        index.put(connection("token2", null, ConnectionStatus.ACTIVE));
+        assertEquals(0, index.size());
+        assertTrue(index.examIds().isEmpty());
+
+        index.put(connection("token1", 1L, ConnectionStatus.AUTHENTICATED));
+        index.put(connection("token2", 1L, ConnectionStatus.ACTIVE));
+        index.put(connection("token3", 2L, ConnectionStatus.ACTIVE));
+        assertEquals(3, index.size());
+        assertEquals(2, index.getConnections(1L).size());
+        assertEquals(1, index.getConnections(2L).size());
+        assertTrue(index.getConnections(3L).isEmpty());
+
+        // a reload in a none established state removes the connection
+        index.put(connection("token2", 1L, ConnectionStatus.CLOSED));
+        assertEquals(2, index.size());
+        assertEquals("token1", index.getConnections(1L).iterator().next().clientConnection.connectionToken);
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        final ActiveClientConnectionIndex index = new ActiveClientConnectionIndex();
+
+        final ClientConnectionDataInternal first = connection("token1", 1L, ConnectionStatus.ACTIVE);
+        final ClientConnectionDataInternal second = connection("token1", 1L, ConnectionStatus.ACTIVE);
+        index.put(first);
+        index.put(second);
+        assertEquals(1, index.size());
+        assertSame(second, index.getConnections(1L).iterator().next());
+
+        // the connection moved to another exam
+        index.put(connection("token1", 2L, ConnectionStatus.ACTIVE));
+        assertEquals(1, index.size());
+        assertFalse(index.examIds().contains(1L));
+        assertEquals(1, index.getConnections(2L).size());
+
+        index.remove("token1");
+        index.remove("token2");
+        assertEquals(0, index.size());
+        assertTrue(index.examIds().isEmpty());
+
+        index.put(connection("token1", 1L, ConnectionStatus.ACTIVE));
+        index.put(connection("token2", 1L, ConnectionStatus.ACTIVE));
+        index.removeExam(1L);
+        assertEquals(0, index.size());
+        assertTrue(index.getConnections(1L).isEmpty());
+    }
+
+    @Test
+    public void testEvicted() {
+        final ActiveClientConnectionIndex index = new ActiveClientConnectionIndex();
+
+        final ClientConnectionDataInternal first = connection("token1", 1L, ConnectionStatus.ACTIVE);
+        final ClientConnectionDataInternal second = connection("token1", 1L, ConnectionStatus.ACTIVE);
+        index.put(first);
+        index.put(second);
+
+        // the eviction of a replaced instance must not remove the current one
+        index.evicted(first);
+        assertEquals(1, index.size());
+        assertSame(second, index.getConnections(1L).iterator().next());
+
+        index.evicted(second);
+        assertEquals(0, index.size());
+        assertTrue(index.examIds().isEmpty());
+    }
+
+    @Test
+    public void testRemovalListener() {
+        final ActiveClientConnectionIndex index = new ActiveClientConnectionIndex();
+        final List<String> removed = new ArrayList<>();
+        index.addRemovalListener(removed::add);
+
+        final ClientConnectionDataInternal first = connection("token1", 1L, ConnectionStatus.ACTIVE);
+        index.put(first);
+        index.put(connection("token2", 1L, ConnectionStatus.ACTIVE));
+        index.put(connection("token3", 2L, ConnectionStatus.ACTIVE));
+
+        // not indexed connections are not notified
+        index.remove("token4");
+        assertTrue(removed.isEmpty());
+
+        index.evicted(first);
+        assertEquals(Arrays.asList("token1"), removed);
+
+        index.removeExam(1L);
+        index.put(connection("token3", 2L, ConnectionStatus.CLOSED));
+        assertEquals(Arrays.asList("token1", "token2", "token3"), removed);
+    }
+
+    @Test
+    public void testPingDeadlines() {
+        DateTimeUtils.setCurrentMillisFixed(1000);
+        final ActiveClientConnectionIndex index = new ActiveClientConnectionIndex();
+        final List<ClientConnectionDataInternal> expired = new ArrayList<>();
+
+        final ClientConnectionDataInternal connection1 = pingConnection("token1");
+        final ClientConnectionDataInternal connection2 = pingConnection("token2");
+        final ClientConnectionDataInternal connection3 = pingConnection("token3");
+        index.put(connection1);
+        index.put(connection2);
+        index.put(connection3);
+
+        index.expirePingDeadlines(5000, expired::add);
+        assertTrue(expired.isEmpty());
+
+        // a ping moves the deadline of connection1
+        DateTimeUtils.setCurrentMillisFixed(4000);
+        connection1.notifyPing(4000, 1);
+        // connection3 is evicted
+        index.remove("token3");
+
+        index.expirePingDeadlines(6000, expired::add);
+        assertEquals(Arrays.asList(connection2), expired);
+
+        expired.clear();
+        index.expirePingDeadlines(8999, expired::add);
+        assertTrue(expired.isEmpty());
+        index.expirePingDeadlines(9000, expired::add);
+        assertEquals(Arrays.asList(connection1), expired);
+    }
+
+    private static ClientConnectionDataInternal pingConnection(final String token) {
+        final PingIntervalClientIndicator ping = new PingIntervalClientIndicator(
+                Mockito.mock(ClientEventExtensionMapper.class));
+        ping.pingErrorThreshold = 5000;
+        return new ClientConnectionDataInternal(
+                new ClientConnection(1L, 1L, 1L, ConnectionStatus.ACTIVE, token, "user", "", "", 1L),
+                Arrays.asList(ping),
+                new AtomicLong());
+    }
+
+    private static ClientConnectionDataInternal connection(
+            final String token,
+            final Long examId,
+            final ConnectionStatus status) {
+
+        return new ClientConnectionDataInternal(
+                new ClientConnection(1L, 1L, examId, status, token, "user", "", "", 1L),
+                Collections.emptyList(),
+                new AtomicLong());
+    }
+
+}
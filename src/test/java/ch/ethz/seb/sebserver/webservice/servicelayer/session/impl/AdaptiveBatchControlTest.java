@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class AdaptiveBatchControlTest {
+
+    @Test
+    public void testBatchSizeAdaption() {
+        final AdaptiveBatchControl control = new AdaptiveBatchControl(10, 80, 200, 100);
+        assertEquals(10, control.batchSize());
+        assertEquals(100, control.flushInterval());
+
+        // queue grows and latency is fine
+        control.onBatchStored(50, 1000);
+        assertEquals(20, control.batchSize());
+        control.onBatchStored(50, 1000);
+        control.onBatchStored(50, 1000);
+        control.onBatchStored(50, 1000);
+        assertEquals(80, control.batchSize());
+        assertEquals(0, control.flushInterval());
+
+        // latency exceeds target
+        control.onBatchStored(300, 1000);
+        assertEquals(40, control.batchSize());
+
+        // queue is drained and latency is fine
+        control.onBatchStored(50, 0);
+        assertEquals(40, control.batchSize());
+        assertEquals(100, control.flushInterval());
+        control.onBatchStored(50, 20);
+        assertEquals(50, control.flushInterval());
+
+        control.onBatchStored(300, 0);
+        control.onBatchStored(300, 0);
+        control.onBatchStored(300, 0);
+        assertEquals(10, control.batchSize());
+    }
+
+}
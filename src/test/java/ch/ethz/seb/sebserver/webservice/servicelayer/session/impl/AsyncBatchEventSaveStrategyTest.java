@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AsyncBatchEventSaveStrategyTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<ClientEventRecord> stored = Collections.synchronizedList(new ArrayList<>());
+
+    @After
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testFullBatchDoesNotWaitForFlushInterval() throws Exception {
+        final CountDownLatch batchStored = new CountDownLatch(1);
+        final ClientEventExtensionMapper mapper = mock(ClientEventExtensionMapper.class);
+        when(mapper.insertBatch(any())).thenAnswer(invocation -> {
+            this.stored.addAll(invocation.getArgument(0));
+            batchStored.countDown();
+            return 5;
+        });
+
+        // a batch of 5 events and a flush interval of one minute
+        final AsyncBatchEventSaveStrategy strategy = strategy(mapper, 5, TimeUnit.MINUTES.toMillis(1));
+        for (long i = 0; i < 5; i++) {
+            strategy.accept(event(i));
+        }
+
+        assertTrue(batchStored.await(10, TimeUnit.SECONDS));
+        assertEquals(5, this.stored.size());
+        strategy.shutdown();
+    }
+
+    @Test
+    public void testFailedBatchIsStoredAgain() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final ClientEventExtensionMapper mapper = mock(ClientEventExtensionMapper.class);
+        when(mapper.insertBatch(any())).thenAnswer(invocation -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("database not available");
+            }
+            final Collection<ClientEventRecord> records = invocation.getArgument(0);
+            this.stored.addAll(records);
+            return records.size();
+        });
+
+        final AsyncBatchEventSaveStrategy strategy = strategy(mapper, 10, 10);
+        strategy.accept(event(1L));
+
+        assertTrue(strategy.awaitStored(5000));
+        assertTrue(attempts.get() >= 2);
+        assertEquals(1, this.stored.size());
+        strategy.shutdown();
+    }
+
+    @Test
+    public void testShutdownDrainsQueue() throws Exception {
+        final ClientEventExtensionMapper mapper = mock(ClientEventExtensionMapper.class);
+        when(mapper.insertBatch(any())).thenAnswer(invocation -> {
+            final Collection<ClientEventRecord> records = invocation.getArgument(0);
+            this.stored.addAll(records);
+            return records.size();
+        });
+
+        final AsyncBatchEventSaveStrategy strategy = strategy(mapper, 2, 50);
+        for (long i = 0; i < 100; i++) {
+            strategy.accept(event(i));
+        }
+        strategy.shutdown();
+
+        assertEquals(100, this.stored.size());
+    }
+
+    private AsyncBatchEventSaveStrategy strategy(
+            final ClientEventExtensionMapper mapper,
+            final int batchSize,
+            final long flushInterval) {
+
+        final AsyncConfigurer asyncConfigurer = mock(AsyncConfigurer.class);
+        when(asyncConfigurer.getAsyncExecutor()).thenReturn(this.executor);
+
+        final AsyncBatchEventSaveStrategy strategy = new AsyncBatchEventSaveStrategy(
+                mapper,
+                asyncConfigurer,
+                mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(),
+                false,
+                null,
+                0,
+                1000,
+                500,
+                batchSize,
+                batchSize,
+                1000,
+                flushInterval);
+        strategy.enable();
+        strategy.recover();
+        return strategy;
+    }
+
+    private static ClientEventRecord event(final Long connectionId) {
+        return new ClientEventRecord(
+                null,
+                connectionId,
+                EventType.INFO_LOG.id,
+                1L,
+                2L,
+                new BigDecimal("1"),
+                "text");
+    }
+
+}
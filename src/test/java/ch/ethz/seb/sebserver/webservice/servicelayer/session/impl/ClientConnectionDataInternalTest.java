@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.DateTimeUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import ch.ethz.seb.sebserver.gbl.model.exam.Indicator;
+import ch.ethz.seb.sebserver.gbl.model.exam.Indicator.IndicatorType;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection.ConnectionStatus;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper;
+
+public class ClientConnectionDataInternalTest {
+
+    @After
+    public void resetTime() {
+        DateTimeUtils.setCurrentMillisSystem();
+    }
+
+    @Test
+    public void testVersion() {
+        DateTimeUtils.setCurrentMillisFixed(1000);
+
+        final PingIntervalClientIndicator ping = new PingIntervalClientIndicator(
+                Mockito.mock(ClientEventExtensionMapper.class));
+        ping.pingErrorThreshold = 5000;
+
+        final ExamSessionCacheService examSessionCacheService = Mockito.mock(ExamSessionCacheService.class);
+        final ClientEventCounts counts = new ClientEventCounts(1L, Collections::emptyList, -1);
+        Mockito.when(examSessionCacheService.getClientEventCounts(1L)).thenReturn(counts);
+        final ErrorCountClientIndicator errors = new ErrorCountClientIndicator(examSessionCacheService);
+        errors.init(
+                new Indicator(1L, 1L, "errors", IndicatorType.ERROR_COUNT, null, null),
+                1L,
+                true);
+
+        final AtomicLong examVersion = new AtomicLong(10);
+        final ClientConnectionDataInternal data = new ClientConnectionDataInternal(
+                new ClientConnection(1L, 1L, 1L, ConnectionStatus.ACTIVE, "token", "user", "", "", 1L),
+                Arrays.asList(ping, errors),
+                examVersion);
+
+        // a new client connection counts as a change
+        assertEquals(11, data.getVersion());
+
+        // pings are not versioned
+        DateTimeUtils.setCurrentMillisFixed(2000);
+        data.notifyPing(2000, 1);
+        assertNull(ping.updateLogEvent());
+        assertEquals(11, data.getVersion());
+
+        // missing ping flips are versioned
+        DateTimeUtils.setCurrentMillisFixed(10000);
+        assertNotNull(ping.updateLogEvent());
+        assertEquals(12, data.getVersion());
+        assertNull(ping.updateLogEvent());
+        assertEquals(12, data.getVersion());
+        data.notifyPing(10000, 2);
+        assertNotNull(ping.updateLogEvent());
+        assertEquals(13, data.getVersion());
+
+        // counted events are versioned
+        final ClientEvent event = new ClientEvent(null, 1L, EventType.ERROR_LOG, 10000L, 10000L, null, "error");
+        assertTrue(counts.store(1L, event.eventType, () -> {
+        }));
+        errors.notifyValueChange(event);
+        assertEquals(14, data.getVersion());
+        assertEquals(1d, errors.getValue(), 0.0);
+
+        // the exam version is shared with other client connections of the exam
+        assertEquals(14, examVersion.get());
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.DateTimeUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import ch.ethz.seb.sebserver.gbl.api.JSONMapper;
+import ch.ethz.seb.sebserver.gbl.model.exam.Indicator.IndicatorType;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnection.ConnectionStatus;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionData;
+import ch.ethz.seb.sebserver.gbl.model.session.ClientConnectionDataUpdate;
+import ch.ethz.seb.sebserver.gbl.model.session.SimpleIndicatorValue;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper;
+import ch.ethz.seb.sebserver.webservice.servicelayer.session.ClientIndicator;
+
+public class ClientConnectionDataSnapshotTest {
+
+    @After
+    public void resetTime() {
+        DateTimeUtils.setCurrentMillisSystem();
+    }
+
+    @Test
+    public void testChanges() {
+        DateTimeUtils.setCurrentMillisFixed(1000);
+        final PingIntervalClientIndicator ping = new PingIntervalClientIndicator(
+                Mockito.mock(ClientEventExtensionMapper.class));
+        final ClientIndicator errors = indicator(IndicatorType.ERROR_COUNT);
+        final ClientConnectionData data = new ClientConnectionDataInternal(
+                connection(ConnectionStatus.ACTIVE),
+                Arrays.asList(ping, errors),
+                new AtomicLong());
+
+        Mockito.when(errors.getValue()).thenReturn(1d);
+        final ClientConnectionDataSnapshot first = ClientConnectionDataSnapshot.of(data);
+        assertTrue(first.hasChanged(null));
+
+        // ping time changes are not reported
+        DateTimeUtils.setCurrentMillisFixed(3000);
+        final ClientConnectionDataSnapshot second = ClientConnectionDataSnapshot.of(data);
+        assertFalse(second.hasChanged(first));
+        assertEquals(2000d, second.indicatorValues.get(0).getValue(), 0.0);
+
+        // missing ping flips are reported
+        ping.missingPing = true;
+        final ClientConnectionDataSnapshot missing = ClientConnectionDataSnapshot.of(data);
+        assertTrue(missing.hasChanged(second));
+        assertEquals(Boolean.TRUE, missing.getMissingPing());
+        ping.missingPing = false;
+
+        // indicator value changes are reported
+        Mockito.when(errors.getValue()).thenReturn(2d);
+        final ClientConnectionDataSnapshot third = ClientConnectionDataSnapshot.of(data);
+        assertTrue(third.hasChanged(second));
+        // the snapshot is not affected by later changes
+        assertEquals(1d, second.indicatorValues.get(1).getValue(), 0.0);
+
+        // status changes are reported
+        final ClientConnectionDataSnapshot closed = ClientConnectionDataSnapshot.of(
+                new ClientConnectionDataInternal(
+                        connection(ConnectionStatus.CLOSED),
+                        Arrays.asList(ping, errors),
+                        new AtomicLong()));
+        assertTrue(closed.hasChanged(third));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        final PingIntervalClientIndicator ping = new PingIntervalClientIndicator(
+                Mockito.mock(ClientEventExtensionMapper.class));
+        final ClientIndicator errors = indicator(IndicatorType.ERROR_COUNT);
+        Mockito.when(errors.getValue()).thenReturn(3d);
+        final ClientConnectionDataSnapshot snapshot = ClientConnectionDataSnapshot.of(
+                new ClientConnectionDataInternal(
+                        connection(ConnectionStatus.ACTIVE),
+                        Arrays.asList(errors, ping),
+                        new AtomicLong()));
+
+        final JSONMapper jsonMapper = new JSONMapper();
+        final String json = jsonMapper.writeValueAsString(new ClientConnectionDataUpdate(
+                1L,
+                5L,
+                false,
+                Arrays.asList(snapshot),
+                Arrays.asList(7L),
+                Collections.singletonMap(8L, Arrays.asList(SimpleIndicatorValue.of(errors)))));
+
+        final ClientConnectionDataUpdate update = jsonMapper.readValue(json, ClientConnectionDataUpdate.class);
+        assertEquals(Long.valueOf(1), update.examId);
+        assertEquals(Long.valueOf(5), update.version);
+        assertFalse(update.full);
+        assertEquals("[7]", update.removed.toString());
+        final ClientConnectionData data = update.changed.iterator().next();
+        assertEquals(ConnectionStatus.ACTIVE, data.clientConnection.status);
+        assertEquals(IndicatorType.ERROR_COUNT, data.indicatorValues.get(0).getType());
+        assertEquals(3d, data.indicatorValues.get(0).getValue(), 0.0);
+        assertEquals(IndicatorType.LAST_PING, data.indicatorValues.get(1).getType());
+        assertEquals(Boolean.FALSE, data.getMissingPing());
+        final SimpleIndicatorValue value = update.indicatorValues.get(8L).get(0);
+        assertEquals(IndicatorType.ERROR_COUNT, value.getType());
+        assertEquals(3d, value.getValue(), 0.0);
+    }
+
+    private static ClientConnection connection(final ConnectionStatus status) {
+        return new ClientConnection(1L, 1L, 1L, status, "token", "user", "", "", 1L);
+    }
+
+    private static ClientIndicator indicator(final IndicatorType type) {
+        final ClientIndicator indicator = Mockito.mock(ClientIndicator.class);
+        Mockito.when(indicator.getType()).thenReturn(type);
+        Mockito.when(indicator.observedEvents()).thenReturn(Collections.emptySet());
+        return indicator;
+    }
+
+}
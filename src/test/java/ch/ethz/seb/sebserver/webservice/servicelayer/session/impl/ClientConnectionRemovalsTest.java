@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class ClientConnectionRemovalsTest {
+
+    @Test
+    public void testRemovedConnectionsAreReportedAfterTheirVersion() {
+        final AtomicLong changeVersion = new AtomicLong(100);
+        final ClientConnectionRemovals removals = new ClientConnectionRemovals(changeVersion);
+
+        assertFalse(removals.isTracked(99));
+        assertTrue(removals.isTracked(100));
+
+        assertTrue(removals.update(new HashSet<>(Arrays.asList(1L, 2L, 3L)), 100).isEmpty());
+        assertEquals(100, changeVersion.get());
+
+        // connection 2 is not available anymore and gets a new version
+        assertEquals(Arrays.asList(2L), removals.update(new HashSet<>(Arrays.asList(1L, 3L)), 100));
+        assertEquals(101, changeVersion.get());
+
+        // reported to all callers that have not seen the removal yet
+        assertEquals(Arrays.asList(2L), removals.update(new HashSet<>(Arrays.asList(1L, 3L)), 100));
+        assertTrue(removals.update(new HashSet<>(Arrays.asList(1L, 3L)), 101).isEmpty());
+        assertEquals(101, changeVersion.get());
+    }
+
+    @Test
+    public void testAvailableAgainIsNotRemoved() {
+        final AtomicLong changeVersion = new AtomicLong(100);
+        final ClientConnectionRemovals removals = new ClientConnectionRemovals(changeVersion);
+
+        removals.update(new HashSet<>(Arrays.asList(1L)), 100);
+        assertEquals(Arrays.asList(1L), removals.update(Collections.emptySet(), 100));
+        assertTrue(removals.update(new HashSet<>(Arrays.asList(1L)), 100).isEmpty());
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventExtensionMapper.ClientEventCountRecord;
+
+public class ClientEventCountsTest {
+
+    @Test
+    public void testStoreCountsLogLevelEvents() {
+        final AtomicInteger seeds = new AtomicInteger();
+        final AtomicInteger stored = new AtomicInteger();
+        final ClientEventCounts counts = new ClientEventCounts(
+                1L,
+                () -> {
+                    seeds.incrementAndGet();
+                    return Collections.emptyList();
+                },
+                -1);
+
+        assertTrue(counts.store(1L, EventType.ERROR_LOG, stored::incrementAndGet));
+        assertTrue(counts.store(1L, EventType.WARN_LOG, stored::incrementAndGet));
+        assertTrue(counts.store(1L, EventType.INFO_LOG, stored::incrementAndGet));
+        assertTrue(counts.store(2L, EventType.ERROR_LOG, stored::incrementAndGet));
+
+        assertEquals(4, stored.get());
+        assertEquals(1, counts.count(1L, EnumSet.of(EventType.ERROR_LOG)));
+        assertEquals(2, counts.count(1L, ClientEventCounts.COUNTED_EVENT_TYPES));
+        assertEquals(0, counts.count(1L, EnumSet.of(EventType.INFO_LOG)));
+        assertEquals(1, counts.count(2L, EnumSet.of(EventType.ERROR_LOG)));
+        assertEquals(0, counts.count(3L, EnumSet.of(EventType.ERROR_LOG)));
+
+        // seeded only once if there is no maximal seed age
+        assertEquals(1, seeds.get());
+    }
+
+    @Test
+    public void testEventNotCountedIfStoreFails() {
+        final ClientEventCounts counts = new ClientEventCounts(1L, Collections::emptyList, -1);
+
+        try {
+            counts.store(1L, EventType.ERROR_LOG, () -> {
+                throw new IllegalStateException("overload");
+            });
+            fail("IllegalStateException expected");
+        } catch (final IllegalStateException e) {
+            assertEquals("overload", e.getMessage());
+        }
+
+        assertEquals(0, counts.count(1L, EnumSet.of(EventType.ERROR_LOG)));
+    }
+
+    @Test
+    public void testRetiredCountsDoNotStore() {
+        final ClientEventCounts counts = new ClientEventCounts(1L, Collections::emptyList, -1);
+        assertTrue(counts.store(1L, EventType.ERROR_LOG, () -> {
+        }));
+
+        counts.retire();
+
+        assertFalse(counts.store(1L, EventType.ERROR_LOG, () -> fail("retired counts must not store")));
+        assertEquals(1, counts.count(1L, EnumSet.of(EventType.ERROR_LOG)));
+    }
+
+    @Test
+    public void testSeedWaitsForEventsInStore() throws Exception {
+        final List<EventType> seen = Collections.synchronizedList(new ArrayList<>());
+        final ClientEventCounts counts = new ClientEventCounts(
+                1L,
+                () -> {
+                    seen.add(EventType.LAST_PING);
+                    return Collections.emptyList();
+                },
+                0);
+        counts.seed();
+        seen.clear();
+
+        final CountDownLatch storing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread store = new Thread(() -> counts.store(1L, EventType.ERROR_LOG, () -> {
+            storing.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            seen.add(EventType.ERROR_LOG);
+        }));
+        store.start();
+        assertTrue(storing.await(5, TimeUnit.SECONDS));
+
+        Thread.sleep(10);
+        final Thread seed = new Thread(counts::seed);
+        seed.start();
+        Thread.sleep(50);
+        release.countDown();
+
+        store.join(5000);
+        seed.join(5000);
+
+        // the seed is taken after the event has been stored
+        assertTrue(seen.contains(EventType.ERROR_LOG));
+        assertEquals(EventType.LAST_PING, seen.get(seen.size() - 1));
+        assertTrue(seen.indexOf(EventType.ERROR_LOG) < seen.lastIndexOf(EventType.LAST_PING));
+    }
+
+    @Test
+    public void testPreviousCountsAreUsedWhileSeeding() throws Exception {
+        final AtomicInteger seeds = new AtomicInteger();
+        final CountDownLatch seeding = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ClientEventCounts counts = new ClientEventCounts(
+                1L,
+                () -> {
+                    if (seeds.incrementAndGet() == 1) {
+                        return Collections.singletonList(new ClientEventCountRecord(1L, EventType.ERROR_LOG.id, 2L));
+                    }
+                    seeding.countDown();
+                    try {
+                        release.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return Collections.singletonList(new ClientEventCountRecord(1L, EventType.ERROR_LOG.id, 5L));
+                },
+                200);
+        counts.seed();
+        assertEquals(2, counts.count(1L, EnumSet.of(EventType.ERROR_LOG)));
+
+        Thread.sleep(250);
+        final Thread seed = new Thread(counts::seed);
+        seed.start();
+        assertTrue(seeding.await(5, TimeUnit.SECONDS));
+
+        // neither count nor store waits for the running seed
+        assertEquals(2, counts.count(1L, EnumSet.of(EventType.ERROR_LOG)));
+        assertTrue(counts.store(1L, EventType.ERROR_LOG, () -> {
+        }));
+        assertEquals(3, counts.count(1L, EnumSet.of(EventType.ERROR_LOG)));
+
+        release.countDown();
+        seed.join(5000);
+
+        // the event stored while seeding is counted on top of the seed
+        assertEquals(2, seeds.get());
+        assertEquals(6, counts.count(1L, EnumSet.of(EventType.ERROR_LOG)));
+    }
+
+}
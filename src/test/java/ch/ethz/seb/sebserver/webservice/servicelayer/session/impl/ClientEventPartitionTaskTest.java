@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import ch.ethz.seb.sebserver.gbl.util.Utils;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.ClientEventPartitionMapper;
+
+public class ClientEventPartitionTaskTest {
+
+    @Test
+    public void testUpperBound() {
+        assertEquals(0L, ClientEventPartitionTask.upperBound(Collections.emptyList()));
+        assertEquals(0L, ClientEventPartitionTask.upperBound(Arrays.asList("MAXVALUE")));
+        assertEquals(200L, ClientEventPartitionTask.upperBound(Arrays.asList("100", "200", "MAXVALUE")));
+    }
+
+    @Test
+    public void testPartitionsAreAddedAhead() {
+        final DateTime nextMonth = new DateTime(Utils.getMillisecondsNow(), DateTimeZone.UTC)
+                .withDayOfMonth(1)
+                .withTimeAtStartOfDay()
+                .plusMonths(1);
+        final ClientEventPartitionMapper mapper = mock(ClientEventPartitionMapper.class);
+        when(mapper.partitionBounds())
+                .thenReturn(Arrays.asList(String.valueOf(nextMonth.getMillis()), "MAXVALUE"));
+
+        final ClientEventPartitionTask task = new ClientEventPartitionTask(mapper, 2);
+        task.init();
+
+        final InOrder inOrder = inOrder(mapper);
+        inOrder.verify(mapper).addPartition(
+                "p_" + nextMonth.toString("yyyy_MM"),
+                nextMonth.plusMonths(1).getMillis());
+        inOrder.verify(mapper).addPartition(
+                "p_" + nextMonth.plusMonths(1).toString("yyyy_MM"),
+                nextMonth.plusMonths(2).getMillis());
+        verify(mapper, times(2)).addPartition(anyString(), anyLong());
+    }
+
+    @Test
+    public void testNothingIsAddedIfNotPartitioned() {
+        final ClientEventPartitionMapper mapper = mock(ClientEventPartitionMapper.class);
+        when(mapper.partitionBounds()).thenReturn(Collections.emptyList());
+
+        final ClientEventPartitionTask task = new ClientEventPartitionTask(mapper, 2);
+        task.init();
+        task.partitionUpdateTask();
+
+        verify(mapper, never()).addPartition(anyString(), anyLong());
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
+
+public class ClientEventWriteAheadLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRecoverNotAcknowledged() throws Exception {
+        final Path dir = this.folder.getRoot().toPath();
+        final ClientEventWriteAheadLog eventLog = new ClientEventWriteAheadLog(dir, 1024);
+
+        assertNotNull(eventLog.append(event(1L, "some text")));
+        assertNotNull(eventLog.append(event(2L, null)));
+        eventLog.force();
+
+        // new log on same directory (server restart)
+        final List<ClientEventRecord> replayed = new ArrayList<>();
+        final int count = new ClientEventWriteAheadLog(dir, 1024).recover(replayed::addAll);
+
+        assertEquals(2, count);
+        assertEquals(Long.valueOf(1L), replayed.get(0).getClientConnectionId());
+        assertEquals(Integer.valueOf(EventType.ERROR_LOG.id), replayed.get(0).getType());
+        assertEquals("some text", replayed.get(0).getText());
+        assertEquals(new BigDecimal("1.5"), replayed.get(0).getNumericValue());
+        assertEquals(Long.valueOf(2L), replayed.get(1).getClientConnectionId());
+        assertNull(replayed.get(1).getText());
+        assertEquals(0, segmentFiles().length);
+    }
+
+    @Test
+    public void testAcknowledgedSegmentsAreDeleted() throws Exception {
+        final Path dir = this.folder.getRoot().toPath();
+        final ClientEventWriteAheadLog eventLog = new ClientEventWriteAheadLog(dir, 128);
+
+        final ClientEventWriteAheadLog.Entry entry1 = eventLog.append(event(1L, "text"));
+        final ClientEventWriteAheadLog.Entry entry2 = eventLog.append(event(2L, "text"));
+        assertSame(entry1.segment, entry2.segment);
+        assertEquals(1, segmentFiles().length);
+
+        // segment is full, next event rolls to a new segment
+        final ClientEventWriteAheadLog.Entry entry3 = eventLog.append(event(3L, "text"));
+        assertNotSame(entry1.segment, entry3.segment);
+        assertEquals(2, segmentFiles().length);
+
+        eventLog.acknowledge(Arrays.asList(entry2, entry1));
+        assertEquals(1, segmentFiles().length);
+
+        final List<ClientEventRecord> replayed = new ArrayList<>();
+        new ClientEventWriteAheadLog(dir, 128).recover(replayed::addAll);
+        assertEquals(1, replayed.size());
+        assertEquals(Long.valueOf(3L), replayed.get(0).getClientConnectionId());
+    }
+
+    @Test
+    public void testRestartAfterPartialAcknowledgeHasNoDuplicates() throws Exception {
+        final Path dir = this.folder.getRoot().toPath();
+        final ClientEventWriteAheadLog eventLog = new ClientEventWriteAheadLog(dir, 1024);
+
+        final ClientEventWriteAheadLog.Entry entry1 = eventLog.append(event(1L, "text"));
+        eventLog.append(event(2L, "text"));
+        final ClientEventWriteAheadLog.Entry entry3 = eventLog.append(event(3L, "text"));
+        eventLog.append(event(4L, "text"));
+
+        // the batch workers acknowledge in any order and the current segment is not sealed
+        eventLog.acknowledge(Arrays.asList(entry3));
+        eventLog.acknowledge(Arrays.asList(entry1));
+        eventLog.force();
+        assertEquals(1, segmentFiles().length);
+
+        // server restart replays only the events that are not acknowledged
+        final List<ClientEventRecord> replayed = new ArrayList<>();
+        assertEquals(2, new ClientEventWriteAheadLog(dir, 1024).recover(replayed::addAll));
+        assertEquals(Long.valueOf(2L), replayed.get(0).getClientConnectionId());
+        assertEquals(Long.valueOf(4L), replayed.get(1).getClientConnectionId());
+
+        // and a second restart replays nothing
+        replayed.clear();
+        assertEquals(0, new ClientEventWriteAheadLog(dir, 1024).recover(replayed::addAll));
+        assertTrue(replayed.isEmpty());
+    }
+
+    @Test
+    public void testNumericValueIsKeptExact() throws Exception {
+        final Path dir = this.folder.getRoot().toPath();
+        final ClientEventWriteAheadLog eventLog = new ClientEventWriteAheadLog(dir, 1024);
+
+        final BigDecimal numeric = new BigDecimal("0.1000000000000000000001");
+        final ClientEventRecord event = event(1L, null);
+        event.setNumericValue(numeric);
+        eventLog.append(event);
+        eventLog.force();
+
+        final List<ClientEventRecord> replayed = new ArrayList<>();
+        new ClientEventWriteAheadLog(dir, 1024).recover(replayed::addAll);
+        assertEquals(1, replayed.size());
+        assertEquals(numeric, replayed.get(0).getNumericValue());
+    }
+
+    @Test
+    public void testPartiallyWrittenEntryIsNotReplayed() throws Exception {
+        final Path dir = this.folder.getRoot().toPath();
+        final ClientEventWriteAheadLog eventLog = new ClientEventWriteAheadLog(dir, 1024);
+
+        eventLog.append(event(1L, "text"));
+        eventLog.append(event(2L, "text"));
+        eventLog.force();
+
+        // simulate a crash while the payload of a third entry was written but its length not
+        final Path segmentFile = segmentFiles()[0].toPath();
+        final byte[] bytes = Files.readAllBytes(segmentFile);
+        final int end = entryLength(bytes, 0) + entryLength(bytes, entryLength(bytes, 0));
+        for (int i = end + 4; i < end + 40; i++) {
+            bytes[i] = 1;
+        }
+        Files.write(segmentFile, bytes);
+
+        final List<ClientEventRecord> replayed = new ArrayList<>();
+        assertEquals(2, new ClientEventWriteAheadLog(dir, 1024).recover(replayed::addAll));
+        assertEquals(Long.valueOf(1L), replayed.get(0).getClientConnectionId());
+        assertEquals(Long.valueOf(2L), replayed.get(1).getClientConnectionId());
+        assertEquals(0, segmentFiles().length);
+    }
+
+    @Test
+    public void testCorruptEntryIsSkipped() throws Exception {
+        final Path dir = this.folder.getRoot().toPath();
+        final ClientEventWriteAheadLog eventLog = new ClientEventWriteAheadLog(dir, 1024);
+
+        eventLog.append(event(1L, "text"));
+        eventLog.append(event(2L, "text"));
+        eventLog.append(event(3L, "text"));
+        eventLog.force();
+
+        // corrupt the text of the second entry
+        final Path segmentFile = segmentFiles()[0].toPath();
+        final byte[] bytes = Files.readAllBytes(segmentFile);
+        final int second = entryLength(bytes, 0);
+        bytes[second + entryLength(bytes, second) - 1] = 'x';
+        Files.write(segmentFile, bytes);
+
+        final List<ClientEventRecord> replayed = new ArrayList<>();
+        assertEquals(2, new ClientEventWriteAheadLog(dir, 1024).recover(replayed::addAll));
+        assertEquals(Long.valueOf(1L), replayed.get(0).getClientConnectionId());
+        assertEquals(Long.valueOf(3L), replayed.get(1).getClientConnectionId());
+    }
+
+    private static int entryLength(final byte[] segment, final int position) {
+        return ByteBuffer.wrap(segment).getInt(position);
+    }
+
+    private File[] segmentFiles() {
+        return this.folder.getRoot().listFiles((d, name) -> name.endsWith(ClientEventWriteAheadLog.SEGMENT_SUFFIX));
+    }
+
+    private ClientEventRecord event(final Long connectionId, final String text) {
+        return new ClientEventRecord(
+                null,
+                connectionId,
+                EventType.ERROR_LOG.id,
+                1L,
+                2L,
+                new BigDecimal("1.5"),
+                text);
+    }
+
+}
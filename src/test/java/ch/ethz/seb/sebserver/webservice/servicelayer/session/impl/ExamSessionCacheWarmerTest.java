@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import ch.ethz.seb.sebserver.gbl.model.exam.Exam;
+import ch.ethz.seb.sebserver.gbl.model.exam.Exam.ExamStatus;
+import ch.ethz.seb.sebserver.gbl.model.exam.Exam.ExamType;
+import ch.ethz.seb.sebserver.gbl.util.Result;
+import ch.ethz.seb.sebserver.webservice.servicelayer.dao.IndicatorDAO;
+
+public class ExamSessionCacheWarmerTest {
+
+    @Test
+    public void testPrewarmAllStages() throws Exception {
+        final Exam exam = new Exam(
+                1L, 1L, 1L, "quiz1", "exam1", null, null, null, null, ExamType.MANAGED,
+                null, "owner", null, ExamStatus.RUNNING, false, null, true, null);
+
+        final ExamSessionCacheService examSessionCacheService = Mockito.mock(ExamSessionCacheService.class);
+        final IndicatorDAO indicatorDAO = Mockito.mock(IndicatorDAO.class);
+        Mockito.when(examSessionCacheService.getRunningExam(1L)).thenReturn(exam);
+        Mockito.when(examSessionCacheService.getDefaultSebConfigForExam(exam))
+                .thenThrow(new IllegalStateException("no default configuration"));
+        Mockito.when(indicatorDAO.allForExam(1L)).thenReturn(Result.of(Collections.emptyList()));
+
+        final ExamSessionCacheWarmer warmer = new ExamSessionCacheWarmer(
+                examSessionCacheService,
+                indicatorDAO,
+                Runnable::run);
+
+        final Map<String, Long> durations = warmer.prewarm(1L).get();
+
+        // a failing stage does not prevent the other stages
+        assertEquals(4, durations.size());
+        assertTrue(durations.containsKey(ExamSessionCacheWarmer.STAGE_CONFIG));
+        Mockito.verify(indicatorDAO).allForExam(1L);
+        Mockito.verify(examSessionCacheService).getClientEventCounts(1L);
+    }
+
+    @Test
+    public void testPrewarmNoneRunningExam() throws Exception {
+        final ExamSessionCacheService examSessionCacheService = Mockito.mock(ExamSessionCacheService.class);
+        final IndicatorDAO indicatorDAO = Mockito.mock(IndicatorDAO.class);
+
+        final ExamSessionCacheWarmer warmer = new ExamSessionCacheWarmer(
+                examSessionCacheService,
+                indicatorDAO,
+                Runnable::run);
+
+        final Map<String, Long> durations = warmer.prewarm(1L).get();
+
+        assertEquals(Collections.singleton(ExamSessionCacheWarmer.STAGE_EXAM), durations.keySet());
+        Mockito.verifyZeroInteractions(indicatorDAO);
+    }
+
+}
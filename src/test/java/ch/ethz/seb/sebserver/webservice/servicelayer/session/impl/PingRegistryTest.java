@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+
+import ch.ethz.seb.sebserver.gbl.model.session.ClientEvent.EventType;
+import ch.ethz.seb.sebserver.webservice.datalayer.batis.model.ClientEventRecord;
+
+public class PingRegistryTest {
+
+    @Test
+    public void testNotifyAndDrain() {
+        final PingRegistry registry = new PingRegistry(2);
+
+        assertFalse(registry.notifyPing("token1", 1, 2, 1));
+        assertTrue(registry.register("token1", pingRecord(1L, 10L)));
+        assertTrue(registry.drainDirty().isEmpty());
+
+        assertTrue(registry.notifyPing("token1", 100, 110, 5));
+        assertTrue(registry.notifyPing("token1", 200, 210, 6));
+
+        final List<ClientEventRecord> drained = new ArrayList<>(registry.drainDirty());
+        assertEquals(1, drained.size());
+        final ClientEventRecord record = drained.get(0);
+        assertEquals(Long.valueOf(1L), record.getId());
+        assertEquals(Long.valueOf(10L), record.getClientConnectionId());
+        assertEquals(Long.valueOf(200L), record.getClientTime());
+        assertEquals(Long.valueOf(210L), record.getServerTime());
+        assertEquals(6, record.getNumericValue().intValue());
+
+        // nothing changed since last drain
+        assertTrue(registry.drainDirty().isEmpty());
+    }
+
+    @Test
+    public void testCapacityAndRelease() {
+        final PingRegistry registry = new PingRegistry(2);
+
+        assertTrue(registry.register("token1", pingRecord(1L, 10L)));
+        assertTrue(registry.register("token2", pingRecord(2L, 20L)));
+        assertFalse(registry.register("token3", pingRecord(3L, 30L)));
+        assertEquals(2, registry.size());
+
+        registry.notifyPing("token1", 100, 110, 5);
+        final ClientEventRecord pending = registry.release("token1");
+        assertNotNull(pending);
+        assertEquals(Long.valueOf(1L), pending.getId());
+        assertNull(registry.release("token1"));
+        assertFalse(registry.notifyPing("token1", 200, 210, 6));
+
+        // the released slot is reused
+        assertTrue(registry.register("token3", pingRecord(3L, 30L)));
+        registry.notifyPing("token2", 100, 110, 5);
+        registry.notifyPing("token3", 100, 110, 5);
+        final Collection<ClientEventRecord> drained = registry.drainDirty();
+        assertEquals(2, drained.size());
+    }
+
+    @Test
+    public void testReuseOfReleasedSlot() {
+        final PingRegistry registry = new PingRegistry(1);
+
+        assertTrue(registry.register("token1", pingRecord(1L, 10L)));
+        registry.notifyPing("token1", 100, 110, 5);
+        assertNotNull(registry.release("token1"));
+
+        // the slot is reused by another connection that must not get pending values of the released one
+        assertTrue(registry.register("token2", pingRecord(2L, 20L)));
+        assertFalse(registry.notifyPing("token1", 200, 210, 6));
+        assertTrue(registry.drainDirty().isEmpty());
+
+        registry.notifyPing("token2", 300, 310, 7);
+        final List<ClientEventRecord> drained = new ArrayList<>(registry.drainDirty());
+        assertEquals(1, drained.size());
+        assertEquals(Long.valueOf(2L), drained.get(0).getId());
+        assertEquals(Long.valueOf(20L), drained.get(0).getClientConnectionId());
+        assertEquals(Long.valueOf(300L), drained.get(0).getClientTime());
+    }
+
+    @Test
+    public void testMarkDirtyAfterFailedFlush() {
+        final PingRegistry registry = new PingRegistry(2);
+
+        assertTrue(registry.register("token1", pingRecord(1L, 10L)));
+        assertTrue(registry.register("token2", pingRecord(2L, 20L)));
+        registry.notifyPing("token1", 100, 110, 5);
+        registry.notifyPing("token2", 100, 110, 5);
+
+        final Collection<ClientEventRecord> failed = registry.drainDirty();
+        assertEquals(2, failed.size());
+        assertTrue(registry.drainDirty().isEmpty());
+
+        // a released connection is dropped, the others are drained again with the latest values
+        registry.release("token2");
+        registry.notifyPing("token1", 200, 210, 6);
+        registry.markDirty(failed);
+
+        final List<ClientEventRecord> drained = new ArrayList<>(registry.drainDirty());
+        assertEquals(1, drained.size());
+        assertEquals(Long.valueOf(1L), drained.get(0).getId());
+        assertEquals(Long.valueOf(200L), drained.get(0).getClientTime());
+        assertTrue(registry.drainDirty().isEmpty());
+    }
+
+    private ClientEventRecord pingRecord(final Long id, final Long connectionId) {
+        return new ClientEventRecord(
+                id,
+                connectionId,
+                EventType.LAST_PING.id,
+                0L,
+                0L,
+                BigDecimal.ZERO,
+                null);
+    }
+
+}
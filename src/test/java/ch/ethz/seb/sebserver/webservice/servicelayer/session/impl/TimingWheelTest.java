@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2020 ETH Zürich, Educational Development and Technology (LET)
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package ch.ethz.seb.sebserver.webservice.servicelayer.session.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testExpiration() {
+        final TimingWheel<String> wheel = new TimingWheel<>(100, 8, 1000);
+        final List<String> expired = new ArrayList<>();
+
+        wheel.schedule("a", 1250);
+        wheel.schedule("b", 1500);
+        // more then one revolution ahead
+        wheel.schedule("c", 2250);
+        // already passed
+        wheel.schedule("d", 500);
+        assertEquals(4, wheel.size());
+
+        wheel.advance(1100, expired::add);
+        assertEquals(Arrays.asList("d"), expired);
+
+        expired.clear();
+        wheel.advance(1249, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(1300, expired::add);
+        assertEquals(Arrays.asList("a"), expired);
+
+        expired.clear();
+        wheel.advance(2000, expired::add);
+        assertEquals(Arrays.asList("b"), expired);
+        assertEquals(1, wheel.size());
+
+        expired.clear();
+        wheel.advance(2200, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(2300, expired::add);
+        assertEquals(Arrays.asList("c"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testRescheduleOnExpiration() {
+        final TimingWheel<String> wheel = new TimingWheel<>(100, 8, 1000);
+        final List<String> expired = new ArrayList<>();
+
+        wheel.schedule("a", 1200);
+        // the consumer reschedules to a passed deadline, this must expire with the next advance only
+        wheel.advance(1200, item -> {
+            expired.add(item);
+            wheel.schedule(item, 1100);
+        });
+        assertEquals(Arrays.asList("a"), expired);
+        assertEquals(1, wheel.size());
+
+        expired.clear();
+        wheel.advance(1300, expired::add);
+        assertEquals(Arrays.asList("a"), expired);
+    }
+
+    @Test
+    public void testAdvanceOverMoreThenOneRevolution() {
+        final TimingWheel<String> wheel = new TimingWheel<>(100, 8, 1000);
+        final List<String> expired = new ArrayList<>();
+
+        wheel.schedule("a", 1200);
+        wheel.schedule("b", 1900);
+        wheel.schedule("c", 5000);
+
+        wheel.advance(3000, expired::add);
+        assertEquals(2, expired.size());
+        assertTrue(expired.containsAll(Arrays.asList("a", "b")));
+        assertEquals(1, wheel.size());
+    }
+
+}
@@ -0,0 +1,104 @@
+-- -----------------------------------------------------
+-- Benchmark for the client_event queries on a synthetic table with 50M events
+--
+-- Run this script with the MariaDB client on a test database that is migrated to the current
+-- schema (never on a production database). The Sequence storage engine is used to generate the
+-- rows and is available by default since MariaDB 10.1. Loading the events takes a while.
+--
+-- To compare the index layouts, run the script once with the indexes of V1 (only eventConnectionRef_idx)
+-- and once with the indexes of V3 and compare the ANALYZE output (r_rows and r_total_time_ms).
+--
+--     mysql -u root -p SEBServer < client_event_benchmark.sql
+-- -----------------------------------------------------
+
+SET @exam_id = 900000;
+SET @connections = 2000;
+SET @events = 50000000;
+SET @start_time = 1577836800000;
+
+INSERT IGNORE INTO lms_setup VALUES
+    (@exam_id, 1, 'benchmark', 'MOCKUP', null, null, null, null, null, null, null, null, 1)
+    ;
+
+INSERT IGNORE INTO exam VALUES
+    (@exam_id, 1, @exam_id, 'benchmark', 'benchmark', null, 'MANAGED', null, null, 'RUNNING', 0, 0, null, 1, null, null, null)
+    ;
+
+INSERT INTO client_connection (institution_id, exam_id, status, connection_token, exam_user_session_id, client_address, virtual_client_address, creation_time)
+    SELECT 1, @exam_id, 'ESTABLISHED', CONCAT('benchmark-', seq), CONCAT('user-', seq), '127.0.0.1', null, @start_time
+    FROM seq_1_to_2000
+    ;
+
+SET @first_connection = (SELECT MIN(id) FROM client_connection WHERE exam_id = @exam_id);
+
+-- one LAST_PING per connection and 50M log events with 80% info, 10% debug, 7% warn and 3% error
+INSERT INTO client_event (client_connection_id, type, client_time, server_time, numeric_value, text)
+    SELECT @first_connection + seq - 1, 5, @start_time, @start_time, 0, null
+    FROM seq_1_to_2000
+    ;
+
+INSERT INTO client_event (client_connection_id, type, client_time, server_time, numeric_value, text)
+    SELECT
+        @first_connection + (seq MOD @connections),
+        CASE
+            WHEN seq MOD 100 < 80 THEN 2
+            WHEN seq MOD 100 < 90 THEN 1
+            WHEN seq MOD 100 < 97 THEN 3
+            ELSE 4
+        END,
+        @start_time + seq * 10,
+        @start_time + seq * 10,
+        null,
+        CONCAT('benchmark event ', seq)
+    FROM seq_1_to_50000000
+    ;
+
+ANALYZE TABLE client_event;
+
+-- log-level count seed of one exam (one grouped query for all connections)
+ANALYZE SELECT client_event.client_connection_id, client_event.type, COUNT(*)
+    FROM client_event JOIN client_connection ON client_event.client_connection_id = client_connection.id
+    WHERE client_connection.exam_id = @exam_id
+        AND client_event.type IN (3, 4)
+        AND client_event.server_time < @start_time + @events * 10
+    GROUP BY client_event.client_connection_id, client_event.type
+    ;
+
+-- log-level count of one connection
+ANALYZE SELECT COUNT(*) FROM client_event
+    WHERE client_connection_id = @first_connection
+        AND type IN (4)
+        AND server_time < @start_time + @events * 10
+    ;
+
+-- last ping of one connection
+ANALYZE SELECT MAX(server_time) FROM client_event
+    WHERE client_connection_id = @first_connection
+        AND type = 5
+        AND server_time < @start_time + @events * 10
+    ;
+
+-- client event log view of one exam within one hour
+ANALYZE SELECT client_event.id, client_event.type, client_event.server_time, client_event.text
+    FROM client_event LEFT JOIN client_connection ON client_event.client_connection_id = client_connection.id
+    WHERE client_connection.exam_id = @exam_id
+        AND client_event.type IN (0, 1, 2, 3, 4)
+        AND client_event.server_time >= @start_time + 3600000
+        AND client_event.server_time <= @start_time + 7200000
+    ;
+
+-- client event log view of one connection and type within one hour
+ANALYZE SELECT client_event.id, client_event.type, client_event.server_time, client_event.text
+    FROM client_event
+    WHERE client_event.client_connection_id = @first_connection
+        AND client_event.type = 4
+        AND client_event.type IN (0, 1, 2, 3, 4)
+        AND client_event.server_time >= @start_time + 3600000
+        AND client_event.server_time <= @start_time + 7200000
+    ;
+
+-- clean up
+DELETE FROM client_event WHERE client_connection_id IN (SELECT id FROM client_connection WHERE exam_id = @exam_id);
+DELETE FROM client_connection WHERE exam_id = @exam_id;
+DELETE FROM exam WHERE id = @exam_id;
+DELETE FROM lms_setup WHERE id = @exam_id;
@@ -7,8 +7,8 @@ INSERT IGNORE INTO seb_client_configuration VALUES
     ;
     
 INSERT IGNORE INTO exam VALUES
-    (1, 1, 1, 'quiz1', 'super-admin', 'super-admin', 'MANAGED', null, null, 'UP_COMING', 1, 0, null, 1),
-    (2, 1, 1, 'quiz6', 'super-admin', 'super-admin', 'MANAGED', null, null, 'RUNNING', 1, 0, null, 1)
+    (1, 1, 1, 'quiz1', 'super-admin', 'super-admin', 'MANAGED', null, null, 'UP_COMING', 1, 0, null, 1, 'Demo Quiz 1 (MOCKUP)', '2020-01-01 09:00:00', '2021-01-01 09:00:00'),
+    (2, 1, 1, 'quiz6', 'super-admin', 'super-admin', 'MANAGED', null, null, 'RUNNING', 1, 0, null, 1, 'Demo Quiz 6 (MOCKUP)', '2019-01-01 09:00:00', '2021-01-01 09:00:00')
     ;
     
 INSERT IGNORE INTO indicator VALUES
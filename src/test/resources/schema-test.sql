@@ -64,9 +64,14 @@ CREATE TABLE IF NOT EXISTS `exam` (
   `updating` INT(1) NOT NULL,
   `lastUpdate` VARCHAR(255) NULL,
   `active` INT(1) NOT NULL,
+  `quiz_name` VARCHAR(255) NULL,
+  `quiz_start_time` DATETIME NULL,
+  `quiz_end_time` DATETIME NULL,
   PRIMARY KEY (`id`),
   INDEX `lms_setup_key_idx` (`lms_setup_id` ASC),
   INDEX `institution_key_idx` (`institution_id` ASC),
+  INDEX `examQuizName_idx` (`quiz_name` ASC),
+  INDEX `examQuizStartTime_idx` (`quiz_start_time` ASC),
   CONSTRAINT `examLmsSetupRef`
     FOREIGN KEY (`lms_setup_id`)
     REFERENCES `lms_setup` (`id`)
@@ -126,7 +131,8 @@ CREATE TABLE IF NOT EXISTS `client_event` (
   `numeric_value` DECIMAL(10,4) NULL,
   `text` VARCHAR(512) NULL,
   PRIMARY KEY (`id`),
-  INDEX `eventConnectionRef_idx` (`client_connection_id` ASC),
+  INDEX `eventConnectionTypeTime_idx` (`client_connection_id` ASC, `type` ASC, `server_time` ASC),
+  INDEX `eventTypeServerTime_idx` (`type` ASC, `server_time` ASC),
   CONSTRAINT `eventConnectionRef`
     FOREIGN KEY (`client_connection_id`)
     REFERENCES `client_connection` (`id`)
@@ -536,4 +542,40 @@ CREATE TABLE IF NOT EXISTS `client_instruction` (
     REFERENCES `client_connection` (`connection_token`)
     ON DELETE NO ACTION
     ON UPDATE NO ACTION)
+;
+
+-- -----------------------------------------------------
+-- Table `quiz_data`
+-- -----------------------------------------------------
+DROP TABLE IF EXISTS `quiz_data` ;
+
+CREATE TABLE IF NOT EXISTS `quiz_data` (
+  `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+  `institution_id` BIGINT UNSIGNED NOT NULL,
+  `lms_setup_id` BIGINT UNSIGNED NOT NULL,
+  `lms_type` VARCHAR(45) NOT NULL,
+  `external_id` VARCHAR(255) NOT NULL,
+  `name` VARCHAR(255) NULL,
+  `description` MEDIUMTEXT NULL,
+  `start_time` DATETIME NULL,
+  `end_time` DATETIME NULL,
+  `start_url` VARCHAR(4000) NULL,
+  `additional_attributes` MEDIUMTEXT NULL,
+  `update_time` BIGINT UNSIGNED NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE INDEX `quizLmsSetupExternalId_idx` (`lms_setup_id` ASC, `external_id` ASC))
+;
+
+-- -----------------------------------------------------
+-- Table `quiz_index_sync`
+-- -----------------------------------------------------
+DROP TABLE IF EXISTS `quiz_index_sync` ;
+
+CREATE TABLE IF NOT EXISTS `quiz_index_sync` (
+  `lms_setup_id` BIGINT UNSIGNED NOT NULL,
+  `update_time` BIGINT UNSIGNED NULL,
+  `full_update_time` BIGINT UNSIGNED NULL,
+  `lock_owner` VARCHAR(255) NULL,
+  `lock_time` BIGINT UNSIGNED NOT NULL DEFAULT 0,
+  PRIMARY KEY (`lms_setup_id`))
 ;
\ No newline at end of file